@@ -0,0 +1,73 @@
+package org.hive2hive.processframework.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.processframework.decorators.AsyncComponent;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the submission throughput of {@link AsyncComponent}s on the shared default executor, both one at
+ * a time (round trip) and in batches awaited together.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AsyncComponentBenchmark {
+
+	private static final int BATCH_SIZE = 100;
+
+	/**
+	 * Submission and completion of a single component, i.e., the hand-off latency to a pooled thread.
+	 */
+	@Benchmark
+	public Void roundTrip() throws InvalidProcessStateException, ProcessExecutionException,
+			InterruptedException, ExecutionException {
+		return new AsyncComponent<Void>(new NoOpStep()).execute().get();
+	}
+
+	/**
+	 * Submission of a batch of components before awaiting them.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public int batch() throws InvalidProcessStateException, ProcessExecutionException, InterruptedException,
+			ExecutionException {
+		List<Future<Void>> futures = new ArrayList<Future<Void>>(BATCH_SIZE);
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			futures.add(new AsyncComponent<Void>(new NoOpStep()).execute());
+		}
+		for (Future<Void> future : futures) {
+			future.get();
+		}
+		return futures.size();
+	}
+
+	/**
+	 * Round trips from several submitting threads, i.e., contention on the shared executor.
+	 */
+	@Benchmark
+	@Threads(4)
+	public Void contendedRoundTrip() throws InvalidProcessStateException, ProcessExecutionException,
+			InterruptedException, ExecutionException {
+		return new AsyncComponent<Void>(new NoOpStep()).execute().get();
+	}
+}
@@ -0,0 +1,102 @@
+package org.hive2hive.processframework.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.interfaces.IProcessComponentListener;
+import org.hive2hive.processframework.interfaces.IProcessEventArgs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of notifying 0 to N {@link IProcessComponentListener}s. Each execute/rollback cycle
+ * dispatches four events (executing, succeeded, rollbacking, rolled back) to every listener.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ListenerDispatchBenchmark {
+
+	@Param({ "0", "1", "4", "16", "64" })
+	public int listeners;
+
+	private NoOpStep step;
+
+	@Setup
+	public void setup(Blackhole blackhole) {
+		step = new NoOpStep();
+		for (int i = 0; i < listeners; i++) {
+			step.attachListener(new ConsumingListener(blackhole));
+		}
+	}
+
+	@Benchmark
+	public NoOpStep executeAndRollback() throws InvalidProcessStateException, ProcessExecutionException,
+			ProcessRollbackException {
+		step.execute();
+		step.rollback();
+		return step;
+	}
+
+	/**
+	 * Listener that hands every event to the {@link Blackhole}, such that the dispatch cannot be eliminated.
+	 */
+	private static class ConsumingListener implements IProcessComponentListener {
+
+		private final Blackhole blackhole;
+
+		private ConsumingListener(Blackhole blackhole) {
+			this.blackhole = blackhole;
+		}
+
+		@Override
+		public void onExecuting(IProcessEventArgs args) {
+			blackhole.consume(args);
+		}
+
+		@Override
+		public void onRollbacking(IProcessEventArgs args) {
+			blackhole.consume(args);
+		}
+
+		@Override
+		public void onPaused(IProcessEventArgs args) {
+			blackhole.consume(args);
+		}
+
+		@Override
+		public void onExecutionSucceeded(IProcessEventArgs args) {
+			blackhole.consume(args);
+		}
+
+		@Override
+		public void onExecutionFailed(IProcessEventArgs args) {
+			blackhole.consume(args);
+		}
+
+		@Override
+		public void onRollbackSucceeded(IProcessEventArgs args) {
+			blackhole.consume(args);
+		}
+
+		@Override
+		public void onRollbackFailed(IProcessEventArgs args) {
+			blackhole.consume(args);
+		}
+	}
+}
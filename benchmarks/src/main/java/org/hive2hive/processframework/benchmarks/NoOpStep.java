@@ -0,0 +1,24 @@
+package org.hive2hive.processframework.benchmarks;
+
+import org.hive2hive.processframework.ProcessStep;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+
+/**
+ * {@link ProcessStep} without any work, such that measurements reflect the framework overhead only.
+ */
+public class NoOpStep extends ProcessStep<Void> {
+
+	public NoOpStep() {
+		this(true);
+	}
+
+	public NoOpStep(boolean requiresRollback) {
+		setRequiresRollback(requiresRollback);
+	}
+
+	@Override
+	protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+		return null;
+	}
+}
@@ -0,0 +1,86 @@
+package org.hive2hive.processframework.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.processframework.ProcessStep;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the latency of a pause/resume cycle. The step pauses and resumes itself during its execution,
+ * thus the difference to the {@code pausing = false} baseline is the cost of the pause notification, the
+ * resume notification and the re-entrance into the execution.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PauseResumeBenchmark {
+
+	@Param({ "true", "false" })
+	public boolean pausing;
+
+	private SelfPausingStep step;
+
+	@Setup
+	public void setup() {
+		step = new SelfPausingStep(pausing);
+	}
+
+	@Benchmark
+	public SelfPausingStep executeAndRollback() throws InvalidProcessStateException,
+			ProcessExecutionException, ProcessRollbackException {
+		step.reset();
+		step.execute();
+		step.rollback();
+		return step;
+	}
+
+	/**
+	 * Step that pauses and resumes itself once per execution.
+	 */
+	public static class SelfPausingStep extends ProcessStep<Void> {
+
+		private final boolean pausing;
+		private boolean paused;
+
+		public SelfPausingStep(boolean pausing) {
+			this.pausing = pausing;
+			setRequiresRollback(true);
+		}
+
+		@Override
+		protected void doReset() throws InvalidProcessStateException {
+			paused = false;
+		}
+
+		@Override
+		protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+			if (pausing && !paused) {
+				paused = true;
+				pause();
+				try {
+					// continues the execution within this thread
+					resume();
+				} catch (ProcessRollbackException ex) {
+					throw new ProcessExecutionException(this, ex);
+				}
+			}
+			return null;
+		}
+	}
+}
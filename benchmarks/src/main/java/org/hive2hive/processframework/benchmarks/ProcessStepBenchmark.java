@@ -0,0 +1,66 @@
+package org.hive2hive.processframework.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the per-step overhead of {@code ProcessStep.execute()}, i.e., state transitions, listener and
+ * monitor bookkeeping and logging guards around an empty {@code doExecute()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProcessStepBenchmark {
+
+	private NoOpStep reused;
+
+	@Setup
+	public void setup() {
+		reused = new NoOpStep();
+	}
+
+	/**
+	 * Baseline: the allocation of a step without executing it.
+	 */
+	@Benchmark
+	public NoOpStep create() {
+		return new NoOpStep();
+	}
+
+	/**
+	 * Allocation and execution of a fresh step.
+	 */
+	@Benchmark
+	public NoOpStep createAndExecute() throws InvalidProcessStateException, ProcessExecutionException {
+		NoOpStep step = new NoOpStep();
+		step.execute();
+		return step;
+	}
+
+	/**
+	 * Execution and rollback of the same step, which makes it executable again.
+	 */
+	@Benchmark
+	public NoOpStep executeAndRollback() throws InvalidProcessStateException, ProcessExecutionException,
+			ProcessRollbackException {
+		reused.execute();
+		reused.rollback();
+		return reused;
+	}
+}
@@ -0,0 +1,56 @@
+package org.hive2hive.processframework.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.processframework.composites.SyncProcess;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the rollback of an executed {@link SyncProcess}, whether all or none of its children require a
+ * rollback. The process is built and executed before each invocation, outside of the measurement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RollbackBenchmark {
+
+	@Param({ "10", "1000", "100000" })
+	public int children;
+
+	@Param({ "true", "false" })
+	public boolean requiresRollback;
+
+	private SyncProcess process;
+
+	@Setup(Level.Invocation)
+	public void setup() throws InvalidProcessStateException, ProcessExecutionException {
+		process = new SyncProcess();
+		for (int i = 0; i < children; i++) {
+			process.add(new NoOpStep(requiresRollback));
+		}
+		process.execute();
+	}
+
+	@Benchmark
+	public SyncProcess rollback() throws InvalidProcessStateException, ProcessRollbackException {
+		process.rollback();
+		return process;
+	}
+}
@@ -0,0 +1,51 @@
+package org.hive2hive.processframework.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.processframework.composites.SyncProcess;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how the execution of a {@link SyncProcess} scales with the number of its children. A fresh
+ * process is built before each invocation, since an executed {@code SyncProcess} cannot be executed again.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SyncProcessBenchmark {
+
+	@Param({ "10", "100", "1000", "10000", "100000" })
+	public int children;
+
+	private SyncProcess process;
+
+	@Setup(Level.Invocation)
+	public void setup() {
+		process = new SyncProcess();
+		for (int i = 0; i < children; i++) {
+			process.add(new NoOpStep());
+		}
+	}
+
+	@Benchmark
+	public SyncProcess execute() throws InvalidProcessStateException, ProcessExecutionException {
+		process.execute();
+		return process;
+	}
+}
@@ -0,0 +1,61 @@
+package org.hive2hive.processframework.benchmarks.load;
+
+import java.util.Random;
+
+/**
+ * Distributions of the simulated work duration of a {@link SimulatedStep}.
+ */
+public enum LatencyDistribution {
+
+	/**
+	 * Every step takes exactly the mean duration.
+	 */
+	CONSTANT {
+
+		@Override
+		public long sample(long meanNanos, Random random) {
+			return meanNanos;
+		}
+	},
+	/**
+	 * Durations are uniformly distributed between 0 and twice the mean.
+	 */
+	UNIFORM {
+
+		@Override
+		public long sample(long meanNanos, Random random) {
+			return (long) (random.nextDouble() * 2 * meanNanos);
+		}
+	},
+	/**
+	 * Durations are exponentially distributed, i.e., mostly short with occasional long ones.
+	 */
+	EXPONENTIAL {
+
+		@Override
+		public long sample(long meanNanos, Random random) {
+			return (long) (-Math.log(1.0 - random.nextDouble()) * meanNanos);
+		}
+	},
+	/**
+	 * Durations are log-normally distributed (sigma 1), i.e., a heavy tail as typical for network calls.
+	 */
+	LOG_NORMAL {
+
+		@Override
+		public long sample(long meanNanos, Random random) {
+			// mean of a log-normal distribution is exp(mu + sigma^2 / 2)
+			double mu = Math.log(Math.max(1, meanNanos)) - 0.5;
+			return (long) Math.exp(mu + random.nextGaussian());
+		}
+	};
+
+	/**
+	 * Draws a duration from this distribution.
+	 * 
+	 * @param meanNanos The mean duration in nanoseconds.
+	 * @param random The source of randomness.
+	 * @return The duration in nanoseconds.
+	 */
+	public abstract long sample(long meanNanos, Random random);
+}
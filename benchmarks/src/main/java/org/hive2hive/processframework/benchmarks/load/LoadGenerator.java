@@ -0,0 +1,219 @@
+package org.hive2hive.processframework.benchmarks.load;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.hive2hive.processframework.composites.SyncProcess;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.monitoring.LatencyHistogram;
+
+/**
+ * Soak harness that executes random process trees (see {@link RandomProcessTreeBuilder}) at a target rate
+ * and periodically reports throughput, latency percentiles, failure and rollback rates, thread count and
+ * heap usage. Failed runs are rolled back, as an application would do.<br>
+ * Latencies are measured from the <i>scheduled</i> start of a run, such that a saturated engine shows up as
+ * growing latency instead of silently lowering the offered load (coordinated omission). Runs that would
+ * exceed the in-flight limit are dropped and reported.<br>
+ * <br>
+ * <b>Usage:</b>
+ * 
+ * <pre>
+ * java -cp target/benchmarks.jar org.hive2hive.processframework.benchmarks.load.LoadGenerator \
+ *     --depth=4 --fan-out=5 --async-ratio=0.3 --rate=500 --duration-s=600
+ * </pre>
+ */
+public class LoadGenerator {
+
+	private final LoadProfile profile;
+	private final PrintStream out;
+
+	private final AtomicReference<LatencyHistogram> intervalLatency = new AtomicReference<LatencyHistogram>(
+			new LatencyHistogram());
+	private final LatencyHistogram totalLatency = new LatencyHistogram();
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicLong completed = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong rolledBack = new AtomicLong();
+	private final AtomicLong rollbackFailed = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+
+	private final ThreadLocal<RandomProcessTreeBuilder> builders;
+
+	public LoadGenerator(final LoadProfile profile, PrintStream out) {
+		this.profile = profile;
+		this.out = out;
+
+		// each worker thread derives its own reproducible random sequence
+		final AtomicLong seeds = new AtomicLong(profile.getSeed());
+		this.builders = new ThreadLocal<RandomProcessTreeBuilder>() {
+
+			@Override
+			protected RandomProcessTreeBuilder initialValue() {
+				return new RandomProcessTreeBuilder(profile, new Random(seeds.getAndIncrement()));
+			}
+		};
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		LoadProfile profile;
+		try {
+			profile = LoadProfile.parse(args);
+		} catch (IllegalArgumentException ex) {
+			System.err.println(ex.getMessage());
+			System.err.println(LoadProfile.usage());
+			System.exit(1);
+			return;
+		}
+		new LoadGenerator(profile, System.out).run();
+		System.exit(0);
+	}
+
+	/**
+	 * Applies the load for the configured duration and prints a report line per interval as well as a
+	 * summary.
+	 * 
+	 * @throws InterruptedException If interrupted while applying the load.
+	 */
+	public void run() throws InterruptedException {
+		out.println(String.format("Load profile: %s", profile));
+		out.println(String.format("%8s %10s %10s %10s %10s %10s %8s %8s %8s %8s %8s %8s %8s", "time[s]",
+				"runs/s", "p50[ms]", "p90[ms]", "p99[ms]", "max[ms]", "fail[%]", "rb[%]", "rbFail", "dropped",
+				"inFlight", "threads", "heap[MB]"));
+
+		ExecutorService workers = new ThreadPoolExecutor(profile.getConcurrency(), profile.getConcurrency(), 0,
+				TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>());
+
+		long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / profile.getRate());
+		long reportNanos = TimeUnit.SECONDS.toNanos(profile.getReportIntervalSeconds());
+		long startNanos = System.nanoTime();
+		long endNanos = startNanos + TimeUnit.SECONDS.toNanos(profile.getDurationSeconds());
+		long nextRun = startNanos;
+		long nextReport = startNanos + reportNanos;
+		long lastReport = startNanos;
+		long lastCompleted = 0;
+
+		while (nextRun < endNanos) {
+			long now = System.nanoTime();
+			if (now >= nextReport) {
+				lastCompleted = report(now - startNanos, now - lastReport, lastCompleted);
+				lastReport = now;
+				nextReport += reportNanos;
+			}
+			if (now < nextRun) {
+				LockSupport.parkNanos(Math.min(nextRun, nextReport) - now);
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+				continue;
+			}
+
+			if (inFlight.incrementAndGet() > profile.getMaxInFlight()) {
+				inFlight.decrementAndGet();
+				dropped.incrementAndGet();
+			} else {
+				workers.execute(new Run(nextRun));
+			}
+			nextRun += intervalNanos;
+		}
+
+		workers.shutdown();
+		workers.awaitTermination(1, TimeUnit.MINUTES);
+		long now = System.nanoTime();
+		report(now - startNanos, now - lastReport, lastCompleted);
+		summary(now - startNanos);
+	}
+
+	private long report(long elapsedNanos, long intervalNanos, long lastCompleted) {
+		LatencyHistogram latency = intervalLatency.getAndSet(new LatencyHistogram());
+		long totalCompleted = completed.get();
+
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		long heapMb = memory.getHeapMemoryUsage().getUsed() / (1024 * 1024);
+
+		out.println(String.format("%8.1f %10.1f %10.3f %10.3f %10.3f %10.3f %8.2f %8.2f %8s %8s %8s %8s %8s",
+				elapsedNanos / 1e9, (totalCompleted - lastCompleted) / (intervalNanos / 1e9),
+				toMillis(latency.getValueAtPercentile(50)), toMillis(latency.getValueAtPercentile(90)),
+				toMillis(latency.getValueAtPercentile(99)), toMillis(latency.getMax()),
+				percent(failed.get(), totalCompleted), percent(rolledBack.get(), totalCompleted),
+				rollbackFailed.get(), dropped.get(), inFlight.get(), threads.getThreadCount(), heapMb));
+		return totalCompleted;
+	}
+
+	private void summary(long elapsedNanos) {
+		long runs = completed.get();
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		out.println(String.format("Summary: %s runs in %.1fs (%.1f runs/s), %s failed, %s rolled back, "
+				+ "%s rollbacks failed, %s dropped, peak threads %s", runs, elapsedNanos / 1e9, runs
+				/ (elapsedNanos / 1e9), failed.get(), rolledBack.get(), rollbackFailed.get(), dropped.get(),
+				threads.getPeakThreadCount()));
+		out.println(String.format("Latency [ms]: p50=%.3f, p90=%.3f, p99=%.3f, p99.9=%.3f, max=%.3f, mean=%.3f",
+				toMillis(totalLatency.getValueAtPercentile(50)), toMillis(totalLatency.getValueAtPercentile(90)),
+				toMillis(totalLatency.getValueAtPercentile(99)), toMillis(totalLatency.getValueAtPercentile(99.9)),
+				toMillis(totalLatency.getMax()), totalLatency.getMean() / 1e6));
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / 1e6;
+	}
+
+	private static double percent(long part, long total) {
+		return total == 0 ? 0.0 : 100.0 * part / total;
+	}
+
+	/**
+	 * A single process run: builds a random tree, executes it and rolls it back upon failure.
+	 */
+	private class Run implements Runnable {
+
+		private final long scheduledNanos;
+
+		private Run(long scheduledNanos) {
+			this.scheduledNanos = scheduledNanos;
+		}
+
+		@Override
+		public void run() {
+			try {
+				SyncProcess process = builders.get().build();
+				try {
+					process.execute();
+				} catch (ProcessExecutionException ex) {
+					failed.incrementAndGet();
+					rollback(process);
+				} catch (InvalidProcessStateException ex) {
+					failed.incrementAndGet();
+				}
+			} finally {
+				long latency = System.nanoTime() - scheduledNanos;
+				intervalLatency.get().record(latency);
+				totalLatency.record(latency);
+				completed.incrementAndGet();
+				inFlight.decrementAndGet();
+			}
+		}
+
+		private void rollback(SyncProcess process) {
+			try {
+				process.rollback();
+				rolledBack.incrementAndGet();
+			} catch (ProcessRollbackException | InvalidProcessStateException ex) {
+				rollbackFailed.incrementAndGet();
+			}
+		}
+	}
+}
@@ -0,0 +1,186 @@
+package org.hive2hive.processframework.benchmarks.load;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration of a {@link LoadGenerator} run: the shape of the generated process trees and the load
+ * applied to the engine. Can be parsed from command line arguments of the form {@code --name=value}.
+ */
+public class LoadProfile {
+
+	// the runs are scheduled at nanosecond granularity
+	private static final double MAX_RATE = TimeUnit.SECONDS.toNanos(1);
+
+	// tree shape
+	private int depth = 3;
+	private int fanOut = 4;
+	private double asyncRatio = 0.2;
+	private double failureProbability = 0.001;
+	private LatencyDistribution latencyDistribution = LatencyDistribution.EXPONENTIAL;
+	private long meanLatencyMicros = 100;
+
+	// load
+	private double rate = 100;
+	private long durationSeconds = 60;
+	private long reportIntervalSeconds = 5;
+	private int concurrency = 16;
+	private int maxInFlight = 1000;
+	private long seed = System.nanoTime();
+
+	/**
+	 * Parses the provided command line arguments of the form {@code --name=value}.
+	 * 
+	 * @param args The command line arguments.
+	 * @return The parsed {@code LoadProfile}, using defaults for all missing arguments.
+	 * @throws IllegalArgumentException If an argument is unknown or invalid.
+	 */
+	public static LoadProfile parse(String[] args) {
+		LoadProfile profile = new LoadProfile();
+		for (String arg : args) {
+			int separator = arg.indexOf('=');
+			if (!arg.startsWith("--") || separator < 0) {
+				throw new IllegalArgumentException(String.format("Invalid argument '%s'.", arg));
+			}
+			String name = arg.substring(2, separator);
+			String value = arg.substring(separator + 1);
+			try {
+				profile.set(name, value);
+			} catch (NumberFormatException ex) {
+				throw new IllegalArgumentException(String.format("Invalid value of argument '%s'.", arg), ex);
+			}
+		}
+		profile.validate();
+		return profile;
+	}
+
+	/**
+	 * Gets the usage description of all supported arguments.
+	 * 
+	 * @return The usage description.
+	 */
+	public static String usage() {
+		LoadProfile defaults = new LoadProfile();
+		StringBuilder sb = new StringBuilder("Arguments (--name=value):");
+		sb.append(String.format("%n  --depth=%s                maximum depth of the process trees", defaults.depth));
+		sb.append(String.format("%n  --fan-out=%s              maximum children per composite", defaults.fanOut));
+		sb.append(String.format("%n  --async-ratio=%s        share of children wrapped in an AsyncComponent",
+				defaults.asyncRatio));
+		sb.append(String.format("%n  --failure-probability=%s share of steps failing their execution",
+				defaults.failureProbability));
+		sb.append(String.format("%n  --latency=%s    step latency distribution (CONSTANT, UNIFORM, "
+				+ "EXPONENTIAL, LOG_NORMAL)", defaults.latencyDistribution));
+		sb.append(String.format("%n  --mean-latency-us=%s      mean step latency in microseconds",
+				defaults.meanLatencyMicros));
+		sb.append(String.format("%n  --rate=%s                target process runs per second", defaults.rate));
+		sb.append(String.format("%n  --duration-s=%s           duration of the run in seconds", defaults.durationSeconds));
+		sb.append(String.format("%n  --report-interval-s=%s     seconds between two reports",
+				defaults.reportIntervalSeconds));
+		sb.append(String.format("%n  --concurrency=%s          threads executing process runs", defaults.concurrency));
+		sb.append(String.format("%n  --max-in-flight=%s      runs in flight before new runs are dropped",
+				defaults.maxInFlight));
+		sb.append(String.format("%n  --seed=<random>          seed of the tree generation"));
+		return sb.toString();
+	}
+
+	private void set(String name, String value) {
+		if ("depth".equals(name)) {
+			depth = Integer.parseInt(value);
+		} else if ("fan-out".equals(name)) {
+			fanOut = Integer.parseInt(value);
+		} else if ("async-ratio".equals(name)) {
+			asyncRatio = Double.parseDouble(value);
+		} else if ("failure-probability".equals(name)) {
+			failureProbability = Double.parseDouble(value);
+		} else if ("latency".equals(name)) {
+			latencyDistribution = LatencyDistribution.valueOf(value.toUpperCase());
+		} else if ("mean-latency-us".equals(name)) {
+			meanLatencyMicros = Long.parseLong(value);
+		} else if ("rate".equals(name)) {
+			rate = Double.parseDouble(value);
+		} else if ("duration-s".equals(name)) {
+			durationSeconds = Long.parseLong(value);
+		} else if ("report-interval-s".equals(name)) {
+			reportIntervalSeconds = Long.parseLong(value);
+		} else if ("concurrency".equals(name)) {
+			concurrency = Integer.parseInt(value);
+		} else if ("max-in-flight".equals(name)) {
+			maxInFlight = Integer.parseInt(value);
+		} else if ("seed".equals(name)) {
+			seed = Long.parseLong(value);
+		} else {
+			throw new IllegalArgumentException(String.format("Unknown argument '%s'.", name));
+		}
+	}
+
+	private void validate() {
+		if (depth < 1 || fanOut < 1) {
+			throw new IllegalArgumentException("Depth and fan-out must be at least 1.");
+		}
+		if (asyncRatio < 0 || asyncRatio > 1 || failureProbability < 0 || failureProbability > 1) {
+			throw new IllegalArgumentException("Ratios and probabilities must be within [0, 1].");
+		}
+		if (!(rate > 0 && rate <= MAX_RATE)) {
+			throw new IllegalArgumentException(String.format("Rate must be within (0, %.0f].", MAX_RATE));
+		}
+		if (durationSeconds <= 0 || reportIntervalSeconds <= 0 || concurrency < 1
+				|| maxInFlight < 1 || meanLatencyMicros < 0) {
+			throw new IllegalArgumentException("Durations, concurrency and in-flight limit must be positive.");
+		}
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	public int getFanOut() {
+		return fanOut;
+	}
+
+	public double getAsyncRatio() {
+		return asyncRatio;
+	}
+
+	public double getFailureProbability() {
+		return failureProbability;
+	}
+
+	public LatencyDistribution getLatencyDistribution() {
+		return latencyDistribution;
+	}
+
+	public long getMeanLatencyNanos() {
+		return TimeUnit.MICROSECONDS.toNanos(meanLatencyMicros);
+	}
+
+	public double getRate() {
+		return rate;
+	}
+
+	public long getDurationSeconds() {
+		return durationSeconds;
+	}
+
+	public long getReportIntervalSeconds() {
+		return reportIntervalSeconds;
+	}
+
+	public int getConcurrency() {
+		return concurrency;
+	}
+
+	public int getMaxInFlight() {
+		return maxInFlight;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("depth=%s, fan-out=%s, async-ratio=%s, failure-probability=%s, latency=%s, "
+				+ "mean-latency-us=%s, rate=%s/s, duration-s=%s, concurrency=%s, max-in-flight=%s, seed=%s",
+				depth, fanOut, asyncRatio, failureProbability, latencyDistribution, meanLatencyMicros, rate,
+				durationSeconds, concurrency, maxInFlight, seed);
+	}
+}
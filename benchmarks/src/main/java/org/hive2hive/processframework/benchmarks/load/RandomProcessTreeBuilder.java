@@ -0,0 +1,59 @@
+package org.hive2hive.processframework.benchmarks.load;
+
+import java.util.Random;
+
+import org.hive2hive.processframework.composites.SyncProcess;
+import org.hive2hive.processframework.decorators.AsyncComponent;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+
+/**
+ * Builds random process trees of the shape defined by a {@link LoadProfile}. The root is a
+ * {@link SyncProcess} with 1 to fan-out children. Above the maximum depth, each child is either another
+ * {@code SyncProcess} or a {@link SimulatedStep}, with equal probability. Any child is wrapped in an
+ * {@link AsyncComponent} with the configured async ratio.<br>
+ * <b>Note:</b> Not thread-safe, use one builder per thread.
+ */
+public class RandomProcessTreeBuilder {
+
+	private final LoadProfile profile;
+	private final Random random;
+
+	public RandomProcessTreeBuilder(LoadProfile profile, Random random) {
+		this.profile = profile;
+		this.random = random;
+	}
+
+	/**
+	 * Builds a new random process tree.
+	 * 
+	 * @return The root of the process tree.
+	 */
+	public SyncProcess build() {
+		return buildComposite(1);
+	}
+
+	private SyncProcess buildComposite(int depth) {
+		SyncProcess composite = new SyncProcess();
+		int children = 1 + random.nextInt(profile.getFanOut());
+		for (int i = 0; i < children; i++) {
+			IProcessComponent<Void> child;
+			if (depth < profile.getDepth() && random.nextBoolean()) {
+				child = buildComposite(depth + 1);
+			} else {
+				child = buildStep();
+			}
+			if (random.nextDouble() < profile.getAsyncRatio()) {
+				composite.add(new AsyncComponent<Void>(child));
+			} else {
+				composite.add(child);
+			}
+		}
+		return composite;
+	}
+
+	private SimulatedStep buildStep() {
+		long duration = profile.getLatencyDistribution().sample(profile.getMeanLatencyNanos(), random);
+		boolean failing = random.nextDouble() < profile.getFailureProbability();
+		return new SimulatedStep(duration, failing);
+	}
+}
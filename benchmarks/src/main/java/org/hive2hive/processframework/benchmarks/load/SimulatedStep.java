@@ -0,0 +1,51 @@
+package org.hive2hive.processframework.benchmarks.load;
+
+import java.util.concurrent.locks.LockSupport;
+
+import org.hive2hive.processframework.ProcessStep;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+
+/**
+ * {@link ProcessStep} that simulates work by parking its thread and optionally fails its execution.
+ * Rolling back takes as long as executing.
+ */
+public class SimulatedStep extends ProcessStep<Void> {
+
+	private final long durationNanos;
+	private final boolean failing;
+
+	public SimulatedStep(long durationNanos, boolean failing) {
+		this.durationNanos = durationNanos;
+		this.failing = failing;
+		setRequiresRollback(true);
+	}
+
+	@Override
+	protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+		work();
+		if (failing) {
+			throw new ProcessExecutionException(this, "Simulated failure.");
+		}
+		return null;
+	}
+
+	@Override
+	protected Void doRollback() throws InvalidProcessStateException, ProcessRollbackException {
+		work();
+		return null;
+	}
+
+	private void work() {
+		if (durationNanos <= 0) {
+			return;
+		}
+		long deadline = System.nanoTime() + durationNanos;
+		long remaining = durationNanos;
+		while (remaining > 0) {
+			LockSupport.parkNanos(remaining);
+			remaining = deadline - System.nanoTime();
+		}
+	}
+}
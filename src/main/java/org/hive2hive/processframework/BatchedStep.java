@@ -0,0 +1,131 @@
+package org.hive2hive.processframework;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.hive2hive.processframework.concurrent.BatchItem;
+import org.hive2hive.processframework.concurrent.Batcher;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.interfaces.IBatchHandler;
+
+/**
+ * A {@link ProcessStep} that executes a single item as part of a bulk operation. The item is submitted to
+ * a shared {@link Batcher} and the step completes with the item's own result or failure once its batch has
+ * been executed. Its rollback compensates the item alone (see {@link IBatchHandler#compensate}).<br>
+ * The step awaits its batch until the {@link Deadline} of the step expires. If the step is cancelled or its
+ * deadline expires before the batch is flushed, the item is withdrawn from the batch. If the batch has been
+ * flushed already, the item is executed nevertheless and compensated upon the rollback of the step.<br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * // shared by all process instances
+ * Batcher&lt;Entry, Void&gt; puts = new Batcher&lt;Entry, Void&gt;(new BulkPutHandler(), 100, 5, TimeUnit.MILLISECONDS);
+ * ...
+ * process.add(new BatchedStep&lt;Entry, Void&gt;(puts, new Entry(key, value)));
+ * </pre>
+ *
+ * @param <I> The type of the item.
+ * @param <R> The type of the result computed by this {@code BatchedStep}.
+ */
+public class BatchedStep<I, R> extends ProcessStep<R> {
+
+	private final Batcher<I, R> batcher;
+	private final I item;
+
+	// the executed item, null if there is nothing to compensate
+	private volatile BatchItem<I, R> executed;
+
+	/**
+	 * Creates a {@code BatchedStep} that executes the provided item in the batches of the provided
+	 * {@link Batcher}.
+	 *
+	 * @param batcher The {@link Batcher} to be used.
+	 * @param item The item to be executed.
+	 */
+	public BatchedStep(Batcher<I, R> batcher, I item) {
+		if (batcher == null) {
+			throw new IllegalArgumentException("Batcher must not be null.");
+		}
+		this.batcher = batcher;
+		this.item = item;
+		setRequiresRollback(true);
+	}
+
+	@Override
+	protected R doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+
+		executed = null;
+		BatchItem<I, R> batchItem = batcher.submit(item);
+		try {
+			Deadline deadline = getDeadline();
+			R result = deadline == null ? batchItem.get() : batchItem.get(deadline.remaining(TimeUnit.NANOSECONDS),
+					TimeUnit.NANOSECONDS);
+			executed = batchItem;
+			return result;
+		} catch (ExecutionException ex) {
+			throw new ProcessExecutionException(this, ex.getCause());
+		} catch (InterruptedException ex) {
+			withdraw(batchItem);
+			throw new ProcessExecutionException(this, ex);
+		} catch (TimeoutException ex) {
+			withdraw(batchItem);
+			throw new ProcessExecutionException(this, ex, "The deadline has expired while awaiting the batch.");
+		}
+	}
+
+	@Override
+	protected R doRollback() throws InvalidProcessStateException, ProcessRollbackException {
+
+		BatchItem<I, R> batchItem = executed;
+		if (batchItem == null) {
+			return null;
+		}
+
+		R result;
+		try {
+			// awaits an item that has been abandoned while its batch was executed
+			result = batchItem.get();
+		} catch (ExecutionException ex) {
+			// the item has failed, nothing to compensate
+			executed = null;
+			return null;
+		} catch (InterruptedException ex) {
+			throw new ProcessRollbackException(this, ex);
+		}
+
+		try {
+			batcher.getHandler().compensate(item, result);
+		} catch (Exception ex) {
+			throw new ProcessRollbackException(this, ex);
+		}
+		executed = null;
+		return null;
+	}
+
+	@Override
+	protected void doReset() throws InvalidProcessStateException {
+		executed = null;
+	}
+
+	public Batcher<I, R> getBatcher() {
+		return batcher;
+	}
+
+	public I getItem() {
+		return item;
+	}
+
+	/**
+	 * Withdraws the provided item from its batch. If the batch has been flushed already, the item is
+	 * remembered for compensation.
+	 */
+	private void withdraw(BatchItem<I, R> batchItem) {
+		if (!batchItem.withdraw()) {
+			executed = batchItem;
+		}
+	}
+}
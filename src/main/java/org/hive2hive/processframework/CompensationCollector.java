@@ -0,0 +1,126 @@
+package org.hive2hive.processframework;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hive2hive.processframework.composites.SyncProcess;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.interfaces.ICompensationHandler;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Gathers the compensations contributed by the {@link ProcessStep}s of a rollback pass, such that they are
+ * applied by one bulk operation per {@link ICompensationHandler} rather than one call per step. A
+ * {@link SyncProcess} collects the compensations of its whole subtree while rolling back and flushes them
+ * at the end of its rollback pass.<br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * // in the doRollback() of a step
+ * compensate(BULK_DELETE, key);
+ * </pre>
+ *
+ * @see ProcessStep#compensate(ICompensationHandler, Object)
+ * @see ProcessComponent#getCompensationCollector()
+ */
+public final class CompensationCollector {
+
+	private static final Logger logger = LoggerFactory.getLogger(CompensationCollector.class);
+
+	private final IProcessComponent<?> owner;
+
+	// guarded by this, handlers in the order of their first contribution
+	private final Map<ICompensationHandler<?>, List<Object>> compensations =
+			new LinkedHashMap<ICompensationHandler<?>, List<Object>>();
+	private int size;
+
+	/**
+	 * Creates an empty {@code CompensationCollector}.
+	 *
+	 * @param owner The {@link IProcessComponent} whose rollback pass is collected.
+	 */
+	public CompensationCollector(IProcessComponent<?> owner) {
+		this.owner = owner;
+	}
+
+	/**
+	 * Adds an item to be compensated by the provided handler upon the next flush.
+	 *
+	 * @param handler The {@link ICompensationHandler} compensating the item.
+	 * @param item The item to be compensated.
+	 */
+	public synchronized <I> void add(ICompensationHandler<I> handler, I item) {
+		if (handler == null) {
+			throw new IllegalArgumentException("Handler must not be null.");
+		}
+		List<Object> items = compensations.get(handler);
+		if (items == null) {
+			items = new ArrayList<Object>();
+			compensations.put(handler, items);
+		}
+		items.add(item);
+		size++;
+	}
+
+	/**
+	 * Gets the number of items that await their compensation.
+	 *
+	 * @return The number of collected items.
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Compensates all collected items by one bulk operation per {@link ICompensationHandler} and empties
+	 * this collector. If a handler fails, the remaining handlers are flushed nevertheless.
+	 *
+	 * @throws ProcessRollbackException If a handler has failed. Further failures are suppressed by it.
+	 */
+	@SuppressWarnings("unchecked")
+	public void flush() throws ProcessRollbackException {
+		Map<ICompensationHandler<?>, List<Object>> collected;
+		synchronized (this) {
+			if (size == 0) {
+				return;
+			}
+			collected = new LinkedHashMap<ICompensationHandler<?>, List<Object>>(compensations);
+			compensations.clear();
+			size = 0;
+		}
+
+		ProcessRollbackException failure = null;
+		for (Map.Entry<ICompensationHandler<?>, List<Object>> entry : collected.entrySet()) {
+			ICompensationHandler<Object> handler = (ICompensationHandler<Object>) entry.getKey();
+			List<Object> items = entry.getValue();
+			logger.debug("Compensating {} items by '{}'.", items.size(), handler);
+			try {
+				handler.compensate(Collections.unmodifiableList(items));
+			} catch (Exception ex) {
+				logger.error("Compensation of {} items by '{}' failed.", items.size(), handler, ex);
+				ProcessRollbackException rollbackException = new ProcessRollbackException(owner, ex, String.format(
+						"Compensation of %s items by '%s' failed.", items.size(), handler));
+				if (failure == null) {
+					failure = rollbackException;
+				} else {
+					failure.addSuppressed(rollbackException);
+				}
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("CompensationCollector[%s: %s items, %s handlers]", owner, size,
+				compensations.size());
+	}
+}
@@ -0,0 +1,113 @@
+package org.hive2hive.processframework;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time by which the execution of a process tree has to be completed. A deadline set on a
+ * {@link ProcessComposite} applies to its whole subtree, such that every component can determine its
+ * remaining budget. Deadlines are based on {@link System#nanoTime()} and thus immune to changes of the wall
+ * clock.<br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * // at the root
+ * process.setDeadline(Deadline.after(10, TimeUnit.SECONDS));
+ *
+ * // in a step of the subtree
+ * Deadline deadline = getDeadline();
+ * if (deadline != null) {
+ *     socket.setSoTimeout((int) deadline.remaining(TimeUnit.MILLISECONDS));
+ * }
+ * </pre>
+ *
+ * @see ProcessComposite#setDeadline(Deadline)
+ * @see ProcessComponent#getDeadline()
+ */
+public final class Deadline implements Comparable<Deadline> {
+
+	// half the range of nano times (about 146 years), such that differences between deadlines do not overflow
+	private static final long MAX_DURATION_NANOS = Long.MAX_VALUE >> 1;
+
+	private final long deadlineNanos;
+
+	private Deadline(long deadlineNanos) {
+		this.deadlineNanos = deadlineNanos;
+	}
+
+	/**
+	 * Creates a {@code Deadline} that expires after the provided duration from now.
+	 *
+	 * @param duration The duration after which the deadline expires.
+	 * @param unit The {@link TimeUnit} of the duration.
+	 * @return The new {@code Deadline}.
+	 */
+	public static Deadline after(long duration, TimeUnit unit) {
+		// saturate, such that very long durations remain comparable
+		long nanos = Math.min(unit.toNanos(Math.max(duration, 0)), MAX_DURATION_NANOS);
+		return new Deadline(System.nanoTime() + nanos);
+	}
+
+	/**
+	 * Gets the earlier of the provided deadlines.
+	 *
+	 * @param first The first {@code Deadline} or {@code null} if there is none.
+	 * @param second The second {@code Deadline} or {@code null} if there is none.
+	 * @return The earlier {@code Deadline} or {@code null} if both are {@code null}.
+	 */
+	public static Deadline earliest(Deadline first, Deadline second) {
+		if (first == null) {
+			return second;
+		}
+		if (second == null) {
+			return first;
+		}
+		return first.compareTo(second) <= 0 ? first : second;
+	}
+
+	/**
+	 * Gets the time remaining until this {@code Deadline} expires.
+	 *
+	 * @param unit The {@link TimeUnit} of the returned time.
+	 * @return The remaining time or 0 if this {@code Deadline} has expired.
+	 */
+	public long remaining(TimeUnit unit) {
+		long remaining = deadlineNanos - System.nanoTime();
+		return remaining > 0 ? unit.convert(remaining, TimeUnit.NANOSECONDS) : 0;
+	}
+
+	/**
+	 * Indicates whether this {@code Deadline} has expired.
+	 *
+	 * @return True, if this {@code Deadline} has expired, false otherwise.
+	 */
+	public boolean isExpired() {
+		return deadlineNanos - System.nanoTime() <= 0;
+	}
+
+	@Override
+	public int compareTo(Deadline other) {
+		// difference, since nano times may overflow
+		long difference = deadlineNanos - other.deadlineNanos;
+		return difference < 0 ? -1 : (difference > 0 ? 1 : 0);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this)
+			return true;
+		if (!(obj instanceof Deadline))
+			return false;
+		return deadlineNanos == ((Deadline) obj).deadlineNanos;
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) (deadlineNanos ^ (deadlineNanos >>> 32));
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Deadline[remaining %s ms]", remaining(TimeUnit.MILLISECONDS));
+	}
+}
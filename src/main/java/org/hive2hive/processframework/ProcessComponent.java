@@ -1,6 +1,8 @@
 package org.hive2hive.processframework;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.Future;
@@ -11,6 +13,7 @@ import org.hive2hive.processframework.exceptions.ProcessExecutionException;
 import org.hive2hive.processframework.exceptions.ProcessRollbackException;
 import org.hive2hive.processframework.interfaces.IProcessComponent;
 import org.hive2hive.processframework.interfaces.IProcessComponentListener;
+import org.hive2hive.processframework.interfaces.IProcessMonitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,8 +29,16 @@ public abstract class ProcessComponent<T> implements IProcessComponent<T> {
 
 	private static Logger logger = LoggerFactory.getLogger(ProcessComponent.class);
 
+	// copy-on-write, such that notifying monitors does not need any locking
+	private static final Object monitorLock = new Object();
+	private static volatile IProcessMonitor[] monitors = new IProcessMonitor[0];
+
 	// pausing only possible from another thread
 	protected volatile boolean isPaused;
+	// cancelling only possible from another thread
+	protected volatile boolean isCancelled;
+	private volatile boolean rollbackOnCancel;
+	private volatile Thread executingThread;
 
 	private String name;
 	private final String id;
@@ -83,22 +94,39 @@ public abstract class ProcessComponent<T> implements IProcessComponent<T> {
 			throw new InvalidProcessStateException(this, state);
 		}
 		logger.debug("Executing '{}'.", this);
+		IProcessMonitor[] monitors = ProcessComponent.monitors;
+		long start = monitors.length > 0 ? System.nanoTime() : 0L;
 		setState(ProcessState.EXECUTING);
 		notifyListeners(ProcessState.EXECUTING);
+		notifyStarted(monitors, ProcessState.EXECUTING);
 		isRollbacking = false;
+		executingThread = Thread.currentThread();
 
 		T result;
+		boolean started = false;
 		try {
+			if (isCancelled) {
+				throw new ProcessExecutionException(this, "The execution has been cancelled.");
+			}
+			started = true;
 			result = doExecute();
+			endExecution();
 			setState(ProcessState.EXECUTION_SUCCEEDED);
 			notifyListeners(ProcessState.EXECUTION_SUCCEEDED);
+			notifyFinished(monitors, ProcessState.EXECUTION_SUCCEEDED, start);
 		} catch (Exception ex) {
+			endExecution();
 			setState(ProcessState.EXECUTION_FAILED);
 			notifyListeners(ProcessState.EXECUTION_FAILED);
+			notifyFinished(monitors, ProcessState.EXECUTION_FAILED, start);
 
 			// log exception, wrap it to PEE, throw
 			String msg = "An exception has been catched during execution. See cause for more information.";
 			logger.error(msg, ex);
+			// nothing to roll back if cancelled before the start
+			if (isCancelled && rollbackOnCancel && started) {
+				rollbackCancelled();
+			}
 			if (ex instanceof ProcessExecutionException) {
 				throw ex;
 			} else {
@@ -133,18 +161,26 @@ public abstract class ProcessComponent<T> implements IProcessComponent<T> {
 		}
 
 		logger.debug("Rollbacking '{}'.", this);
+		IProcessMonitor[] monitors = ProcessComponent.monitors;
+		long start = monitors.length > 0 ? System.nanoTime() : 0L;
 		setState(ProcessState.ROLLBACKING);
 		notifyListeners(ProcessState.ROLLBACKING);
+		notifyStarted(monitors, ProcessState.ROLLBACKING);
 		isRollbacking = true;
 
 		T result;
 		try {
 			result = doRollback();
+			// a component that has been rolled back can be executed again
+			isCancelled = false;
+			rollbackOnCancel = false;
 			setState(ProcessState.ROLLBACK_SUCCEEDED);
 			notifyListeners(ProcessState.ROLLBACK_SUCCEEDED);
+			notifyFinished(monitors, ProcessState.ROLLBACK_SUCCEEDED, start);
 		} catch (Exception ex) {
 			setState(ProcessState.ROLLBACK_FAILED);
 			notifyListeners(ProcessState.ROLLBACK_FAILED);
+			notifyFinished(monitors, ProcessState.ROLLBACK_FAILED, start);
 
 			// log exception, wrap it to PRE, throw
 			String msg = "An exception has been catched during rollback. See cause for more information.";
@@ -173,6 +209,14 @@ public abstract class ProcessComponent<T> implements IProcessComponent<T> {
 		isPaused = true;
 		setState(ProcessState.PAUSED);
 		notifyListeners(ProcessState.PAUSED);
+
+		for (IProcessMonitor monitor : monitors) {
+			try {
+				monitor.onPaused(this);
+			} catch (RuntimeException ex) {
+				logger.warn("Process monitor '{}' failed.", monitor, ex);
+			}
+		}
 	}
 
 	@Override
@@ -183,6 +227,14 @@ public abstract class ProcessComponent<T> implements IProcessComponent<T> {
 		}
 		logger.debug("Resuming '{}'.", this);
 
+		for (IProcessMonitor monitor : monitors) {
+			try {
+				monitor.onResumed(this);
+			} catch (RuntimeException ex) {
+				logger.warn("Process monitor '{}' failed.", monitor, ex);
+			}
+		}
+
 		isPaused = false;
 		if (!isRollbacking) {
 			execute();
@@ -191,6 +243,101 @@ public abstract class ProcessComponent<T> implements IProcessComponent<T> {
 		}
 	}
 
+	/**
+	 * Cancels the execution of this {@code ProcessComponent}. The cancellation is propagated down the
+	 * subtree (see {@link ProcessComponent#doCancel(boolean)}), the thread executing it is interrupted and the
+	 * execution fails with a {@link ProcessExecutionException} as soon as the component reacts to it. A
+	 * component that has not been started yet or is paused fails as soon as it is executed or resumed.
+	 * Cancelling a component that has completed its execution has no effect.<br>
+	 * If requested, the component is rolled back on the executing thread once its execution has failed.
+	 * 
+	 * @param rollback True, if this {@code ProcessComponent} shall be rolled back after its cancellation.
+	 * @return True, if this {@code ProcessComponent} has been cancelled, false if it had completed already.
+	 */
+	@Override
+	public final boolean cancel(boolean rollback) {
+		ProcessState state = getState();
+		if (state != ProcessState.READY && state != ProcessState.EXECUTING && state != ProcessState.PAUSED) {
+			return false;
+		}
+		logger.debug("Cancelling '{}'.", this);
+
+		rollbackOnCancel = rollback;
+		isCancelled = true;
+
+		// propagate first, such that running children observe their own cancellation
+		doCancel(rollback);
+		synchronized (this) {
+			Thread thread = executingThread;
+			if (thread != null) {
+				thread.interrupt();
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean isCancelled() {
+		return isCancelled;
+	}
+
+	/**
+	 * Resets this {@code ProcessComponent} to {@link ProcessState#READY}, such that it can be executed again
+	 * from the start. The reset is propagated down the subtree (see {@link ProcessComponent#doReset()}) and
+	 * clears a previous cancellation. In contrast to a rollback, the effects of a previous execution are not
+	 * undone. Not allowed while this component is executing, rollbacking or paused.
+	 */
+	@Override
+	public final void reset() throws InvalidProcessStateException {
+		if (state == ProcessState.EXECUTING || state == ProcessState.ROLLBACKING || state == ProcessState.PAUSED) {
+			throw new InvalidProcessStateException(this, state);
+		}
+		logger.debug("Resetting '{}'.", this);
+
+		doReset();
+		isCancelled = false;
+		rollbackOnCancel = false;
+		isRollbacking = false;
+		setState(ProcessState.READY);
+	}
+
+	/**
+	 * Attaches an {@link IProcessMonitor} that gets notified about the lifecycle of all
+	 * {@code ProcessComponent}s.
+	 * 
+	 * @param monitor The {@link IProcessMonitor} to be attached.
+	 */
+	public static void attachMonitor(IProcessMonitor monitor) {
+		synchronized (monitorLock) {
+			IProcessMonitor[] current = monitors;
+			IProcessMonitor[] updated = Arrays.copyOf(current, current.length + 1);
+			updated[current.length] = monitor;
+			monitors = updated;
+		}
+	}
+
+	/**
+	 * Detaches an {@link IProcessMonitor} from all {@code ProcessComponent}s.
+	 * 
+	 * @param monitor The {@link IProcessMonitor} to be detached.
+	 */
+	public static void detachMonitor(IProcessMonitor monitor) {
+		synchronized (monitorLock) {
+			List<IProcessMonitor> updated = new ArrayList<IProcessMonitor>(Arrays.asList(monitors));
+			updated.remove(monitor);
+			monitors = updated.toArray(new IProcessMonitor[updated.size()]);
+		}
+	}
+
+	/**
+	 * Gets all {@link IProcessMonitor}s that are currently attached.
+	 * 
+	 * @return All attached {@link IProcessMonitor}s.
+	 */
+	public static List<IProcessMonitor> getMonitors() {
+		return Collections.unmodifiableList(Arrays.asList(monitors));
+	}
+
 	@SuppressWarnings("unchecked")
 	private AsyncComponent<T> getAsyncComponent() {
 		if (asyncComponent == null) {
@@ -232,6 +379,29 @@ public abstract class ProcessComponent<T> implements IProcessComponent<T> {
 	 */
 	protected abstract T doRollback() throws InvalidProcessStateException, ProcessRollbackException;
 
+	/**
+	 * Template method responsible for the propagation of a cancellation, e.g., to the children of a
+	 * composite. Invoked after this {@code ProcessComponent} has been marked as cancelled, but before its
+	 * executing thread is interrupted. By default, there is nothing to propagate.
+	 * 
+	 * @param rollback True, if the cancelled component shall be rolled back after its cancellation.
+	 */
+	protected void doCancel(boolean rollback) {
+		// nothing to propagate
+	}
+
+	/**
+	 * Template method responsible for the propagation of a reset, e.g., to the children of a composite.
+	 * Invoked before this {@code ProcessComponent} is set to {@link ProcessState#READY}. By default, there is
+	 * nothing to propagate.
+	 * 
+	 * @throws InvalidProcessStateException If a component of the subtree is in an invalid state for this
+	 *             operation.
+	 */
+	protected void doReset() throws InvalidProcessStateException {
+		// nothing to propagate
+	}
+
 	protected void setRequiresRollback(boolean requiresRollback) {
 		this.requiresRollback = requiresRollback;
 	}
@@ -303,6 +473,41 @@ public abstract class ProcessComponent<T> implements IProcessComponent<T> {
 		return this.requiresRollback;
 	}
 
+	/**
+	 * Gets the {@link ProcessContext} this {@code ProcessComponent} can use to share results with other
+	 * components. By default, this is the context of the closest parent {@link ProcessComposite} that has
+	 * one.
+	 * 
+	 * @return The {@link ProcessContext} of this {@code ProcessComponent} or {@code null} if there is none.
+	 */
+	public ProcessContext getContext() {
+		ProcessComposite<?> parent = getParent();
+		return parent != null ? parent.getContext() : null;
+	}
+
+	/**
+	 * Gets the {@link Deadline} by which this {@code ProcessComponent} has to complete its execution. By
+	 * default, this is the deadline of the parent {@link ProcessComposite}.
+	 * 
+	 * @return The {@link Deadline} of this {@code ProcessComponent} or {@code null} if there is none.
+	 */
+	public Deadline getDeadline() {
+		ProcessComposite<?> parent = getParent();
+		return parent != null ? parent.getDeadline() : null;
+	}
+
+	/**
+	 * Gets the {@link CompensationCollector} that gathers the compensations of the current rollback pass. By
+	 * default, this is the collector of the parent {@link ProcessComposite}.
+	 * 
+	 * @return The {@link CompensationCollector} of this {@code ProcessComponent} or {@code null} if there is
+	 *         none.
+	 */
+	public CompensationCollector getCompensationCollector() {
+		ProcessComposite<?> parent = getParent();
+		return parent != null ? parent.getCompensationCollector() : null;
+	}
+
 	@Override
 	public String toString() {
 		return getName();
@@ -330,6 +535,48 @@ public abstract class ProcessComponent<T> implements IProcessComponent<T> {
 		this.state = state;
 	}
 
+	private void endExecution() {
+		executingThread = null;
+		if (isCancelled) {
+			// await a concurrent interruption, then clear it such that it does not leak to the caller
+			synchronized (this) {
+				Thread.interrupted();
+			}
+		}
+	}
+
+	private void rollbackCancelled() {
+		try {
+			rollback();
+		} catch (InvalidProcessStateException | ProcessRollbackException ex) {
+			logger.error("Rollback of cancelled component '{}' failed.", this, ex);
+		}
+	}
+
+	private void notifyStarted(IProcessMonitor[] monitors, ProcessState state) {
+		for (IProcessMonitor monitor : monitors) {
+			try {
+				monitor.onStarted(this, state);
+			} catch (RuntimeException ex) {
+				logger.warn("Process monitor '{}' failed.", monitor, ex);
+			}
+		}
+	}
+
+	private void notifyFinished(IProcessMonitor[] monitors, ProcessState state, long start) {
+		if (monitors.length == 0) {
+			return;
+		}
+		long duration = System.nanoTime() - start;
+		for (IProcessMonitor monitor : monitors) {
+			try {
+				monitor.onFinished(this, state, duration);
+			} catch (RuntimeException ex) {
+				logger.warn("Process monitor '{}' failed.", monitor, ex);
+			}
+		}
+	}
+
 	private void notifyListeners(ProcessState event) {
 		for (IProcessComponentListener listener : this.listeners) {
 			switch (event) {
@@ -2,6 +2,7 @@ package org.hive2hive.processframework;
 
 import java.util.Collection;
 
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
 import org.hive2hive.processframework.interfaces.IProcessComponent;
 
 /**
@@ -14,6 +15,9 @@ import org.hive2hive.processframework.interfaces.IProcessComponent;
  */
 public abstract class ProcessComposite<T> extends ProcessComponent<T> {
 
+	private volatile ProcessContext context;
+	private volatile Deadline deadline;
+
 	protected ProcessComposite() {
 		// composites should always require rollback
 		setRequiresRollback(true);
@@ -63,6 +67,66 @@ public abstract class ProcessComposite<T> extends ProcessComponent<T> {
 		doRemove(component);
 	}
 
+	/**
+	 * Sets the {@link ProcessContext} shared by all {@link IProcessComponent}s in the subtree of this
+	 * {@code ProcessComposite}. If no context is set, the context of the parent is used.
+	 * 
+	 * @param context The {@link ProcessContext} to be used by this subtree.
+	 */
+	public void setContext(ProcessContext context) {
+		this.context = context;
+	}
+
+	@Override
+	public ProcessContext getContext() {
+		ProcessContext current = context;
+		return current != null ? current : super.getContext();
+	}
+
+	/**
+	 * Sets the {@link Deadline} by which the subtree of this {@code ProcessComposite} has to complete its
+	 * execution. The deadline of a parent still applies if it is earlier. The rollback is not bounded by the
+	 * deadline.
+	 * 
+	 * @param deadline The {@link Deadline} of this subtree or {@code null} to remove it.
+	 */
+	public void setDeadline(Deadline deadline) {
+		this.deadline = deadline;
+	}
+
+	@Override
+	public Deadline getDeadline() {
+		return Deadline.earliest(deadline, super.getDeadline());
+	}
+
+	/**
+	 * Default composite implementation:
+	 * Cancels all children that are executing or paused. Children that have not been started yet are not
+	 * started anymore by the cancelled composite.
+	 */
+	@Override
+	protected void doCancel(boolean rollback) {
+		for (IProcessComponent<?> component : getComponents()) {
+			ProcessState state = component.getState();
+			if (state == ProcessState.EXECUTING || state == ProcessState.PAUSED) {
+				// the rollback of the children is part of the rollback of this composite
+				component.cancel(false);
+			}
+		}
+	}
+
+	/**
+	 * Default composite implementation:
+	 * Resets all children, including the ones that report {@link ProcessState#READY}, since decorators might
+	 * report the state of a decorated component that has not been executed.
+	 */
+	@Override
+	protected void doReset() throws InvalidProcessStateException {
+		for (IProcessComponent<?> component : getComponents()) {
+			component.reset();
+		}
+	}
+
 	/**
 	 * Gets all {@link IProcessComponent}s that are contained in this {@code ProcessComposite}.
 	 * 
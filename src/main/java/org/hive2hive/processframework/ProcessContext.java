@@ -0,0 +1,125 @@
+package org.hive2hive.processframework;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Slot table that allows the {@link ProcessComponent}s of a process tree to share their results.
+ * The slots are defined by a {@link ProcessContextLayout} and accessed by {@link ProcessContextKey}s that
+ * already know their slot index. All accesses have volatile semantics, thus values published by
+ * asynchronous components are safely visible to all other components.<br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * // in a step producing a result
+ * getContext().put(LOCATION, location);
+ *
+ * // in a subsequent step
+ * String location = getContext().get(LOCATION);
+ * </pre>
+ *
+ * @see ProcessComposite#setContext(ProcessContext)
+ * @see ProcessComponent#getContext()
+ */
+public final class ProcessContext {
+
+	private final ProcessContextLayout layout;
+	private final AtomicReferenceArray<Object> slots;
+
+	/**
+	 * Creates a new, empty {@code ProcessContext} with one slot per key registered at the provided
+	 * {@link ProcessContextLayout}.
+	 *
+	 * @param layout The {@link ProcessContextLayout} defining the slots.
+	 */
+	public ProcessContext(ProcessContextLayout layout) {
+		this.layout = layout;
+		this.slots = new AtomicReferenceArray<Object>(layout.size());
+	}
+
+	/**
+	 * Publishes a value to the slot identified by the provided key.
+	 *
+	 * @param key The {@link ProcessContextKey} identifying the slot.
+	 * @param value The value to be published.
+	 */
+	public <V> void put(ProcessContextKey<V> key, V value) {
+		slots.set(indexOf(key), value);
+	}
+
+	/**
+	 * Publishes a value to the slot identified by the provided key, if the slot currently holds the
+	 * expected value.
+	 *
+	 * @param key The {@link ProcessContextKey} identifying the slot.
+	 * @param expect The expected current value.
+	 * @param update The value to be published.
+	 * @return True, if the value has been published, false otherwise.
+	 */
+	public <V> boolean compareAndSet(ProcessContextKey<V> key, V expect, V update) {
+		return slots.compareAndSet(indexOf(key), expect, update);
+	}
+
+	/**
+	 * Reads the value of the slot identified by the provided key.
+	 *
+	 * @param key The {@link ProcessContextKey} identifying the slot.
+	 * @return The value of the slot or {@code null} if nothing has been published yet.
+	 */
+	@SuppressWarnings("unchecked")
+	public <V> V get(ProcessContextKey<V> key) {
+		// type safety is guaranteed by put()
+		return (V) slots.get(indexOf(key));
+	}
+
+	/**
+	 * Clears the slot identified by the provided key.
+	 *
+	 * @param key The {@link ProcessContextKey} identifying the slot.
+	 * @return The value the slot held before or {@code null} if there was none.
+	 */
+	@SuppressWarnings("unchecked")
+	public <V> V remove(ProcessContextKey<V> key) {
+		return (V) slots.getAndSet(indexOf(key), null);
+	}
+
+	/**
+	 * Indicates whether a value has been published to the slot identified by the provided key.
+	 *
+	 * @param key The {@link ProcessContextKey} identifying the slot.
+	 * @return True, if the slot holds a value, false otherwise.
+	 */
+	public boolean contains(ProcessContextKey<?> key) {
+		return slots.get(indexOf(key)) != null;
+	}
+
+	/**
+	 * Clears all slots of this {@code ProcessContext}, e.g., before a process tree is run again.
+	 */
+	public void clear() {
+		for (int i = 0; i < slots.length(); i++) {
+			slots.set(i, null);
+		}
+	}
+
+	/**
+	 * Gets the {@link ProcessContextLayout} of this {@code ProcessContext}.
+	 *
+	 * @return The {@link ProcessContextLayout} of this {@code ProcessContext}.
+	 */
+	public ProcessContextLayout getLayout() {
+		return layout;
+	}
+
+	private int indexOf(ProcessContextKey<?> key) {
+		if (key.getLayout() != layout) {
+			throw new IllegalArgumentException(String.format("Key '%s' belongs to another layout.", key));
+		}
+		int index = key.getIndex();
+		if (index >= slots.length()) {
+			throw new IllegalArgumentException(String.format(
+					"Key '%s' has been registered after the creation of this context.", key));
+		}
+		return index;
+	}
+}
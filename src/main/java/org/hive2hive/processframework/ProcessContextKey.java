@@ -0,0 +1,64 @@
+package org.hive2hive.processframework;
+
+/**
+ * Typed key that identifies a slot of a {@link ProcessContext}.
+ * Keys are issued by a {@link ProcessContextLayout} which resolves them to a fixed slot index upon
+ * registration. Thus, accessing a {@link ProcessContext} by key is a plain array access.
+ *
+ * @param <V> The type of the value stored in the slot identified by this {@code ProcessContextKey}.
+ */
+public final class ProcessContextKey<V> {
+
+	private final ProcessContextLayout layout;
+	private final String name;
+	private final Class<V> type;
+	private final int index;
+
+	ProcessContextKey(ProcessContextLayout layout, String name, Class<V> type, int index) {
+		this.layout = layout;
+		this.name = name;
+		this.type = type;
+		this.index = index;
+	}
+
+	/**
+	 * Gets the {@link ProcessContextLayout} that issued this {@code ProcessContextKey}.
+	 *
+	 * @return The {@link ProcessContextLayout} that issued this {@code ProcessContextKey}.
+	 */
+	public ProcessContextLayout getLayout() {
+		return layout;
+	}
+
+	/**
+	 * Gets the name of this {@code ProcessContextKey}.
+	 *
+	 * @return The name of this {@code ProcessContextKey}.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the type of the values stored in the slot identified by this {@code ProcessContextKey}.
+	 *
+	 * @return The type of the values stored in the slot.
+	 */
+	public Class<V> getType() {
+		return type;
+	}
+
+	/**
+	 * Gets the slot index this {@code ProcessContextKey} has been resolved to.
+	 *
+	 * @return The slot index of this {@code ProcessContextKey}.
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[%s]", name, type.getSimpleName());
+	}
+}
@@ -0,0 +1,80 @@
+package org.hive2hive.processframework;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Defines the slots of a {@link ProcessContext}. Each registered {@link ProcessContextKey} is resolved to
+ * a slot index once, typically while the process tree is constructed. All {@link ProcessContext}s created
+ * for a {@code ProcessContextLayout} provide exactly one slot per registered key.<br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * ProcessContextLayout layout = new ProcessContextLayout();
+ * ProcessContextKey&lt;String&gt; location = layout.register(&quot;location&quot;, String.class);
+ *
+ * SyncProcess process = new SyncProcess();
+ * process.setContext(new ProcessContext(layout));
+ * </pre>
+ */
+public final class ProcessContextLayout {
+
+	private final List<ProcessContextKey<?>> keys = new ArrayList<ProcessContextKey<?>>();
+
+	/**
+	 * Registers a new {@link ProcessContextKey} and resolves it to the next free slot index.
+	 * Keys must be registered before any {@link ProcessContext} is created for this layout.
+	 *
+	 * @param name The unique name of the key.
+	 * @param type The type of the values stored in the slot identified by the key.
+	 * @return The registered {@link ProcessContextKey}.
+	 */
+	public synchronized <V> ProcessContextKey<V> register(String name, Class<V> type) {
+		if (name == null || type == null) {
+			throw new IllegalArgumentException("Name and type must not be null.");
+		}
+		for (ProcessContextKey<?> key : keys) {
+			if (key.getName().equals(name)) {
+				throw new IllegalArgumentException(String.format("A key named '%s' is already registered.", name));
+			}
+		}
+		ProcessContextKey<V> key = new ProcessContextKey<V>(this, name, type, keys.size());
+		keys.add(key);
+		return key;
+	}
+
+	/**
+	 * Gets the registered {@link ProcessContextKey} with the provided name.
+	 *
+	 * @param name The name of the key to look for.
+	 * @return The registered {@link ProcessContextKey} or {@code null} if there is none with this name.
+	 */
+	public synchronized ProcessContextKey<?> getKey(String name) {
+		for (ProcessContextKey<?> key : keys) {
+			if (key.getName().equals(name)) {
+				return key;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets all registered {@link ProcessContextKey}s, ordered by their slot index.
+	 *
+	 * @return All registered {@link ProcessContextKey}s.
+	 */
+	public synchronized List<ProcessContextKey<?>> getKeys() {
+		return Collections.unmodifiableList(new ArrayList<ProcessContextKey<?>>(keys));
+	}
+
+	/**
+	 * Gets the number of slots defined by this {@code ProcessContextLayout}.
+	 *
+	 * @return The number of slots.
+	 */
+	public synchronized int size() {
+		return keys.size();
+	}
+}
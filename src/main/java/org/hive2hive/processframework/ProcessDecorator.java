@@ -2,6 +2,7 @@ package org.hive2hive.processframework;
 
 import java.util.List;
 
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
 import org.hive2hive.processframework.interfaces.IProcessComponent;
 import org.hive2hive.processframework.interfaces.IProcessComponentListener;
 
@@ -52,6 +53,34 @@ public abstract class ProcessDecorator<T> extends ProcessComponent<T> {
 		return decoratedComponent.getParent();
 	}
 
+	/**
+	 * Default decorator implementation:
+	 * Just delegates the call to the wrapped/decorated {@link IProcessComponent} implementation.
+	 */
+	@Override
+	public void setParent(ProcessComposite<?> parent) {
+		decoratedComponent.setParent(parent);
+	}
+
+	/**
+	 * Default decorator implementation:
+	 * Cancels the wrapped/decorated {@link IProcessComponent} implementation. Its rollback is part of the
+	 * rollback of this decorator.
+	 */
+	@Override
+	protected void doCancel(boolean rollback) {
+		decoratedComponent.cancel(false);
+	}
+
+	/**
+	 * Default decorator implementation:
+	 * Resets the wrapped/decorated {@link IProcessComponent} implementation.
+	 */
+	@Override
+	protected void doReset() throws InvalidProcessStateException {
+		decoratedComponent.reset();
+	}
+
 	/**
 	 * Default decorator implementation:
 	 * Just delegates the call to the wrapped/decorated {@link IProcessComponent} implementation.
@@ -97,6 +126,17 @@ public abstract class ProcessDecorator<T> extends ProcessComponent<T> {
 		return decoratedComponent.getState();
 	}
 
+	/**
+	 * Gets the {@link ProcessState} of this {@code ProcessDecorator} itself rather than the one of the
+	 * wrapped/decorated {@link IProcessComponent}. Decorators that complete without executing the decorated
+	 * component report this state instead.
+	 * 
+	 * @return The {@link ProcessState} of this {@code ProcessDecorator}.
+	 */
+	protected final ProcessState getDecoratorState() {
+		return super.getState();
+	}
+
 	/**
 	 * Default decorator implementation:
 	 * Just delegates the call to the wrapped/decorated {@link IProcessComponent} implementation.
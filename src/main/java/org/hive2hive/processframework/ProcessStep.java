@@ -1,7 +1,10 @@
 package org.hive2hive.processframework;
 
+import java.util.Collections;
+
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
 import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.interfaces.ICompensationHandler;
 import org.hive2hive.processframework.interfaces.IProcessComponent;
 
 /**
@@ -40,4 +43,27 @@ public abstract class ProcessStep<T> extends ProcessComponent<T> {
 		return null;
 	}
 
+	/**
+	 * Contributes a compensation to the current rollback pass. Meant to be called by {@link #doRollback()}.
+	 * If a {@link CompensationCollector} applies, the item is compensated together with the items of the
+	 * other steps once the rollback pass of the collecting process completes. Otherwise, the item is
+	 * compensated immediately.
+	 * 
+	 * @param handler The {@link ICompensationHandler} compensating the item.
+	 * @param item The item to be compensated.
+	 * @throws ProcessRollbackException If the immediate compensation has failed.
+	 */
+	protected final <I> void compensate(ICompensationHandler<I> handler, I item) throws ProcessRollbackException {
+		CompensationCollector collector = getCompensationCollector();
+		if (collector != null) {
+			collector.add(handler, item);
+			return;
+		}
+		try {
+			handler.compensate(Collections.singletonList(item));
+		} catch (Exception ex) {
+			throw new ProcessRollbackException(this, ex);
+		}
+	}
+
 }
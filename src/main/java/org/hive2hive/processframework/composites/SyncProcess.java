@@ -2,35 +2,67 @@ package org.hive2hive.processframework.composites;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.hive2hive.processframework.CompensationCollector;
+import org.hive2hive.processframework.Deadline;
 import org.hive2hive.processframework.ProcessComposite;
+import org.hive2hive.processframework.ProcessState;
 import org.hive2hive.processframework.decorators.AsyncComponent;
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
 import org.hive2hive.processframework.exceptions.ProcessExecutionException;
 import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.interfaces.IAsyncCompletionListener;
 import org.hive2hive.processframework.interfaces.IProcessComponent;
 
 /**
  * A {@link ProcessComposite} that awaits asynchronous components before completion.
  * Traverses its components in preorder (i.e., left-to-right).
+ * If a {@link Deadline} applies, no further component is started once it has expired and asynchronous
+ * components are awaited only until it expires. The execution then fails fast.
+ * Upon cancellation, no further component is started and all started components are cancelled.
+ * The first failure of an asynchronous component immediately cancels all running siblings and fails the
+ * execution, such that the rollback can start without awaiting work whose result is discarded anyway.
+ * The outermost rolling back {@code SyncProcess} collects the compensations contributed by the steps of its
+ * subtree and flushes them in bulk at the end of its rollback pass (see {@link CompensationCollector}).
  * 
  * @author Christian Lüthold
  *
  */
 public final class SyncProcess extends ProcessComposite<Void> {
 
+	private static final long ASYNC_POLL_INTERVAL_MS = 100;
+
 	private List<IProcessComponent<?>> components = new ArrayList<IProcessComponent<?>>();
 
-	private List<Future<?>> asyncExecutions = new ArrayList<Future<?>>();
+	// async components are awaited in the order of their completion
+	private final Map<AsyncComponent<?>, Future<?>> asyncExecutions =
+			new IdentityHashMap<AsyncComponent<?>, Future<?>>();
+	private final BlockingQueue<AsyncComponent<?>> asyncCompletions =
+			new LinkedBlockingQueue<AsyncComponent<?>>();
+	private final AtomicReference<AsyncComponent<?>> asyncFailure = new AtomicReference<AsyncComponent<?>>();
+	private final IAsyncCompletionListener asyncCompletionListener = new AsyncCompletionListener();
 	private List<Future<?>> asyncRollbacks = new ArrayList<Future<?>>();
 
 	private IProcessComponent<?> next = null;
 	private IProcessComponent<?> last = null;
-	private int executionIndex;
+	// read upon cancellation from another thread
+	private volatile int executionIndex;
+	// the number of leading components whose execution has been started
+	private volatile int startedCount;
 	private int rollbackIndex;
+	// kept across a paused rollback, null if a parent collects the compensations
+	private volatile CompensationCollector compensations;
 	
 	@Override
 	protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
@@ -41,28 +73,50 @@ public final class SyncProcess extends ProcessComposite<Void> {
 			executionIndex = components.indexOf(next);
 		} else {
 			executionIndex = 0;
+			startedCount = 0;
 		}
-		
-		while (executionIndex < components.size() && !isPaused) {
+		if (asyncExecutions.isEmpty()) {
+			// nothing outstanding from before a pause
+			asyncCompletions.clear();
+			asyncFailure.set(null);
+		}
+		Deadline deadline = getDeadline();
 
-			checkForAsyncExecutionFailure(asyncExecutions);
+		try {
+			while (executionIndex < components.size() && !isPaused) {
+
+				if (isCancelled) {
+					throw new ProcessExecutionException(this, "The execution has been cancelled.");
+				}
+				checkForAsyncExecutionFailure();
+
+				next = components.get(executionIndex);
+				if (deadline != null && deadline.isExpired()) {
+					throw new ProcessExecutionException(this, String.format(
+							"Deadline expired before the execution of '%s'.", next));
+				}
+				startedCount = Math.max(startedCount, executionIndex + 1);
+				if (next instanceof AsyncComponent<?>) {
+					AsyncComponent<?> async = (AsyncComponent<?>) next;
+					asyncExecutions.put(async, async.execute());
+				} else {
+					next.execute();
+				}
+				executionIndex++;
+			}
 
-			next = components.get(executionIndex);
-			if (next instanceof AsyncComponent<?>) {
-				Future<?> async = ((AsyncComponent<?>) next).execute();
-				asyncExecutions.add(async);
-			} else {
-				next.execute();
+			if (!isPaused) {
+				awaitAsyncExecutions(deadline);
 			}
-			executionIndex++;
-		}
-		
-		if (!isPaused) {
-			// await async execution components
-			for (Future<?> async : asyncExecutions) {
-				awaitAsyncExecution(async);
+		} catch (ProcessExecutionException ex) {
+			ProcessExecutionException failure = getAsyncFailure(ex);
+
+			// fail fast, the results of the running async components are not of interest anymore
+			for (AsyncComponent<?> async : asyncExecutions.keySet()) {
+				async.cancel(false);
 			}
 			asyncExecutions.clear();
+			throw failure;
 		}
 
 		return null;
@@ -71,47 +125,97 @@ public final class SyncProcess extends ProcessComposite<Void> {
 	@Override
 	protected Void doRollback() throws InvalidProcessStateException, ProcessRollbackException {
 
+		if (compensations == null && super.getCompensationCollector() == null) {
+			compensations = new CompensationCollector(this);
+		}
+
 		// don't use iterator, as component list might be modified during rollback
 		// also, rollback must be able to resume at correct position after pause
 		if (last != null) {
 			rollbackIndex = components.indexOf(last);
 		} else {
-			rollbackIndex = components.size() - 1;
+			// start at the last started component, later ones have never been executed
+			rollbackIndex = Math.min(startedCount, components.size()) - 1;
 		}
 		
-		while (rollbackIndex >= 0 && !isPaused) {
-
-			checkForAsyncRollbackFailure(asyncRollbacks);
+		try {
+			while (rollbackIndex >= 0 && !isPaused) {
+
+				checkForAsyncRollbackFailure(asyncRollbacks);
+
+				last = components.get(rollbackIndex);
+				if (last.getState() == ProcessState.ROLLBACK_SUCCEEDED) {
+					// has rolled itself back upon its cancellation
+					rollbackIndex--;
+					continue;
+				}
+				if (last instanceof AsyncComponent<?>) {
+					Future<?> async = ((AsyncComponent<?>) last).rollback();
+					asyncRollbacks.add(async);
+				} else {
+					last.rollback();
+				}
+				rollbackIndex--;
+			}
 
-			last = components.get(rollbackIndex);
-			if (last instanceof AsyncComponent<?>) {
-				Future<?> async = ((AsyncComponent<?>) last).rollback();
-				asyncRollbacks.add(async);
-			} else {
-				last.rollback();
+			if (!isPaused) {
+				// await async rollback components
+				for (Future<?> async : asyncRollbacks) {
+					awaitAsyncRollback(async);
+				}
+				asyncRollbacks.clear();
 			}
-			rollbackIndex--;
+		} catch (InvalidProcessStateException | ProcessRollbackException | RuntimeException ex) {
+			// compensate what has been collected so far nevertheless
+			flushCompensations(ex);
+			throw ex;
 		}
 
 		if (!isPaused) {
-			// await async rollback components
-			for (Future<?> async : asyncRollbacks) {
-				awaitAsyncRollback(async);
-			}
-			asyncRollbacks.clear();
+			flushCompensations(null);
 		}
-
 		return null;
 	}
 
+	@Override
+	protected void doCancel(boolean rollback) {
+
+		if (getState() == ProcessState.READY) {
+			// fails upon execution, no component has been started
+			return;
+		}
+
+		// cancel the started components, including asynchronous ones that may still be queued
+		int started = Math.min(startedCount, components.size());
+		for (int i = 0; i < started; i++) {
+			components.get(i).cancel(false);
+		}
+	}
+
+	@Override
+	protected void doReset() throws InvalidProcessStateException {
+		super.doReset();
+
+		// start over at the first component
+		next = null;
+		last = null;
+		executionIndex = 0;
+		startedCount = 0;
+		asyncExecutions.clear();
+		asyncRollbacks.clear();
+		compensations = null;
+	}
+
 	@Override
 	protected void doAdd(IProcessComponent<?> component) {
 		components.add(component);
+		attachAsyncListener(component);
 	}
 
 	@Override
 	protected void doAdd(int index, IProcessComponent<?> component) {
 		components.add(index, component);
+		attachAsyncListener(component);
 	}
 
 	@Override
@@ -127,6 +231,15 @@ public final class SyncProcess extends ProcessComposite<Void> {
 	@Override
 	protected void doRemove(IProcessComponent<?> component) {
 		components.remove(component);
+		if (component instanceof AsyncComponent<?>) {
+			((AsyncComponent<?>) component).setCompletionListener(null);
+		}
+	}
+
+	@Override
+	public CompensationCollector getCompensationCollector() {
+		CompensationCollector current = compensations;
+		return current != null ? current : super.getCompensationCollector();
 	}
 
 	@Override
@@ -152,16 +265,77 @@ public final class SyncProcess extends ProcessComposite<Void> {
 		return progress;
 	}
 
-	private void checkForAsyncExecutionFailure(List<Future<?>> asyncs) throws ProcessExecutionException {
+	private void attachAsyncListener(IProcessComponent<?> component) {
+		if (component instanceof AsyncComponent<?>) {
+			((AsyncComponent<?>) component).setCompletionListener(asyncCompletionListener);
+		}
+	}
+
+	private void checkForAsyncExecutionFailure() throws ProcessExecutionException {
 
-		for (Future<?> async : asyncs) {
+		Iterator<Future<?>> iterator = asyncExecutions.values().iterator();
+		while (iterator.hasNext()) {
+			Future<?> async = iterator.next();
 			if (!async.isDone())
 				continue;
 
+			iterator.remove();
 			awaitAsyncExecution(async);
 		}
 	}
 
+	private void awaitAsyncExecutions(Deadline deadline) throws ProcessExecutionException {
+
+		while (true) {
+			checkForAsyncExecutionFailure();
+			if (asyncExecutions.isEmpty()) {
+				return;
+			}
+
+			// the poll interval only guards against completions that have not been signalled (e.g., if
+			// the completion listener of an async component has been replaced)
+			long timeout = ASYNC_POLL_INTERVAL_MS;
+			if (deadline != null) {
+				if (deadline.isExpired()) {
+					throw new ProcessExecutionException(this,
+							"Deadline expired while awaiting asynchronous components.");
+				}
+				timeout = Math.min(timeout, Math.max(deadline.remaining(TimeUnit.MILLISECONDS), 1));
+			}
+			AsyncComponent<?> completed;
+			try {
+				completed = asyncCompletions.poll(timeout, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException ex) {
+				throw new ProcessExecutionException(this, ex);
+			}
+			if (completed != null) {
+				Future<?> async = asyncExecutions.remove(completed);
+				if (async != null) {
+					awaitAsyncExecution(async);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the failure of the async component that failed first, which caused the provided failure by
+	 * cancelling its siblings.
+	 */
+	private ProcessExecutionException getAsyncFailure(ProcessExecutionException failure) {
+		AsyncComponent<?> failed = asyncFailure.get();
+		Future<?> async = failed != null ? asyncExecutions.remove(failed) : null;
+		if (async == null) {
+			// the failure has been awaited already
+			return failure;
+		}
+		try {
+			awaitAsyncExecution(async);
+		} catch (ProcessExecutionException ex) {
+			return ex;
+		}
+		return failure;
+	}
+
 	private void checkForAsyncRollbackFailure(List<Future<?>> asyncs) throws ProcessRollbackException {
 
 		for (Future<?> async : asyncs) {
@@ -172,6 +346,26 @@ public final class SyncProcess extends ProcessComposite<Void> {
 		}
 	}
 
+	/**
+	 * Flushes the compensations collected by this process, if any. A failure of the flush is suppressed by
+	 * the provided pending failure of the rollback.
+	 */
+	private void flushCompensations(Exception pending) throws ProcessRollbackException {
+		CompensationCollector collector = compensations;
+		if (collector == null) {
+			return;
+		}
+		compensations = null;
+		try {
+			collector.flush();
+		} catch (ProcessRollbackException ex) {
+			if (pending == null) {
+				throw ex;
+			}
+			pending.addSuppressed(ex);
+		}
+	}
+
 	private void awaitAsyncExecution(Future<?> async) throws ProcessExecutionException {
 
 		try {
@@ -195,8 +389,44 @@ public final class SyncProcess extends ProcessComposite<Void> {
 			if (ex.getCause() instanceof ProcessRollbackException) {
 				throw (ProcessRollbackException) ex.getCause();
 			}
+			throw new ProcessRollbackException(this, ex.getCause());
 		} catch (Exception ex) {
 			throw new ProcessRollbackException(this, ex);
 		}
 	}
+
+	/**
+	 * Signals the completion of an async component and cancels its running siblings upon its failure.
+	 */
+	private class AsyncCompletionListener implements IAsyncCompletionListener {
+
+		@Override
+		public void onExecutionCompleted(AsyncComponent<?> component, Future<?> future) {
+			if (getState() == ProcessState.EXECUTING && isFailed(future)
+					&& asyncFailure.compareAndSet(null, component)) {
+				// siblings that have not been started yet are not started anymore
+				int started = Math.min(startedCount, components.size());
+				for (int i = 0; i < started; i++) {
+					IProcessComponent<?> sibling = components.get(i);
+					if (sibling != component) {
+						sibling.cancel(false);
+					}
+				}
+			}
+			asyncCompletions.add(component);
+		}
+
+		private boolean isFailed(Future<?> future) {
+			try {
+				future.get();
+				return false;
+			} catch (ExecutionException | CancellationException ex) {
+				return true;
+			} catch (InterruptedException ex) {
+				// cannot happen, since the future is done
+				Thread.currentThread().interrupt();
+				return true;
+			}
+		}
+	}
 }
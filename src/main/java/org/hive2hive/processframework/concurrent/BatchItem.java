@@ -0,0 +1,71 @@
+package org.hive2hive.processframework.concurrent;
+
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hive2hive.processframework.interfaces.IBatchHandler;
+
+/**
+ * A single item submitted to a {@link Batcher}. The item is the {@link java.util.concurrent.Future} of its
+ * own result, which is completed by the {@link IBatchHandler} executing its batch.
+ *
+ * @param <I> The type of the item.
+ * @param <R> The type of the result.
+ */
+public final class BatchItem<I, R> extends FutureTask<R> {
+
+	private static final int PENDING = 0;
+	private static final int DISPATCHED = 1;
+	private static final int WITHDRAWN = 2;
+
+	private final I item;
+	private final AtomicInteger phase = new AtomicInteger(PENDING);
+
+	BatchItem(I item) {
+		super(new ExternallyCompleted<R>());
+		this.item = item;
+	}
+
+	public I getItem() {
+		return item;
+	}
+
+	/**
+	 * Completes this item successfully. Has no effect if an outcome has been reported already.
+	 *
+	 * @param result The result of this item.
+	 */
+	public void complete(R result) {
+		set(result);
+	}
+
+	/**
+	 * Completes this item with a failure. Has no effect if an outcome has been reported already.
+	 *
+	 * @param failure The failure of this item.
+	 */
+	public void fail(Exception failure) {
+		setException(failure);
+	}
+
+	/**
+	 * Removes this item from its batch, unless the batch has been handed to the {@link IBatchHandler}
+	 * already.
+	 *
+	 * @return True, if this item has been withdrawn and will not be executed, false otherwise.
+	 */
+	public boolean withdraw() {
+		if (phase.compareAndSet(PENDING, WITHDRAWN)) {
+			cancel(false);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Marks this item as handed to the {@link IBatchHandler}, unless it has been withdrawn.
+	 */
+	boolean dispatch() {
+		return phase.compareAndSet(PENDING, DISPATCHED);
+	}
+}
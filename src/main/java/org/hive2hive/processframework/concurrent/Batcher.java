@@ -0,0 +1,330 @@
+package org.hive2hive.processframework.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hive2hive.processframework.BatchedStep;
+import org.hive2hive.processframework.decorators.AsyncComponent;
+import org.hive2hive.processframework.decorators.TimeoutComponent;
+import org.hive2hive.processframework.interfaces.IBatchHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects small, independent items into batches that are executed as bulk operations by an
+ * {@link IBatchHandler}. A batch is flushed as soon as it holds the maximum number of items or its oldest
+ * item has waited for the maximum delay, whichever comes first. Each item completes individually with its
+ * own result or failure (see {@link BatchItem}).<br>
+ * Batches are executed on an {@link ExecutorService}, such that the thread submitting the last item of a
+ * batch is not blocked by the bulk operation. The maximum delays are scheduled on a
+ * {@link HashedWheelTimer}. By default, the executor of the {@link AsyncComponent}s and the timer of the
+ * {@link TimeoutComponent}s are used.<br>
+ * Items are usually submitted by {@link BatchedStep}s, which a shared {@code Batcher} aggregates across
+ * process instances.<br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * // up to 100 puts per bulk call, no put waits longer than 5 ms
+ * Batcher&lt;Entry, Void&gt; puts = new Batcher&lt;Entry, Void&gt;(new BulkPutHandler(), 100, 5, TimeUnit.MILLISECONDS);
+ * </pre>
+ *
+ * @param <I> The type of the items.
+ * @param <R> The type of the per-item results.
+ */
+public class Batcher<I, R> {
+
+	private static final Logger logger = LoggerFactory.getLogger(Batcher.class);
+
+	private final IBatchHandler<I, R> handler;
+	private final int maxBatchSize;
+	private final long maxDelayNanos;
+	// null, if the default executor is used
+	private final ExecutorService executor;
+	// null, if the default timer is used
+	private final HashedWheelTimer timer;
+
+	private final Object lock = new Object();
+	// guarded by lock
+	private Batch current;
+
+	private final AtomicLong batches = new AtomicLong();
+	private final AtomicLong items = new AtomicLong();
+	private final AtomicLong fullBatches = new AtomicLong();
+
+	/**
+	 * Creates a {@code Batcher} that flushes its batches on the default executor.
+	 *
+	 * @param handler The {@link IBatchHandler} executing the batches.
+	 * @param maxBatchSize The maximum number of items per batch.
+	 * @param maxDelay The maximum time an item waits for its batch to be flushed.
+	 * @param unit The {@link TimeUnit} of the maximum delay.
+	 */
+	public Batcher(IBatchHandler<I, R> handler, int maxBatchSize, long maxDelay, TimeUnit unit) {
+		this(handler, maxBatchSize, maxDelay, unit, null, null);
+	}
+
+	/**
+	 * Creates a {@code Batcher} that flushes its batches on the provided {@link ExecutorService} and
+	 * schedules the maximum delays on the provided {@link HashedWheelTimer}.
+	 *
+	 * @param handler The {@link IBatchHandler} executing the batches.
+	 * @param maxBatchSize The maximum number of items per batch.
+	 * @param maxDelay The maximum time an item waits for its batch to be flushed.
+	 * @param unit The {@link TimeUnit} of the maximum delay.
+	 * @param executor The {@link ExecutorService} to be used or {@code null} to use the default executor.
+	 * @param timer The {@link HashedWheelTimer} to be used or {@code null} to use the default timer.
+	 */
+	public Batcher(IBatchHandler<I, R> handler, int maxBatchSize, long maxDelay, TimeUnit unit,
+			ExecutorService executor, HashedWheelTimer timer) {
+		if (handler == null) {
+			throw new IllegalArgumentException("Handler must not be null.");
+		}
+		if (maxBatchSize <= 0 || maxDelay < 0) {
+			throw new IllegalArgumentException("Max batch size must be positive, max delay not negative.");
+		}
+		this.handler = handler;
+		this.maxBatchSize = maxBatchSize;
+		this.maxDelayNanos = unit.toNanos(maxDelay);
+		this.executor = executor;
+		this.timer = timer;
+	}
+
+	/**
+	 * Adds the provided item to the current batch. Flushes the batch if it is full.
+	 *
+	 * @param item The item to be executed.
+	 * @return The {@link BatchItem}, which completes once the batch has been executed.
+	 */
+	public BatchItem<I, R> submit(I item) {
+		BatchItem<I, R> batchItem = new BatchItem<I, R>(item);
+		Batch full = null;
+		synchronized (lock) {
+			Batch batch = current;
+			if (batch == null) {
+				batch = new Batch();
+				current = batch;
+				if (maxBatchSize > 1) {
+					batch.schedule();
+				}
+			}
+			batch.items.add(batchItem);
+			if (batch.items.size() >= maxBatchSize || batch.delay == null) {
+				current = null;
+				full = batch;
+			}
+		}
+
+		if (full != null) {
+			full.cancelDelay();
+			if (full.items.size() >= maxBatchSize) {
+				fullBatches.incrementAndGet();
+			}
+			dispatch(full);
+		}
+		return batchItem;
+	}
+
+	/**
+	 * Flushes the current batch immediately, regardless of its size.
+	 */
+	public void flush() {
+		Batch batch;
+		synchronized (lock) {
+			batch = current;
+			current = null;
+		}
+		if (batch != null) {
+			batch.cancelDelay();
+			dispatch(batch);
+		}
+	}
+
+	public IBatchHandler<I, R> getHandler() {
+		return handler;
+	}
+
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	/**
+	 * Gets the maximum time an item waits for its batch to be flushed.
+	 *
+	 * @param unit The {@link TimeUnit} of the returned delay.
+	 * @return The maximum delay in the provided {@link TimeUnit}.
+	 */
+	public long getMaxDelay(TimeUnit unit) {
+		return unit.convert(maxDelayNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Gets the number of batches that have been handed to the {@link IBatchHandler}.
+	 *
+	 * @return The number of executed batches.
+	 */
+	public long getBatchCount() {
+		return batches.get();
+	}
+
+	/**
+	 * Gets the number of items that have been handed to the {@link IBatchHandler}.
+	 *
+	 * @return The number of executed items.
+	 */
+	public long getItemCount() {
+		return items.get();
+	}
+
+	/**
+	 * Gets the number of batches that have been flushed because they were full rather than because their
+	 * maximum delay had expired.
+	 *
+	 * @return The number of full batches.
+	 */
+	public long getFullBatchCount() {
+		return fullBatches.get();
+	}
+
+	/**
+	 * Gets the average number of items per executed batch.
+	 *
+	 * @return The mean batch size or 0 if no batch has been executed.
+	 */
+	public double getMeanBatchSize() {
+		long batchCount = batches.get();
+		return batchCount > 0 ? (double) items.get() / batchCount : 0.0;
+	}
+
+	/**
+	 * Gets the {@link ExecutorService} the batches are executed on.
+	 *
+	 * @return The {@link ExecutorService} of this {@code Batcher}.
+	 */
+	public ExecutorService getExecutor() {
+		return executor != null ? executor : AsyncComponent.getDefaultExecutor();
+	}
+
+	/**
+	 * Gets the {@link HashedWheelTimer} the maximum delays are scheduled on.
+	 *
+	 * @return The {@link HashedWheelTimer} of this {@code Batcher}.
+	 */
+	public HashedWheelTimer getTimer() {
+		return timer != null ? timer : TimeoutComponent.getDefaultTimer();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Batcher[%s: %s batches, %s items, max %s items per batch]", handler,
+				getBatchCount(), getItemCount(), maxBatchSize);
+	}
+
+	private void dispatch(Batch batch) {
+		try {
+			getExecutor().execute(batch);
+		} catch (RejectedExecutionException ex) {
+			logger.warn("Could not execute a batch of '{}'.", handler, ex);
+			batch.failAll(ex);
+		}
+	}
+
+	/**
+	 * The items collected until the next flush.
+	 */
+	private class Batch implements Runnable {
+
+		private final List<BatchItem<I, R>> items = new ArrayList<BatchItem<I, R>>();
+		// null, if the batch is flushed upon its first item
+		private volatile HashedWheelTimer.Timeout delay;
+
+		private void schedule() {
+			try {
+				delay = getTimer().newTimeout(new DelayedFlush(this), maxDelayNanos, TimeUnit.NANOSECONDS);
+			} catch (IllegalStateException ex) {
+				// the timer has been stopped, do not batch
+				logger.warn("Could not schedule the flush of a batch of '{}'.", handler, ex);
+			}
+		}
+
+		private void cancelDelay() {
+			HashedWheelTimer.Timeout pending = delay;
+			if (pending != null) {
+				pending.cancel();
+			}
+		}
+
+		@Override
+		public void run() {
+			List<BatchItem<I, R>> dispatched = new ArrayList<BatchItem<I, R>>(items.size());
+			for (BatchItem<I, R> item : items) {
+				if (item.dispatch()) {
+					dispatched.add(item);
+				}
+			}
+			if (dispatched.isEmpty()) {
+				return;
+			}
+			batches.incrementAndGet();
+			Batcher.this.items.addAndGet(dispatched.size());
+
+			try {
+				handler.executeBatch(Collections.unmodifiableList(dispatched));
+			} catch (Exception ex) {
+				logger.warn("Batch of {} items failed in '{}'.", dispatched.size(), handler, ex);
+				fail(dispatched, ex);
+				return;
+			}
+			fail(dispatched, new IllegalStateException(String.format(
+					"The batch handler '%s' has not reported an outcome.", handler)));
+		}
+
+		private void failAll(Exception failure) {
+			List<BatchItem<I, R>> pending = new ArrayList<BatchItem<I, R>>(items.size());
+			for (BatchItem<I, R> item : items) {
+				if (item.dispatch()) {
+					pending.add(item);
+				}
+			}
+			fail(pending, failure);
+		}
+
+		/**
+		 * Fails all provided items without an outcome.
+		 */
+		private void fail(List<BatchItem<I, R>> batchItems, Exception failure) {
+			for (BatchItem<I, R> item : batchItems) {
+				item.fail(failure);
+			}
+		}
+	}
+
+	/**
+	 * Flushes a batch once the maximum delay of its first item has expired. Runs on the timer thread.
+	 */
+	private class DelayedFlush implements Runnable {
+
+		private final Batch batch;
+
+		private DelayedFlush(Batch batch) {
+			this.batch = batch;
+		}
+
+		@Override
+		public void run() {
+			synchronized (lock) {
+				if (current != batch) {
+					// flushed already
+					return;
+				}
+				current = null;
+			}
+			dispatch(batch);
+		}
+	}
+}
@@ -0,0 +1,290 @@
+package org.hive2hive.processframework.concurrent;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent cache that is bounded in size and evicts entries after a time-to-live. The entries are spread
+ * over independently locked segments, each of which evicts its least recently used entry once it is full.
+ * Thus, concurrent accesses to different keys rarely contend and each lock is held for a single map
+ * operation only. Expired entries are evicted upon access or by {@link BoundedCache#cleanUp()}.<br>
+ * The cache keeps statistics about its hits, misses and evictions. Null values are not supported.<br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * BoundedCache&lt;String, Metadata&gt; cache = new BoundedCache&lt;String, Metadata&gt;(1000, 5, TimeUnit.MINUTES);
+ * Metadata metadata = cache.get(key);
+ * if (metadata == null) {
+ *     metadata = fetch(key);
+ *     cache.put(key, metadata);
+ * }
+ * </pre>
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the cached values.
+ */
+public class BoundedCache<K, V> {
+
+	private static final int MAX_SEGMENTS = 16;
+
+	private final int maxSize;
+	private final long timeToLiveNanos;
+	private final Segment[] segments;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * Creates a {@code BoundedCache} whose entries do not expire.
+	 *
+	 * @param maxSize The maximum number of entries.
+	 */
+	public BoundedCache(int maxSize) {
+		this(maxSize, 0, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Creates a {@code BoundedCache} whose entries expire after the provided time-to-live.
+	 *
+	 * @param maxSize The maximum number of entries.
+	 * @param timeToLive The time after which an entry expires or 0 if entries do not expire.
+	 * @param unit The {@link TimeUnit} of the time-to-live.
+	 */
+	@SuppressWarnings("unchecked")
+	public BoundedCache(int maxSize, long timeToLive, TimeUnit unit) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("Max size must be positive.");
+		}
+		if (timeToLive < 0) {
+			throw new IllegalArgumentException("Time-to-live must not be negative.");
+		}
+		this.maxSize = maxSize;
+		this.timeToLiveNanos = timeToLive > 0 ? unit.toNanos(timeToLive) : Long.MAX_VALUE;
+
+		// a power of two, such that the segment is selected by a mask, but no segment is empty
+		int segmentCount = Math.min(MAX_SEGMENTS, Integer.highestOneBit(maxSize));
+		segments = new BoundedCache.Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			int capacity = maxSize / segmentCount + (i < maxSize % segmentCount ? 1 : 0);
+			segments[i] = new Segment(capacity);
+		}
+	}
+
+	/**
+	 * Gets the value cached for the provided key.
+	 *
+	 * @param key The key of the value.
+	 * @return The cached value or {@code null} if there is none or it has expired.
+	 */
+	public V get(K key) {
+		Segment segment = segmentFor(key);
+		synchronized (segment) {
+			Entry<V> entry = segment.get(key);
+			if (entry != null && entry.isExpired(System.nanoTime())) {
+				segment.remove(key);
+				evictions.incrementAndGet();
+				entry = null;
+			}
+			if (entry == null) {
+				misses.incrementAndGet();
+				return null;
+			}
+			hits.incrementAndGet();
+			return entry.value;
+		}
+	}
+
+	/**
+	 * Caches the provided value for the provided key, replacing a previously cached value. If the cache is
+	 * full, the least recently used entry of the key's segment is evicted.
+	 *
+	 * @param key The key of the value.
+	 * @param value The value to be cached.
+	 */
+	public void put(K key, V value) {
+		if (key == null || value == null) {
+			throw new IllegalArgumentException("Key and value must not be null.");
+		}
+		long expiresAt = timeToLiveNanos == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime()
+				+ timeToLiveNanos;
+		Segment segment = segmentFor(key);
+		synchronized (segment) {
+			segment.put(key, new Entry<V>(value, expiresAt));
+		}
+	}
+
+	/**
+	 * Removes the entry for the provided key, but only if it still caches the provided value. Entries that
+	 * have been replaced in the meantime are kept.
+	 *
+	 * @param key The key of the entry.
+	 * @param value The value expected to be cached.
+	 * @return True, if the entry has been removed, false otherwise.
+	 */
+	public boolean remove(K key, V value) {
+		Segment segment = segmentFor(key);
+		synchronized (segment) {
+			Entry<V> entry = segment.get(key);
+			if (entry != null && entry.value.equals(value)) {
+				segment.remove(key);
+				return true;
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Removes the entry for the provided key.
+	 *
+	 * @param key The key of the entry.
+	 */
+	public void invalidate(K key) {
+		Segment segment = segmentFor(key);
+		synchronized (segment) {
+			segment.remove(key);
+		}
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void invalidateAll() {
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	/**
+	 * Evicts all entries that have expired.
+	 */
+	public void cleanUp() {
+		long now = System.nanoTime();
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				Iterator<Entry<V>> iterator = segment.values().iterator();
+				while (iterator.hasNext()) {
+					if (iterator.next().isExpired(now)) {
+						iterator.remove();
+						evictions.incrementAndGet();
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of entries, including expired entries that have not been evicted yet.
+	 *
+	 * @return The number of entries.
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * Gets the number of entries that have been evicted because the cache was full or they had expired.
+	 * Explicitly removed entries are not counted.
+	 *
+	 * @return The number of evicted entries.
+	 */
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+	/**
+	 * Gets the share of lookups that have found a value.
+	 *
+	 * @return The hit rate in [0, 1] or 0 if there have not been any lookups.
+	 */
+	public double getHitRate() {
+		long hitCount = hits.get();
+		long lookups = hitCount + misses.get();
+		return lookups > 0 ? (double) hitCount / lookups : 0.0;
+	}
+
+	/**
+	 * Clears the hit, miss and eviction counts.
+	 */
+	public void resetStatistics() {
+		hits.set(0);
+		misses.set(0);
+		evictions.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("BoundedCache[%s/%s entries, %s hits, %s misses, %s evictions]", size(), maxSize,
+				getHitCount(), getMissCount(), getEvictionCount());
+	}
+
+	private Segment segmentFor(Object key) {
+		int hash = key.hashCode();
+		hash ^= hash >>> 16;
+		return segments[hash & (segments.length - 1)];
+	}
+
+	private static final class Entry<V> {
+
+		private final V value;
+		private final long expiresAt;
+
+		private Entry(V value, long expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+
+		private boolean isExpired(long now) {
+			return expiresAt != Long.MAX_VALUE && now - expiresAt >= 0;
+		}
+	}
+
+	/**
+	 * Access-ordered map that evicts its least recently used entry once it exceeds its capacity. Guarded by
+	 * itself.
+	 */
+	private class Segment extends LinkedHashMap<K, Entry<V>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int capacity;
+
+		private Segment(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+			if (size() > capacity) {
+				evictions.incrementAndGet();
+				return true;
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package org.hive2hive.processframework.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Placeholder {@link Callable} of a {@link FutureTask} that is never run itself, but completed by
+ * {@code set()} or {@code setException()} of its subclass, e.g., by the attempts of a retried execution or
+ * by the handler of a batch.<br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * class Attempts extends FutureTask&lt;Void&gt; {
+ *     Attempts() {
+ *         super(new ExternallyCompleted&lt;Void&gt;());
+ *     }
+ * }
+ * </pre>
+ *
+ * @param <V> The type of the result of the task.
+ */
+public final class ExternallyCompleted<V> implements Callable<V> {
+
+	@Override
+	public V call() throws Exception {
+		throw new UnsupportedOperationException("The task is completed externally rather than being run.");
+	}
+}
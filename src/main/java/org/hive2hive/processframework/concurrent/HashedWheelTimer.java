@@ -0,0 +1,361 @@
+package org.hive2hive.processframework.concurrent;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Timer that schedules a large number of short-lived timeouts on a single thread. The timeouts are hashed
+ * into the buckets of a wheel that is advanced once per tick, such that scheduling and cancelling are
+ * {@code O(1)} and no thread sleeps per timeout. Timeouts expire with a precision of one tick, which is
+ * sufficient for timeouts that are almost always cancelled before they expire (e.g., execution timeouts).
+ * <br>
+ * The worker thread is a daemon thread that is started upon the first scheduled timeout. Expired tasks run
+ * on this thread and should therefore return quickly.<br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * HashedWheelTimer timer = new HashedWheelTimer();
+ * HashedWheelTimer.Timeout timeout = timer.newTimeout(task, 5, TimeUnit.SECONDS);
+ * ...
+ * timeout.cancel(); // task will not run
+ * </pre>
+ */
+public class HashedWheelTimer {
+
+	private static final Logger logger = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+	public static final long DEFAULT_TICK_DURATION_MS = 10;
+	public static final int DEFAULT_TICKS_PER_WHEEL = 512;
+
+	private static final int STATE_INIT = 0;
+	private static final int STATE_STARTED = 1;
+	private static final int STATE_STOPPED = 2;
+
+	private static final AtomicInteger timerCount = new AtomicInteger();
+
+	// half the range of nano times (about 146 years), such that deadlines do not overflow
+	private static final long MAX_DELAY_NANOS = Long.MAX_VALUE >> 1;
+
+	private final long tickDuration;
+	private final Bucket[] wheel;
+	private final int mask;
+
+	// handed over to the worker thread, which is the only one touching the buckets
+	private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<Timeout>();
+	private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<Timeout>();
+	private final AtomicLong pendingCount = new AtomicLong();
+
+	private final AtomicInteger state = new AtomicInteger(STATE_INIT);
+	private volatile long startTime;
+	private Thread worker;
+
+	/**
+	 * Creates a {@code HashedWheelTimer} with a tick duration of {@value #DEFAULT_TICK_DURATION_MS} ms and
+	 * {@value #DEFAULT_TICKS_PER_WHEEL} ticks per wheel.
+	 */
+	public HashedWheelTimer() {
+		this(DEFAULT_TICK_DURATION_MS, TimeUnit.MILLISECONDS, DEFAULT_TICKS_PER_WHEEL);
+	}
+
+	/**
+	 * Creates a {@code HashedWheelTimer} with the provided tick duration and wheel size.
+	 *
+	 * @param tickDuration The duration of a tick, i.e., the precision of the timeouts.
+	 * @param unit The {@link TimeUnit} of the tick duration.
+	 * @param ticksPerWheel The number of buckets of the wheel. Rounded up to the next power of two.
+	 */
+	public HashedWheelTimer(long tickDuration, TimeUnit unit, int ticksPerWheel) {
+		if (tickDuration <= 0) {
+			throw new IllegalArgumentException("Tick duration must be positive.");
+		}
+		if (ticksPerWheel <= 0 || ticksPerWheel > (1 << 30)) {
+			throw new IllegalArgumentException("Ticks per wheel must be in (0, 2^30].");
+		}
+		this.tickDuration = unit.toNanos(tickDuration);
+
+		int size = 1;
+		while (size < ticksPerWheel) {
+			size <<= 1;
+		}
+		wheel = new Bucket[size];
+		for (int i = 0; i < size; i++) {
+			wheel[i] = new Bucket();
+		}
+		mask = size - 1;
+	}
+
+	/**
+	 * Schedules the provided task to be run once after the provided delay. Very long delays are saturated
+	 * at about 146 years.
+	 *
+	 * @param task The task to be run on the worker thread of this timer.
+	 * @param delay The delay after which the task is run.
+	 * @param unit The {@link TimeUnit} of the delay.
+	 * @return The {@link Timeout} handle that allows to cancel the task.
+	 */
+	public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+		if (task == null) {
+			throw new IllegalArgumentException("Task must not be null.");
+		}
+		start();
+
+		long delayNanos = Math.min(unit.toNanos(Math.max(delay, 0)), MAX_DELAY_NANOS);
+		long deadline = System.nanoTime() - startTime + delayNanos;
+		Timeout timeout = new Timeout(task, deadline);
+		pendingCount.incrementAndGet();
+		newTimeouts.add(timeout);
+		return timeout;
+	}
+
+	/**
+	 * Stops the worker thread of this timer. Pending timeouts are discarded and no new timeouts can be
+	 * scheduled.
+	 */
+	public void stop() {
+		if (state.getAndSet(STATE_STOPPED) != STATE_STARTED) {
+			return;
+		}
+		Thread current = worker;
+		current.interrupt();
+		if (current != Thread.currentThread()) {
+			try {
+				current.join();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of timeouts that are scheduled and neither expired nor cancelled yet.
+	 *
+	 * @return The number of pending timeouts.
+	 */
+	public long getPendingCount() {
+		return pendingCount.get();
+	}
+
+	private void start() {
+		switch (state.get()) {
+			case STATE_STARTED:
+				return;
+			case STATE_STOPPED:
+				throw new IllegalStateException("The timer has been stopped.");
+			default:
+				synchronized (this) {
+					if (state.get() == STATE_INIT) {
+						startTime = System.nanoTime();
+						worker = new Thread(new Worker(), String.format("process timer %s",
+								timerCount.incrementAndGet()));
+						worker.setDaemon(true);
+						state.set(STATE_STARTED);
+						worker.start();
+					} else if (state.get() == STATE_STOPPED) {
+						throw new IllegalStateException("The timer has been stopped.");
+					}
+				}
+		}
+	}
+
+	/**
+	 * Handle of a task scheduled on a {@link HashedWheelTimer}.
+	 */
+	public final class Timeout {
+
+		private static final int PENDING = 0;
+		private static final int CANCELLED = 1;
+		private static final int EXPIRED = 2;
+
+		private final Runnable task;
+		private final long deadline;
+		private final AtomicInteger timeoutState = new AtomicInteger(PENDING);
+
+		// only accessed by the worker thread
+		private long remainingRounds;
+		private Bucket bucket;
+		private Timeout previous;
+		private Timeout next;
+
+		private Timeout(Runnable task, long deadline) {
+			this.task = task;
+			this.deadline = deadline;
+		}
+
+		/**
+		 * Cancels the task of this {@code Timeout}, unless it has expired already.
+		 *
+		 * @return True, if the task has been cancelled, false if it has expired or been cancelled before.
+		 */
+		public boolean cancel() {
+			if (!timeoutState.compareAndSet(PENDING, CANCELLED)) {
+				return false;
+			}
+			pendingCount.decrementAndGet();
+			cancelledTimeouts.add(this);
+			return true;
+		}
+
+		public boolean isCancelled() {
+			return timeoutState.get() == CANCELLED;
+		}
+
+		public boolean isExpired() {
+			return timeoutState.get() == EXPIRED;
+		}
+
+		public Runnable getTask() {
+			return task;
+		}
+
+		private void expire() {
+			if (!timeoutState.compareAndSet(PENDING, EXPIRED)) {
+				return;
+			}
+			pendingCount.decrementAndGet();
+			try {
+				task.run();
+			} catch (Throwable t) {
+				logger.warn("Timeout task '{}' failed.", task, t);
+			}
+		}
+	}
+
+	/**
+	 * Doubly-linked list of the timeouts hashed into the same slot of the wheel.
+	 */
+	private final class Bucket {
+
+		private Timeout head;
+		private Timeout tail;
+
+		private void add(Timeout timeout) {
+			timeout.bucket = this;
+			if (head == null) {
+				head = tail = timeout;
+			} else {
+				tail.next = timeout;
+				timeout.previous = tail;
+				tail = timeout;
+			}
+		}
+
+		private Timeout remove(Timeout timeout) {
+			Timeout next = timeout.next;
+			if (timeout.previous != null) {
+				timeout.previous.next = next;
+			}
+			if (next != null) {
+				next.previous = timeout.previous;
+			}
+			if (timeout == head) {
+				head = next;
+			}
+			if (timeout == tail) {
+				tail = timeout.previous;
+			}
+			timeout.previous = null;
+			timeout.next = null;
+			timeout.bucket = null;
+			return next;
+		}
+
+		private void expire(long deadline) {
+			Timeout timeout = head;
+			while (timeout != null) {
+				if (timeout.remainingRounds <= 0) {
+					Timeout next = remove(timeout);
+					if (timeout.deadline <= deadline) {
+						timeout.expire();
+					} else {
+						// cannot happen, since the timeout was hashed into a later round otherwise
+						throw new IllegalStateException(String.format(
+								"Timeout deadline %s is later than the current tick deadline %s.",
+								timeout.deadline, deadline));
+					}
+					timeout = next;
+				} else if (timeout.isCancelled()) {
+					timeout = remove(timeout);
+				} else {
+					timeout.remainingRounds--;
+					timeout = timeout.next;
+				}
+			}
+		}
+	}
+
+	private final class Worker implements Runnable {
+
+		private long tick;
+
+		@Override
+		public void run() {
+			while (state.get() == STATE_STARTED) {
+				long deadline = awaitNextTick();
+				if (deadline < 0) {
+					break;
+				}
+				removeCancelled();
+				transferNew();
+				wheel[(int) (tick & mask)].expire(deadline);
+				tick++;
+			}
+			newTimeouts.clear();
+			cancelledTimeouts.clear();
+		}
+
+		private void transferNew() {
+			Timeout timeout;
+			while ((timeout = newTimeouts.poll()) != null) {
+				if (timeout.isCancelled()) {
+					continue;
+				}
+				long calculated = timeout.deadline / tickDuration;
+				timeout.remainingRounds = (calculated - tick) / wheel.length;
+
+				// timeouts scheduled in the past expire upon the current tick
+				long ticks = Math.max(calculated, tick);
+				wheel[(int) (ticks & mask)].add(timeout);
+			}
+		}
+
+		private void removeCancelled() {
+			Timeout timeout;
+			while ((timeout = cancelledTimeouts.poll()) != null) {
+				// null if it has not been transferred yet
+				if (timeout.bucket != null) {
+					timeout.bucket.remove(timeout);
+				}
+			}
+		}
+
+		/**
+		 * Sleeps until the end of the current tick.
+		 *
+		 * @return The time elapsed since the start of the timer or -1 if the timer has been stopped.
+		 */
+		private long awaitNextTick() {
+			long deadline = tickDuration * (tick + 1);
+			while (true) {
+				long currentTime = System.nanoTime() - startTime;
+				long sleepMs = (deadline - currentTime + 999999) / 1000000;
+				if (sleepMs <= 0) {
+					return currentTime;
+				}
+				try {
+					Thread.sleep(sleepMs);
+				} catch (InterruptedException ex) {
+					if (state.get() == STATE_STOPPED) {
+						return -1;
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package org.hive2hive.processframework.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket that limits the rate of operations. The bucket holds up to {@code capacity}
+ * tokens and is refilled at a constant rate. Each operation consumes one token.<br>
+ * Instead of counting tokens, the bucket keeps the theoretical time at which it would be full again (the
+ * generic cell rate algorithm). This single value is updated by a compare-and-set, such that acquiring a
+ * token never blocks and contended acquisitions only retry the update.<br>
+ * Besides acquiring an available token, a token can be reserved in advance (see
+ * {@link TokenBucket#tryReserve(long, TimeUnit)}). The caller is then responsible for deferring the
+ * operation until the reserved token becomes available.<br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * // 100 operations per second, bursts of up to 10
+ * TokenBucket bucket = new TokenBucket(100, 1, TimeUnit.SECONDS, 10);
+ * if (bucket.tryAcquire()) {
+ *     ...
+ * }
+ * </pre>
+ */
+public class TokenBucket {
+
+	private final long intervalNanos;
+	private final int capacity;
+	private final long capacityNanos;
+
+	// the time at which the bucket is full again, if no further token is taken
+	private final AtomicLong fullAt;
+
+	/**
+	 * Creates a full {@code TokenBucket} that is refilled with the provided number of tokens per period.
+	 *
+	 * @param tokens The number of tokens refilled per period.
+	 * @param period The refill period.
+	 * @param unit The {@link TimeUnit} of the period.
+	 * @param capacity The maximum number of tokens, i.e., the maximum burst.
+	 */
+	public TokenBucket(long tokens, long period, TimeUnit unit, int capacity) {
+		if (tokens <= 0 || period <= 0) {
+			throw new IllegalArgumentException("Tokens and period must be positive.");
+		}
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive.");
+		}
+		this.intervalNanos = unit.toNanos(period) / tokens;
+		if (intervalNanos <= 0) {
+			throw new IllegalArgumentException("Rate must not exceed one token per nanosecond.");
+		}
+		this.capacity = capacity;
+		this.capacityNanos = intervalNanos * capacity;
+		this.fullAt = new AtomicLong(System.nanoTime());
+	}
+
+	/**
+	 * Takes a token if one is available.
+	 *
+	 * @return True, if a token has been taken, false if the bucket is empty.
+	 */
+	public boolean tryAcquire() {
+		return tryReserve(0, TimeUnit.NANOSECONDS) == 0;
+	}
+
+	/**
+	 * Reserves the next token, unless it becomes available only after the provided maximum wait.
+	 *
+	 * @param maxWait The maximum time the caller is willing to wait for the token.
+	 * @param unit The {@link TimeUnit} of the maximum wait.
+	 * @return The time in the provided {@link TimeUnit} until the reserved token becomes available (0, if it
+	 *         is available immediately) or -1 if no token has been reserved.
+	 */
+	public long tryReserve(long maxWait, TimeUnit unit) {
+		long maxWaitNanos = unit.toNanos(Math.max(maxWait, 0));
+		while (true) {
+			long now = System.nanoTime();
+			long current = fullAt.get();
+			// an idle bucket is full, but does not save up more than its capacity
+			long base = current - now > 0 ? current : now;
+			long next = base + intervalNanos;
+			long waitNanos = next - capacityNanos - now;
+			if (waitNanos > maxWaitNanos) {
+				return -1;
+			}
+			if (fullAt.compareAndSet(current, next)) {
+				return waitNanos > 0 ? Math.max(unit.convert(waitNanos, TimeUnit.NANOSECONDS), 1) : 0;
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of tokens that are currently available.
+	 *
+	 * @return The number of available tokens in [0, capacity].
+	 */
+	public int getAvailableTokens() {
+		long missingNanos = fullAt.get() - System.nanoTime();
+		if (missingNanos <= 0) {
+			return capacity;
+		}
+		long available = (capacityNanos - missingNanos) / intervalNanos;
+		return (int) Math.max(available, 0);
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Gets the time between two refilled tokens.
+	 *
+	 * @param unit The {@link TimeUnit} of the returned interval.
+	 * @return The refill interval in the provided {@link TimeUnit}.
+	 */
+	public long getRefillInterval(TimeUnit unit) {
+		return unit.convert(intervalNanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("TokenBucket[%s/%s tokens, refill every %s us]", getAvailableTokens(), capacity,
+				TimeUnit.NANOSECONDS.toMicros(intervalNanos));
+	}
+}
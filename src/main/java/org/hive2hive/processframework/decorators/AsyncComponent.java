@@ -1,16 +1,28 @@
 package org.hive2hive.processframework.decorators;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hive2hive.processframework.ProcessDecorator;
+import org.hive2hive.processframework.ProcessState;
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
 import org.hive2hive.processframework.exceptions.ProcessExecutionException;
 import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.interfaces.IAsyncCompletionListener;
+import org.hive2hive.processframework.interfaces.IAsyncExecutionMonitor;
 import org.hive2hive.processframework.interfaces.IProcessComponent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -53,7 +65,12 @@ import org.slf4j.LoggerFactory;
  * </pre>
  * 
  * <b>Example:</b> Asynchronous process rollback works similar, but throws a possible
- * {@link ProcessRollbackException}.
+ * {@link ProcessRollbackException}.<br>
+ * <br>
+ * By default, all {@code AsyncComponent}s share an unbounded thread pool (see
+ * {@link AsyncComponent#getDefaultExecutor()}). A dedicated {@link ExecutorService} can be provided upon
+ * construction. The queue-wait and service time of the submitted tasks can be observed by attaching an
+ * {@link IAsyncExecutionMonitor}.
  * 
  * @author Christian Lüthold
  *
@@ -63,28 +80,51 @@ public class AsyncComponent<T> extends ProcessDecorator<Future<T>> {
 
 	private static final Logger logger = LoggerFactory.getLogger(AsyncComponent.class);
 
+	// idle threads are kept shortly only, such that they don't delay the JVM shutdown
+	private static final long DEFAULT_KEEP_ALIVE_MS = 1000;
+	private static volatile ExecutorService defaultExecutor = createDefaultExecutor();
+
+	// copy-on-write, such that notifying monitors does not need any locking
+	private static final Object monitorLock = new Object();
+	private static volatile IAsyncExecutionMonitor[] asyncMonitors = new IAsyncExecutionMonitor[0];
+
 	// store a reference to the IProcessComponent<T>, such that we know its type argument T
 	private volatile IProcessComponent<T> component;
+	// null, if the default executor is used
+	private final ExecutorService executor;
 
 	private volatile Future<T> executionHandle;
+	private volatile IAsyncCompletionListener completionListener;
 
 	public AsyncComponent(IProcessComponent<T> decoratedComponent) {
+		this(decoratedComponent, null);
+	}
+
+	/**
+	 * Creates an {@code AsyncComponent} that runs the execution and rollback of the decorated component on
+	 * the provided {@link ExecutorService}.
+	 * 
+	 * @param decoratedComponent The {@link IProcessComponent} to be decorated.
+	 * @param executor The {@link ExecutorService} to be used or {@code null} to use the default executor.
+	 */
+	public AsyncComponent(IProcessComponent<T> decoratedComponent, ExecutorService executor) {
 		super(decoratedComponent);
 		component = decoratedComponent;
+		this.executor = executor;
 	}
 
 	@Override
 	protected Future<T> doExecute() throws InvalidProcessStateException, ProcessExecutionException {
 
-		ExecutorService executor = Executors.newSingleThreadExecutor();
 		ExecutionRunner executionRunner = new ExecutionRunner();
+		ExecutionTask executionTask = new ExecutionTask(executionRunner);
+		executionHandle = executionTask;
 		try {
-			executionHandle = executor.submit(executionRunner);
-		} catch (RejectedExecutionException ex) {
-			throw new ProcessExecutionException(this, ex);
-		} finally {
-			// already shutdown the executor, does not disturb the already running thread
-			executor.shutdown();
+			submitExecution(executionRunner, executionTask);
+		} catch (ProcessExecutionException ex) {
+			// the task will never run, thus a rollback must not await it
+			executionHandle = null;
+			throw ex;
 		}
 
 		// immediate return, since execution is async
@@ -94,51 +134,313 @@ public class AsyncComponent<T> extends ProcessDecorator<Future<T>> {
 	@Override
 	protected Future<T> doRollback() throws InvalidProcessStateException, ProcessRollbackException {
 
-		ExecutorService executor = Executors.newSingleThreadExecutor();
-		RollbackRunner rollbackRunner = new RollbackRunner();
+		MonitoredRunner rollbackRunner = createRollbackRunner();
+		rollbackRunner.notifySubmitted();
 		try {
 			// immediate return, since rollback is async
-			return executor.submit(rollbackRunner);
+			return getRollbackExecutor().submit(rollbackRunner);
 		} catch (RejectedExecutionException ex) {
+			rollbackRunner.notifyRejected();
 			throw new ProcessRollbackException(this, ex);
-		} finally {
-			// already shutdown the executor, does not disturb the already running thread
-			executor.shutdown();
 		}
 	}
 
+	/**
+	 * Cancels the wrapped/decorated {@link IProcessComponent}, which interrupts the thread executing it or
+	 * lets it fail immediately if it is still queued. Since the execution of this {@code AsyncComponent}
+	 * has returned already, the requested rollback is delegated to the decorated component as well.<br>
+	 * <b>Note:</b> Cancelling the {@link Future} returned by {@link AsyncComponent#execute()} does not
+	 * reach the decorated component.
+	 */
+	@Override
+	protected void doCancel(boolean rollback) {
+		component.cancel(rollback);
+	}
+
+	/**
+	 * Sets the {@link IAsyncCompletionListener} that gets notified once the asynchronous execution of this
+	 * {@code AsyncComponent} has completed. Usually set by the parent composite.
+	 * 
+	 * @param listener The {@link IAsyncCompletionListener} or {@code null} to remove it.
+	 */
+	public void setCompletionListener(IAsyncCompletionListener listener) {
+		completionListener = listener;
+	}
+
+	/**
+	 * Gets the {@link ExecutorService} this {@code AsyncComponent} runs on.
+	 * 
+	 * @return The {@link ExecutorService} of this {@code AsyncComponent}.
+	 */
+	public ExecutorService getExecutor() {
+		return executor != null ? executor : defaultExecutor;
+	}
+
+	/**
+	 * Gets the {@link ExecutorService} shared by all {@code AsyncComponent}s that have not been provided a
+	 * dedicated one. Unless replaced, this is an unbounded {@link ThreadPoolExecutor}.
+	 * 
+	 * @return The default {@link ExecutorService}.
+	 */
+	public static ExecutorService getDefaultExecutor() {
+		return defaultExecutor;
+	}
+
+	/**
+	 * Replaces the {@link ExecutorService} shared by all {@code AsyncComponent}s that have not been provided
+	 * a dedicated one. The previous default executor is not shut down.<br>
+	 * <b>Note:</b> A bounded executor might deadlock if asynchronous components await other asynchronous
+	 * components (e.g., an asynchronous {@code SyncProcess} with asynchronous children).
+	 * 
+	 * @param executor The new default {@link ExecutorService}.
+	 */
+	public static void setDefaultExecutor(ExecutorService executor) {
+		if (executor == null) {
+			throw new IllegalArgumentException("Executor must not be null.");
+		}
+		defaultExecutor = executor;
+	}
+
+	/**
+	 * Attaches an {@link IAsyncExecutionMonitor} that gets notified about the tasks submitted by all
+	 * {@code AsyncComponent}s. Tasks submitted before attaching are not reported.
+	 * 
+	 * @param monitor The {@link IAsyncExecutionMonitor} to be attached.
+	 */
+	public static void attachAsyncMonitor(IAsyncExecutionMonitor monitor) {
+		synchronized (monitorLock) {
+			IAsyncExecutionMonitor[] current = asyncMonitors;
+			IAsyncExecutionMonitor[] updated = Arrays.copyOf(current, current.length + 1);
+			updated[current.length] = monitor;
+			asyncMonitors = updated;
+		}
+	}
+
+	/**
+	 * Detaches an {@link IAsyncExecutionMonitor} from all {@code AsyncComponent}s.
+	 * 
+	 * @param monitor The {@link IAsyncExecutionMonitor} to be detached.
+	 */
+	public static void detachAsyncMonitor(IAsyncExecutionMonitor monitor) {
+		synchronized (monitorLock) {
+			List<IAsyncExecutionMonitor> updated = new ArrayList<IAsyncExecutionMonitor>(
+					Arrays.asList(asyncMonitors));
+			updated.remove(monitor);
+			asyncMonitors = updated.toArray(new IAsyncExecutionMonitor[updated.size()]);
+		}
+	}
+
+	/**
+	 * Gets all {@link IAsyncExecutionMonitor}s that are currently attached.
+	 * 
+	 * @return All attached {@link IAsyncExecutionMonitor}s.
+	 */
+	public static List<IAsyncExecutionMonitor> getAsyncMonitors() {
+		return Collections.unmodifiableList(Arrays.asList(asyncMonitors));
+	}
+
+	/**
+	 * Submits the provided task, which runs the provided execution runner, to the executor and notifies the
+	 * {@link IAsyncExecutionMonitor}s.
+	 */
+	void submitExecution(MonitoredRunner runner, Runnable task) throws ProcessExecutionException {
+		runner.notifySubmitted();
+		try {
+			getExecutor().execute(task);
+		} catch (RejectedExecutionException ex) {
+			runner.notifyRejected();
+			throw new ProcessExecutionException(this, ex);
+		}
+	}
+
+	/**
+	 * Gets the {@link ExecutorService} the rollback runs on. By default, this is the executor of the
+	 * execution.
+	 */
+	ExecutorService getRollbackExecutor() {
+		return getExecutor();
+	}
+
+	/**
+	 * Creates the task that rolls back the decorated component. By default, the rollback awaits a still
+	 * executing component.
+	 */
+	MonitoredRunner createRollbackRunner() {
+		return new RollbackRunner();
+	}
+
+	/**
+	 * Sets the {@link Future} the rollback awaits if the decorated component is still executing.
+	 */
+	void setExecutionHandle(Future<T> executionHandle) {
+		this.executionHandle = executionHandle;
+	}
+
+	private static ExecutorService createDefaultExecutor() {
+		ThreadFactory threadFactory = new ThreadFactory() {
+
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				return new Thread(runnable, String.format("async process %s", count.incrementAndGet()));
+			}
+		};
+		return new ThreadPoolExecutor(0, Integer.MAX_VALUE, DEFAULT_KEEP_ALIVE_MS, TimeUnit.MILLISECONDS,
+				new SynchronousQueue<Runnable>(), threadFactory);
+	}
+
 	@Override
 	public String toString() {
 		return String.format("Async[%s]", decoratedComponent.toString());
 	}
 
-	private void nameThread(boolean isExecution) {
+	/**
+	 * Names the current thread after the task it runs and returns its previous name, which has to be
+	 * restored once the task ends, as the thread is pooled.
+	 */
+	private static String nameThread(boolean isExecution) {
+		Thread thread = Thread.currentThread();
+		String previous = thread.getName();
+		try {
+			thread.checkAccess();
+			thread.setName(String.format("async %s", isExecution ? "execution" : "rollback"));
+		} catch (SecurityException ex) {
+			// occurs if the current thread does not have access
+		}
+		return previous;
+	}
+
+	private static void restoreThreadName(String name) {
 		try {
-			Thread.currentThread().checkAccess();
-			Thread.currentThread().setName(String.format("async %s", isExecution ? "execution" : "rollback"));
+			Thread.currentThread().setName(name);
 		} catch (SecurityException ex) {
 			// occurs if the current thread does not have access
 		}
 	}
 
-	private class ExecutionRunner implements Callable<T> {
+	/**
+	 * Task that timestamps its submission, start and end for the {@link IAsyncExecutionMonitor}s that were
+	 * attached upon its creation.
+	 */
+	abstract class MonitoredRunner implements Callable<T> {
+
+		private final IAsyncExecutionMonitor[] monitors = asyncMonitors;
+		private final boolean isRollback;
+		private final long submitNanos;
+
+		protected MonitoredRunner(boolean isRollback) {
+			this.isRollback = isRollback;
+			this.submitNanos = monitors.length > 0 ? System.nanoTime() : 0L;
+		}
 
 		@Override
-		public T call() throws Exception {
+		public final T call() throws Exception {
+
+			String threadName = nameThread(!isRollback);
+			try {
+				return monitors.length == 0 ? run() : runMonitored();
+			} finally {
+				restoreThreadName(threadName);
+			}
+		}
 
-			nameThread(true);
+		private T runMonitored() throws Exception {
+
+			long startNanos = System.nanoTime();
+			long queueWait = startNanos - submitNanos;
+			for (IAsyncExecutionMonitor monitor : monitors) {
+				try {
+					monitor.onStarted(component, isRollback, queueWait);
+				} catch (RuntimeException ex) {
+					logger.warn("Async execution monitor '{}' failed.", monitor, ex);
+				}
+			}
+
+			boolean success = false;
+			try {
+				T result = run();
+				success = true;
+				return result;
+			} finally {
+				long service = System.nanoTime() - startNanos;
+				for (IAsyncExecutionMonitor monitor : monitors) {
+					try {
+						monitor.onEnded(component, isRollback, queueWait, service, success);
+					} catch (RuntimeException ex) {
+						logger.warn("Async execution monitor '{}' failed.", monitor, ex);
+					}
+				}
+			}
+		}
+
+		protected abstract T run() throws Exception;
+
+		void notifySubmitted() {
+			for (IAsyncExecutionMonitor monitor : monitors) {
+				try {
+					monitor.onSubmitted(component, isRollback);
+				} catch (RuntimeException ex) {
+					logger.warn("Async execution monitor '{}' failed.", monitor, ex);
+				}
+			}
+		}
+
+		void notifyRejected() {
+			for (IAsyncExecutionMonitor monitor : monitors) {
+				try {
+					monitor.onRejected(component, isRollback);
+				} catch (RuntimeException ex) {
+					logger.warn("Async execution monitor '{}' failed.", monitor, ex);
+				}
+			}
+		}
+	}
+
+	class ExecutionRunner extends MonitoredRunner {
+
+		ExecutionRunner() {
+			super(false);
+		}
+
+		@Override
+		protected T run() throws Exception {
 
 			// throw all kinds of exceptions
 			return component.execute();
 		}
 	}
 
-	private class RollbackRunner implements Callable<T> {
+	/**
+	 * Notifies the {@link IAsyncCompletionListener} once the execution is done.
+	 */
+	class ExecutionTask extends FutureTask<T> {
+
+		ExecutionTask(Callable<T> callable) {
+			super(callable);
+		}
 
 		@Override
-		public T call() throws Exception {
+		protected void done() {
+			IAsyncCompletionListener listener = completionListener;
+			if (listener != null) {
+				try {
+					listener.onExecutionCompleted(AsyncComponent.this, this);
+				} catch (RuntimeException ex) {
+					logger.warn("Async completion listener '{}' failed.", listener, ex);
+				}
+			}
+		}
+	}
+
+	private class RollbackRunner extends MonitoredRunner {
+
+		private RollbackRunner() {
+			super(true);
+		}
 
-			nameThread(false);
+		@Override
+		protected T run() throws Exception {
 
 			// mind: async component might be in any state
 			// 1st try
@@ -152,10 +454,16 @@ public class AsyncComponent<T> extends ProcessDecorator<Future<T>> {
 				// -> only invalid state for component rollback is EXECUTING
 				// -> await execution termination, then start 2nd try
 
+				Future<T> handle = executionHandle;
+				if (handle == null) {
+					// the execution has failed before being submitted, nothing to roll back
+					return null;
+				}
+
 				// await execution termination
 				try {
 					logger.debug("Awaiting execution termination before rollback.");
-					executionHandle.get();
+					handle.get();
 				} catch (ExecutionException ex2) {
 					if (ex2.getCause() instanceof ProcessExecutionException) {
 						// component execution failed, rollback already triggered, thus rollback
@@ -164,6 +472,11 @@ public class AsyncComponent<T> extends ProcessDecorator<Future<T>> {
 					}
 				}
 
+				if (component.getState() == ProcessState.READY) {
+					// the execution has failed before the component has been started, nothing to roll back
+					return null;
+				}
+
 				// 2nd try
 				try {
 					return component.rollback();
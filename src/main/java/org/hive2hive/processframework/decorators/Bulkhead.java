@@ -0,0 +1,300 @@
+package org.hive2hive.processframework.decorators;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A named compartment that isolates the executions of {@link BulkheadComponent}s from all others. Each
+ * compartment has its own threads, limited to a maximum concurrency, and its own bounded queue. Thus, a
+ * burst of slow components saturates their compartment only, while components in other compartments are
+ * not affected. Once the queue of a compartment is full, further executions are rejected.<br>
+ * The saturation of a compartment can be observed by its active and queued counts, their peaks and the
+ * number of rejections.<br>
+ * <br>
+ * Compartments created by {@link Bulkhead#forName(String)} are shared by all components using the same
+ * name. Idle threads are released after a short keep-alive.<br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * Bulkhead.register(new Bulkhead("disk", 4, 100));
+ * ...
+ * process.add(new BulkheadComponent&lt;Void&gt;(new WriteChunkStep(), "disk"));
+ * </pre>
+ */
+public class Bulkhead {
+
+	public static final int DEFAULT_MAX_CONCURRENCY = 10;
+	public static final int DEFAULT_QUEUE_CAPACITY = 100;
+
+	// idle threads are kept shortly only, such that they don't delay the JVM shutdown
+	private static final long KEEP_ALIVE_MS = 1000;
+
+	private static final ConcurrentMap<String, Bulkhead> bulkheads = new ConcurrentHashMap<String, Bulkhead>();
+
+	private final String name;
+	private final int maxConcurrency;
+	private final int queueCapacity;
+	private final CompartmentExecutor executor;
+
+	private final AtomicInteger active = new AtomicInteger();
+	private final AtomicInteger peakActive = new AtomicInteger();
+	private final AtomicInteger peakQueued = new AtomicInteger();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong completed = new AtomicLong();
+
+	/**
+	 * Creates a {@code Bulkhead} with {@value #DEFAULT_MAX_CONCURRENCY} threads and a queue for
+	 * {@value #DEFAULT_QUEUE_CAPACITY} executions.
+	 *
+	 * @param name The name of this compartment.
+	 */
+	public Bulkhead(String name) {
+		this(name, DEFAULT_MAX_CONCURRENCY, DEFAULT_QUEUE_CAPACITY);
+	}
+
+	/**
+	 * Creates a {@code Bulkhead} with the provided limits.
+	 *
+	 * @param name The name of this compartment.
+	 * @param maxConcurrency The maximum number of concurrent executions.
+	 * @param queueCapacity The maximum number of waiting executions, 0 to reject executions as soon as all
+	 *            threads are busy.
+	 */
+	public Bulkhead(String name, int maxConcurrency, int queueCapacity) {
+		if (name == null) {
+			throw new IllegalArgumentException("Name must not be null.");
+		}
+		if (maxConcurrency < 1 || queueCapacity < 0) {
+			throw new IllegalArgumentException("Max concurrency must be positive, queue capacity not negative.");
+		}
+		this.name = name;
+		this.maxConcurrency = maxConcurrency;
+		this.queueCapacity = queueCapacity;
+		this.executor = new CompartmentExecutor(queueCapacity > 0 ? new ArrayBlockingQueue<Runnable>(
+				queueCapacity) : new SynchronousQueue<Runnable>());
+	}
+
+	/**
+	 * Gets the shared {@code Bulkhead} with the provided name. If none has been registered, a compartment
+	 * with the default limits is created.
+	 *
+	 * @param name The name of the compartment.
+	 * @return The shared {@code Bulkhead} with the provided name.
+	 */
+	public static Bulkhead forName(String name) {
+		Bulkhead existing = bulkheads.get(name);
+		if (existing != null) {
+			return existing;
+		}
+		Bulkhead created = new Bulkhead(name);
+		Bulkhead registered = register(created);
+		if (registered != created) {
+			created.shutdown();
+		}
+		return registered;
+	}
+
+	/**
+	 * Registers the provided {@code Bulkhead} to be shared by its name, unless a compartment has been
+	 * registered for this name before.
+	 *
+	 * @param bulkhead The {@code Bulkhead} to be registered.
+	 * @return The {@code Bulkhead} that is registered for the name.
+	 */
+	public static Bulkhead register(Bulkhead bulkhead) {
+		Bulkhead existing = bulkheads.putIfAbsent(bulkhead.getName(), bulkhead);
+		return existing != null ? existing : bulkhead;
+	}
+
+	/**
+	 * Gets all shared {@code Bulkhead}s, mapped by their name.
+	 *
+	 * @return All shared {@code Bulkhead}s.
+	 */
+	public static Map<String, Bulkhead> getBulkheads() {
+		return Collections.unmodifiableMap(new HashMap<String, Bulkhead>(bulkheads));
+	}
+
+	/**
+	 * Gets the {@link ExecutorService} of this compartment. Rejects executions with a
+	 * {@link RejectedExecutionException} once the queue is full.
+	 *
+	 * @return The {@link ExecutorService} of this compartment.
+	 */
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Shuts this compartment down and removes it from the shared compartments. Queued executions are still
+	 * run.
+	 */
+	public void shutdown() {
+		bulkheads.remove(name, this);
+		executor.shutdown();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	/**
+	 * Gets the number of executions that are currently running in this compartment.
+	 *
+	 * @return The number of active executions.
+	 */
+	public int getActiveCount() {
+		return active.get();
+	}
+
+	/**
+	 * Gets the number of executions that are waiting for a thread of this compartment.
+	 *
+	 * @return The number of queued executions.
+	 */
+	public int getQueuedCount() {
+		return executor.getQueue().size();
+	}
+
+	/**
+	 * Gets the highest number of simultaneously running executions.
+	 *
+	 * @return The peak number of active executions.
+	 */
+	public int getPeakActiveCount() {
+		return peakActive.get();
+	}
+
+	/**
+	 * Gets the highest number of simultaneously queued executions.
+	 *
+	 * @return The peak number of queued executions.
+	 */
+	public int getPeakQueuedCount() {
+		return peakQueued.get();
+	}
+
+	/**
+	 * Gets the number of executions this compartment has rejected because its queue was full.
+	 *
+	 * @return The number of rejected executions.
+	 */
+	public long getRejectedCount() {
+		return rejected.get();
+	}
+
+	/**
+	 * Gets the number of executions this compartment has completed.
+	 *
+	 * @return The number of completed executions.
+	 */
+	public long getCompletedCount() {
+		return completed.get();
+	}
+
+	/**
+	 * Gets the share of the threads of this compartment that are currently busy.
+	 *
+	 * @return The number of active executions divided by the maximum concurrency, in the range [0, 1].
+	 */
+	public double getUtilization() {
+		return Math.min((double) getActiveCount() / maxConcurrency, 1.0);
+	}
+
+	/**
+	 * Clears the peaks and the counters of this compartment. The current active and queued counts are kept.
+	 */
+	public void resetStatistics() {
+		peakActive.set(getActiveCount());
+		peakQueued.set(getQueuedCount());
+		rejected.set(0);
+		completed.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Bulkhead[%s: active=%s/%s (peak %s), queued=%s/%s (peak %s), rejected=%s]", name,
+				getActiveCount(), maxConcurrency, getPeakActiveCount(), getQueuedCount(), queueCapacity,
+				getPeakQueuedCount(), getRejectedCount());
+	}
+
+	private static void updatePeak(AtomicInteger peak, int value) {
+		int current = peak.get();
+		while (value > current && !peak.compareAndSet(current, value)) {
+			current = peak.get();
+		}
+	}
+
+	/**
+	 * Executor that tracks the saturation of the compartment.
+	 */
+	private class CompartmentExecutor extends ThreadPoolExecutor {
+
+		private CompartmentExecutor(BlockingQueue<Runnable> queue) {
+			super(maxConcurrency, maxConcurrency, KEEP_ALIVE_MS, TimeUnit.MILLISECONDS, queue,
+					new CompartmentThreadFactory(), new CountingAbortPolicy());
+			allowCoreThreadTimeOut(true);
+		}
+
+		@Override
+		public void execute(Runnable command) {
+			super.execute(command);
+			updatePeak(peakQueued, getQueue().size());
+		}
+
+		@Override
+		protected void beforeExecute(Thread thread, Runnable runnable) {
+			updatePeak(peakActive, active.incrementAndGet());
+			super.beforeExecute(thread, runnable);
+		}
+
+		@Override
+		protected void afterExecute(Runnable runnable, Throwable throwable) {
+			super.afterExecute(runnable, throwable);
+			active.decrementAndGet();
+			completed.incrementAndGet();
+		}
+	}
+
+	private class CompartmentThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			return new Thread(runnable, String.format("bulkhead %s %s", name, count.incrementAndGet()));
+		}
+	}
+
+	private class CountingAbortPolicy implements RejectedExecutionHandler {
+
+		@Override
+		public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+			rejected.incrementAndGet();
+			throw new RejectedExecutionException(String.format("Compartment '%s' is saturated.", name));
+		}
+	}
+}
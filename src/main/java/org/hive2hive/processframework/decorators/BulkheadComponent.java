@@ -0,0 +1,83 @@
+package org.hive2hive.processframework.decorators;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+
+/**
+ * An {@link AsyncComponent} that executes the wrapped/decorated {@link IProcessComponent} in a named
+ * compartment (see {@link Bulkhead}). Each compartment has its own threads and queue, such that slow
+ * components cannot starve the components of other compartments. If the queue of the compartment is full,
+ * the execution fails immediately with a {@link ProcessExecutionException}.<br>
+ * The rollback is never rejected and runs on the default executor (see
+ * {@link AsyncComponent#getDefaultExecutor()}).<br>
+ * <b>Note:</b> Since compartments are bounded, components in a compartment should not await other
+ * components of the same compartment (e.g., an asynchronous {@code SyncProcess} with asynchronous children).
+ * Otherwise, the compartment might deadlock.<br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * process.add(new BulkheadComponent&lt;Void&gt;(new DownloadStep(), "network"));
+ * process.add(new BulkheadComponent&lt;Void&gt;(new WriteChunkStep(), "disk"));
+ * </pre>
+ *
+ * @param <T> The type of the result computed by the wrapped/decorated {@code IProcessComponent}.
+ */
+public class BulkheadComponent<T> extends AsyncComponent<T> {
+
+	private final Bulkhead bulkhead;
+
+	/**
+	 * Creates a {@code BulkheadComponent} that executes in the shared compartment with the provided name
+	 * (see {@link Bulkhead#forName(String)}).
+	 *
+	 * @param decoratedComponent The {@link IProcessComponent} to be decorated.
+	 * @param compartment The name of the compartment.
+	 */
+	public BulkheadComponent(IProcessComponent<T> decoratedComponent, String compartment) {
+		this(decoratedComponent, Bulkhead.forName(compartment));
+	}
+
+	/**
+	 * Creates a {@code BulkheadComponent} that executes in the provided compartment.
+	 *
+	 * @param decoratedComponent The {@link IProcessComponent} to be decorated.
+	 * @param bulkhead The compartment to be used.
+	 */
+	public BulkheadComponent(IProcessComponent<T> decoratedComponent, Bulkhead bulkhead) {
+		super(decoratedComponent, bulkhead.getExecutor());
+		this.bulkhead = bulkhead;
+	}
+
+	@Override
+	protected Future<T> doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+		try {
+			return super.doExecute();
+		} catch (ProcessExecutionException ex) {
+			if (ex.getCause() instanceof RejectedExecutionException) {
+				throw new ProcessExecutionException(this, ex.getCause(), String.format(
+						"Compartment '%s' is saturated.", bulkhead.getName()));
+			}
+			throw ex;
+		}
+	}
+
+	@Override
+	ExecutorService getRollbackExecutor() {
+		return getDefaultExecutor();
+	}
+
+	public Bulkhead getBulkhead() {
+		return bulkhead;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Bulkhead[%s: %s]", bulkhead.getName(), decoratedComponent.toString());
+	}
+}
@@ -0,0 +1,132 @@
+package org.hive2hive.processframework.decorators;
+
+import org.hive2hive.processframework.ProcessDecorator;
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.concurrent.BoundedCache;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+
+/**
+ * A {@link ProcessDecorator} that memoizes the result of the wrapped/decorated {@link IProcessComponent} in
+ * a {@link BoundedCache} under a user-supplied key. If a result is cached for the key, it is returned
+ * without executing the decorated component. Otherwise, the decorated component is executed and its result
+ * cached, unless it is {@code null} or the execution fails. Components computing the same result should
+ * share the cache and use equal keys, also across process instances.<br>
+ * The rollback of an execution that has been served from the cache does not affect the cache. The rollback
+ * of an execution that has run the decorated component removes the entry it has cached, unless it has been
+ * replaced in the meantime, and rolls back the decorated component. Other entries are never invalidated.<br>
+ * While served from the cache, the state of this decorator is reported instead of the one of the decorated
+ * component.<br>
+ * <b>Note:</b> Only components whose result depends on the key alone (e.g., lookups) should be cached.<br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * BoundedCache&lt;String, Metadata&gt; metadataCache = new BoundedCache&lt;String, Metadata&gt;(1000, 5, TimeUnit.MINUTES);
+ * ...
+ * process.add(new CachingComponent&lt;String, Metadata&gt;(new GetMetadataStep(key), key, metadataCache));
+ * </pre>
+ *
+ * @param <K> The type of the cache key.
+ * @param <T> The type of the result computed by the wrapped/decorated {@code IProcessComponent}.
+ */
+public class CachingComponent<K, T> extends ProcessDecorator<T> {
+
+	// store a reference to the IProcessComponent<T>, such that we know its type argument T
+	private final IProcessComponent<T> component;
+	private final K key;
+	private final BoundedCache<K, T> cache;
+
+	private volatile boolean cacheHit;
+	// the result this execution has cached, null if none
+	private volatile T cachedResult;
+
+	/**
+	 * Creates a {@code CachingComponent} that memoizes the result of the decorated component in the
+	 * provided cache.
+	 *
+	 * @param decoratedComponent The {@link IProcessComponent} to be decorated.
+	 * @param key The key the result is cached under.
+	 * @param cache The {@link BoundedCache} to be used.
+	 */
+	public CachingComponent(IProcessComponent<T> decoratedComponent, K key, BoundedCache<K, T> cache) {
+		super(decoratedComponent);
+		if (key == null || cache == null) {
+			throw new IllegalArgumentException("Key and cache must not be null.");
+		}
+		this.component = decoratedComponent;
+		this.key = key;
+		this.cache = cache;
+	}
+
+	@Override
+	protected T doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+
+		cachedResult = null;
+		T cached = cache.get(key);
+		cacheHit = cached != null;
+		if (cacheHit) {
+			return cached;
+		}
+
+		T result = component.execute();
+		if (result != null) {
+			cache.put(key, result);
+			cachedResult = result;
+		}
+		return result;
+	}
+
+	@Override
+	protected T doRollback() throws InvalidProcessStateException, ProcessRollbackException {
+
+		if (cacheHit) {
+			// the decorated component has not been executed
+			return null;
+		}
+
+		T result = cachedResult;
+		if (result != null) {
+			cache.remove(key, result);
+			cachedResult = null;
+		}
+		return component.rollback();
+	}
+
+	@Override
+	protected void doReset() throws InvalidProcessStateException {
+		super.doReset();
+		cacheHit = false;
+		cachedResult = null;
+	}
+
+	@Override
+	public ProcessState getState() {
+		// the decorated component stays READY upon a cache hit
+		return cacheHit ? getDecoratorState() : super.getState();
+	}
+
+	/**
+	 * Indicates whether the last execution of this {@code CachingComponent} has been served from the cache.
+	 *
+	 * @return True, if the result has been cached, false if the decorated component has been executed.
+	 */
+	public boolean isCacheHit() {
+		return cacheHit;
+	}
+
+	public K getKey() {
+		return key;
+	}
+
+	public BoundedCache<K, T> getCache() {
+		return cache;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Caching[%s]", decoratedComponent.toString());
+	}
+}
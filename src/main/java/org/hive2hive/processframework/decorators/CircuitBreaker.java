@@ -0,0 +1,385 @@
+package org.hive2hive.processframework.decorators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hive2hive.processframework.interfaces.ICircuitBreakerMonitor;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks the outcome of the executions guarded by {@link CircuitBreakerComponent}s that share the same key,
+ * e.g., the executions that depend on the same backing service or peer group.<br>
+ * The breaker records the outcomes of the latest executions in a sliding window. Once the window holds
+ * the minimum number of executions and the share of failures reaches the threshold, the breaker
+ * <i>opens</i> and rejects all executions. After the open duration, it becomes <i>half-open</i> and
+ * admits a limited number of trial executions: If all of them succeed, the breaker <i>closes</i> again,
+ * the first failure opens it again.<br>
+ * <br>
+ * Breakers created by {@link CircuitBreaker#forKey(String)} are shared by all components using the same
+ * key. The state changes of all breakers can be observed by attaching an {@link ICircuitBreakerMonitor}.
+ * <br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * CircuitBreaker.register(new CircuitBreaker("dht", 50, 0.5, 20, 10, TimeUnit.SECONDS, 3));
+ * ...
+ * process.add(new CircuitBreakerComponent&lt;Void&gt;(new PutStep(), "dht"));
+ * </pre>
+ */
+public class CircuitBreaker {
+
+	private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+	public static final int DEFAULT_WINDOW_SIZE = 20;
+	public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+	public static final int DEFAULT_MINIMUM_CALLS = 10;
+	public static final long DEFAULT_OPEN_DURATION_MS = 5000;
+	public static final int DEFAULT_HALF_OPEN_TRIALS = 3;
+
+	/**
+	 * The states of a {@link CircuitBreaker}.
+	 */
+	public enum State {
+		/** Executions are admitted and their outcomes recorded. */
+		CLOSED,
+		/** Executions are rejected. */
+		OPEN,
+		/** A limited number of trial executions is admitted. */
+		HALF_OPEN
+	}
+
+	private static final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<String, CircuitBreaker>();
+
+	// copy-on-write, such that notifying monitors does not need any locking
+	private static final Object monitorLock = new Object();
+	private static volatile ICircuitBreakerMonitor[] monitors = new ICircuitBreakerMonitor[0];
+
+	private final String key;
+	private final double failureRateThreshold;
+	private final int minimumCalls;
+	private final long openDurationNanos;
+	private final int halfOpenTrials;
+
+	// guarded by this
+	private final boolean[] window;
+	private int windowIndex;
+	private int windowCount;
+	private int windowFailures;
+	private State state = State.CLOSED;
+	// distinguishes the permits issued in different states
+	private long generation;
+	private long openedAt;
+	private int issuedTrials;
+	private int succeededTrials;
+
+	private final AtomicLong rejected = new AtomicLong();
+
+	/**
+	 * Creates a {@code CircuitBreaker} with the default settings.
+	 *
+	 * @param key The key identifying this {@code CircuitBreaker}.
+	 */
+	public CircuitBreaker(String key) {
+		this(key, DEFAULT_WINDOW_SIZE, DEFAULT_FAILURE_RATE_THRESHOLD, DEFAULT_MINIMUM_CALLS,
+				DEFAULT_OPEN_DURATION_MS, TimeUnit.MILLISECONDS, DEFAULT_HALF_OPEN_TRIALS);
+	}
+
+	/**
+	 * Creates a {@code CircuitBreaker} with the provided settings.
+	 *
+	 * @param key The key identifying this {@code CircuitBreaker}.
+	 * @param windowSize The number of latest executions the failure rate is computed of.
+	 * @param failureRateThreshold The failure rate in (0, 1] at which the breaker opens.
+	 * @param minimumCalls The minimum number of recorded executions before the breaker can open.
+	 * @param openDuration The duration the breaker stays open before admitting trial executions.
+	 * @param unit The {@link TimeUnit} of the open duration.
+	 * @param halfOpenTrials The number of trial executions that have to succeed to close the breaker.
+	 */
+	public CircuitBreaker(String key, int windowSize, double failureRateThreshold, int minimumCalls,
+			long openDuration, TimeUnit unit, int halfOpenTrials) {
+		if (key == null) {
+			throw new IllegalArgumentException("Key must not be null.");
+		}
+		if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize) {
+			throw new IllegalArgumentException("Minimum calls must be in [1, window size].");
+		}
+		if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+			throw new IllegalArgumentException("Failure rate threshold must be in (0, 1].");
+		}
+		if (openDuration < 0 || halfOpenTrials < 1) {
+			throw new IllegalArgumentException("Open duration must not be negative, trials must be positive.");
+		}
+		this.key = key;
+		this.window = new boolean[windowSize];
+		this.failureRateThreshold = failureRateThreshold;
+		this.minimumCalls = minimumCalls;
+		this.openDurationNanos = unit.toNanos(openDuration);
+		this.halfOpenTrials = halfOpenTrials;
+	}
+
+	/**
+	 * Gets the shared {@code CircuitBreaker} for the provided key. If none has been registered, a breaker
+	 * with the default settings is created.
+	 *
+	 * @param key The key of the {@code CircuitBreaker}.
+	 * @return The shared {@code CircuitBreaker} for the provided key.
+	 */
+	public static CircuitBreaker forKey(String key) {
+		CircuitBreaker existing = breakers.get(key);
+		if (existing != null) {
+			return existing;
+		}
+		return register(new CircuitBreaker(key));
+	}
+
+	/**
+	 * Registers the provided {@code CircuitBreaker} to be shared by its key, unless a breaker has been
+	 * registered for this key before.
+	 *
+	 * @param breaker The {@code CircuitBreaker} to be registered.
+	 * @return The {@code CircuitBreaker} that is registered for the key.
+	 */
+	public static CircuitBreaker register(CircuitBreaker breaker) {
+		CircuitBreaker existing = breakers.putIfAbsent(breaker.getKey(), breaker);
+		return existing != null ? existing : breaker;
+	}
+
+	/**
+	 * Gets all shared {@code CircuitBreaker}s, mapped by their key.
+	 *
+	 * @return All shared {@code CircuitBreaker}s.
+	 */
+	public static Map<String, CircuitBreaker> getBreakers() {
+		return Collections.unmodifiableMap(new HashMap<String, CircuitBreaker>(breakers));
+	}
+
+	/**
+	 * Attaches an {@link ICircuitBreakerMonitor} that gets notified about all {@code CircuitBreaker}s.
+	 *
+	 * @param monitor The {@link ICircuitBreakerMonitor} to be attached.
+	 */
+	public static void attachMonitor(ICircuitBreakerMonitor monitor) {
+		synchronized (monitorLock) {
+			ICircuitBreakerMonitor[] current = monitors;
+			ICircuitBreakerMonitor[] updated = Arrays.copyOf(current, current.length + 1);
+			updated[current.length] = monitor;
+			monitors = updated;
+		}
+	}
+
+	/**
+	 * Detaches an {@link ICircuitBreakerMonitor} from all {@code CircuitBreaker}s.
+	 *
+	 * @param monitor The {@link ICircuitBreakerMonitor} to be detached.
+	 */
+	public static void detachMonitor(ICircuitBreakerMonitor monitor) {
+		synchronized (monitorLock) {
+			List<ICircuitBreakerMonitor> updated = new ArrayList<ICircuitBreakerMonitor>(Arrays.asList(monitors));
+			updated.remove(monitor);
+			monitors = updated.toArray(new ICircuitBreakerMonitor[updated.size()]);
+		}
+	}
+
+	/**
+	 * Requests the permission to execute the provided component.
+	 *
+	 * @param component The {@link IProcessComponent} to be executed.
+	 * @return The permit to be passed to the recording methods or -1 if the execution is rejected.
+	 */
+	long acquirePermission(IProcessComponent<?> component) {
+		long permit = -1;
+		State from = null;
+		synchronized (this) {
+			if (state == State.OPEN && System.nanoTime() - openedAt >= openDurationNanos) {
+				from = transition(State.HALF_OPEN);
+			}
+			if (state == State.CLOSED) {
+				permit = generation;
+			} else if (state == State.HALF_OPEN && issuedTrials < halfOpenTrials) {
+				issuedTrials++;
+				permit = generation;
+			}
+		}
+		if (from != null) {
+			notifyStateChanged(from, State.HALF_OPEN);
+		}
+		if (permit < 0) {
+			rejected.incrementAndGet();
+			notifyRejected(component);
+		}
+		return permit;
+	}
+
+	/**
+	 * Records a successful execution admitted by the provided permit.
+	 */
+	void onSuccess(long permit) {
+		State from = null;
+		State to = null;
+		synchronized (this) {
+			if (permit != generation) {
+				// admitted in an earlier state
+				return;
+			}
+			if (state == State.CLOSED) {
+				record(false);
+			} else if (state == State.HALF_OPEN && ++succeededTrials >= halfOpenTrials) {
+				to = State.CLOSED;
+				from = transition(to);
+			}
+		}
+		if (from != null) {
+			notifyStateChanged(from, to);
+		}
+	}
+
+	/**
+	 * Records a failed execution admitted by the provided permit.
+	 */
+	void onFailure(long permit) {
+		State from = null;
+		synchronized (this) {
+			if (permit != generation) {
+				// admitted in an earlier state
+				return;
+			}
+			if (state == State.CLOSED) {
+				record(true);
+				if (windowCount >= minimumCalls && getFailureRate() >= failureRateThreshold) {
+					from = transition(State.OPEN);
+				}
+			} else if (state == State.HALF_OPEN) {
+				from = transition(State.OPEN);
+			}
+		}
+		if (from != null) {
+			notifyStateChanged(from, State.OPEN);
+		}
+	}
+
+	/**
+	 * Releases the permit of an execution whose outcome shall not be recorded (e.g., if it has been
+	 * cancelled).
+	 */
+	synchronized void onIgnored(long permit) {
+		if (permit == generation && state == State.HALF_OPEN) {
+			issuedTrials--;
+		}
+	}
+
+	/**
+	 * Gets the current {@link State} of this {@code CircuitBreaker}. An open breaker whose open duration has
+	 * elapsed becomes half-open only upon the next execution.
+	 *
+	 * @return The current {@link State}.
+	 */
+	public synchronized State getState() {
+		return state;
+	}
+
+	/**
+	 * Gets the share of failures among the executions in the sliding window.
+	 *
+	 * @return The failure rate in [0, 1].
+	 */
+	public synchronized double getFailureRate() {
+		return windowCount == 0 ? 0.0 : (double) windowFailures / windowCount;
+	}
+
+	/**
+	 * Gets the number of executions rejected by this {@code CircuitBreaker}.
+	 *
+	 * @return The number of rejected executions.
+	 */
+	public long getRejectedCount() {
+		return rejected.get();
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * Closes this {@code CircuitBreaker} and clears its sliding window.
+	 */
+	public void reset() {
+		State from;
+		synchronized (this) {
+			from = transition(State.CLOSED);
+		}
+		if (from != State.CLOSED) {
+			notifyStateChanged(from, State.CLOSED);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("CircuitBreaker[%s, %s]", key, getState());
+	}
+
+	// guarded by this
+	private State transition(State to) {
+		State from = state;
+		state = to;
+		generation++;
+		issuedTrials = 0;
+		succeededTrials = 0;
+		if (to == State.OPEN) {
+			openedAt = System.nanoTime();
+		} else if (to == State.CLOSED) {
+			Arrays.fill(window, false);
+			windowIndex = 0;
+			windowCount = 0;
+			windowFailures = 0;
+		}
+		logger.debug("Circuit breaker '{}' changed from {} to {}.", key, from, to);
+		return from;
+	}
+
+	// guarded by this
+	private void record(boolean failure) {
+		if (windowCount == window.length) {
+			if (window[windowIndex]) {
+				windowFailures--;
+			}
+		} else {
+			windowCount++;
+		}
+		window[windowIndex] = failure;
+		if (failure) {
+			windowFailures++;
+		}
+		windowIndex = (windowIndex + 1) % window.length;
+	}
+
+	private void notifyStateChanged(State from, State to) {
+		for (ICircuitBreakerMonitor monitor : monitors) {
+			try {
+				monitor.onStateChanged(this, from, to);
+			} catch (RuntimeException ex) {
+				logger.warn("Circuit breaker monitor '{}' failed.", monitor, ex);
+			}
+		}
+	}
+
+	private void notifyRejected(IProcessComponent<?> component) {
+		for (ICircuitBreakerMonitor monitor : monitors) {
+			try {
+				monitor.onRejected(this, component);
+			} catch (RuntimeException ex) {
+				logger.warn("Circuit breaker monitor '{}' failed.", monitor, ex);
+			}
+		}
+	}
+}
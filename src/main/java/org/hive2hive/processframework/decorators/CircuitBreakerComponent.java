@@ -0,0 +1,115 @@
+package org.hive2hive.processframework.decorators;
+
+import org.hive2hive.processframework.ProcessDecorator;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+
+/**
+ * A {@link ProcessDecorator} that guards the execution of the wrapped/decorated {@link IProcessComponent}
+ * by a {@link CircuitBreaker}. While the breaker is open, the execution fails immediately with a
+ * {@link ProcessExecutionException} and the decorated component is not executed at all. Thus, a process
+ * depending on a service that is down fails fast instead of adding load to it.<br>
+ * The outcome of each admitted execution is recorded by the breaker. Executions that have been cancelled
+ * are not recorded, since their failure does not tell anything about the guarded service. The rollback is
+ * not guarded.<br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * // all components using the key "dht" share the same breaker
+ * process.add(new CircuitBreakerComponent&lt;Void&gt;(new PutStep(), "dht"));
+ * </pre>
+ *
+ * @param <T> The type of the result computed by the wrapped/decorated {@code IProcessComponent}.
+ */
+public class CircuitBreakerComponent<T> extends ProcessDecorator<T> {
+
+	// store a reference to the IProcessComponent<T>, such that we know its type argument T
+	private final IProcessComponent<T> component;
+	private final CircuitBreaker breaker;
+
+	private volatile boolean executed;
+
+	/**
+	 * Creates a {@code CircuitBreakerComponent} that is guarded by the shared {@link CircuitBreaker} of the
+	 * provided key (see {@link CircuitBreaker#forKey(String)}).
+	 *
+	 * @param decoratedComponent The {@link IProcessComponent} to be decorated.
+	 * @param key The key of the {@link CircuitBreaker}.
+	 */
+	public CircuitBreakerComponent(IProcessComponent<T> decoratedComponent, String key) {
+		this(decoratedComponent, CircuitBreaker.forKey(key));
+	}
+
+	/**
+	 * Creates a {@code CircuitBreakerComponent} that is guarded by the provided {@link CircuitBreaker}.
+	 *
+	 * @param decoratedComponent The {@link IProcessComponent} to be decorated.
+	 * @param breaker The {@link CircuitBreaker} to be used.
+	 */
+	public CircuitBreakerComponent(IProcessComponent<T> decoratedComponent, CircuitBreaker breaker) {
+		super(decoratedComponent);
+		if (breaker == null) {
+			throw new IllegalArgumentException("Circuit breaker must not be null.");
+		}
+		this.component = decoratedComponent;
+		this.breaker = breaker;
+	}
+
+	@Override
+	protected T doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+
+		executed = false;
+		long permit = breaker.acquirePermission(component);
+		if (permit < 0) {
+			throw new ProcessExecutionException(this, String.format("Circuit breaker '%s' is open.",
+					breaker.getKey()));
+		}
+
+		boolean recorded = false;
+		executed = true;
+		try {
+			T result = component.execute();
+			breaker.onSuccess(permit);
+			recorded = true;
+			return result;
+		} catch (ProcessExecutionException ex) {
+			if (!isCancelled()) {
+				breaker.onFailure(permit);
+				recorded = true;
+			}
+			throw ex;
+		} finally {
+			if (!recorded) {
+				breaker.onIgnored(permit);
+			}
+		}
+	}
+
+	@Override
+	protected T doRollback() throws InvalidProcessStateException, ProcessRollbackException {
+
+		if (!executed) {
+			// the execution has been rejected, the decorated component has not been executed
+			return null;
+		}
+		return component.rollback();
+	}
+
+	@Override
+	protected void doReset() throws InvalidProcessStateException {
+		super.doReset();
+		executed = false;
+	}
+
+	public CircuitBreaker getBreaker() {
+		return breaker;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("CircuitBreaker[%s]", decoratedComponent.toString());
+	}
+}
@@ -0,0 +1,504 @@
+package org.hive2hive.processframework.decorators;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.processframework.Deadline;
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.concurrent.ExternallyCompleted;
+import org.hive2hive.processframework.concurrent.HashedWheelTimer;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+import org.hive2hive.processframework.interfaces.IProcessComponentFactory;
+import org.hive2hive.processframework.monitoring.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link AsyncComponent} that reduces the tail latency of the wrapped/decorated
+ * {@link IProcessComponent} by speculative execution. If the primary execution has not completed after the
+ * hedge delay, a second copy of the component is created by an {@link IProcessComponentFactory} and
+ * executed as well. The first successful copy wins, the other one is cancelled and rolled back.<br>
+ * The hedge delay is the configured percentile of the latencies observed so far, recorded in a
+ * {@link LatencyHistogram}. A primary that loses to its hedge is recorded with the time it has taken until
+ * then, which is a lower bound of its actual latency. To learn the latency distribution across executions,
+ * the components hedging the same operation should share their histogram. Until enough latencies have been
+ * recorded, the initial delay is used, which by default disables hedging.<br>
+ * At most one hedge is launched per execution, such that the extra load is bounded by the share of
+ * executions slower than the percentile. The execution fails as soon as a copy fails while no other copy is
+ * running. No hedge is launched if it could not be started before the {@link Deadline} of the component
+ * expires. Once the hedge has won, its state is reported instead of the one of the dismissed primary.<br>
+ * <b>Note:</b> Only idempotent components (e.g., reads from replicas) should be hedged.<br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * LatencyHistogram latencies = new LatencyHistogram();
+ * ...
+ * process.add(new HedgedComponent&lt;Chunk&gt;(new GetChunkStep(key), new IProcessComponentFactory&lt;Chunk&gt;() {
+ *
+ *     public IProcessComponent&lt;Chunk&gt; create() {
+ *         return new GetChunkStep(key);
+ *     }
+ * }, latencies, 95.0));
+ * </pre>
+ *
+ * @param <T> The type of the result computed by the wrapped/decorated {@code IProcessComponent}.
+ */
+public class HedgedComponent<T> extends AsyncComponent<T> {
+
+	private static final Logger logger = LoggerFactory.getLogger(HedgedComponent.class);
+
+	public static final int DEFAULT_MIN_SAMPLES = 20;
+
+	// store a reference to the IProcessComponent<T>, such that we know its type argument T
+	private final IProcessComponent<T> component;
+	private final IProcessComponentFactory<T> hedgeFactory;
+	private final LatencyHistogram latencies;
+	private final double percentile;
+	// null, if the default timer is used
+	private final HashedWheelTimer timer;
+
+	private volatile int minSamples = DEFAULT_MIN_SAMPLES;
+	private volatile long initialDelayNanos = -1L;
+	private volatile HedgedExecution execution;
+
+	/**
+	 * Creates a {@code HedgedComponent} that records the latencies of its own executions only.
+	 *
+	 * @param decoratedComponent The primary {@link IProcessComponent} to be decorated.
+	 * @param hedgeFactory The {@link IProcessComponentFactory} creating the hedge.
+	 * @param percentile The percentile of the observed latencies after which the hedge is launched, e.g.,
+	 *            {@code 95.0}.
+	 */
+	public HedgedComponent(IProcessComponent<T> decoratedComponent, IProcessComponentFactory<T> hedgeFactory,
+			double percentile) {
+		this(decoratedComponent, hedgeFactory, null, percentile);
+	}
+
+	/**
+	 * Creates a {@code HedgedComponent} that records its latencies into the provided histogram.
+	 *
+	 * @param decoratedComponent The primary {@link IProcessComponent} to be decorated.
+	 * @param hedgeFactory The {@link IProcessComponentFactory} creating the hedge.
+	 * @param latencies The {@link LatencyHistogram} to be shared or {@code null} to use a new one.
+	 * @param percentile The percentile of the observed latencies after which the hedge is launched, e.g.,
+	 *            {@code 95.0}.
+	 */
+	public HedgedComponent(IProcessComponent<T> decoratedComponent, IProcessComponentFactory<T> hedgeFactory,
+			LatencyHistogram latencies, double percentile) {
+		this(decoratedComponent, hedgeFactory, latencies, percentile, null, null);
+	}
+
+	/**
+	 * Creates a {@code HedgedComponent} that records its latencies into the provided histogram, runs the
+	 * copies on the provided {@link ExecutorService} and schedules the hedge on the provided
+	 * {@link HashedWheelTimer}.
+	 *
+	 * @param decoratedComponent The primary {@link IProcessComponent} to be decorated.
+	 * @param hedgeFactory The {@link IProcessComponentFactory} creating the hedge.
+	 * @param latencies The {@link LatencyHistogram} to be shared or {@code null} to use a new one.
+	 * @param percentile The percentile of the observed latencies after which the hedge is launched, e.g.,
+	 *            {@code 95.0}.
+	 * @param executor The {@link ExecutorService} to be used or {@code null} to use the default executor.
+	 * @param timer The {@link HashedWheelTimer} to be used or {@code null} to use the default timer.
+	 */
+	public HedgedComponent(IProcessComponent<T> decoratedComponent, IProcessComponentFactory<T> hedgeFactory,
+			LatencyHistogram latencies, double percentile, ExecutorService executor, HashedWheelTimer timer) {
+		super(decoratedComponent, executor);
+		if (hedgeFactory == null) {
+			throw new IllegalArgumentException("Hedge factory must not be null.");
+		}
+		if (percentile <= 0 || percentile > 100) {
+			throw new IllegalArgumentException("Percentile must be in (0, 100].");
+		}
+		this.component = decoratedComponent;
+		this.hedgeFactory = hedgeFactory;
+		this.latencies = latencies != null ? latencies : new LatencyHistogram();
+		this.percentile = percentile;
+		this.timer = timer;
+	}
+
+	@Override
+	protected Future<T> doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+
+		HedgedExecution hedgedExecution = new HedgedExecution();
+		execution = hedgedExecution;
+		setExecutionHandle(hedgedExecution);
+		hedgedExecution.start();
+
+		// immediate return, since the copies are async
+		return hedgedExecution;
+	}
+
+	/**
+	 * Cancels all running copies of the wrapped/decorated {@link IProcessComponent} and the pending hedge.
+	 */
+	@Override
+	protected void doCancel(boolean rollback) {
+		super.doCancel(rollback);
+		HedgedExecution current = execution;
+		if (current != null) {
+			current.cancelHedge(rollback);
+		}
+	}
+
+	@Override
+	protected void doReset() throws InvalidProcessStateException {
+		super.doReset();
+		execution = null;
+	}
+
+	@Override
+	public ProcessState getState() {
+		// the dismissed primary rolls itself back, while the hedge carries the execution
+		HedgedExecution current = execution;
+		IProcessComponent<T> winner = current != null ? current.winner : null;
+		return winner != null && winner != component ? winner.getState() : super.getState();
+	}
+
+	@Override
+	MonitoredRunner createRollbackRunner() {
+		return new HedgedRollbackRunner();
+	}
+
+	/**
+	 * Gets the delay after which a hedge is launched, i.e., the configured percentile of the observed
+	 * latencies or the initial delay if not enough latencies have been recorded yet.
+	 *
+	 * @param unit The {@link TimeUnit} of the returned delay.
+	 * @return The hedge delay in the provided {@link TimeUnit} or -1 if no hedge is launched.
+	 */
+	public long getHedgeDelay(TimeUnit unit) {
+		long delayNanos = latencies.getCount() >= minSamples ? latencies.getValueAtPercentile(percentile)
+				: initialDelayNanos;
+		return delayNanos < 0 ? -1L : unit.convert(delayNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Sets the hedge delay used until enough latencies have been recorded. By default, no hedge is launched
+	 * until then.
+	 *
+	 * @param initialDelay The initial hedge delay or a negative value to disable hedging until then.
+	 * @param unit The {@link TimeUnit} of the initial delay.
+	 */
+	public void setInitialDelay(long initialDelay, TimeUnit unit) {
+		this.initialDelayNanos = initialDelay < 0 ? -1L : unit.toNanos(initialDelay);
+	}
+
+	/**
+	 * Sets the number of latencies that need to be recorded before the percentile is used as hedge delay.
+	 *
+	 * @param minSamples The minimum number of recorded latencies.
+	 */
+	public void setMinSamples(int minSamples) {
+		if (minSamples < 1) {
+			throw new IllegalArgumentException("Min samples must be positive.");
+		}
+		this.minSamples = minSamples;
+	}
+
+	/**
+	 * Indicates whether a hedge has been launched during the last execution of this
+	 * {@code HedgedComponent}.
+	 *
+	 * @return True, if a hedge has been launched, false otherwise.
+	 */
+	public boolean isHedged() {
+		HedgedExecution current = execution;
+		return current != null && current.hedge != null;
+	}
+
+	/**
+	 * Gets the copy of the wrapped/decorated {@link IProcessComponent} that has won the last execution.
+	 *
+	 * @return The winning copy or {@code null} if no copy has succeeded.
+	 */
+	public IProcessComponent<T> getWinner() {
+		HedgedExecution current = execution;
+		return current != null ? current.winner : null;
+	}
+
+	public LatencyHistogram getLatencies() {
+		return latencies;
+	}
+
+	public double getPercentile() {
+		return percentile;
+	}
+
+	/**
+	 * Gets the {@link HashedWheelTimer} the hedges of this {@code HedgedComponent} are scheduled on.
+	 *
+	 * @return The {@link HashedWheelTimer} of this {@code HedgedComponent}.
+	 */
+	public HashedWheelTimer getTimer() {
+		return timer != null ? timer : TimeoutComponent.getDefaultTimer();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Hedged[%s]", decoratedComponent.toString());
+	}
+
+	private static void rollbackCompleted(IProcessComponent<?> copy) throws InvalidProcessStateException,
+			ProcessRollbackException {
+		ProcessState state = copy.getState();
+		if (state == ProcessState.EXECUTION_SUCCEEDED || state == ProcessState.EXECUTION_FAILED) {
+			copy.rollback();
+		}
+	}
+
+	/**
+	 * The {@link Future} of an execution, which is completed by the first successful copy rather than being
+	 * run itself.
+	 */
+	private class HedgedExecution extends ExecutionTask {
+
+		// guarded by this
+		private int running;
+		private volatile IProcessComponent<T> hedge;
+		private volatile IProcessComponent<T> winner;
+		// the copy that rolls itself back after losing
+		private volatile IProcessComponent<T> dismissed;
+		private volatile HashedWheelTimer.Timeout pendingHedge;
+		private volatile long primaryStart;
+		private volatile boolean primaryStarted;
+
+		private HedgedExecution() {
+			super(new ExternallyCompleted<T>());
+		}
+
+		private void start() throws ProcessExecutionException {
+			synchronized (this) {
+				running++;
+			}
+			submitCopy(component);
+
+			long delay = getHedgeDelay(TimeUnit.NANOSECONDS);
+			if (delay < 0) {
+				return;
+			}
+			Deadline deadline = getDeadline();
+			if (deadline != null && delay >= deadline.remaining(TimeUnit.NANOSECONDS)) {
+				logger.debug("Not hedging '{}', since the deadline expires before the hedge delay.", component);
+				return;
+			}
+			try {
+				pendingHedge = getTimer().newTimeout(new Hedge(), delay, TimeUnit.NANOSECONDS);
+			} catch (IllegalStateException ex) {
+				// the timer has been stopped, continue without hedge
+				logger.warn("Could not schedule the hedge of '{}'.", component, ex);
+			}
+		}
+
+		private void submitCopy(IProcessComponent<T> copy) throws ProcessExecutionException {
+			CopyRunner runner = new CopyRunner(copy);
+			submitExecution(runner, new Copy(copy, runner));
+		}
+
+		private void launchHedge() {
+			pendingHedge = null;
+			synchronized (this) {
+				if (winner != null || isDone() || HedgedComponent.this.isCancelled()) {
+					return;
+				}
+				running++;
+			}
+
+			IProcessComponent<T> copy = null;
+			try {
+				copy = hedgeFactory.create();
+				if (copy == null) {
+					throw new ProcessExecutionException(HedgedComponent.this, "The factory did not create a hedge.");
+				}
+				copy.setParent(getParent());
+				hedge = copy;
+				if (winner != null) {
+					// the primary has won in the meantime, do not execute the hedge at all
+					dismiss(copy);
+					synchronized (this) {
+						running--;
+					}
+					return;
+				}
+				logger.debug("Hedging '{}' after {} ms.", component, getHedgeDelay(TimeUnit.MILLISECONDS));
+				submitCopy(copy);
+			} catch (ProcessExecutionException | RuntimeException ex) {
+				logger.warn("Could not launch the hedge of '{}'.", component, ex);
+				onFailure(copy, ex);
+			}
+		}
+
+		private void onSuccess(IProcessComponent<T> copy, T result, long latency) {
+			boolean won;
+			synchronized (this) {
+				running--;
+				won = winner == null && !isDone();
+				if (won) {
+					winner = copy;
+				}
+			}
+
+			if (!won) {
+				// the loser has completed before it could be cancelled
+				try {
+					rollbackCompleted(copy);
+				} catch (InvalidProcessStateException | ProcessRollbackException ex) {
+					logger.error("Rollback of the hedging loser '{}' failed.", copy, ex);
+				}
+				return;
+			}
+
+			latencies.record(latency);
+			if (copy != component && primaryStarted) {
+				// the slow primary is dismissed, thus record the time it has taken so far
+				latencies.record(System.nanoTime() - primaryStart);
+			}
+			HashedWheelTimer.Timeout pending = pendingHedge;
+			if (pending != null) {
+				pending.cancel();
+			}
+			IProcessComponent<T> loser = copy == component ? hedge : component;
+			if (loser != null) {
+				dismiss(loser);
+			}
+			set(result);
+		}
+
+		/**
+		 * Cancels the losing copy, which then rolls itself back. A loser that completes successfully
+		 * nevertheless is rolled back upon its completion.
+		 */
+		private void dismiss(IProcessComponent<T> loser) {
+			if (loser.cancel(true) || loser.getState() == ProcessState.EXECUTION_SUCCEEDED) {
+				dismissed = loser;
+			}
+		}
+
+		private void onFailure(IProcessComponent<T> copy, Exception failure) {
+			synchronized (this) {
+				running--;
+				if (winner != null || isDone() || running > 0) {
+					// the other copy decides
+					return;
+				}
+			}
+			HashedWheelTimer.Timeout pending = pendingHedge;
+			if (pending != null) {
+				pending.cancel();
+			}
+			setException(failure);
+		}
+
+		private void cancelHedge(boolean rollback) {
+			// the primary fails on its own cancellation
+			HashedWheelTimer.Timeout pending = pendingHedge;
+			if (pending != null) {
+				pending.cancel();
+			}
+			IProcessComponent<T> copy = hedge;
+			if (copy != null) {
+				copy.cancel(rollback);
+			}
+		}
+
+		/**
+		 * Runs a single copy on the executor.
+		 */
+		private class Copy implements Runnable {
+
+			private final IProcessComponent<T> copy;
+			private final CopyRunner runner;
+
+			private Copy(IProcessComponent<T> copy, CopyRunner runner) {
+				this.copy = copy;
+				this.runner = runner;
+			}
+
+			@Override
+			public void run() {
+				long start = System.nanoTime();
+				if (copy == component) {
+					primaryStart = start;
+					primaryStarted = true;
+				}
+				try {
+					T result = runner.call();
+					onSuccess(copy, result, System.nanoTime() - start);
+				} catch (Exception ex) {
+					onFailure(copy, ex);
+				}
+			}
+		}
+
+		/**
+		 * Launches the hedge once the hedge delay has expired. Runs on the timer thread.
+		 */
+		private class Hedge implements Runnable {
+
+			@Override
+			public void run() {
+				launchHedge();
+			}
+		}
+	}
+
+	/**
+	 * Executes a single copy of the wrapped/decorated {@link IProcessComponent}.
+	 */
+	private class CopyRunner extends MonitoredRunner {
+
+		private final IProcessComponent<T> copy;
+
+		private CopyRunner(IProcessComponent<T> copy) {
+			super(false);
+			this.copy = copy;
+		}
+
+		@Override
+		protected T run() throws Exception {
+			return copy.execute();
+		}
+	}
+
+	/**
+	 * Rolls back the winning copy and the failed copies, once the execution has completed.
+	 */
+	private class HedgedRollbackRunner extends MonitoredRunner {
+
+		private HedgedRollbackRunner() {
+			super(true);
+		}
+
+		@Override
+		protected T run() throws Exception {
+			HedgedExecution current = execution;
+			if (current == null) {
+				return component.rollback();
+			}
+
+			// await execution termination
+			try {
+				current.get();
+			} catch (ExecutionException ex) {
+				// execution failed, roll back the failed copies
+			}
+
+			// a dismissed loser rolls itself back
+			IProcessComponent<T> winner = current.winner;
+			IProcessComponent<T> hedge = current.hedge;
+			if (hedge != null && hedge != winner && hedge != current.dismissed) {
+				rollbackCompleted(hedge);
+			}
+			if (component != winner && component != current.dismissed) {
+				rollbackCompleted(component);
+			}
+			return winner != null ? winner.rollback() : null;
+		}
+	}
+}
@@ -0,0 +1,194 @@
+package org.hive2hive.processframework.decorators;
+
+import org.hive2hive.processframework.ProcessComponent;
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+import org.hive2hive.processframework.interfaces.IProcessComponentFactory;
+
+/**
+ * A {@link ProcessComponent} that acts as a placeholder for an {@link IProcessComponent} which is created
+ * only when the execution reaches this {@code LazyComponent}.
+ * Branches of a process tree that are never reached (e.g., because a predecessor failed) thus never get
+ * built. Once the materialized component has completed, it can be released again by
+ * {@link LazyComponent#release()} such that the subtree can be garbage collected.<br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * SyncProcess process = new SyncProcess();
+ * process.add(new LazyComponent&lt;Void&gt;(new IProcessComponentFactory&lt;Void&gt;() {
+ *
+ *     public IProcessComponent&lt;Void&gt; create() {
+ *         return buildUploadProcess(); // only invoked when reached
+ *     }
+ * }));
+ * </pre>
+ *
+ * @param <T> The type of the result computed by the lazily created {@code IProcessComponent}.
+ */
+public class LazyComponent<T> extends ProcessComponent<T> {
+
+	private final IProcessComponentFactory<T> factory;
+
+	private volatile IProcessComponent<T> component;
+	private volatile boolean releaseOnSuccess;
+
+	/**
+	 * Creates a {@code LazyComponent} that uses the provided factory to create its component.
+	 *
+	 * @param factory The {@link IProcessComponentFactory} creating the actual {@link IProcessComponent}.
+	 */
+	public LazyComponent(IProcessComponentFactory<T> factory) {
+		this(factory, null);
+	}
+
+	/**
+	 * Creates a {@code LazyComponent} with the provided name that uses the provided factory to create its
+	 * component.
+	 *
+	 * @param factory The {@link IProcessComponentFactory} creating the actual {@link IProcessComponent}.
+	 * @param name The name of this {@code LazyComponent}.
+	 */
+	public LazyComponent(IProcessComponentFactory<T> factory, String name) {
+		super(name);
+		if (factory == null) {
+			throw new IllegalArgumentException("Factory must not be null.");
+		}
+		this.factory = factory;
+	}
+
+	@Override
+	protected T doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+
+		IProcessComponent<T> current = component;
+		if (current == null) {
+			current = factory.create();
+			if (current == null) {
+				throw new ProcessExecutionException(this, "The factory did not create a component.");
+			}
+			current.setParent(getParent());
+			component = current;
+		}
+		if (isCancelled()) {
+			// cancelled while materializing, before the cancellation could reach the component
+			throw new ProcessExecutionException(this, "The execution has been cancelled.");
+		}
+
+		// once materialized, the subtree needs to be considered for rollback
+		setRequiresRollback(true);
+		T result = current.execute();
+
+		if (releaseOnSuccess) {
+			component = null;
+			setRequiresRollback(false);
+		}
+		return result;
+	}
+
+	@Override
+	protected T doRollback() throws InvalidProcessStateException, ProcessRollbackException {
+
+		IProcessComponent<T> current = component;
+		if (current == null) {
+			// nothing has been materialized (or it has been released already)
+			return null;
+		}
+		return current.rollback();
+	}
+
+	/**
+	 * Cancels the materialized {@link IProcessComponent}, if any. Its rollback is part of the rollback of
+	 * this {@code LazyComponent}.
+	 */
+	@Override
+	protected void doCancel(boolean rollback) {
+		IProcessComponent<T> current = component;
+		if (current != null) {
+			current.cancel(false);
+		}
+	}
+
+	/**
+	 * Discards the materialized {@link IProcessComponent}, such that a fresh subtree is created upon the next
+	 * execution.
+	 */
+	@Override
+	protected void doReset() throws InvalidProcessStateException {
+		component = null;
+		setRequiresRollback(false);
+	}
+
+	/**
+	 * Releases the materialized {@link IProcessComponent} such that its subtree can be garbage collected.
+	 * Only allowed after a successful execution or rollback. A released component that succeeded its
+	 * execution is considered committed and will not be rolled back anymore. A released component that has
+	 * been rolled back creates a fresh subtree upon its next execution.
+	 *
+	 * @throws InvalidProcessStateException If this {@code LazyComponent} is in an invalid state for this
+	 *             operation.
+	 */
+	public void release() throws InvalidProcessStateException {
+		ProcessState state = getState();
+		if (state != ProcessState.EXECUTION_SUCCEEDED && state != ProcessState.ROLLBACK_SUCCEEDED) {
+			throw new InvalidProcessStateException(this, state);
+		}
+		component = null;
+		if (state == ProcessState.EXECUTION_SUCCEEDED) {
+			setRequiresRollback(false);
+		}
+	}
+
+	/**
+	 * Defines whether the materialized {@link IProcessComponent} is released automatically after its
+	 * successful execution. If so, no rollback will be possible anymore.
+	 *
+	 * @param releaseOnSuccess True, if the materialized component shall be released upon success.
+	 */
+	public void setReleaseOnSuccess(boolean releaseOnSuccess) {
+		this.releaseOnSuccess = releaseOnSuccess;
+	}
+
+	/**
+	 * Indicates whether the {@link IProcessComponent} of this {@code LazyComponent} currently is
+	 * materialized.
+	 *
+	 * @return True, if the component has been created and not yet released, false otherwise.
+	 */
+	public boolean isMaterialized() {
+		return component != null;
+	}
+
+	/**
+	 * Gets the materialized {@link IProcessComponent}, if any.
+	 *
+	 * @return The materialized {@link IProcessComponent} or {@code null} if there is none.
+	 */
+	public IProcessComponent<T> getComponent() {
+		return component;
+	}
+
+	@Override
+	public double getProgress() {
+		IProcessComponent<T> current = component;
+		if (current != null) {
+			return current.getProgress();
+		}
+		switch (getState()) {
+			case EXECUTION_SUCCEEDED:
+			case EXECUTION_FAILED:
+			case ROLLBACK_SUCCEEDED:
+			case ROLLBACK_FAILED:
+				return 1.0;
+			default:
+				return 0.0;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Lazy[%s]", getName());
+	}
+}
@@ -0,0 +1,307 @@
+package org.hive2hive.processframework.decorators;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.processframework.Deadline;
+import org.hive2hive.processframework.concurrent.HashedWheelTimer;
+import org.hive2hive.processframework.concurrent.TokenBucket;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.interfaces.IAsyncExecutionMonitor;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+
+/**
+ * An {@link AsyncComponent} that limits the rate at which the wrapped/decorated {@link IProcessComponent}
+ * is executed by a {@link TokenBucket}. Components that access the same rate-limited resource share a
+ * bucket, usually by registering it under a key (see
+ * {@link RateLimitedComponent#registerBucket(String, TokenBucket)}).<br>
+ * If no token is available, the component behaves according to its {@link Mode}:
+ * <ul>
+ * <li>{@link Mode#REJECT}: The execution fails immediately with a {@link ProcessExecutionException}.</li>
+ * <li>{@link Mode#DEFER}: The next token is reserved and the execution is submitted to the executor once
+ * the token becomes available. The deferral is scheduled on a {@link HashedWheelTimer}, thus no thread is
+ * parked. If the token would become available only after the maximum deferral or the {@link Deadline} of
+ * the component, the execution fails immediately.</li>
+ * </ul>
+ * The rollback is not rate-limited. For the {@link IAsyncExecutionMonitor}s, a deferral counts as
+ * queue-wait.<br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * RateLimitedComponent.registerBucket("tracker", new TokenBucket(10, 1, TimeUnit.SECONDS, 5));
+ * ...
+ * process.add(new RateLimitedComponent&lt;Void&gt;(new AnnounceStep(), "tracker", Mode.DEFER));
+ * </pre>
+ *
+ * @param <T> The type of the result computed by the wrapped/decorated {@code IProcessComponent}.
+ */
+public class RateLimitedComponent<T> extends AsyncComponent<T> {
+
+	/**
+	 * The behavior of a {@link RateLimitedComponent} if no token is available.
+	 */
+	public enum Mode {
+		/** Fail the execution immediately. */
+		REJECT,
+		/** Defer the execution until the next token becomes available. */
+		DEFER
+	}
+
+	private static final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<String, TokenBucket>();
+
+	// store a reference to the IProcessComponent<T>, such that we know its type argument T
+	private final IProcessComponent<T> component;
+	private final TokenBucket bucket;
+	private final Mode mode;
+	// null, if the default timer is used
+	private final HashedWheelTimer timer;
+
+	private volatile long maxDeferralNanos = Long.MAX_VALUE;
+	private volatile DeferredExecution deferredExecution;
+
+	/**
+	 * Creates a {@code RateLimitedComponent} that is limited by the {@link TokenBucket} registered under the
+	 * provided key.
+	 *
+	 * @param decoratedComponent The {@link IProcessComponent} to be decorated.
+	 * @param key The key of the registered {@link TokenBucket}.
+	 * @param mode The {@link Mode} if no token is available.
+	 */
+	public RateLimitedComponent(IProcessComponent<T> decoratedComponent, String key, Mode mode) {
+		this(decoratedComponent, lookupBucket(key), mode);
+	}
+
+	/**
+	 * Creates a {@code RateLimitedComponent} that is limited by the provided {@link TokenBucket}.
+	 *
+	 * @param decoratedComponent The {@link IProcessComponent} to be decorated.
+	 * @param bucket The {@link TokenBucket} to be used.
+	 * @param mode The {@link Mode} if no token is available.
+	 */
+	public RateLimitedComponent(IProcessComponent<T> decoratedComponent, TokenBucket bucket, Mode mode) {
+		this(decoratedComponent, bucket, mode, null, null);
+	}
+
+	/**
+	 * Creates a {@code RateLimitedComponent} that is limited by the provided {@link TokenBucket}, runs on
+	 * the provided {@link ExecutorService} and schedules deferrals on the provided {@link HashedWheelTimer}.
+	 *
+	 * @param decoratedComponent The {@link IProcessComponent} to be decorated.
+	 * @param bucket The {@link TokenBucket} to be used.
+	 * @param mode The {@link Mode} if no token is available.
+	 * @param executor The {@link ExecutorService} to be used or {@code null} to use the default executor.
+	 * @param timer The {@link HashedWheelTimer} to be used or {@code null} to use the default timer.
+	 */
+	public RateLimitedComponent(IProcessComponent<T> decoratedComponent, TokenBucket bucket, Mode mode,
+			ExecutorService executor, HashedWheelTimer timer) {
+		super(decoratedComponent, executor);
+		if (bucket == null || mode == null) {
+			throw new IllegalArgumentException("Bucket and mode must not be null.");
+		}
+		this.component = decoratedComponent;
+		this.bucket = bucket;
+		this.mode = mode;
+		this.timer = timer;
+	}
+
+	@Override
+	protected Future<T> doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+
+		// nothing to await upon a rollback unless submitted or deferred
+		setExecutionHandle(null);
+		deferredExecution = null;
+		if (mode == Mode.REJECT) {
+			if (!bucket.tryAcquire()) {
+				throw new ProcessExecutionException(this, String.format("Rate limit exceeded for '%s'.",
+						component));
+			}
+			return super.doExecute();
+		}
+
+		long maxWaitNanos = maxDeferralNanos;
+		Deadline deadline = getDeadline();
+		if (deadline != null) {
+			maxWaitNanos = Math.min(maxWaitNanos, deadline.remaining(TimeUnit.NANOSECONDS));
+		}
+		long waitNanos = bucket.tryReserve(maxWaitNanos, TimeUnit.NANOSECONDS);
+		if (waitNanos < 0) {
+			throw new ProcessExecutionException(this, String.format(
+					"Rate limit exceeded for '%s' beyond the maximum deferral.", component));
+		}
+		if (waitNanos == 0) {
+			return super.doExecute();
+		}
+
+		DeferredExecution execution = new DeferredExecution(new ExecutionRunner());
+		setExecutionHandle(execution);
+		deferredExecution = execution;
+		try {
+			execution.deferral = getTimer().newTimeout(new Submission(execution), waitNanos,
+					TimeUnit.NANOSECONDS);
+		} catch (IllegalStateException ex) {
+			// the timer has been stopped
+			setExecutionHandle(null);
+			deferredExecution = null;
+			throw new ProcessExecutionException(this, ex);
+		}
+
+		// immediate return, since execution is deferred
+		return execution;
+	}
+
+	/**
+	 * Cancels the wrapped/decorated {@link IProcessComponent} or, while its execution is deferred, fails
+	 * the execution immediately.
+	 */
+	@Override
+	protected void doCancel(boolean rollback) {
+		super.doCancel(rollback);
+		DeferredExecution execution = deferredExecution;
+		if (execution != null) {
+			execution.cancelDeferral();
+		}
+	}
+
+	/**
+	 * Sets the maximum time an execution is deferred in {@link Mode#DEFER}. By default, the deferral is
+	 * bounded by the {@link Deadline} of the component only.
+	 *
+	 * @param maxDeferral The maximum deferral.
+	 * @param unit The {@link TimeUnit} of the maximum deferral.
+	 */
+	public void setMaxDeferral(long maxDeferral, TimeUnit unit) {
+		if (maxDeferral < 0) {
+			throw new IllegalArgumentException("Max deferral must not be negative.");
+		}
+		this.maxDeferralNanos = unit.toNanos(maxDeferral);
+	}
+
+	/**
+	 * Indicates whether the last execution of this {@code RateLimitedComponent} has been deferred.
+	 *
+	 * @return True, if the last execution has been deferred, false otherwise.
+	 */
+	public boolean isDeferred() {
+		return deferredExecution != null;
+	}
+
+	public TokenBucket getBucket() {
+		return bucket;
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+
+	/**
+	 * Gets the {@link HashedWheelTimer} the deferrals of this {@code RateLimitedComponent} are scheduled on.
+	 *
+	 * @return The {@link HashedWheelTimer} of this {@code RateLimitedComponent}.
+	 */
+	public HashedWheelTimer getTimer() {
+		return timer != null ? timer : TimeoutComponent.getDefaultTimer();
+	}
+
+	/**
+	 * Registers the provided {@link TokenBucket} to be shared by all {@code RateLimitedComponent}s using the
+	 * provided key, unless a bucket has been registered for this key before.
+	 *
+	 * @param key The key of the {@link TokenBucket}.
+	 * @param bucket The {@link TokenBucket} to be registered.
+	 * @return The {@link TokenBucket} that is registered for the key.
+	 */
+	public static TokenBucket registerBucket(String key, TokenBucket bucket) {
+		if (key == null || bucket == null) {
+			throw new IllegalArgumentException("Key and bucket must not be null.");
+		}
+		TokenBucket existing = buckets.putIfAbsent(key, bucket);
+		return existing != null ? existing : bucket;
+	}
+
+	/**
+	 * Gets the {@link TokenBucket} registered under the provided key.
+	 *
+	 * @param key The key of the {@link TokenBucket}.
+	 * @return The registered {@link TokenBucket} or {@code null} if there is none.
+	 */
+	public static TokenBucket getRegisteredBucket(String key) {
+		return buckets.get(key);
+	}
+
+	/**
+	 * Gets all registered {@link TokenBucket}s, mapped by their key.
+	 *
+	 * @return All registered {@link TokenBucket}s.
+	 */
+	public static Map<String, TokenBucket> getRegisteredBuckets() {
+		return Collections.unmodifiableMap(new HashMap<String, TokenBucket>(buckets));
+	}
+
+	@Override
+	public String toString() {
+		return String.format("RateLimited[%s]", decoratedComponent.toString());
+	}
+
+	private static TokenBucket lookupBucket(String key) {
+		TokenBucket bucket = buckets.get(key);
+		if (bucket == null) {
+			throw new IllegalArgumentException(String.format("No token bucket registered for key '%s'.", key));
+		}
+		return bucket;
+	}
+
+	/**
+	 * The {@link Future} of an execution that is submitted once its reserved token becomes available.
+	 */
+	private class DeferredExecution extends ExecutionTask {
+
+		private final ExecutionRunner runner;
+		private volatile HashedWheelTimer.Timeout deferral;
+
+		private DeferredExecution(ExecutionRunner runner) {
+			super(runner);
+			this.runner = runner;
+		}
+
+		private void submit() {
+			try {
+				submitExecution(runner, this);
+			} catch (ProcessExecutionException ex) {
+				setException(ex);
+			}
+		}
+
+		private void cancelDeferral() {
+			HashedWheelTimer.Timeout pending = deferral;
+			if (pending != null && pending.cancel()) {
+				setException(new ProcessExecutionException(RateLimitedComponent.this,
+						"The execution has been cancelled."));
+			}
+		}
+	}
+
+	/**
+	 * Submits a deferred execution. Runs on the timer thread.
+	 */
+	private class Submission implements Runnable {
+
+		private final DeferredExecution execution;
+
+		private Submission(DeferredExecution execution) {
+			this.execution = execution;
+		}
+
+		@Override
+		public void run() {
+			execution.submit();
+		}
+	}
+}
@@ -0,0 +1,247 @@
+package org.hive2hive.processframework.decorators;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.processframework.Deadline;
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.concurrent.ExternallyCompleted;
+import org.hive2hive.processframework.concurrent.HashedWheelTimer;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link AsyncComponent} that retries the execution of the wrapped/decorated {@link IProcessComponent}
+ * according to a {@link RetryPolicy}. Between two attempts, the component is rolled back (if it requires a
+ * rollback) and reset (see {@link IProcessComponent#reset()}), such that it is executed from the start
+ * again.<br>
+ * The attempts run on the {@link ExecutorService} of this component, whereas the backoffs are scheduled on
+ * a {@link HashedWheelTimer}. Thus, no thread is blocked while waiting for the next attempt. The returned
+ * {@link Future} completes with the result of the first successful attempt or with the failure of the last
+ * one.<br>
+ * No attempt is made if it could not be started before the {@link Deadline} of the component expires. A
+ * cancellation stops the running attempt and prevents further ones.<br>
+ * <br>
+ * By default, the backoffs are scheduled on the timer shared with the {@link TimeoutComponent}s (see
+ * {@link TimeoutComponent#getDefaultTimer()}).<br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * process.add(new RetryComponent&lt;Void&gt;(new TimeoutComponent&lt;Void&gt;(new GetStep(), 5, TimeUnit.SECONDS),
+ * 		new RetryPolicy()));
+ * </pre>
+ *
+ * @param <T> The type of the result computed by the wrapped/decorated {@code IProcessComponent}.
+ */
+public class RetryComponent<T> extends AsyncComponent<T> {
+
+	private static final Logger logger = LoggerFactory.getLogger(RetryComponent.class);
+
+	// store a reference to the IProcessComponent<T>, such that we know its type argument T
+	private final IProcessComponent<T> component;
+	private final RetryPolicy policy;
+	// null, if the default timer is used
+	private final HashedWheelTimer timer;
+
+	private volatile RetryExecution execution;
+
+	/**
+	 * Creates a {@code RetryComponent} that retries the decorated component according to the provided
+	 * policy.
+	 *
+	 * @param decoratedComponent The {@link IProcessComponent} to be decorated.
+	 * @param policy The {@link RetryPolicy} to be applied.
+	 */
+	public RetryComponent(IProcessComponent<T> decoratedComponent, RetryPolicy policy) {
+		this(decoratedComponent, policy, null, null);
+	}
+
+	/**
+	 * Creates a {@code RetryComponent} that retries the decorated component according to the provided
+	 * policy, runs the attempts on the provided {@link ExecutorService} and schedules the backoffs on the
+	 * provided {@link HashedWheelTimer}.
+	 *
+	 * @param decoratedComponent The {@link IProcessComponent} to be decorated.
+	 * @param policy The {@link RetryPolicy} to be applied.
+	 * @param executor The {@link ExecutorService} to be used or {@code null} to use the default executor.
+	 * @param timer The {@link HashedWheelTimer} to be used or {@code null} to use the default timer.
+	 */
+	public RetryComponent(IProcessComponent<T> decoratedComponent, RetryPolicy policy, ExecutorService executor,
+			HashedWheelTimer timer) {
+		super(decoratedComponent, executor);
+		if (policy == null) {
+			throw new IllegalArgumentException("Policy must not be null.");
+		}
+		this.component = decoratedComponent;
+		this.policy = policy;
+		this.timer = timer;
+	}
+
+	@Override
+	protected Future<T> doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+
+		RetryExecution retryExecution = new RetryExecution();
+		execution = retryExecution;
+		setExecutionHandle(retryExecution);
+		retryExecution.submitAttempt();
+
+		// immediate return, since the attempts are async
+		return retryExecution;
+	}
+
+	/**
+	 * Cancels the running attempt of the wrapped/decorated {@link IProcessComponent} or, while awaiting a
+	 * backoff, fails the execution immediately.
+	 */
+	@Override
+	protected void doCancel(boolean rollback) {
+		super.doCancel(rollback);
+		RetryExecution current = execution;
+		if (current != null) {
+			current.cancelRetry();
+		}
+	}
+
+	/**
+	 * Gets the number of attempts of the last execution of this {@code RetryComponent}.
+	 *
+	 * @return The number of attempts made so far.
+	 */
+	public int getAttempts() {
+		RetryExecution current = execution;
+		return current != null ? current.attempts : 0;
+	}
+
+	public RetryPolicy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * Gets the {@link HashedWheelTimer} the backoffs of this {@code RetryComponent} are scheduled on.
+	 *
+	 * @return The {@link HashedWheelTimer} of this {@code RetryComponent}.
+	 */
+	public HashedWheelTimer getTimer() {
+		return timer != null ? timer : TimeoutComponent.getDefaultTimer();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Retry[%s]", decoratedComponent.toString());
+	}
+
+	/**
+	 * The {@link Future} of an execution, which is completed by its attempts rather than being run itself.
+	 */
+	private class RetryExecution extends ExecutionTask {
+
+		private volatile int attempts;
+		private volatile ProcessExecutionException lastFailure;
+		private volatile HashedWheelTimer.Timeout pendingRetry;
+
+		private RetryExecution() {
+			super(new ExternallyCompleted<T>());
+		}
+
+		private void submitAttempt() throws ProcessExecutionException {
+			ExecutionRunner runner = new ExecutionRunner();
+			submitExecution(runner, new Attempt(runner));
+		}
+
+		private void onFailure(ProcessExecutionException failure) {
+			lastFailure = failure;
+			if (RetryComponent.this.isCancelled() || attempts >= policy.getMaxAttempts()
+					|| !policy.isRetryable(failure)) {
+				setException(failure);
+				return;
+			}
+
+			long backoff = policy.getBackoff(attempts, TimeUnit.NANOSECONDS);
+			Deadline deadline = getDeadline();
+			if (deadline != null && backoff >= deadline.remaining(TimeUnit.NANOSECONDS)) {
+				logger.debug("Not retrying '{}', since the deadline expires before the backoff.", component);
+				setException(failure);
+				return;
+			}
+
+			try {
+				if (component.getRollbackRequired() && component.getState() == ProcessState.EXECUTION_FAILED) {
+					component.rollback();
+				}
+				component.reset();
+			} catch (InvalidProcessStateException | ProcessRollbackException ex) {
+				logger.error("Could not prepare '{}' for a retry.", component, ex);
+				setException(failure);
+				return;
+			}
+
+			logger.debug("Retrying '{}' in {} ms after {} failed attempt(s).", component,
+					TimeUnit.NANOSECONDS.toMillis(backoff), attempts);
+			try {
+				pendingRetry = getTimer().newTimeout(new Retry(), backoff, TimeUnit.NANOSECONDS);
+			} catch (IllegalStateException ex) {
+				// the timer has been stopped
+				setException(failure);
+			}
+		}
+
+		private void cancelRetry() {
+			HashedWheelTimer.Timeout pending = pendingRetry;
+			if (pending != null && pending.cancel()) {
+				setException(new ProcessExecutionException(RetryComponent.this, lastFailure,
+						"The execution has been cancelled."));
+			}
+		}
+
+		/**
+		 * Runs a single attempt on the executor.
+		 */
+		private class Attempt implements Runnable {
+
+			private final ExecutionRunner runner;
+
+			private Attempt(ExecutionRunner runner) {
+				this.runner = runner;
+			}
+
+			@Override
+			public void run() {
+				if (RetryComponent.this.isCancelled()) {
+					setException(new ProcessExecutionException(RetryComponent.this, lastFailure,
+							"The execution has been cancelled."));
+					return;
+				}
+				attempts++;
+				try {
+					set(runner.call());
+				} catch (ProcessExecutionException ex) {
+					onFailure(ex);
+				} catch (Exception ex) {
+					setException(ex);
+				}
+			}
+		}
+
+		/**
+		 * Submits the next attempt once the backoff has expired. Runs on the timer thread.
+		 */
+		private class Retry implements Runnable {
+
+			@Override
+			public void run() {
+				pendingRetry = null;
+				try {
+					submitAttempt();
+				} catch (ProcessExecutionException ex) {
+					setException(ex);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,165 @@
+package org.hive2hive.processframework.decorators;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+
+/**
+ * Defines how often and when a {@link RetryComponent} retries a failed execution. The backoff between two
+ * attempts grows exponentially, starting at the initial backoff and limited by the maximum backoff. A
+ * random jitter is subtracted from each backoff, such that components that failed at the same time do not
+ * retry in lockstep.<br>
+ * By default, every {@link ProcessExecutionException} is retryable. Retries can be restricted to specific
+ * causes by {@link RetryPolicy#addRetryableException(Class)} or by overriding
+ * {@link RetryPolicy#isRetryable(ProcessExecutionException)}.<br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * RetryPolicy policy = new RetryPolicy(5, 200, 5000, TimeUnit.MILLISECONDS);
+ * policy.addRetryableException(IOException.class);
+ * process.add(new RetryComponent&lt;Void&gt;(new PutStep(), policy));
+ * </pre>
+ */
+public class RetryPolicy {
+
+	public static final int DEFAULT_MAX_ATTEMPTS = 3;
+	public static final long DEFAULT_INITIAL_BACKOFF_MS = 100;
+	public static final long DEFAULT_MAX_BACKOFF_MS = 10000;
+	public static final double DEFAULT_MULTIPLIER = 2.0;
+	public static final double DEFAULT_JITTER = 0.5;
+
+	private final int maxAttempts;
+	private final long initialBackoffNanos;
+	private final long maxBackoffNanos;
+
+	private volatile double multiplier = DEFAULT_MULTIPLIER;
+	private volatile double jitter = DEFAULT_JITTER;
+	// empty, if all exceptions are retryable
+	private final List<Class<? extends Throwable>> retryableExceptions =
+			new CopyOnWriteArrayList<Class<? extends Throwable>>();
+
+	/**
+	 * Creates a {@code RetryPolicy} with {@value #DEFAULT_MAX_ATTEMPTS} attempts and a backoff from
+	 * {@value #DEFAULT_INITIAL_BACKOFF_MS} ms up to {@value #DEFAULT_MAX_BACKOFF_MS} ms.
+	 */
+	public RetryPolicy() {
+		this(DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_BACKOFF_MS, DEFAULT_MAX_BACKOFF_MS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Creates a {@code RetryPolicy} with the provided number of attempts and backoff bounds.
+	 *
+	 * @param maxAttempts The maximum number of attempts, including the first one.
+	 * @param initialBackoff The backoff after the first failed attempt.
+	 * @param maxBackoff The upper bound of the backoff.
+	 * @param unit The {@link TimeUnit} of the backoffs.
+	 */
+	public RetryPolicy(int maxAttempts, long initialBackoff, long maxBackoff, TimeUnit unit) {
+		if (maxAttempts < 1) {
+			throw new IllegalArgumentException("Max attempts must be at least 1.");
+		}
+		if (initialBackoff < 0 || maxBackoff < initialBackoff) {
+			throw new IllegalArgumentException("Backoffs must satisfy 0 <= initial <= max.");
+		}
+		this.maxAttempts = maxAttempts;
+		this.initialBackoffNanos = unit.toNanos(initialBackoff);
+		this.maxBackoffNanos = unit.toNanos(maxBackoff);
+	}
+
+	/**
+	 * Indicates whether the provided failure of an attempt shall be retried. By default, a failure is
+	 * retryable if no retryable exceptions have been added or if the failure or one of its causes is an
+	 * instance of one of them.
+	 *
+	 * @param failure The {@link ProcessExecutionException} of the failed attempt.
+	 * @return True, if the execution shall be retried, false otherwise.
+	 */
+	public boolean isRetryable(ProcessExecutionException failure) {
+		if (retryableExceptions.isEmpty()) {
+			return true;
+		}
+		for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+			for (Class<? extends Throwable> type : retryableExceptions) {
+				if (type.isInstance(cause)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the backoff before the next attempt, including the jitter.
+	 *
+	 * @param failedAttempts The number of attempts that have failed so far, at least 1.
+	 * @param unit The {@link TimeUnit} of the returned backoff.
+	 * @return The backoff in the provided {@link TimeUnit}.
+	 */
+	public long getBackoff(int failedAttempts, TimeUnit unit) {
+		double backoff = initialBackoffNanos * Math.pow(multiplier, Math.max(failedAttempts - 1, 0));
+		backoff = Math.min(backoff, maxBackoffNanos);
+		backoff -= backoff * jitter * ThreadLocalRandom.current().nextDouble();
+		return unit.convert((long) backoff, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Restricts the retries to failures caused by the provided type of exception. Can be invoked several
+	 * times to allow several types.
+	 *
+	 * @param type The type of {@link Throwable} that is retryable.
+	 */
+	public void addRetryableException(Class<? extends Throwable> type) {
+		if (type == null) {
+			throw new IllegalArgumentException("Type must not be null.");
+		}
+		retryableExceptions.add(type);
+	}
+
+	/**
+	 * Sets the factor by which the backoff grows after each failed attempt. Defaults to
+	 * {@value #DEFAULT_MULTIPLIER}.
+	 *
+	 * @param multiplier The growth factor, at least 1.
+	 */
+	public void setMultiplier(double multiplier) {
+		if (multiplier < 1) {
+			throw new IllegalArgumentException("Multiplier must be at least 1.");
+		}
+		this.multiplier = multiplier;
+	}
+
+	/**
+	 * Sets the maximum fraction of a backoff that is randomly subtracted from it. Defaults to
+	 * {@value #DEFAULT_JITTER}.
+	 *
+	 * @param jitter The jitter in [0, 1], where 0 disables it.
+	 */
+	public void setJitter(double jitter) {
+		if (jitter < 0 || jitter > 1) {
+			throw new IllegalArgumentException("Jitter must be in [0, 1].");
+		}
+		this.jitter = jitter;
+	}
+
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	public double getMultiplier() {
+		return multiplier;
+	}
+
+	public double getJitter() {
+		return jitter;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("RetryPolicy[attempts %s, backoff %s-%s ms]", maxAttempts,
+				TimeUnit.NANOSECONDS.toMillis(initialBackoffNanos), TimeUnit.NANOSECONDS.toMillis(maxBackoffNanos));
+	}
+}
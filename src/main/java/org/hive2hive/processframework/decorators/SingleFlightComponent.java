@@ -0,0 +1,197 @@
+package org.hive2hive.processframework.decorators;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.processframework.Deadline;
+import org.hive2hive.processframework.ProcessDecorator;
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.decorators.SingleFlightGroup.Flight;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+
+/**
+ * A {@link ProcessDecorator} that coalesces concurrent executions with equal keys into a single execution.
+ * The first {@code SingleFlightComponent} to execute for a key executes its wrapped/decorated
+ * {@link IProcessComponent}. All {@code SingleFlightComponent}s of the same {@link SingleFlightGroup} that
+ * execute for the same key in the meantime do not execute their own decorated component, but await the
+ * leading execution and complete with its result or failure. Executions started after the leading one has
+ * completed start a new execution.<br>
+ * If the leading execution is cancelled, the awaiting executions are not affected, but one of them starts a
+ * new execution instead. Awaiting executions can be cancelled and respect their {@link Deadline}.<br>
+ * The rollback of a coalesced execution does nothing, since its decorated component has not been executed.
+ * The rollback of the leading execution rolls back the decorated component. Unless leading, the state of
+ * this decorator is reported instead of the one of the decorated component.<br>
+ * <b>Note:</b> Only components whose result depends on the key alone (e.g., downloads) should be
+ * coalesced.<br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * process.add(new SingleFlightComponent&lt;String, Profile&gt;(new GetProfileStep(userId), userId,
+ * 		profileDownloads));
+ * </pre>
+ *
+ * @param <K> The type of the key.
+ * @param <T> The type of the result computed by the wrapped/decorated {@code IProcessComponent}.
+ */
+public class SingleFlightComponent<K, T> extends ProcessDecorator<T> {
+
+	// store a reference to the IProcessComponent<T>, such that we know its type argument T
+	private final IProcessComponent<T> component;
+	private final K key;
+	private final SingleFlightGroup<K, T> group;
+
+	private volatile boolean coalesced;
+	// whether the last execution has started the decorated component
+	private volatile boolean leading;
+
+	/**
+	 * Creates a {@code SingleFlightComponent} that coalesces its executions with the other components of
+	 * the provided group.
+	 *
+	 * @param decoratedComponent The {@link IProcessComponent} to be decorated.
+	 * @param key The key by which executions are coalesced.
+	 * @param group The {@link SingleFlightGroup} to be used.
+	 */
+	public SingleFlightComponent(IProcessComponent<T> decoratedComponent, K key, SingleFlightGroup<K, T> group) {
+		super(decoratedComponent);
+		if (key == null || group == null) {
+			throw new IllegalArgumentException("Key and group must not be null.");
+		}
+		this.component = decoratedComponent;
+		this.key = key;
+		this.group = group;
+	}
+
+	@Override
+	protected T doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+
+		coalesced = false;
+		leading = false;
+		while (true) {
+			Flight<T> flight = new Flight<T>();
+			Flight<T> existing = group.start(key, flight);
+			if (existing == null) {
+				return lead(flight);
+			}
+
+			await(existing);
+			if (existing.isAbandoned()) {
+				// the leading execution has been cancelled, start over
+				continue;
+			}
+			coalesced = true;
+			if (existing.getFailure() != null) {
+				throw new ProcessExecutionException(this, existing.getFailure(),
+						"The coalesced execution has failed.");
+			}
+			return existing.getResult();
+		}
+	}
+
+	@Override
+	protected T doRollback() throws InvalidProcessStateException, ProcessRollbackException {
+
+		if (!leading) {
+			// the decorated component has not been executed
+			return null;
+		}
+		return component.rollback();
+	}
+
+	/**
+	 * Cancels the wrapped/decorated {@link IProcessComponent} if it is executed by this
+	 * {@code SingleFlightComponent}. An awaiting execution is interrupted instead, such that its decorated
+	 * component is not affected.
+	 */
+	@Override
+	protected void doCancel(boolean rollback) {
+		if (leading) {
+			super.doCancel(rollback);
+		}
+	}
+
+	@Override
+	protected void doReset() throws InvalidProcessStateException {
+		super.doReset();
+		coalesced = false;
+		leading = false;
+	}
+
+	@Override
+	public ProcessState getState() {
+		// the decorated component stays READY unless this component leads
+		return leading ? super.getState() : getDecoratorState();
+	}
+
+	/**
+	 * Indicates whether the last execution of this {@code SingleFlightComponent} has been coalesced with
+	 * another one.
+	 *
+	 * @return True, if the result has been shared by another execution, false if the decorated component has
+	 *         been executed.
+	 */
+	public boolean isCoalesced() {
+		return coalesced;
+	}
+
+	public K getKey() {
+		return key;
+	}
+
+	public SingleFlightGroup<K, T> getGroup() {
+		return group;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("SingleFlight[%s]", decoratedComponent.toString());
+	}
+
+	private T lead(Flight<T> flight) throws InvalidProcessStateException, ProcessExecutionException {
+
+		T result = null;
+		ProcessExecutionException failure = null;
+		boolean succeeded = false;
+		try {
+			leading = true;
+			if (isCancelled()) {
+				// cancelled while awaiting an abandoned execution, the decorated component has not been cancelled
+				leading = false;
+				throw new ProcessExecutionException(this, "The execution has been cancelled.");
+			}
+			result = component.execute();
+			succeeded = true;
+			return result;
+		} catch (ProcessExecutionException ex) {
+			failure = ex;
+			throw ex;
+		} finally {
+			// end the flight first, such that released executions do not join it again
+			group.end(key, flight);
+			if (succeeded) {
+				flight.succeed(result);
+			} else if (failure != null && !isCancelled()) {
+				flight.fail(failure);
+			} else {
+				flight.abandon();
+			}
+		}
+	}
+
+	private void await(Flight<T> flight) throws ProcessExecutionException {
+		try {
+			Deadline deadline = getDeadline();
+			if (deadline == null) {
+				flight.await();
+			} else if (!flight.await(deadline.remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS)) {
+				throw new ProcessExecutionException(this, String.format(
+						"The deadline has expired while awaiting the coalesced execution of '%s'.", key));
+			}
+		} catch (InterruptedException ex) {
+			throw new ProcessExecutionException(this, ex);
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package org.hive2hive.processframework.decorators;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+
+/**
+ * Keeps track of the executions that are in flight for a set of {@link SingleFlightComponent}s. Components
+ * sharing a group coalesce their concurrent executions of equal keys into a single execution.<br>
+ * The group keeps statistics about how many executions have actually run and how many have been
+ * coalesced.<br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * SingleFlightGroup&lt;String, Profile&gt; profileDownloads = new SingleFlightGroup&lt;String, Profile&gt;();
+ * </pre>
+ *
+ * @param <K> The type of the keys.
+ * @param <T> The type of the results.
+ */
+public class SingleFlightGroup<K, T> {
+
+	private final ConcurrentMap<K, Flight<T>> flights = new ConcurrentHashMap<K, Flight<T>>();
+
+	private final AtomicLong executions = new AtomicLong();
+	private final AtomicLong coalesced = new AtomicLong();
+
+	/**
+	 * Gets the number of executions that have actually run, i.e., whose component has not joined another
+	 * execution.
+	 *
+	 * @return The number of leading executions.
+	 */
+	public long getExecutionCount() {
+		return executions.get();
+	}
+
+	/**
+	 * Gets the number of executions that have joined another execution in flight.
+	 *
+	 * @return The number of coalesced executions.
+	 */
+	public long getCoalescedCount() {
+		return coalesced.get();
+	}
+
+	/**
+	 * Gets the number of keys for which an execution is currently in flight.
+	 *
+	 * @return The number of executions in flight.
+	 */
+	public int getInFlightCount() {
+		return flights.size();
+	}
+
+	/**
+	 * Clears the execution and coalesced counts.
+	 */
+	public void resetStatistics() {
+		executions.set(0);
+		coalesced.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("SingleFlightGroup[%s in flight, %s executions, %s coalesced]", getInFlightCount(),
+				getExecutionCount(), getCoalescedCount());
+	}
+
+	/**
+	 * Starts the provided flight for the provided key, unless another flight is in progress for it.
+	 *
+	 * @return The flight in progress or {@code null} if the provided flight has been started.
+	 */
+	Flight<T> start(K key, Flight<T> flight) {
+		Flight<T> existing = flights.putIfAbsent(key, flight);
+		if (existing == null) {
+			executions.incrementAndGet();
+		} else {
+			coalesced.incrementAndGet();
+		}
+		return existing;
+	}
+
+	/**
+	 * Removes the provided flight, such that later executions of the key start a new one.
+	 */
+	void end(K key, Flight<T> flight) {
+		flights.remove(key, flight);
+	}
+
+	/**
+	 * A single execution in flight, awaited by the coalesced executions.
+	 */
+	static final class Flight<T> {
+
+		private final CountDownLatch landed = new CountDownLatch(1);
+		private volatile T result;
+		private volatile ProcessExecutionException failure;
+		private volatile boolean abandoned;
+
+		void succeed(T result) {
+			this.result = result;
+			landed.countDown();
+		}
+
+		void fail(ProcessExecutionException failure) {
+			this.failure = failure;
+			landed.countDown();
+		}
+
+		/**
+		 * Releases the coalesced executions without an outcome, e.g., because the leading execution has
+		 * been cancelled.
+		 */
+		void abandon() {
+			abandoned = true;
+			landed.countDown();
+		}
+
+		boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+			return landed.await(timeout, unit);
+		}
+
+		void await() throws InterruptedException {
+			landed.await();
+		}
+
+		T getResult() {
+			return result;
+		}
+
+		ProcessExecutionException getFailure() {
+			return failure;
+		}
+
+		boolean isAbandoned() {
+			return abandoned;
+		}
+	}
+}
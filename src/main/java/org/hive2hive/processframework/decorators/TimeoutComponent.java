@@ -0,0 +1,228 @@
+package org.hive2hive.processframework.decorators;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hive2hive.processframework.Deadline;
+import org.hive2hive.processframework.ProcessDecorator;
+import org.hive2hive.processframework.concurrent.HashedWheelTimer;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+
+/**
+ * A {@link ProcessDecorator} that bounds the execution time of the wrapped/decorated
+ * {@link IProcessComponent}. If the execution has not completed once the timeout expires, the component is
+ * cancelled (see {@link IProcessComponent#cancel(boolean)}) and the execution fails with a
+ * {@link ProcessExecutionException}, even if the component completes successfully afterwards. The rollback
+ * is not bounded.<br>
+ * If a {@link Deadline} applies to the component, the execution is bounded by the remaining budget if that
+ * is shorter than the timeout. If the deadline has expired already, the component is not executed at all.
+ * <br>
+ * <b>Note:</b>
+ * Cancellation is cooperative: The component must react to the interruption, either by blocking in an
+ * interruptible operation or by checking {@link Thread#interrupted()}. The execution returns only once the
+ * component has returned.<br>
+ * <br>
+ * The timeouts of all {@code TimeoutComponent}s are scheduled on a shared {@link HashedWheelTimer} (see
+ * {@link TimeoutComponent#getDefaultTimer()}), unless a dedicated one is provided upon construction.
+ * To bound an asynchronous execution, the {@code TimeoutComponent} has to be wrapped by the
+ * {@link AsyncComponent}, not vice versa.<br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * process.add(new AsyncComponent&lt;Void&gt;(new TimeoutComponent&lt;Void&gt;(new GetStep(), 5, TimeUnit.SECONDS)));
+ * </pre>
+ *
+ * @param <T> The type of the result computed by the wrapped/decorated {@code IProcessComponent}.
+ */
+public class TimeoutComponent<T> extends ProcessDecorator<T> {
+
+	private static volatile HashedWheelTimer defaultTimer = new HashedWheelTimer();
+
+	// store a reference to the IProcessComponent<T>, such that we know its type argument T
+	private final IProcessComponent<T> component;
+	private final long timeoutNanos;
+	// null, if the default timer is used
+	private final HashedWheelTimer timer;
+
+	private volatile boolean isTimedOut;
+
+	/**
+	 * Creates a {@code TimeoutComponent} that bounds the execution of the decorated component by the
+	 * provided timeout.
+	 *
+	 * @param decoratedComponent The {@link IProcessComponent} to be decorated.
+	 * @param timeout The maximum execution time.
+	 * @param unit The {@link TimeUnit} of the timeout.
+	 */
+	public TimeoutComponent(IProcessComponent<T> decoratedComponent, long timeout, TimeUnit unit) {
+		this(decoratedComponent, timeout, unit, null);
+	}
+
+	/**
+	 * Creates a {@code TimeoutComponent} that bounds the execution of the decorated component by the
+	 * provided timeout and schedules it on the provided {@link HashedWheelTimer}.
+	 *
+	 * @param decoratedComponent The {@link IProcessComponent} to be decorated.
+	 * @param timeout The maximum execution time.
+	 * @param unit The {@link TimeUnit} of the timeout.
+	 * @param timer The {@link HashedWheelTimer} to be used or {@code null} to use the default timer.
+	 */
+	public TimeoutComponent(IProcessComponent<T> decoratedComponent, long timeout, TimeUnit unit,
+			HashedWheelTimer timer) {
+		super(decoratedComponent);
+		if (timeout <= 0) {
+			throw new IllegalArgumentException("Timeout must be positive.");
+		}
+		this.component = decoratedComponent;
+		this.timeoutNanos = unit.toNanos(timeout);
+		this.timer = timer;
+	}
+
+	@Override
+	protected T doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+
+		isTimedOut = false;
+		long budgetNanos = timeoutNanos;
+		Deadline deadline = getDeadline();
+		if (deadline != null) {
+			budgetNanos = Math.min(budgetNanos, deadline.remaining(TimeUnit.NANOSECONDS));
+			if (budgetNanos <= 0) {
+				isTimedOut = true;
+				throw new ProcessExecutionException(this, "Deadline expired before the execution.");
+			}
+		}
+
+		Expiry expiry = new Expiry(component);
+		HashedWheelTimer.Timeout timeout = getTimer().newTimeout(expiry, budgetNanos, TimeUnit.NANOSECONDS);
+
+		T result = null;
+		ProcessExecutionException failure = null;
+		boolean expired;
+		try {
+			result = component.execute();
+		} catch (ProcessExecutionException ex) {
+			failure = ex;
+		} finally {
+			timeout.cancel();
+			expired = !expiry.disarm();
+		}
+
+		if (expired) {
+			isTimedOut = true;
+			throw new ProcessExecutionException(this, failure, String.format("Execution timed out after %s ms.",
+					TimeUnit.NANOSECONDS.toMillis(budgetNanos)));
+		}
+		if (failure != null) {
+			throw failure;
+		}
+		return result;
+	}
+
+	@Override
+	protected T doRollback() throws InvalidProcessStateException, ProcessRollbackException {
+		return component.rollback();
+	}
+
+	/**
+	 * Gets the timeout of this {@code TimeoutComponent}.
+	 *
+	 * @param unit The {@link TimeUnit} of the returned timeout.
+	 * @return The timeout in the provided {@link TimeUnit}.
+	 */
+	public long getTimeout(TimeUnit unit) {
+		return unit.convert(timeoutNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Indicates whether the last execution of this {@code TimeoutComponent} has timed out.
+	 *
+	 * @return True, if the last execution has timed out, false otherwise.
+	 */
+	public boolean isTimedOut() {
+		return isTimedOut;
+	}
+
+	/**
+	 * Gets the {@link HashedWheelTimer} the timeouts of this {@code TimeoutComponent} are scheduled on.
+	 *
+	 * @return The {@link HashedWheelTimer} of this {@code TimeoutComponent}.
+	 */
+	public HashedWheelTimer getTimer() {
+		return timer != null ? timer : defaultTimer;
+	}
+
+	/**
+	 * Gets the {@link HashedWheelTimer} shared by all {@code TimeoutComponent}s that have not been provided a
+	 * dedicated one.
+	 *
+	 * @return The default {@link HashedWheelTimer}.
+	 */
+	public static HashedWheelTimer getDefaultTimer() {
+		return defaultTimer;
+	}
+
+	/**
+	 * Replaces the {@link HashedWheelTimer} shared by all {@code TimeoutComponent}s that have not been
+	 * provided a dedicated one. The previous default timer is not stopped.
+	 *
+	 * @param timer The new default {@link HashedWheelTimer}.
+	 */
+	public static void setDefaultTimer(HashedWheelTimer timer) {
+		if (timer == null) {
+			throw new IllegalArgumentException("Timer must not be null.");
+		}
+		defaultTimer = timer;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Timeout[%s]", decoratedComponent.toString());
+	}
+
+	/**
+	 * Cancels the component upon expiry, unless the execution has been completed before.
+	 */
+	private static class Expiry implements Runnable {
+
+		private static final int ARMED = 0;
+		private static final int DISARMED = 1;
+		private static final int FIRING = 2;
+		private static final int FIRED = 3;
+
+		private final IProcessComponent<?> component;
+		private final AtomicInteger state = new AtomicInteger(ARMED);
+
+		private Expiry(IProcessComponent<?> component) {
+			this.component = component;
+		}
+
+		@Override
+		public void run() {
+			if (state.compareAndSet(ARMED, FIRING)) {
+				component.cancel(false);
+				state.set(FIRED);
+			}
+		}
+
+		/**
+		 * Prevents the cancellation of the component. If it has been cancelled already, a pending
+		 * interruption is cleared such that it does not leak into subsequent components.
+		 *
+		 * @return True, if the expiry has been disarmed in time, false if it has fired.
+		 */
+		private boolean disarm() {
+			if (state.compareAndSet(ARMED, DISARMED)) {
+				return true;
+			}
+			while (state.get() == FIRING) {
+				Thread.yield();
+			}
+			Thread.interrupted();
+			return false;
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package org.hive2hive.processframework.interfaces;
+
+import java.util.concurrent.Future;
+
+import org.hive2hive.processframework.decorators.AsyncComponent;
+
+/**
+ * Listener that gets notified once the asynchronous execution of an {@link AsyncComponent} has completed,
+ * i.e., as soon as its {@link Future} is done. Used by composites to react to the completion of their
+ * asynchronous children in the order of completion. A listener is set by
+ * {@link AsyncComponent#setCompletionListener(IAsyncCompletionListener)}.<br>
+ * <b>Note:</b> The notification is invoked on the executing thread, thus implementations must be
+ * thread-safe and should return quickly.
+ */
+public interface IAsyncCompletionListener {
+
+	/**
+	 * Fires when the asynchronous execution of the provided {@link AsyncComponent} has completed, either
+	 * successfully or not.
+	 * 
+	 * @param component The {@link AsyncComponent} whose execution has completed.
+	 * @param future The {@link Future} returned by the execution, which is done already.
+	 */
+	void onExecutionCompleted(AsyncComponent<?> component, Future<?> future);
+}
@@ -0,0 +1,55 @@
+package org.hive2hive.processframework.interfaces;
+
+import org.hive2hive.processframework.decorators.AsyncComponent;
+
+/**
+ * Framework-wide observer of the tasks {@link AsyncComponent}s submit to their executor. Each task is
+ * timestamped when it gets submitted, when it starts and when it ends, which separates the time spent
+ * waiting for a thread (queue-wait) from the time spent running the component (service time). An
+ * {@code IAsyncExecutionMonitor} is attached once by
+ * {@link AsyncComponent#attachAsyncMonitor(IAsyncExecutionMonitor)}.<br>
+ * <b>Note:</b> The notifications are invoked on the submitting and the executing threads, thus
+ * implementations must be thread-safe and should return quickly.
+ */
+public interface IAsyncExecutionMonitor {
+
+	/**
+	 * Fires when an execution or rollback of the provided component is about to be submitted to the
+	 * executor.
+	 * 
+	 * @param component The {@link IProcessComponent} decorated by the {@link AsyncComponent}.
+	 * @param isRollback True, if a rollback has been submitted, false if an execution has been submitted.
+	 */
+	void onSubmitted(IProcessComponent<?> component, boolean isRollback);
+
+	/**
+	 * Fires when the executor rejected an execution or rollback of the provided component. Always preceded
+	 * by {@link IAsyncExecutionMonitor#onSubmitted(IProcessComponent, boolean)}.
+	 * 
+	 * @param component The {@link IProcessComponent} decorated by the {@link AsyncComponent}.
+	 * @param isRollback True, if a rollback has been rejected, false if an execution has been rejected.
+	 */
+	void onRejected(IProcessComponent<?> component, boolean isRollback);
+
+	/**
+	 * Fires when a submitted execution or rollback of the provided component starts running on a thread of
+	 * the executor.
+	 * 
+	 * @param component The {@link IProcessComponent} decorated by the {@link AsyncComponent}.
+	 * @param isRollback True, if a rollback started, false if an execution started.
+	 * @param queueWaitNanos The time between submission and start in nanoseconds.
+	 */
+	void onStarted(IProcessComponent<?> component, boolean isRollback, long queueWaitNanos);
+
+	/**
+	 * Fires when a started execution or rollback of the provided component ended.
+	 * 
+	 * @param component The {@link IProcessComponent} decorated by the {@link AsyncComponent}.
+	 * @param isRollback True, if a rollback ended, false if an execution ended.
+	 * @param queueWaitNanos The time between submission and start in nanoseconds.
+	 * @param serviceNanos The time between start and end in nanoseconds.
+	 * @param success True, if the execution or rollback succeeded, false if it threw an exception.
+	 */
+	void onEnded(IProcessComponent<?> component, boolean isRollback, long queueWaitNanos, long serviceNanos,
+			boolean success);
+}
@@ -0,0 +1,39 @@
+package org.hive2hive.processframework.interfaces;
+
+import java.util.List;
+
+import org.hive2hive.processframework.BatchedStep;
+import org.hive2hive.processframework.concurrent.BatchItem;
+import org.hive2hive.processframework.concurrent.Batcher;
+
+/**
+ * Handler that executes the items collected by a {@link Batcher} as bulk operations and compensates single
+ * items upon the rollback of their {@link BatchedStep}.<br>
+ * <b>Note:</b> A handler is invoked concurrently for different batches, thus implementations must be
+ * thread-safe.
+ *
+ * @param <I> The type of the items.
+ * @param <R> The type of the per-item results.
+ */
+public interface IBatchHandler<I, R> {
+
+	/**
+	 * Executes the provided items as a single bulk operation and reports the outcome of each item by
+	 * {@link BatchItem#complete(Object)} or {@link BatchItem#fail(Exception)}. Items without an outcome
+	 * when this method returns fail. If this method throws, all items without an outcome fail with the
+	 * thrown exception.
+	 *
+	 * @param items The items of the batch, in the order of their submission.
+	 * @throws Exception If the bulk operation has failed as a whole.
+	 */
+	void executeBatch(List<BatchItem<I, R>> items) throws Exception;
+
+	/**
+	 * Compensates the effects of a single item that has been executed successfully.
+	 *
+	 * @param item The item to be compensated.
+	 * @param result The result of the item.
+	 * @throws Exception If the compensation has failed.
+	 */
+	void compensate(I item, R result) throws Exception;
+}
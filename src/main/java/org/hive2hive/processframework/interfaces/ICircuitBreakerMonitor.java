@@ -0,0 +1,31 @@
+package org.hive2hive.processframework.interfaces;
+
+import org.hive2hive.processframework.decorators.CircuitBreaker;
+import org.hive2hive.processframework.decorators.CircuitBreaker.State;
+
+/**
+ * Framework-wide observer of all {@link CircuitBreaker}s. Gets notified about the state changes of the
+ * breakers and the executions they rejected. An {@code ICircuitBreakerMonitor} is attached once by
+ * {@link CircuitBreaker#attachMonitor(ICircuitBreakerMonitor)}.<br>
+ * <b>Note:</b> The notifications are invoked on the executing threads, thus implementations must be
+ * thread-safe and should return quickly.
+ */
+public interface ICircuitBreakerMonitor {
+
+	/**
+	 * Fires when the provided {@link CircuitBreaker} changed its state.
+	 *
+	 * @param breaker The {@link CircuitBreaker} that changed its state.
+	 * @param from The previous {@link State}.
+	 * @param to The new {@link State}.
+	 */
+	void onStateChanged(CircuitBreaker breaker, State from, State to);
+
+	/**
+	 * Fires when the provided {@link CircuitBreaker} rejected an execution.
+	 *
+	 * @param breaker The {@link CircuitBreaker} that rejected an execution.
+	 * @param component The {@link IProcessComponent} whose execution has been rejected.
+	 */
+	void onRejected(CircuitBreaker breaker, IProcessComponent<?> component);
+}
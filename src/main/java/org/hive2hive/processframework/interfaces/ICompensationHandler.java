@@ -0,0 +1,26 @@
+package org.hive2hive.processframework.interfaces;
+
+import java.util.List;
+
+import org.hive2hive.processframework.CompensationCollector;
+import org.hive2hive.processframework.ProcessStep;
+
+/**
+ * Handler that compensates many items of the same kind by a single bulk operation, e.g., deletes all keys
+ * that have been put by the steps of a rolled back process at once. The items are contributed by
+ * {@link ProcessStep}s during a rollback pass and gathered by a {@link CompensationCollector}.<br>
+ * <b>Note:</b> A handler might be invoked concurrently by independent rollbacks, thus implementations must
+ * be thread-safe.
+ *
+ * @param <I> The type of the items to be compensated.
+ */
+public interface ICompensationHandler<I> {
+
+	/**
+	 * Compensates the provided items as a single bulk operation.
+	 *
+	 * @param items The items to be compensated, in the order of their contribution.
+	 * @throws Exception If the compensation has failed.
+	 */
+	void compensate(List<I> items) throws Exception;
+}
@@ -80,6 +80,34 @@ public interface IProcessComponent<T> {
 	 */
 	void resume() throws InvalidProcessStateException, ProcessExecutionException, ProcessRollbackException;
 
+	/**
+	 * Cancels the execution of this {@code IProcessComponent} and its subtree. Running components are
+	 * interrupted, composites do not start further children and the execution fails with a
+	 * {@link ProcessExecutionException}. Cancelling a completed {@code IProcessComponent} has no effect.
+	 * 
+	 * @param rollback True, if this {@code IProcessComponent} shall be rolled back once its execution has
+	 *            failed.
+	 * @return True, if this {@code IProcessComponent} has been cancelled, false if it had completed already.
+	 */
+	boolean cancel(boolean rollback);
+
+	/**
+	 * Indicates whether the execution of this {@code IProcessComponent} has been cancelled.
+	 * 
+	 * @return True, if this {@code IProcessComponent} has been cancelled, false otherwise.
+	 */
+	boolean isCancelled();
+
+	/**
+	 * Resets this {@code IProcessComponent} and its subtree to {@link ProcessState#READY}, such that it can
+	 * be executed again from the start. In contrast to a rollback, the effects of a previous execution are
+	 * not undone.
+	 * 
+	 * @throws InvalidProcessStateException If this {@code IProcessComponent} is in an invalid state for this
+	 *             operation.
+	 */
+	void reset() throws InvalidProcessStateException;
+
 	/**
 	 * Attaches an {@link IProcessComponentListener} to this {@code IProcessComponent}.
 	 * 
@@ -0,0 +1,17 @@
+package org.hive2hive.processframework.interfaces;
+
+/**
+ * Factory interface for the deferred creation of {@link IProcessComponent}s.
+ * Used to build (sub-)trees of a process only at the moment they are actually needed.
+ *
+ * @param <T> The type of the result computed by the created {@code IProcessComponent}.
+ */
+public interface IProcessComponentFactory<T> {
+
+	/**
+	 * Creates a new {@link IProcessComponent}. Invoked at most once per execution.
+	 *
+	 * @return The newly created {@link IProcessComponent}.
+	 */
+	IProcessComponent<T> create();
+}
@@ -0,0 +1,49 @@
+package org.hive2hive.processframework.interfaces;
+
+import org.hive2hive.processframework.ProcessComponent;
+import org.hive2hive.processframework.ProcessState;
+
+/**
+ * Framework-wide observer of the lifecycle of all {@link IProcessComponent}s. In contrast to an
+ * {@link IProcessComponentListener}, which observes a single component, an {@code IProcessMonitor} is
+ * attached once by {@link ProcessComponent#attachMonitor(IProcessMonitor)} and gets notified about every
+ * component. It is intended for metrics, tracing and diagnostics.<br>
+ * <b>Note:</b> The notifications are invoked on the thread executing the component, thus implementations
+ * must be thread-safe and should return quickly.
+ */
+public interface IProcessMonitor {
+
+	/**
+	 * Fires when the observed {@link IProcessComponent} starts its execution or rollback.
+	 * 
+	 * @param component The {@link IProcessComponent} that started.
+	 * @param state Either {@link ProcessState#EXECUTING} or {@link ProcessState#ROLLBACKING}.
+	 */
+	void onStarted(IProcessComponent<?> component, ProcessState state);
+
+	/**
+	 * Fires when the observed {@link IProcessComponent} finished its execution or rollback.
+	 * 
+	 * @param component The {@link IProcessComponent} that finished.
+	 * @param state The resulting {@link ProcessState}, i.e., {@link ProcessState#EXECUTION_SUCCEEDED},
+	 *            {@link ProcessState#EXECUTION_FAILED}, {@link ProcessState#ROLLBACK_SUCCEEDED} or
+	 *            {@link ProcessState#ROLLBACK_FAILED}.
+	 * @param durationNanos The duration of the execution or rollback in nanoseconds.
+	 */
+	void onFinished(IProcessComponent<?> component, ProcessState state, long durationNanos);
+
+	/**
+	 * Fires when the observed {@link IProcessComponent} gets paused.
+	 * 
+	 * @param component The {@link IProcessComponent} that got paused.
+	 */
+	void onPaused(IProcessComponent<?> component);
+
+	/**
+	 * Fires when the observed {@link IProcessComponent} gets resumed, i.e., right before it continues its
+	 * execution or rollback.
+	 * 
+	 * @param component The {@link IProcessComponent} that got resumed.
+	 */
+	void onResumed(IProcessComponent<?> component);
+}
@@ -0,0 +1,128 @@
+package org.hive2hive.processframework.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Queue-wait and service times as well as submission counts recorded for one group of asynchronously
+ * executed components, i.e., all components of the same class. Executions and rollbacks are recorded
+ * together.
+ * 
+ * @see AsyncExecutionMetrics
+ */
+public class AsyncComponentMetrics {
+
+	private final String key;
+
+	private final LatencyHistogram queueWait = new LatencyHistogram();
+	private final LatencyHistogram serviceTime = new LatencyHistogram();
+
+	private final AtomicLong submitted = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong succeeded = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+
+	public AsyncComponentMetrics(String key) {
+		this.key = key;
+	}
+
+	void recordSubmitted() {
+		submitted.incrementAndGet();
+	}
+
+	void recordRejected() {
+		rejected.incrementAndGet();
+	}
+
+	void recordStarted(long queueWaitNanos) {
+		queueWait.record(queueWaitNanos);
+	}
+
+	void recordEnded(long serviceNanos, boolean success) {
+		serviceTime.record(serviceNanos);
+		(success ? succeeded : failed).incrementAndGet();
+	}
+
+	/**
+	 * Merges all values recorded by the provided metrics into these {@code AsyncComponentMetrics}.
+	 * 
+	 * @param other The {@code AsyncComponentMetrics} to be merged.
+	 */
+	public void add(AsyncComponentMetrics other) {
+		queueWait.add(other.queueWait);
+		serviceTime.add(other.serviceTime);
+		submitted.addAndGet(other.submitted.get());
+		rejected.addAndGet(other.rejected.get());
+		succeeded.addAndGet(other.succeeded.get());
+		failed.addAndGet(other.failed.get());
+	}
+
+	/**
+	 * Gets the key (component class) these {@code AsyncComponentMetrics} have been recorded for.
+	 * 
+	 * @return The key of these {@code AsyncComponentMetrics}.
+	 */
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * Gets the {@link LatencyHistogram} of the time the tasks waited for a thread of the executor.
+	 * 
+	 * @return The queue-wait {@link LatencyHistogram}.
+	 */
+	public LatencyHistogram getQueueWait() {
+		return queueWait;
+	}
+
+	/**
+	 * Gets the {@link LatencyHistogram} of the time the tasks ran on a thread of the executor.
+	 * 
+	 * @return The service time {@link LatencyHistogram}.
+	 */
+	public LatencyHistogram getServiceTime() {
+		return serviceTime;
+	}
+
+	/**
+	 * Gets the number of tasks submitted to the executor, including the rejected ones.
+	 * 
+	 * @return The number of submitted tasks.
+	 */
+	public long getSubmittedCount() {
+		return submitted.get();
+	}
+
+	/**
+	 * Gets the number of tasks rejected by the executor.
+	 * 
+	 * @return The number of rejected tasks.
+	 */
+	public long getRejectedCount() {
+		return rejected.get();
+	}
+
+	/**
+	 * Gets the number of tasks that ended successfully.
+	 * 
+	 * @return The number of successful tasks.
+	 */
+	public long getSucceededCount() {
+		return succeeded.get();
+	}
+
+	/**
+	 * Gets the number of tasks that ended with an exception.
+	 * 
+	 * @return The number of failed tasks.
+	 */
+	public long getFailedCount() {
+		return failed.get();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: submitted=%s, rejected=%s, succeeded=%s, failed=%s, queue-wait [%s], "
+				+ "service time [%s]", key, getSubmittedCount(), getRejectedCount(), getSucceededCount(),
+				getFailedCount(), queueWait, serviceTime);
+	}
+}
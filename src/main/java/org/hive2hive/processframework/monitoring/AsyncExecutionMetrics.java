@@ -0,0 +1,203 @@
+package org.hive2hive.processframework.monitoring;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hive2hive.processframework.decorators.AsyncComponent;
+import org.hive2hive.processframework.interfaces.IAsyncExecutionMonitor;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+
+/**
+ * {@link IAsyncExecutionMonitor} that separates the latency of asynchronously executed components into the
+ * time waiting for a thread (queue-wait) and the time actually running (service time), grouped by the class
+ * of the component decorated by the {@link AsyncComponent}. Additionally, it tracks saturation signals of
+ * the executors: the number of queued and running tasks, their peaks and the number of rejections.
+ * A growing queue-wait share (see {@link AsyncExecutionMetrics#getQueueWaitRatio()}) indicates an undersized
+ * pool long before the overall latency spikes.<br>
+ * <br>
+ * <b>Example:</b>
+ * 
+ * <pre>
+ * AsyncExecutionMetrics metrics = new AsyncExecutionMetrics();
+ * AsyncComponent.attachAsyncMonitor(metrics);
+ * 
+ * // run processes...
+ * 
+ * AsyncComponentMetrics upload = metrics.getMetrics(UploadStep.class);
+ * long waitP99 = upload.getQueueWait().getValueAtPercentile(99.0, TimeUnit.MILLISECONDS);
+ * long runP99 = upload.getServiceTime().getValueAtPercentile(99.0, TimeUnit.MILLISECONDS);
+ * </pre>
+ */
+public class AsyncExecutionMetrics implements IAsyncExecutionMonitor {
+
+	private final ConcurrentMap<String, AsyncComponentMetrics> metrics = new ConcurrentHashMap<String, AsyncComponentMetrics>();
+
+	private final AtomicLong queued = new AtomicLong();
+	private final AtomicLong running = new AtomicLong();
+	private final AtomicLong peakQueued = new AtomicLong();
+	private final AtomicLong peakRunning = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong totalQueueWait = new AtomicLong();
+	private final AtomicLong totalServiceTime = new AtomicLong();
+
+	@Override
+	public void onSubmitted(IProcessComponent<?> component, boolean isRollback) {
+		getOrCreate(component).recordSubmitted();
+		updatePeak(peakQueued, queued.incrementAndGet());
+	}
+
+	@Override
+	public void onRejected(IProcessComponent<?> component, boolean isRollback) {
+		getOrCreate(component).recordRejected();
+		queued.decrementAndGet();
+		rejected.incrementAndGet();
+	}
+
+	@Override
+	public void onStarted(IProcessComponent<?> component, boolean isRollback, long queueWaitNanos) {
+		getOrCreate(component).recordStarted(queueWaitNanos);
+		totalQueueWait.addAndGet(queueWaitNanos);
+		queued.decrementAndGet();
+		updatePeak(peakRunning, running.incrementAndGet());
+	}
+
+	@Override
+	public void onEnded(IProcessComponent<?> component, boolean isRollback, long queueWaitNanos,
+			long serviceNanos, boolean success) {
+		getOrCreate(component).recordEnded(serviceNanos, success);
+		totalServiceTime.addAndGet(serviceNanos);
+		running.decrementAndGet();
+	}
+
+	/**
+	 * Gets the {@link AsyncComponentMetrics} recorded for the provided component class name.
+	 * 
+	 * @param key The fully qualified class name of the decorated components.
+	 * @return The {@link AsyncComponentMetrics} or {@code null} if nothing has been recorded for this key.
+	 */
+	public AsyncComponentMetrics getMetrics(String key) {
+		return metrics.get(key);
+	}
+
+	/**
+	 * Gets the {@link AsyncComponentMetrics} recorded for the provided component class.
+	 * 
+	 * @param componentClass The class of the decorated components.
+	 * @return The {@link AsyncComponentMetrics} or {@code null} if nothing has been recorded for this class.
+	 */
+	public AsyncComponentMetrics getMetrics(Class<?> componentClass) {
+		return metrics.get(componentClass.getName());
+	}
+
+	/**
+	 * Gets all recorded {@link AsyncComponentMetrics}, mapped by their key.
+	 * 
+	 * @return All recorded {@link AsyncComponentMetrics}.
+	 */
+	public Map<String, AsyncComponentMetrics> getAllMetrics() {
+		return Collections.unmodifiableMap(new HashMap<String, AsyncComponentMetrics>(metrics));
+	}
+
+	/**
+	 * Gets the number of tasks that have been submitted but not yet started.
+	 * 
+	 * @return The number of queued tasks.
+	 */
+	public long getQueuedCount() {
+		return Math.max(0, queued.get());
+	}
+
+	/**
+	 * Gets the number of tasks that are currently running.
+	 * 
+	 * @return The number of running tasks.
+	 */
+	public long getRunningCount() {
+		return Math.max(0, running.get());
+	}
+
+	/**
+	 * Gets the highest number of simultaneously queued tasks.
+	 * 
+	 * @return The peak number of queued tasks.
+	 */
+	public long getPeakQueuedCount() {
+		return peakQueued.get();
+	}
+
+	/**
+	 * Gets the highest number of simultaneously running tasks.
+	 * 
+	 * @return The peak number of running tasks.
+	 */
+	public long getPeakRunningCount() {
+		return peakRunning.get();
+	}
+
+	/**
+	 * Gets the number of tasks rejected by the executors.
+	 * 
+	 * @return The number of rejected tasks.
+	 */
+	public long getRejectedCount() {
+		return rejected.get();
+	}
+
+	/**
+	 * Gets the share of the queue-wait in the overall latency of all started tasks.
+	 * 
+	 * @return The total queue-wait divided by the sum of total queue-wait and total service time, in the range
+	 *         [0, 1].
+	 */
+	public double getQueueWaitRatio() {
+		long wait = totalQueueWait.get();
+		long total = wait + totalServiceTime.get();
+		return total <= 0 ? 0.0 : (double) wait / total;
+	}
+
+	/**
+	 * Clears all recorded values, including the peaks. The current queued and running counts are kept.
+	 */
+	public void reset() {
+		metrics.clear();
+		peakQueued.set(getQueuedCount());
+		peakRunning.set(getRunningCount());
+		rejected.set(0);
+		totalQueueWait.set(0);
+		totalServiceTime.set(0);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(String.format(
+				"Async Execution Metrics: queued=%s (peak %s), running=%s (peak %s), rejected=%s, queue-wait ratio=%.3f",
+				getQueuedCount(), getPeakQueuedCount(), getRunningCount(), getPeakRunningCount(),
+				getRejectedCount(), getQueueWaitRatio()));
+		for (AsyncComponentMetrics componentMetrics : metrics.values()) {
+			sb.append(String.format("%n  %s", componentMetrics));
+		}
+		return sb.toString();
+	}
+
+	private AsyncComponentMetrics getOrCreate(IProcessComponent<?> component) {
+		String key = component.getClass().getName();
+		AsyncComponentMetrics existing = metrics.get(key);
+		if (existing != null) {
+			return existing;
+		}
+		AsyncComponentMetrics created = new AsyncComponentMetrics(key);
+		existing = metrics.putIfAbsent(key, created);
+		return existing != null ? existing : created;
+	}
+
+	private static void updatePeak(AtomicLong peak, long value) {
+		long current = peak.get();
+		while (value > current && !peak.compareAndSet(current, value)) {
+			current = peak.get();
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package org.hive2hive.processframework.monitoring;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Exports {@link Span}s in the Chrome trace event format (JSON). The resulting files can be opened by
+ * {@code chrome://tracing}, Perfetto and other tools supporting this format.
+ * Each span becomes a complete event ({@code "ph":"X"}) on the track of the thread that ran it.
+ */
+public final class ChromeTraceExporter {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private ChromeTraceExporter() {
+		// only static methods
+	}
+
+	/**
+	 * Exports the provided spans to the provided file.
+	 * 
+	 * @param spans The {@link Span}s to be exported.
+	 * @param file The file to write to. An existing file gets overwritten.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public static void export(Collection<Span> spans, File file) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), UTF_8));
+		try {
+			export(spans, writer);
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Exports the provided spans to the provided writer. The writer is flushed, but not closed.
+	 * 
+	 * @param spans The {@link Span}s to be exported.
+	 * @param writer The {@link Writer} to write to.
+	 * @throws IOException If writing fails.
+	 */
+	public static void export(Collection<Span> spans, Writer writer) throws IOException {
+
+		long origin = Long.MAX_VALUE;
+		Map<Long, String> threads = new HashMap<Long, String>();
+		for (Span span : spans) {
+			origin = Math.min(origin, span.getStartNanos());
+			if (!threads.containsKey(span.getThreadId())) {
+				threads.put(span.getThreadId(), span.getThreadName());
+			}
+		}
+
+		writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+		boolean first = true;
+		for (Map.Entry<Long, String> thread : threads.entrySet()) {
+			first = separate(writer, first);
+			writer.write(String.format(Locale.ROOT,
+					"{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":%d,\"args\":{\"name\":%s}}",
+					thread.getKey(), quote(thread.getValue())));
+		}
+		for (Span span : spans) {
+			first = separate(writer, first);
+			writer.write(String.format(Locale.ROOT,
+					"{\"name\":%s,\"cat\":\"%s\",\"ph\":\"X\",\"ts\":%.3f,\"dur\":%.3f,\"pid\":1,\"tid\":%d,"
+							+ "\"args\":{\"trace\":%d,\"span\":%d,\"parent\":%d,\"class\":%s,\"id\":%s,"
+							+ "\"async\":%s,\"outcome\":%s}}", quote(span.getName()),
+					span.isRollback() ? "rollback" : "execution", (span.getStartNanos() - origin) / 1000.0,
+					span.getDurationNanos() / 1000.0, span.getThreadId(), span.getTraceId(), span.getSpanId(),
+					span.getParentSpanId(), quote(span.getComponentClass()), quote(span.getComponentId()),
+					span.isAsync(), quote(String.valueOf(span.getOutcome()))));
+		}
+		writer.write("]}");
+		writer.flush();
+	}
+
+	private static boolean separate(Writer writer, boolean first) throws IOException {
+		if (!first) {
+			writer.write(",\n");
+		} else {
+			writer.write("\n");
+		}
+		return false;
+	}
+
+	private static String quote(String value) {
+		if (value == null) {
+			return "null";
+		}
+		StringBuilder sb = new StringBuilder(value.length() + 2);
+		sb.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"':
+					sb.append("\\\"");
+					break;
+				case '\\':
+					sb.append("\\\\");
+					break;
+				case '\n':
+					sb.append("\\n");
+					break;
+				case '\r':
+					sb.append("\\r");
+					break;
+				case '\t':
+					sb.append("\\t");
+					break;
+				default:
+					if (c < 0x20) {
+						sb.append(String.format("\\u%04x", (int) c));
+					} else {
+						sb.append(c);
+					}
+			}
+		}
+		sb.append('"');
+		return sb.toString();
+	}
+}
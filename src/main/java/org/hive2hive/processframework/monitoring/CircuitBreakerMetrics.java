@@ -0,0 +1,205 @@
+package org.hive2hive.processframework.monitoring;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hive2hive.processframework.decorators.CircuitBreaker;
+import org.hive2hive.processframework.decorators.CircuitBreaker.State;
+import org.hive2hive.processframework.interfaces.ICircuitBreakerMonitor;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+
+/**
+ * {@link ICircuitBreakerMonitor} that records the state changes and rejections of all
+ * {@link CircuitBreaker}s, grouped by their key. Besides the number of transitions, it tracks the time the
+ * breakers have not been closed, i.e., the time the guarded services have been considered unavailable.
+ * <br>
+ * <br>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * CircuitBreakerMetrics metrics = new CircuitBreakerMetrics();
+ * CircuitBreaker.attachMonitor(metrics);
+ *
+ * // run processes...
+ *
+ * long opened = metrics.getOpenedCount("dht");
+ * long unavailableMs = metrics.getUnavailableTime("dht", TimeUnit.MILLISECONDS);
+ * </pre>
+ */
+public class CircuitBreakerMetrics implements ICircuitBreakerMonitor {
+
+	private final ConcurrentMap<String, BreakerRecord> records = new ConcurrentHashMap<String, BreakerRecord>();
+
+	@Override
+	public void onStateChanged(CircuitBreaker breaker, State from, State to) {
+		BreakerRecord record = getOrCreate(breaker.getKey());
+		long now = System.nanoTime();
+		synchronized (record) {
+			if (from == State.CLOSED) {
+				record.unavailable = true;
+				record.unavailableSince = now;
+			} else if (to == State.CLOSED && record.unavailable) {
+				record.unavailable = false;
+				record.unavailableNanos += now - record.unavailableSince;
+			}
+			record.state = to;
+		}
+		switch (to) {
+			case OPEN:
+				record.opened.incrementAndGet();
+				break;
+			case HALF_OPEN:
+				record.halfOpened.incrementAndGet();
+				break;
+			case CLOSED:
+				record.closed.incrementAndGet();
+				break;
+			default:
+				break;
+		}
+	}
+
+	@Override
+	public void onRejected(CircuitBreaker breaker, IProcessComponent<?> component) {
+		getOrCreate(breaker.getKey()).rejected.incrementAndGet();
+	}
+
+	/**
+	 * Gets the keys of all breakers that have been recorded.
+	 *
+	 * @return The recorded keys in ascending order.
+	 */
+	public Set<String> getKeys() {
+		return Collections.unmodifiableSet(new TreeSet<String>(records.keySet()));
+	}
+
+	/**
+	 * Gets the last recorded {@link State} of the breaker with the provided key.
+	 *
+	 * @param key The key of the breaker.
+	 * @return The last recorded {@link State} or {@link State#CLOSED} if no change has been recorded.
+	 */
+	public State getState(String key) {
+		BreakerRecord record = records.get(key);
+		if (record == null) {
+			return State.CLOSED;
+		}
+		synchronized (record) {
+			return record.state;
+		}
+	}
+
+	/**
+	 * Gets how often the breaker with the provided key has opened.
+	 *
+	 * @param key The key of the breaker.
+	 * @return The number of transitions to {@link State#OPEN}.
+	 */
+	public long getOpenedCount(String key) {
+		BreakerRecord record = records.get(key);
+		return record != null ? record.opened.get() : 0;
+	}
+
+	/**
+	 * Gets how often the breaker with the provided key has become half-open.
+	 *
+	 * @param key The key of the breaker.
+	 * @return The number of transitions to {@link State#HALF_OPEN}.
+	 */
+	public long getHalfOpenedCount(String key) {
+		BreakerRecord record = records.get(key);
+		return record != null ? record.halfOpened.get() : 0;
+	}
+
+	/**
+	 * Gets how often the breaker with the provided key has closed again.
+	 *
+	 * @param key The key of the breaker.
+	 * @return The number of transitions to {@link State#CLOSED}.
+	 */
+	public long getClosedCount(String key) {
+		BreakerRecord record = records.get(key);
+		return record != null ? record.closed.get() : 0;
+	}
+
+	/**
+	 * Gets the number of executions the breaker with the provided key has rejected.
+	 *
+	 * @param key The key of the breaker.
+	 * @return The number of rejected executions.
+	 */
+	public long getRejectedCount(String key) {
+		BreakerRecord record = records.get(key);
+		return record != null ? record.rejected.get() : 0;
+	}
+
+	/**
+	 * Gets the total time the breaker with the provided key has not been closed, including the current
+	 * period if it is open or half-open.
+	 *
+	 * @param key The key of the breaker.
+	 * @param unit The {@link TimeUnit} of the returned time.
+	 * @return The total time in the provided {@link TimeUnit}.
+	 */
+	public long getUnavailableTime(String key, TimeUnit unit) {
+		BreakerRecord record = records.get(key);
+		if (record == null) {
+			return 0;
+		}
+		long nanos;
+		synchronized (record) {
+			nanos = record.unavailableNanos;
+			if (record.unavailable) {
+				nanos += System.nanoTime() - record.unavailableSince;
+			}
+		}
+		return unit.convert(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Clears all recorded values.
+	 */
+	public void reset() {
+		records.clear();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("Circuit Breaker Metrics:");
+		for (String key : getKeys()) {
+			sb.append(String.format("%n  %s: state=%s, opened=%s, half-opened=%s, closed=%s, rejected=%s, unavailable=%s ms",
+					key, getState(key), getOpenedCount(key), getHalfOpenedCount(key), getClosedCount(key),
+					getRejectedCount(key), getUnavailableTime(key, TimeUnit.MILLISECONDS)));
+		}
+		return sb.toString();
+	}
+
+	private BreakerRecord getOrCreate(String key) {
+		BreakerRecord existing = records.get(key);
+		if (existing != null) {
+			return existing;
+		}
+		BreakerRecord created = new BreakerRecord();
+		existing = records.putIfAbsent(key, created);
+		return existing != null ? existing : created;
+	}
+
+	private static class BreakerRecord {
+
+		private final AtomicLong opened = new AtomicLong();
+		private final AtomicLong halfOpened = new AtomicLong();
+		private final AtomicLong closed = new AtomicLong();
+		private final AtomicLong rejected = new AtomicLong();
+
+		// guarded by this
+		private State state = State.CLOSED;
+		private boolean unavailable;
+		private long unavailableSince;
+		private long unavailableNanos;
+	}
+}
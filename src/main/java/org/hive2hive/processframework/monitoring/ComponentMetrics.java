@@ -0,0 +1,136 @@
+package org.hive2hive.processframework.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latencies and outcome counts recorded for one group of components, e.g., all components of the same
+ * class.
+ * 
+ * @see ProcessMetrics
+ */
+public class ComponentMetrics {
+
+	private final String key;
+
+	private final LatencyHistogram executionLatency = new LatencyHistogram();
+	private final LatencyHistogram rollbackLatency = new LatencyHistogram();
+
+	private final AtomicLong executionSucceeded = new AtomicLong();
+	private final AtomicLong executionFailed = new AtomicLong();
+	private final AtomicLong rollbackSucceeded = new AtomicLong();
+	private final AtomicLong rollbackFailed = new AtomicLong();
+	private final AtomicLong paused = new AtomicLong();
+
+	public ComponentMetrics(String key) {
+		this.key = key;
+	}
+
+	void recordExecution(long nanos, boolean success) {
+		executionLatency.record(nanos);
+		(success ? executionSucceeded : executionFailed).incrementAndGet();
+	}
+
+	void recordRollback(long nanos, boolean success) {
+		rollbackLatency.record(nanos);
+		(success ? rollbackSucceeded : rollbackFailed).incrementAndGet();
+	}
+
+	void recordPause() {
+		paused.incrementAndGet();
+	}
+
+	/**
+	 * Merges all values recorded by the provided metrics into these {@code ComponentMetrics}.
+	 * 
+	 * @param other The {@code ComponentMetrics} to be merged.
+	 */
+	public void add(ComponentMetrics other) {
+		executionLatency.add(other.executionLatency);
+		rollbackLatency.add(other.rollbackLatency);
+		executionSucceeded.addAndGet(other.executionSucceeded.get());
+		executionFailed.addAndGet(other.executionFailed.get());
+		rollbackSucceeded.addAndGet(other.rollbackSucceeded.get());
+		rollbackFailed.addAndGet(other.rollbackFailed.get());
+		paused.addAndGet(other.paused.get());
+	}
+
+	/**
+	 * Gets the key (component class or name) these {@code ComponentMetrics} have been recorded for.
+	 * 
+	 * @return The key of these {@code ComponentMetrics}.
+	 */
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * Gets the {@link LatencyHistogram} of all executions, whether successful or not.
+	 * 
+	 * @return The execution {@link LatencyHistogram}.
+	 */
+	public LatencyHistogram getExecutionLatency() {
+		return executionLatency;
+	}
+
+	/**
+	 * Gets the {@link LatencyHistogram} of all rollbacks, whether successful or not.
+	 * 
+	 * @return The rollback {@link LatencyHistogram}.
+	 */
+	public LatencyHistogram getRollbackLatency() {
+		return rollbackLatency;
+	}
+
+	/**
+	 * Gets the number of successful executions.
+	 * 
+	 * @return The number of successful executions.
+	 */
+	public long getExecutionSucceededCount() {
+		return executionSucceeded.get();
+	}
+
+	/**
+	 * Gets the number of failed executions.
+	 * 
+	 * @return The number of failed executions.
+	 */
+	public long getExecutionFailedCount() {
+		return executionFailed.get();
+	}
+
+	/**
+	 * Gets the number of successful rollbacks.
+	 * 
+	 * @return The number of successful rollbacks.
+	 */
+	public long getRollbackSucceededCount() {
+		return rollbackSucceeded.get();
+	}
+
+	/**
+	 * Gets the number of failed rollbacks.
+	 * 
+	 * @return The number of failed rollbacks.
+	 */
+	public long getRollbackFailedCount() {
+		return rollbackFailed.get();
+	}
+
+	/**
+	 * Gets the number of pauses.
+	 * 
+	 * @return The number of pauses.
+	 */
+	public long getPausedCount() {
+		return paused.get();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: succeeded=%s, failed=%s, paused=%s, rolled back=%s, rollback failed=%s, "
+				+ "execution [%s], rollback [%s]", key, getExecutionSucceededCount(), getExecutionFailedCount(),
+				getPausedCount(), getRollbackSucceededCount(), getRollbackFailedCount(), executionLatency,
+				rollbackLatency);
+	}
+}
@@ -0,0 +1,190 @@
+package org.hive2hive.processframework.monitoring;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The critical path through a single traced run of a process tree, as computed by
+ * {@link CriticalPathAnalyzer}. The critical path consists of the components that bounded the end-to-end
+ * latency: making any of them faster makes the run faster. All other components have slack, i.e., they could
+ * have taken longer without delaying the run.
+ */
+public class CriticalPath {
+
+	private final Span root;
+	private final Map<Span, Entry> entries;
+
+	CriticalPath(Span root, Map<Span, Entry> entries) {
+		this.root = root;
+		this.entries = entries;
+	}
+
+	/**
+	 * Gets the ID of the analyzed trace.
+	 * 
+	 * @return The trace ID.
+	 */
+	public long getTraceId() {
+		return root.getTraceId();
+	}
+
+	/**
+	 * Gets the span of the root component of the analyzed run.
+	 * 
+	 * @return The root {@link Span}.
+	 */
+	public Span getRoot() {
+		return root;
+	}
+
+	/**
+	 * Gets the end-to-end latency of the analyzed run.
+	 * 
+	 * @return The duration of the run in nanoseconds.
+	 */
+	public long getDurationNanos() {
+		return entries.get(root).getEffectiveEndNanos() - root.getStartNanos();
+	}
+
+	/**
+	 * Gets the entries of all spans of the analyzed run, ordered by their start.
+	 * 
+	 * @return The entries of all spans.
+	 */
+	public List<Entry> getEntries() {
+		List<Entry> sorted = new ArrayList<Entry>(entries.values());
+		Collections.sort(sorted, new Comparator<Entry>() {
+
+			@Override
+			public int compare(Entry o1, Entry o2) {
+				return Long.compare(o1.span.getStartNanos(), o2.span.getStartNanos());
+			}
+		});
+		return sorted;
+	}
+
+	/**
+	 * Gets the entries of the spans on the critical path, ordered by their start.
+	 * 
+	 * @return The entries of the critical spans.
+	 */
+	public List<Entry> getCriticalEntries() {
+		List<Entry> critical = new ArrayList<Entry>();
+		for (Entry entry : getEntries()) {
+			if (entry.isCritical()) {
+				critical.add(entry);
+			}
+		}
+		return critical;
+	}
+
+	/**
+	 * Gets the entry of the provided span.
+	 * 
+	 * @param span A {@link Span} of the analyzed run.
+	 * @return The {@link Entry} of the span or {@code null} if the span is not part of the analyzed run.
+	 */
+	public Entry getEntry(Span span) {
+		return entries.get(span);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(String.format("Critical path of trace %s (%.3fms):", getTraceId(),
+				getDurationNanos() / 1e6));
+		for (Entry entry : getCriticalEntries()) {
+			sb.append(String.format("%n  %10.3fms  %s", entry.getContributionNanos() / 1e6, entry.span));
+		}
+
+		List<Entry> others = new ArrayList<Entry>();
+		for (Entry entry : entries.values()) {
+			if (!entry.isCritical()) {
+				others.add(entry);
+			}
+		}
+		if (!others.isEmpty()) {
+			Collections.sort(others, new Comparator<Entry>() {
+
+				@Override
+				public int compare(Entry o1, Entry o2) {
+					return Long.compare(o1.slackNanos, o2.slackNanos);
+				}
+			});
+			sb.append(String.format("%nSlack:"));
+			for (Entry entry : others) {
+				sb.append(String.format("%n  %10.3fms  %s", entry.getSlackNanos() / 1e6, entry.span));
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * The analysis result of a single {@link Span}.
+	 */
+	public static class Entry {
+
+		private final Span span;
+		private final long effectiveEndNanos;
+		private final long slackNanos;
+		private final boolean critical;
+		private final long contributionNanos;
+
+		Entry(Span span, long effectiveEndNanos, long slackNanos, boolean critical, long contributionNanos) {
+			this.span = span;
+			this.effectiveEndNanos = effectiveEndNanos;
+			this.slackNanos = slackNanos;
+			this.critical = critical;
+			this.contributionNanos = contributionNanos;
+		}
+
+		/**
+		 * Gets the analyzed span.
+		 * 
+		 * @return The {@link Span}.
+		 */
+		public Span getSpan() {
+			return span;
+		}
+
+		/**
+		 * Gets the time the span and all its (possibly asynchronous) descendants have ended. Behind an
+		 * asynchronous boundary, this might be later than the end of the span itself.
+		 * 
+		 * @return The effective end in nanoseconds.
+		 */
+		public long getEffectiveEndNanos() {
+			return effectiveEndNanos;
+		}
+
+		/**
+		 * Gets the time by which the span could have ended later without delaying the run.
+		 * 
+		 * @return The slack in nanoseconds, 0 for spans on the critical path.
+		 */
+		public long getSlackNanos() {
+			return slackNanos;
+		}
+
+		/**
+		 * Indicates whether the span is on the critical path.
+		 * 
+		 * @return True, if the span bounded the end-to-end latency, false otherwise.
+		 */
+		public boolean isCritical() {
+			return critical;
+		}
+
+		/**
+		 * Gets the share of the end-to-end latency attributed to the span itself, i.e., its effective
+		 * duration minus the effective durations of its critical children.
+		 * 
+		 * @return The contribution in nanoseconds, 0 for spans not on the critical path.
+		 */
+		public long getContributionNanos() {
+			return contributionNanos;
+		}
+	}
+}
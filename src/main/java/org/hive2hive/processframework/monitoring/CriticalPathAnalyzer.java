@@ -0,0 +1,190 @@
+package org.hive2hive.processframework.monitoring;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hive2hive.processframework.composites.SyncProcess;
+import org.hive2hive.processframework.decorators.AsyncComponent;
+
+/**
+ * Computes the {@link CriticalPath} of completed runs recorded by a {@link ProcessTracer}.<br>
+ * The analysis follows the semantics of the framework:
+ * <ul>
+ * <li>The children of a component that run on its thread (e.g., the components of a {@link SyncProcess})
+ * are sequenced. Delaying one of them delays all subsequent ones.</li>
+ * <li>Components behind an asynchronous boundary (i.e., decorated by an {@link AsyncComponent}) overlap with
+ * their successors and only need to end before the enclosing composite stops awaiting them.</li>
+ * </ul>
+ * The slack of a span is the slack of its parent plus the time it could be delayed until it (or any span it
+ * would push back) becomes the last one its parent waits for. Spans without slack form the critical path.<br>
+ * <br>
+ * <b>Example:</b>
+ * 
+ * <pre>
+ * for (CriticalPath path : CriticalPathAnalyzer.analyze(tracer.drainSpans())) {
+ *     System.out.println(path);
+ * }
+ * </pre>
+ */
+public final class CriticalPathAnalyzer {
+
+	private CriticalPathAnalyzer() {
+		// only static methods
+	}
+
+	/**
+	 * Analyzes all completed traces among the provided spans.
+	 * 
+	 * @param spans The {@link Span}s of one or more traces.
+	 * @return One {@link CriticalPath} per trace whose root span is contained, ordered by the start of the
+	 *         root.
+	 */
+	public static List<CriticalPath> analyze(Collection<Span> spans) {
+		return analyze(spans, 0);
+	}
+
+	/**
+	 * Analyzes all completed traces among the provided spans, considering spans with a slack up to the
+	 * provided tolerance as critical. A tolerance compensates for the bookkeeping between the end of a child
+	 * and the end of its parent.
+	 * 
+	 * @param spans The {@link Span}s of one or more traces.
+	 * @param toleranceNanos The maximum slack of a critical span in nanoseconds.
+	 * @return One {@link CriticalPath} per trace whose root span is contained, ordered by the start of the
+	 *         root.
+	 */
+	public static List<CriticalPath> analyze(Collection<Span> spans, long toleranceNanos) {
+
+		Map<Long, List<Span>> traces = new LinkedHashMap<Long, List<Span>>();
+		for (Span span : spans) {
+			List<Span> trace = traces.get(span.getTraceId());
+			if (trace == null) {
+				trace = new ArrayList<Span>();
+				traces.put(span.getTraceId(), trace);
+			}
+			trace.add(span);
+		}
+
+		List<CriticalPath> paths = new ArrayList<CriticalPath>();
+		for (List<Span> trace : traces.values()) {
+			CriticalPath path = analyzeTrace(trace, toleranceNanos);
+			if (path != null) {
+				paths.add(path);
+			}
+		}
+		Collections.sort(paths, new Comparator<CriticalPath>() {
+
+			@Override
+			public int compare(CriticalPath o1, CriticalPath o2) {
+				return Long.compare(o1.getRoot().getStartNanos(), o2.getRoot().getStartNanos());
+			}
+		});
+		return paths;
+	}
+
+	private static CriticalPath analyzeTrace(List<Span> trace, long toleranceNanos) {
+
+		Map<Long, Node> nodes = new HashMap<Long, Node>();
+		for (Span span : trace) {
+			nodes.put(span.getSpanId(), new Node(span));
+		}
+
+		Node root = null;
+		for (Node node : nodes.values()) {
+			if (node.span.isRoot()) {
+				root = node;
+			} else {
+				Node parent = nodes.get(node.span.getParentSpanId());
+				if (parent != null) {
+					parent.children.add(node);
+				}
+				// else: the parent has been dropped, ignore this subtree
+			}
+		}
+		if (root == null) {
+			return null;
+		}
+
+		computeEffectiveEnd(root);
+		Map<Span, CriticalPath.Entry> entries = new HashMap<Span, CriticalPath.Entry>();
+		computeSlack(root, 0, toleranceNanos, entries);
+		return new CriticalPath(root.span, entries);
+	}
+
+	private static long computeEffectiveEnd(Node node) {
+		Collections.sort(node.children, new Comparator<Node>() {
+
+			@Override
+			public int compare(Node o1, Node o2) {
+				return Long.compare(o1.span.getStartNanos(), o2.span.getStartNanos());
+			}
+		});
+
+		long end = node.span.getEndNanos();
+		for (Node child : node.children) {
+			end = Math.max(end, computeEffectiveEnd(child));
+		}
+		node.effectiveEnd = end;
+		return end;
+	}
+
+	private static void computeSlack(Node node, long slack, long toleranceNanos,
+			Map<Span, CriticalPath.Entry> entries) {
+
+		boolean critical = slack <= toleranceNanos;
+		long contribution = node.effectiveEnd - node.span.getStartNanos();
+
+		if (!node.children.isEmpty()) {
+			// the point in time the node stopped waiting for its children
+			long waitEnd = Long.MIN_VALUE;
+			for (Node child : node.children) {
+				waitEnd = Math.max(waitEnd, child.effectiveEnd);
+			}
+
+			// walk backwards, such that the latest end each child would push back is known
+			List<Node> children = node.children;
+			long[] pushedEnd = new long[children.size()];
+			long syncTail = Long.MIN_VALUE;
+			for (int i = children.size() - 1; i >= 0; i--) {
+				Node child = children.get(i);
+				if (child.span.isAsync()) {
+					// overlaps with its siblings, only needs to end before the node stops waiting
+					pushedEnd[i] = child.effectiveEnd;
+				} else {
+					// delays all subsequent sequenced siblings and the asynchronous ones they start
+					syncTail = Math.max(syncTail, child.effectiveEnd);
+					pushedEnd[i] = syncTail;
+				}
+			}
+
+			for (int i = 0; i < children.size(); i++) {
+				Node child = children.get(i);
+				long childSlack = slack + (waitEnd - pushedEnd[i]);
+				computeSlack(child, childSlack, toleranceNanos, entries);
+				if (critical && childSlack <= toleranceNanos) {
+					contribution -= child.effectiveEnd - child.span.getStartNanos();
+				}
+			}
+		}
+
+		entries.put(node.span, new CriticalPath.Entry(node.span, node.effectiveEnd, slack, critical,
+				critical ? Math.max(0, contribution) : 0));
+	}
+
+	private static final class Node {
+
+		private final Span span;
+		private final List<Node> children = new ArrayList<Node>();
+		private long effectiveEnd;
+
+		private Node(Span span) {
+			this.span = span;
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package org.hive2hive.processframework.monitoring;
+
+/**
+ * Map key that compares objects by identity. Needed because decorators are equal to the components they
+ * decorate (see {@link org.hive2hive.processframework.ProcessDecorator#equals(Object)}).
+ */
+final class IdentityKey {
+
+	private final Object object;
+
+	IdentityKey(Object object) {
+		this.object = object;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof IdentityKey && ((IdentityKey) obj).object == object;
+	}
+
+	@Override
+	public int hashCode() {
+		return System.identityHashCode(object);
+	}
+}
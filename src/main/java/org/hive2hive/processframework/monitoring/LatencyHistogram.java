@@ -0,0 +1,192 @@
+package org.hive2hive.processframework.monitoring;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram for latencies in nanoseconds.
+ * Values are recorded into log-linear buckets: each power of two is split into 32 linear sub-buckets, thus
+ * the relative error of any reported value is at most ~3%. Recording is a single atomic increment, which
+ * makes it cheap enough to be left enabled in production. Histograms can be merged by
+ * {@link LatencyHistogram#add(LatencyHistogram)}.
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	// values of up to 63 bits, the first group holds the values [0, SUB_BUCKET_COUNT) directly
+	private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong total = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records a latency.
+	 * 
+	 * @param nanos The latency in nanoseconds. Negative values are recorded as 0.
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0L, nanos);
+		buckets.incrementAndGet(bucketIndex(value));
+		count.incrementAndGet();
+		total.addAndGet(value);
+		updateMax(value);
+	}
+
+	/**
+	 * Merges all values recorded by the provided histogram into this {@code LatencyHistogram}.
+	 * 
+	 * @param other The {@code LatencyHistogram} to be merged into this one.
+	 */
+	public void add(LatencyHistogram other) {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			long bucketCount = other.buckets.get(i);
+			if (bucketCount > 0) {
+				buckets.addAndGet(i, bucketCount);
+			}
+		}
+		count.addAndGet(other.count.get());
+		total.addAndGet(other.total.get());
+		updateMax(other.max.get());
+	}
+
+	/**
+	 * Creates a copy of this {@code LatencyHistogram}, e.g., to evaluate several percentiles on a consistent
+	 * snapshot.
+	 * 
+	 * @return A copy of this {@code LatencyHistogram}.
+	 */
+	public LatencyHistogram copy() {
+		LatencyHistogram copy = new LatencyHistogram();
+		copy.add(this);
+		return copy;
+	}
+
+	/**
+	 * Clears all recorded values.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			buckets.set(i, 0L);
+		}
+		count.set(0L);
+		total.set(0L);
+		max.set(0L);
+	}
+
+	/**
+	 * Gets the value (in nanoseconds) below which the provided percentage of all recorded values fall.
+	 * 
+	 * @param percentile The percentile, e.g., {@code 99.9}.
+	 * @return The value at the provided percentile or 0 if nothing has been recorded.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long recorded = 0L;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			recorded += buckets.get(i);
+		}
+		if (recorded == 0) {
+			return 0L;
+		}
+
+		double fraction = Math.min(100.0, Math.max(0.0, percentile)) / 100.0;
+		long target = Math.max(1L, (long) Math.ceil(fraction * recorded));
+		long cumulative = 0L;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			cumulative += buckets.get(i);
+			if (cumulative >= target) {
+				return Math.min(highestEquivalentValue(i), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	/**
+	 * Gets the value (in the provided unit) below which the provided percentage of all recorded values
+	 * fall.
+	 * 
+	 * @param percentile The percentile, e.g., {@code 99.9}.
+	 * @param unit The {@link TimeUnit} of the returned value.
+	 * @return The value at the provided percentile or 0 if nothing has been recorded.
+	 */
+	public long getValueAtPercentile(double percentile, TimeUnit unit) {
+		return unit.convert(getValueAtPercentile(percentile), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Gets the number of recorded values.
+	 * 
+	 * @return The number of recorded values.
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * Gets the sum of all recorded values in nanoseconds.
+	 * 
+	 * @return The sum of all recorded values.
+	 */
+	public long getTotal() {
+		return total.get();
+	}
+
+	/**
+	 * Gets the largest recorded value in nanoseconds.
+	 * 
+	 * @return The largest recorded value or 0 if nothing has been recorded.
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Gets the mean of all recorded values in nanoseconds.
+	 * 
+	 * @return The mean of all recorded values or 0 if nothing has been recorded.
+	 */
+	public double getMean() {
+		long n = count.get();
+		return n == 0 ? 0.0 : (double) total.get() / n;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("count=%s, mean=%.3fms, p50=%.3fms, p99=%.3fms, p999=%.3fms, max=%.3fms",
+				getCount(), getMean() / 1e6, getValueAtPercentile(50.0) / 1e6, getValueAtPercentile(99.0) / 1e6,
+				getValueAtPercentile(99.9) / 1e6, getMax() / 1e6);
+	}
+
+	static int bucketIndex(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int magnitude = 63 - Long.numberOfLeadingZeros(value);
+		int shift = magnitude - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+		return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	static long highestEquivalentValue(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = index / SUB_BUCKET_COUNT - 1;
+		long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+		long lowest = subBucket << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+	private void updateMax(long value) {
+		long current = max.get();
+		while (value > current) {
+			if (max.compareAndSet(current, value)) {
+				return;
+			}
+			current = max.get();
+		}
+	}
+}
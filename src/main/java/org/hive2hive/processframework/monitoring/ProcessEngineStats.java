@@ -0,0 +1,357 @@
+package org.hive2hive.processframework.monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.hive2hive.processframework.ProcessComponent;
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.decorators.AsyncComponent;
+import org.hive2hive.processframework.interfaces.IAsyncExecutionMonitor;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+import org.hive2hive.processframework.interfaces.IProcessMonitor;
+
+/**
+ * {@link IProcessMonitor} that aggregates live statistics of the process engine: gauges of executing,
+ * rolling back and paused components, counters of their transitions and the utilization of the executor
+ * behind the {@link AsyncComponent}s. The statistics are exposed as a JMX MBean once registered by
+ * {@link ProcessEngineStats#register()}.<br>
+ * <br>
+ * <b>Example:</b>
+ * 
+ * <pre>
+ * ProcessEngineStats stats = new ProcessEngineStats();
+ * stats.register(); // attaches the monitor and registers the MBean
+ * </pre>
+ */
+public class ProcessEngineStats implements IProcessMonitor, ProcessEngineStatsMBean {
+
+	public static final String DEFAULT_OBJECT_NAME = "org.hive2hive.processframework:type=ProcessEngineStats";
+
+	private final ExecutorService asyncExecutor;
+	private final ConcurrentMap<IdentityKey, RunningComponent> running = new ConcurrentHashMap<IdentityKey, RunningComponent>();
+
+	private final AtomicLong startedExecutions = new AtomicLong();
+	private final AtomicLong succeededExecutions = new AtomicLong();
+	private final AtomicLong failedExecutions = new AtomicLong();
+	private final AtomicLong startedRollbacks = new AtomicLong();
+	private final AtomicLong succeededRollbacks = new AtomicLong();
+	private final AtomicLong failedRollbacks = new AtomicLong();
+	private final AtomicLong pauses = new AtomicLong();
+
+	// async tasks that have been submitted but not started yet
+	private final AtomicInteger pendingAsyncTasks = new AtomicInteger();
+	private final IAsyncExecutionMonitor asyncQueueMonitor = new AsyncQueueMonitor();
+
+	private ObjectName registeredName;
+
+	/**
+	 * Creates a {@code ProcessEngineStats} that observes the default executor of {@link AsyncComponent}.
+	 */
+	public ProcessEngineStats() {
+		this(null);
+	}
+
+	/**
+	 * Creates a {@code ProcessEngineStats} that observes the provided executor.
+	 * 
+	 * @param asyncExecutor The {@link ExecutorService} to be observed or {@code null} to observe the default
+	 *            executor of {@link AsyncComponent}.
+	 */
+	public ProcessEngineStats(ExecutorService asyncExecutor) {
+		this.asyncExecutor = asyncExecutor;
+	}
+
+	/**
+	 * Attaches this monitor to all {@link ProcessComponent}s and registers it at the platform MBean server
+	 * using the {@link ProcessEngineStats#DEFAULT_OBJECT_NAME}.
+	 * 
+	 * @throws JMException If the MBean cannot be registered.
+	 */
+	public void register() throws JMException {
+		register(ManagementFactory.getPlatformMBeanServer(), new ObjectName(DEFAULT_OBJECT_NAME));
+	}
+
+	/**
+	 * Attaches this monitor to all {@link ProcessComponent}s and {@link AsyncComponent}s and registers it at
+	 * the provided MBean server.
+	 * 
+	 * @param server The {@link MBeanServer} to register at.
+	 * @param name The {@link ObjectName} to register with.
+	 * @throws JMException If the MBean cannot be registered.
+	 */
+	public synchronized void register(MBeanServer server, ObjectName name) throws JMException {
+		server.registerMBean(this, name);
+		registeredName = name;
+		ProcessComponent.attachMonitor(this);
+		AsyncComponent.attachAsyncMonitor(asyncQueueMonitor);
+	}
+
+	/**
+	 * Detaches this monitor and unregisters it from the platform MBean server.
+	 * 
+	 * @throws JMException If the MBean cannot be unregistered.
+	 */
+	public void unregister() throws JMException {
+		unregister(ManagementFactory.getPlatformMBeanServer());
+	}
+
+	/**
+	 * Detaches this monitor and unregisters it from the provided MBean server.
+	 * 
+	 * @param server The {@link MBeanServer} to unregister from.
+	 * @throws JMException If the MBean cannot be unregistered.
+	 */
+	public synchronized void unregister(MBeanServer server) throws JMException {
+		ProcessComponent.detachMonitor(this);
+		AsyncComponent.detachAsyncMonitor(asyncQueueMonitor);
+		if (registeredName != null) {
+			server.unregisterMBean(registeredName);
+			registeredName = null;
+		}
+	}
+
+	@Override
+	public void onStarted(IProcessComponent<?> component, ProcessState state) {
+		(state == ProcessState.ROLLBACKING ? startedRollbacks : startedExecutions).incrementAndGet();
+		running.put(new IdentityKey(component), new RunningComponent(component, state));
+	}
+
+	@Override
+	public void onFinished(IProcessComponent<?> component, ProcessState state, long durationNanos) {
+		switch (state) {
+			case EXECUTION_SUCCEEDED:
+				succeededExecutions.incrementAndGet();
+				break;
+			case EXECUTION_FAILED:
+				failedExecutions.incrementAndGet();
+				break;
+			case ROLLBACK_SUCCEEDED:
+				succeededRollbacks.incrementAndGet();
+				break;
+			case ROLLBACK_FAILED:
+				failedRollbacks.incrementAndGet();
+				break;
+			default:
+				break;
+		}
+
+		IdentityKey key = new IdentityKey(component);
+		RunningComponent entry = running.get(key);
+		// paused components remain until they are resumed
+		if (entry != null && entry.state != ProcessState.PAUSED) {
+			running.remove(key, entry);
+		}
+	}
+
+	@Override
+	public void onPaused(IProcessComponent<?> component) {
+		pauses.incrementAndGet();
+		IdentityKey key = new IdentityKey(component);
+		RunningComponent entry = running.get(key);
+		if (entry != null) {
+			entry.state = ProcessState.PAUSED;
+		} else {
+			running.put(key, new RunningComponent(component, ProcessState.PAUSED));
+		}
+	}
+
+	@Override
+	public void onResumed(IProcessComponent<?> component) {
+		// the resumed execution or rollback replaces the entry
+	}
+
+	@Override
+	public int getExecutingCount() {
+		return count(ProcessState.EXECUTING);
+	}
+
+	@Override
+	public int getRollbackingCount() {
+		return count(ProcessState.ROLLBACKING);
+	}
+
+	@Override
+	public int getPausedCount() {
+		return count(ProcessState.PAUSED);
+	}
+
+	@Override
+	public long getStartedExecutions() {
+		return startedExecutions.get();
+	}
+
+	@Override
+	public long getSucceededExecutions() {
+		return succeededExecutions.get();
+	}
+
+	@Override
+	public long getFailedExecutions() {
+		return failedExecutions.get();
+	}
+
+	@Override
+	public long getStartedRollbacks() {
+		return startedRollbacks.get();
+	}
+
+	@Override
+	public long getSucceededRollbacks() {
+		return succeededRollbacks.get();
+	}
+
+	@Override
+	public long getFailedRollbacks() {
+		return failedRollbacks.get();
+	}
+
+	@Override
+	public long getPauses() {
+		return pauses.get();
+	}
+
+	@Override
+	public int getAsyncQueueDepth() {
+		// the queue of the default executor hands tasks off directly and is always empty
+		return pendingAsyncTasks.get();
+	}
+
+	@Override
+	public int getAsyncActiveThreads() {
+		ThreadPoolExecutor pool = getAsyncPool();
+		return pool != null ? pool.getActiveCount() : -1;
+	}
+
+	@Override
+	public int getAsyncPoolSize() {
+		ThreadPoolExecutor pool = getAsyncPool();
+		return pool != null ? pool.getPoolSize() : -1;
+	}
+
+	@Override
+	public int getAsyncLargestPoolSize() {
+		ThreadPoolExecutor pool = getAsyncPool();
+		return pool != null ? pool.getLargestPoolSize() : -1;
+	}
+
+	@Override
+	public double getAsyncThreadUtilization() {
+		ThreadPoolExecutor pool = getAsyncPool();
+		if (pool == null) {
+			return 0.0;
+		}
+		int poolSize = pool.getPoolSize();
+		return poolSize == 0 ? 0.0 : Math.min(1.0, (double) pool.getActiveCount() / poolSize);
+	}
+
+	@Override
+	public long getAsyncCompletedTasks() {
+		ThreadPoolExecutor pool = getAsyncPool();
+		return pool != null ? pool.getCompletedTaskCount() : -1;
+	}
+
+	@Override
+	public String[] dumpSlowestRunning(int count) {
+		List<RunningComponent> entries = new ArrayList<RunningComponent>(running.values());
+		Collections.sort(entries, new Comparator<RunningComponent>() {
+
+			@Override
+			public int compare(RunningComponent o1, RunningComponent o2) {
+				// the earlier started, the slower
+				return Long.compare(o1.startNanos, o2.startNanos);
+			}
+		});
+
+		long now = System.nanoTime();
+		int size = Math.max(0, Math.min(count, entries.size()));
+		String[] dump = new String[size];
+		for (int i = 0; i < size; i++) {
+			RunningComponent entry = entries.get(i);
+			dump[i] = String.format("%s (%s) %s for %.3fms on thread '%s'", entry.component,
+					entry.component.getClass().getName(), entry.state, (now - entry.startNanos) / 1e6,
+					entry.threadName);
+		}
+		return dump;
+	}
+
+	@Override
+	public void resetCounters() {
+		startedExecutions.set(0);
+		succeededExecutions.set(0);
+		failedExecutions.set(0);
+		startedRollbacks.set(0);
+		succeededRollbacks.set(0);
+		failedRollbacks.set(0);
+		pauses.set(0);
+	}
+
+	private int count(ProcessState state) {
+		int count = 0;
+		for (RunningComponent entry : running.values()) {
+			if (entry.state == state) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private ThreadPoolExecutor getAsyncPool() {
+		ExecutorService executor = asyncExecutor != null ? asyncExecutor : AsyncComponent.getDefaultExecutor();
+		return executor instanceof ThreadPoolExecutor ? (ThreadPoolExecutor) executor : null;
+	}
+
+	/**
+	 * Counts the tasks of {@link AsyncComponent}s that wait for a thread.
+	 */
+	private final class AsyncQueueMonitor implements IAsyncExecutionMonitor {
+
+		@Override
+		public void onSubmitted(IProcessComponent<?> component, boolean isRollback) {
+			pendingAsyncTasks.incrementAndGet();
+		}
+
+		@Override
+		public void onRejected(IProcessComponent<?> component, boolean isRollback) {
+			pendingAsyncTasks.decrementAndGet();
+		}
+
+		@Override
+		public void onStarted(IProcessComponent<?> component, boolean isRollback, long queueWaitNanos) {
+			pendingAsyncTasks.decrementAndGet();
+		}
+
+		@Override
+		public void onEnded(IProcessComponent<?> component, boolean isRollback, long queueWaitNanos,
+				long serviceNanos, boolean success) {
+			// not of interest
+		}
+	}
+
+	private static final class RunningComponent {
+
+		private final IProcessComponent<?> component;
+		private final long startNanos;
+		private final String threadName;
+		private volatile ProcessState state;
+
+		private RunningComponent(IProcessComponent<?> component, ProcessState state) {
+			this.component = component;
+			this.state = state;
+			this.startNanos = System.nanoTime();
+			this.threadName = Thread.currentThread().getName();
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package org.hive2hive.processframework.monitoring;
+
+/**
+ * Management interface of {@link ProcessEngineStats}.
+ */
+public interface ProcessEngineStatsMBean {
+
+	/**
+	 * @return The number of components currently executing.
+	 */
+	int getExecutingCount();
+
+	/**
+	 * @return The number of components currently rolling back.
+	 */
+	int getRollbackingCount();
+
+	/**
+	 * @return The number of components currently paused.
+	 */
+	int getPausedCount();
+
+	/**
+	 * @return The total number of started executions.
+	 */
+	long getStartedExecutions();
+
+	/**
+	 * @return The total number of successful executions.
+	 */
+	long getSucceededExecutions();
+
+	/**
+	 * @return The total number of failed executions.
+	 */
+	long getFailedExecutions();
+
+	/**
+	 * @return The total number of started rollbacks.
+	 */
+	long getStartedRollbacks();
+
+	/**
+	 * @return The total number of successful rollbacks.
+	 */
+	long getSucceededRollbacks();
+
+	/**
+	 * @return The total number of failed rollbacks.
+	 */
+	long getFailedRollbacks();
+
+	/**
+	 * @return The total number of pauses.
+	 */
+	long getPauses();
+
+	/**
+	 * @return The number of asynchronous tasks that have been submitted but not started yet. Counted while
+	 *         registered.
+	 */
+	int getAsyncQueueDepth();
+
+	/**
+	 * @return The number of threads of the asynchronous executor that are actively running tasks, or -1 if
+	 *         unknown.
+	 */
+	int getAsyncActiveThreads();
+
+	/**
+	 * @return The current number of threads of the asynchronous executor, or -1 if unknown.
+	 */
+	int getAsyncPoolSize();
+
+	/**
+	 * @return The largest number of threads the asynchronous executor ever had simultaneously, or -1 if
+	 *         unknown.
+	 */
+	int getAsyncLargestPoolSize();
+
+	/**
+	 * @return The fraction of threads of the asynchronous executor that are busy, in the range [0, 1].
+	 */
+	double getAsyncThreadUtilization();
+
+	/**
+	 * @return The total number of tasks completed by the asynchronous executor, or -1 if unknown.
+	 */
+	long getAsyncCompletedTasks();
+
+	/**
+	 * Describes the currently running components with the longest running time.
+	 * 
+	 * @param count The maximum number of components to describe.
+	 * @return One description per component, ordered by decreasing running time.
+	 */
+	String[] dumpSlowestRunning(int count);
+
+	/**
+	 * Resets all counters. Gauges are not affected.
+	 */
+	void resetCounters();
+}
@@ -0,0 +1,179 @@
+package org.hive2hive.processframework.monitoring;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+import org.hive2hive.processframework.interfaces.IProcessMonitor;
+
+/**
+ * {@link IProcessMonitor} that records the execution and rollback latencies as well as the outcomes of all
+ * {@link IProcessComponent}s, grouped by component class or name.
+ * Recording is lock-free and thus cheap enough to be left enabled in production.<br>
+ * <br>
+ * <b>Example:</b>
+ * 
+ * <pre>
+ * ProcessMetrics metrics = new ProcessMetrics();
+ * ProcessComponent.attachMonitor(metrics);
+ * 
+ * // run processes...
+ * 
+ * LatencyHistogram latency = metrics.getMetrics(MyProcessStep.class).getExecutionLatency();
+ * long p99 = latency.getValueAtPercentile(99.0, TimeUnit.MILLISECONDS);
+ * </pre>
+ */
+public class ProcessMetrics implements IProcessMonitor {
+
+	/**
+	 * Defines how components are grouped.
+	 */
+	public enum GroupBy {
+		/**
+		 * Groups the components by their (fully qualified) class name.
+		 */
+		CLASS,
+		/**
+		 * Groups the components by their name. Make sure the names are not unique per instance.
+		 */
+		NAME
+	}
+
+	private final GroupBy groupBy;
+	private final ConcurrentMap<String, ComponentMetrics> metrics = new ConcurrentHashMap<String, ComponentMetrics>();
+
+	/**
+	 * Creates a {@code ProcessMetrics} that groups the components by class.
+	 */
+	public ProcessMetrics() {
+		this(GroupBy.CLASS);
+	}
+
+	/**
+	 * Creates a {@code ProcessMetrics} that groups the components as defined.
+	 * 
+	 * @param groupBy Defines how the components are grouped.
+	 */
+	public ProcessMetrics(GroupBy groupBy) {
+		this.groupBy = groupBy;
+	}
+
+	@Override
+	public void onStarted(IProcessComponent<?> component, ProcessState state) {
+		// nothing to record, the duration is provided upon finish
+	}
+
+	@Override
+	public void onFinished(IProcessComponent<?> component, ProcessState state, long durationNanos) {
+		switch (state) {
+			case EXECUTION_SUCCEEDED:
+				getOrCreate(component).recordExecution(durationNanos, true);
+				break;
+			case EXECUTION_FAILED:
+				getOrCreate(component).recordExecution(durationNanos, false);
+				break;
+			case ROLLBACK_SUCCEEDED:
+				getOrCreate(component).recordRollback(durationNanos, true);
+				break;
+			case ROLLBACK_FAILED:
+				getOrCreate(component).recordRollback(durationNanos, false);
+				break;
+			default:
+				break;
+		}
+	}
+
+	@Override
+	public void onPaused(IProcessComponent<?> component) {
+		getOrCreate(component).recordPause();
+	}
+
+	@Override
+	public void onResumed(IProcessComponent<?> component) {
+		// resuming continues the execution or rollback, which is recorded upon finish
+	}
+
+	/**
+	 * Gets the {@link ComponentMetrics} recorded for the provided key.
+	 * 
+	 * @param key The component class name or component name, depending on the {@link GroupBy} setting.
+	 * @return The {@link ComponentMetrics} or {@code null} if nothing has been recorded for this key.
+	 */
+	public ComponentMetrics getMetrics(String key) {
+		return metrics.get(key);
+	}
+
+	/**
+	 * Gets the {@link ComponentMetrics} recorded for the provided component class.
+	 * 
+	 * @param componentClass The class of the components.
+	 * @return The {@link ComponentMetrics} or {@code null} if nothing has been recorded for this class.
+	 */
+	public ComponentMetrics getMetrics(Class<?> componentClass) {
+		return metrics.get(componentClass.getName());
+	}
+
+	/**
+	 * Gets all recorded {@link ComponentMetrics}, mapped by their key.
+	 * 
+	 * @return All recorded {@link ComponentMetrics}.
+	 */
+	public Map<String, ComponentMetrics> getAllMetrics() {
+		return Collections.unmodifiableMap(new HashMap<String, ComponentMetrics>(metrics));
+	}
+
+	/**
+	 * Merges all values recorded by the provided {@code ProcessMetrics} into this one.
+	 * 
+	 * @param other The {@code ProcessMetrics} to be merged.
+	 */
+	public void add(ProcessMetrics other) {
+		for (ComponentMetrics otherMetrics : other.metrics.values()) {
+			getOrCreate(otherMetrics.getKey()).add(otherMetrics);
+		}
+	}
+
+	/**
+	 * Clears all recorded values.
+	 */
+	public void reset() {
+		metrics.clear();
+	}
+
+	/**
+	 * Gets the {@link GroupBy} setting of this {@code ProcessMetrics}.
+	 * 
+	 * @return The {@link GroupBy} setting.
+	 */
+	public GroupBy getGroupBy() {
+		return groupBy;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("Process Metrics:");
+		for (ComponentMetrics componentMetrics : metrics.values()) {
+			sb.append(String.format("%n  %s", componentMetrics));
+		}
+		return sb.toString();
+	}
+
+	private ComponentMetrics getOrCreate(IProcessComponent<?> component) {
+		String key = groupBy == GroupBy.CLASS ? component.getClass().getName() : component.getName();
+		return getOrCreate(key);
+	}
+
+	private ComponentMetrics getOrCreate(String key) {
+		ComponentMetrics existing = metrics.get(key);
+		if (existing != null) {
+			return existing;
+		}
+		ComponentMetrics created = new ComponentMetrics(key);
+		existing = metrics.putIfAbsent(key, created);
+		return existing != null ? existing : created;
+	}
+}
@@ -0,0 +1,299 @@
+package org.hive2hive.processframework.monitoring;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.decorators.AsyncComponent;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+import org.hive2hive.processframework.interfaces.IProcessMonitor;
+
+/**
+ * {@link IProcessMonitor} that aggregates the time spent in components across all runs, per component class
+ * and per path in the process trees (e.g., {@code SyncProcess>Async[Upload]>PutChunk}). In contrast to the
+ * {@link ProcessTracer}, no per-run data is kept, thus the memory consumption only depends on the number of
+ * distinct classes and paths.<br>
+ * For each component, its total time splits into the self time and the time spent in its children running
+ * on the same thread. Components behind an {@link AsyncComponent} run concurrently, thus their time is not
+ * subtracted from their parent, which accounts the time awaiting them as self time. The
+ * {@code AsyncComponent} itself does not form a path segment; instead, the segment of the decorated component
+ * is marked with {@code Async[...]}. Rollbacks are accounted separately, their segments are suffixed with
+ * {@code (rollback)}.<br>
+ * <br>
+ * <b>Example:</b>
+ * 
+ * <pre>
+ * ProcessProfiler profiler = new ProcessProfiler();
+ * ProcessComponent.attachMonitor(profiler);
+ * 
+ * // run processes...
+ * 
+ * profiler.exportCollapsedStacks(new FileWriter(&quot;profile.folded&quot;), TimeUnit.MICROSECONDS);
+ * // flamegraph.pl profile.folded &gt; profile.svg
+ * </pre>
+ */
+public class ProcessProfiler implements IProcessMonitor {
+
+	public static final String PATH_SEPARATOR = ">";
+
+	private final ConcurrentMap<String, ProfileEntry> classEntries = new ConcurrentHashMap<String, ProfileEntry>();
+	private final ConcurrentMap<String, ProfileEntry> pathEntries = new ConcurrentHashMap<String, ProfileEntry>();
+
+	// paths of asynchronous components, awaiting their decorated component to start on another thread
+	private final ConcurrentMap<IdentityKey, Frame> handoffs = new ConcurrentHashMap<IdentityKey, Frame>();
+
+	private final ThreadLocal<Deque<Frame>> stacks = new ThreadLocal<Deque<Frame>>() {
+		@Override
+		protected Deque<Frame> initialValue() {
+			return new ArrayDeque<Frame>();
+		}
+	};
+
+	@Override
+	public void onStarted(IProcessComponent<?> component, ProcessState state) {
+
+		Deque<Frame> stack = stacks.get();
+		Frame parent = stack.peek();
+		boolean isAsync = false;
+		if (parent == null) {
+			// started on a fresh thread, check whether we crossed an async boundary
+			parent = handoffs.remove(new IdentityKey(component));
+			isAsync = parent != null;
+		}
+
+		boolean isRollback = state == ProcessState.ROLLBACKING;
+		Frame frame;
+		if (component instanceof AsyncComponent<?>) {
+			// transparent, the decorated component continues the path of the parent
+			frame = new Frame(component, parent != null ? parent.path : null, true);
+			IProcessComponent<?> decorated = ((AsyncComponent<?>) component).getDecoratedComponent();
+			handoffs.put(new IdentityKey(decorated), frame);
+		} else {
+			String segment = segment(component, isAsync, isRollback);
+			String path = parent != null && parent.path != null ? parent.path + PATH_SEPARATOR + segment : segment;
+			frame = new Frame(component, path, false);
+		}
+		stack.push(frame);
+	}
+
+	@Override
+	public void onFinished(IProcessComponent<?> component, ProcessState state, long durationNanos) {
+
+		Deque<Frame> stack = stacks.get();
+		Frame frame = pop(stack, component);
+		if (frame == null) {
+			// started before this profiler has been attached
+			return;
+		}
+
+		if (frame.isTransparent) {
+			if (state == ProcessState.EXECUTION_FAILED || state == ProcessState.ROLLBACK_FAILED) {
+				// the decorated component will not be started anymore
+				IProcessComponent<?> decorated = ((AsyncComponent<?>) component).getDecoratedComponent();
+				handoffs.remove(new IdentityKey(decorated), frame);
+			}
+			// the submission is accounted as self time of the parent
+			return;
+		}
+
+		long self = Math.max(0, durationNanos - frame.childNanos);
+		getOrCreate(pathEntries, frame.path).record(durationNanos, self);
+		getOrCreate(classEntries, component.getClass().getName()).record(durationNanos, self);
+
+		Frame parent = stack.peek();
+		if (parent != null) {
+			parent.childNanos += durationNanos;
+		}
+	}
+
+	@Override
+	public void onPaused(IProcessComponent<?> component) {
+		// the paused time is part of the execution or rollback
+	}
+
+	@Override
+	public void onResumed(IProcessComponent<?> component) {
+		// the resumed execution or rollback is accounted upon finish
+	}
+
+	/**
+	 * Gets the {@link ProfileEntry} accumulated for the provided component class.
+	 * 
+	 * @param componentClass The class of the components.
+	 * @return The {@link ProfileEntry} or {@code null} if nothing has been accumulated for this class.
+	 */
+	public ProfileEntry getClassEntry(Class<?> componentClass) {
+		return classEntries.get(componentClass.getName());
+	}
+
+	/**
+	 * Gets the {@link ProfileEntry} accumulated for the provided path.
+	 * 
+	 * @param path The path, i.e., the segments separated by {@link ProcessProfiler#PATH_SEPARATOR}.
+	 * @return The {@link ProfileEntry} or {@code null} if nothing has been accumulated for this path.
+	 */
+	public ProfileEntry getPathEntry(String path) {
+		return pathEntries.get(path);
+	}
+
+	/**
+	 * Gets all {@link ProfileEntry}s accumulated per component class, mapped by the fully qualified class
+	 * name.
+	 * 
+	 * @return All {@link ProfileEntry}s per class.
+	 */
+	public Map<String, ProfileEntry> getClassEntries() {
+		return Collections.unmodifiableMap(new HashMap<String, ProfileEntry>(classEntries));
+	}
+
+	/**
+	 * Gets all {@link ProfileEntry}s accumulated per path, mapped by the path.
+	 * 
+	 * @return All {@link ProfileEntry}s per path.
+	 */
+	public Map<String, ProfileEntry> getPathEntries() {
+		return Collections.unmodifiableMap(new HashMap<String, ProfileEntry>(pathEntries));
+	}
+
+	/**
+	 * Merges all values accumulated by the provided {@code ProcessProfiler} into this one.
+	 * 
+	 * @param other The {@code ProcessProfiler} to be merged.
+	 */
+	public void add(ProcessProfiler other) {
+		for (ProfileEntry entry : other.classEntries.values()) {
+			getOrCreate(classEntries, entry.getKey()).add(entry);
+		}
+		for (ProfileEntry entry : other.pathEntries.values()) {
+			getOrCreate(pathEntries, entry.getKey()).add(entry);
+		}
+	}
+
+	/**
+	 * Clears all accumulated values, e.g., to start a new profiling window.
+	 */
+	public void reset() {
+		classEntries.clear();
+		pathEntries.clear();
+	}
+
+	/**
+	 * Writes the self time per path in the collapsed-stack format accepted by flame graph tools (e.g.,
+	 * {@code flamegraph.pl}, speedscope): one line per path, the segments separated by {@code ;}, followed
+	 * by the self time. Paths whose self time is below one unit are omitted. The writer is flushed, but not
+	 * closed.
+	 * 
+	 * @param writer The {@link Writer} to write to.
+	 * @param unit The {@link TimeUnit} of the written self times.
+	 * @throws IOException If writing fails.
+	 */
+	public void exportCollapsedStacks(Writer writer, TimeUnit unit) throws IOException {
+		List<ProfileEntry> entries = new ArrayList<ProfileEntry>(pathEntries.values());
+		Collections.sort(entries, new Comparator<ProfileEntry>() {
+
+			@Override
+			public int compare(ProfileEntry o1, ProfileEntry o2) {
+				return o1.getKey().compareTo(o2.getKey());
+			}
+		});
+
+		for (ProfileEntry entry : entries) {
+			long self = unit.convert(entry.getSelfNanos(), TimeUnit.NANOSECONDS);
+			if (self > 0) {
+				writer.write(entry.getKey().replace(PATH_SEPARATOR, ";"));
+				writer.write(' ');
+				writer.write(Long.toString(self));
+				writer.write('\n');
+			}
+		}
+		writer.flush();
+	}
+
+	@Override
+	public String toString() {
+		List<ProfileEntry> entries = new ArrayList<ProfileEntry>(classEntries.values());
+		Collections.sort(entries, new Comparator<ProfileEntry>() {
+
+			@Override
+			public int compare(ProfileEntry o1, ProfileEntry o2) {
+				return Long.compare(o2.getSelfNanos(), o1.getSelfNanos());
+			}
+		});
+
+		StringBuilder sb = new StringBuilder("Process Profile (by self time):");
+		for (ProfileEntry entry : entries) {
+			sb.append(String.format("%n  %s", entry));
+		}
+		return sb.toString();
+	}
+
+	private static String segment(IProcessComponent<?> component, boolean isAsync, boolean isRollback) {
+		String name = component.getClass().getSimpleName();
+		if (name.isEmpty()) {
+			// anonymous class, fall back to the binary name without package
+			name = component.getClass().getName();
+			name = name.substring(name.lastIndexOf('.') + 1);
+		}
+		// the separators must not occur within a segment
+		name = name.replace(PATH_SEPARATOR, "_").replace(';', '_').replace(' ', '_');
+		if (isAsync) {
+			name = "Async[" + name + "]";
+		}
+		return isRollback ? name + "(rollback)" : name;
+	}
+
+	private static ProfileEntry getOrCreate(ConcurrentMap<String, ProfileEntry> entries, String key) {
+		ProfileEntry existing = entries.get(key);
+		if (existing != null) {
+			return existing;
+		}
+		ProfileEntry created = new ProfileEntry(key);
+		existing = entries.putIfAbsent(key, created);
+		return existing != null ? existing : created;
+	}
+
+	private static Frame pop(Deque<Frame> stack, IProcessComponent<?> component) {
+		Frame top = stack.peek();
+		if (top != null && top.component == component) {
+			return stack.pop();
+		}
+		// should not happen, but never let an unbalanced stack corrupt subsequent frames
+		Iterator<Frame> iterator = stack.iterator();
+		while (iterator.hasNext()) {
+			Frame frame = iterator.next();
+			if (frame.component == component) {
+				iterator.remove();
+				return frame;
+			}
+		}
+		return null;
+	}
+
+	private static final class Frame {
+
+		private final IProcessComponent<?> component;
+		// null for an asynchronous component without a parent
+		private final String path;
+		private final boolean isTransparent;
+		// only accessed by the thread owning the stack
+		private long childNanos;
+
+		private Frame(IProcessComponent<?> component, String path, boolean isTransparent) {
+			this.component = component;
+			this.path = path;
+			this.isTransparent = isTransparent;
+		}
+	}
+}
@@ -0,0 +1,236 @@
+package org.hive2hive.processframework.monitoring;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.decorators.AsyncComponent;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+import org.hive2hive.processframework.interfaces.IProcessMonitor;
+
+/**
+ * {@link IProcessMonitor} that records a hierarchical {@link Span} for every component of a sampled run of a
+ * process tree. The span hierarchy follows the nesting of the components, also across the asynchronous
+ * boundaries introduced by {@link AsyncComponent}s.
+ * Whether a run is recorded is decided once for its root component, according to the sampling rate.
+ * Additionally, the number of buffered spans is bounded; spans exceeding this bound are dropped.<br>
+ * <br>
+ * <b>Example:</b>
+ * 
+ * <pre>
+ * ProcessTracer tracer = new ProcessTracer(0.01); // record 1% of all runs
+ * ProcessComponent.attachMonitor(tracer);
+ * 
+ * // run processes...
+ * 
+ * ChromeTraceExporter.export(tracer.drainSpans(), new File(&quot;trace.json&quot;));
+ * </pre>
+ */
+public class ProcessTracer implements IProcessMonitor {
+
+	public static final int DEFAULT_MAX_SPANS = 100000;
+
+	private final double samplingRate;
+	private final int maxSpans;
+
+	private final AtomicLong traceIds = new AtomicLong();
+	private final AtomicLong spanIds = new AtomicLong();
+	private final ConcurrentLinkedQueue<Span> spans = new ConcurrentLinkedQueue<Span>();
+	private final AtomicInteger spanCount = new AtomicInteger();
+	private final AtomicLong droppedCount = new AtomicLong();
+
+	// frames of asynchronous components, awaiting their decorated component to start on another thread
+	private final ConcurrentMap<IdentityKey, Frame> handoffs = new ConcurrentHashMap<IdentityKey, Frame>();
+
+	private final ThreadLocal<Deque<Frame>> stacks = new ThreadLocal<Deque<Frame>>() {
+		@Override
+		protected Deque<Frame> initialValue() {
+			return new ArrayDeque<Frame>();
+		}
+	};
+
+	/**
+	 * Creates a {@code ProcessTracer} that records all runs.
+	 */
+	public ProcessTracer() {
+		this(1.0);
+	}
+
+	/**
+	 * Creates a {@code ProcessTracer} that records the provided fraction of all runs.
+	 * 
+	 * @param samplingRate The fraction of runs to be recorded, in the range [0, 1].
+	 */
+	public ProcessTracer(double samplingRate) {
+		this(samplingRate, DEFAULT_MAX_SPANS);
+	}
+
+	/**
+	 * Creates a {@code ProcessTracer} that records the provided fraction of all runs and buffers at most the
+	 * provided number of spans.
+	 * 
+	 * @param samplingRate The fraction of runs to be recorded, in the range [0, 1].
+	 * @param maxSpans The maximum number of buffered spans.
+	 */
+	public ProcessTracer(double samplingRate, int maxSpans) {
+		if (samplingRate < 0.0 || samplingRate > 1.0) {
+			throw new IllegalArgumentException("Sampling rate must be in the range [0, 1].");
+		}
+		this.samplingRate = samplingRate;
+		this.maxSpans = maxSpans;
+	}
+
+	@Override
+	public void onStarted(IProcessComponent<?> component, ProcessState state) {
+
+		Deque<Frame> stack = stacks.get();
+		Frame parent = stack.peek();
+		boolean isAsync = false;
+		if (parent == null) {
+			// started on a fresh thread, check whether we crossed an async boundary
+			parent = handoffs.remove(new IdentityKey(component));
+			isAsync = parent != null;
+		}
+
+		boolean isRollback = state == ProcessState.ROLLBACKING;
+		Span span = null;
+		if (parent == null) {
+			if (isSampled()) {
+				span = new Span(traceIds.incrementAndGet(), spanIds.incrementAndGet(), 0, component, isRollback,
+						false, System.nanoTime());
+			}
+		} else if (parent.span != null) {
+			span = new Span(parent.span.getTraceId(), spanIds.incrementAndGet(), parent.span.getSpanId(),
+					component, isRollback, isAsync, System.nanoTime());
+		}
+
+		Frame frame = new Frame(component, span);
+		stack.push(frame);
+
+		if (component instanceof AsyncComponent<?>) {
+			IProcessComponent<?> decorated = ((AsyncComponent<?>) component).getDecoratedComponent();
+			handoffs.put(new IdentityKey(decorated), frame);
+		}
+	}
+
+	@Override
+	public void onFinished(IProcessComponent<?> component, ProcessState state, long durationNanos) {
+
+		Frame frame = pop(stacks.get(), component);
+		if (frame == null) {
+			// started before this tracer has been attached
+			return;
+		}
+
+		if (component instanceof AsyncComponent<?>
+				&& (state == ProcessState.EXECUTION_FAILED || state == ProcessState.ROLLBACK_FAILED)) {
+			// the decorated component will not be started anymore
+			IProcessComponent<?> decorated = ((AsyncComponent<?>) component).getDecoratedComponent();
+			handoffs.remove(new IdentityKey(decorated), frame);
+		}
+
+		if (frame.span != null) {
+			frame.span.finish(state, System.nanoTime());
+			if (spanCount.incrementAndGet() > maxSpans) {
+				spanCount.decrementAndGet();
+				droppedCount.incrementAndGet();
+			} else {
+				spans.add(frame.span);
+			}
+		}
+	}
+
+	@Override
+	public void onPaused(IProcessComponent<?> component) {
+		// pausing does not end a span
+	}
+
+	@Override
+	public void onResumed(IProcessComponent<?> component) {
+		// the resumed execution or rollback starts a new span
+	}
+
+	/**
+	 * Gets a copy of all buffered spans.
+	 * 
+	 * @return All buffered {@link Span}s.
+	 */
+	public List<Span> getSpans() {
+		return new ArrayList<Span>(spans);
+	}
+
+	/**
+	 * Removes and returns all buffered spans.
+	 * 
+	 * @return All {@link Span}s that have been buffered.
+	 */
+	public List<Span> drainSpans() {
+		List<Span> drained = new ArrayList<Span>();
+		Span span;
+		while ((span = spans.poll()) != null) {
+			spanCount.decrementAndGet();
+			drained.add(span);
+		}
+		return drained;
+	}
+
+	/**
+	 * Gets the number of spans that have been dropped because the buffer was full.
+	 * 
+	 * @return The number of dropped spans.
+	 */
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	/**
+	 * Gets the fraction of runs recorded by this {@code ProcessTracer}.
+	 * 
+	 * @return The sampling rate.
+	 */
+	public double getSamplingRate() {
+		return samplingRate;
+	}
+
+	private boolean isSampled() {
+		return samplingRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < samplingRate;
+	}
+
+	private static Frame pop(Deque<Frame> stack, IProcessComponent<?> component) {
+		Frame top = stack.peek();
+		if (top != null && top.component == component) {
+			return stack.pop();
+		}
+		// should not happen, but never let an unbalanced stack corrupt subsequent spans
+		Iterator<Frame> iterator = stack.iterator();
+		while (iterator.hasNext()) {
+			Frame frame = iterator.next();
+			if (frame.component == component) {
+				iterator.remove();
+				return frame;
+			}
+		}
+		return null;
+	}
+
+	private static final class Frame {
+
+		private final IProcessComponent<?> component;
+		// null, if the run is not sampled
+		private final Span span;
+
+		private Frame(IProcessComponent<?> component, Span span) {
+			this.component = component;
+			this.span = span;
+		}
+	}
+}
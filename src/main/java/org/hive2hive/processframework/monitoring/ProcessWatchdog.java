@@ -0,0 +1,348 @@
+package org.hive2hive.processframework.monitoring;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hive2hive.processframework.ProcessComponent;
+import org.hive2hive.processframework.ProcessComposite;
+import org.hive2hive.processframework.ProcessDecorator;
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+import org.hive2hive.processframework.interfaces.IProcessMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link IProcessMonitor} that detects stalled components, i.e., components that are executing or rolling
+ * back for longer than a threshold (e.g., a step hanging on a dead peer). The start times of all running
+ * components are tracked and periodically scanned by a single timer thread. A stalled component is logged
+ * once, including the stack of the thread running it, and the configured {@link StallAction} is triggered.<br>
+ * Thresholds and actions can be configured per component class; a setting applies to all subclasses unless
+ * they have their own. By default, only leaves are watched, since composites and decorators merely wait for
+ * their children. Composites and decorators are watched if a threshold has been configured for their class
+ * explicitly.<br>
+ * <br>
+ * <b>Example:</b>
+ * 
+ * <pre>
+ * ProcessWatchdog watchdog = new ProcessWatchdog(30, TimeUnit.SECONDS);
+ * watchdog.setThreshold(UploadStep.class, 5, TimeUnit.MINUTES, StallAction.CANCEL);
+ * watchdog.start();
+ * </pre>
+ */
+public class ProcessWatchdog implements IProcessMonitor {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProcessWatchdog.class);
+
+	public static final long DEFAULT_SCAN_PERIOD_MS = 1000;
+
+	/**
+	 * Actions triggered upon detection of a stalled component.
+	 */
+	public enum StallAction {
+		/**
+		 * Only log the stalled component.
+		 */
+		NONE,
+		/**
+		 * Cancel the stalled component (see {@link IProcessComponent#cancel(boolean)}). Components blocked in
+		 * an interruptible operation thus fail. Stalled rollbacks cannot be cancelled and are interrupted only.
+		 */
+		CANCEL,
+		/**
+		 * Pause the stalled component (see {@link IProcessComponent#pause()}).
+		 */
+		PAUSE,
+		/**
+		 * Cancel the stalled component as for {@link StallAction#CANCEL} and roll it back as soon as its
+		 * execution failed. The rollback runs on the thread executing the component.
+		 */
+		ROLLBACK
+	}
+
+	private final Threshold defaultThreshold;
+	private final ConcurrentMap<Class<?>, Threshold> thresholds = new ConcurrentHashMap<Class<?>, Threshold>();
+	private final ConcurrentMap<IdentityKey, Watched> watched = new ConcurrentHashMap<IdentityKey, Watched>();
+	private final AtomicLong stalledCount = new AtomicLong();
+
+	private ScheduledExecutorService timer;
+	private ScheduledFuture<?> scan;
+
+	/**
+	 * Creates a {@code ProcessWatchdog} that logs leaves running for longer than the provided threshold.
+	 * 
+	 * @param threshold The default threshold.
+	 * @param unit The {@link TimeUnit} of the threshold.
+	 */
+	public ProcessWatchdog(long threshold, TimeUnit unit) {
+		this(threshold, unit, StallAction.NONE);
+	}
+
+	/**
+	 * Creates a {@code ProcessWatchdog} that handles leaves running for longer than the provided threshold
+	 * with the provided action.
+	 * 
+	 * @param threshold The default threshold.
+	 * @param unit The {@link TimeUnit} of the threshold.
+	 * @param action The default {@link StallAction}.
+	 */
+	public ProcessWatchdog(long threshold, TimeUnit unit, StallAction action) {
+		this.defaultThreshold = new Threshold(unit.toNanos(threshold), action);
+	}
+
+	/**
+	 * Configures the threshold and action for all components of the provided class and its subclasses.
+	 * Applies to components started afterwards.
+	 * 
+	 * @param componentClass The class of the components.
+	 * @param threshold The threshold.
+	 * @param unit The {@link TimeUnit} of the threshold.
+	 * @param action The {@link StallAction}.
+	 */
+	public void setThreshold(Class<?> componentClass, long threshold, TimeUnit unit, StallAction action) {
+		thresholds.put(componentClass, new Threshold(unit.toNanos(threshold), action));
+	}
+
+	/**
+	 * Removes the threshold configured for the provided class.
+	 * 
+	 * @param componentClass The class of the components.
+	 */
+	public void removeThreshold(Class<?> componentClass) {
+		thresholds.remove(componentClass);
+	}
+
+	/**
+	 * Attaches this watchdog to all {@link ProcessComponent}s and starts scanning with the
+	 * {@link ProcessWatchdog#DEFAULT_SCAN_PERIOD_MS}.
+	 */
+	public void start() {
+		start(DEFAULT_SCAN_PERIOD_MS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Attaches this watchdog to all {@link ProcessComponent}s and starts scanning with the provided period.
+	 * 
+	 * @param period The period between two scans.
+	 * @param unit The {@link TimeUnit} of the period.
+	 */
+	public synchronized void start(long period, TimeUnit unit) {
+		if (timer != null) {
+			throw new IllegalStateException("Watchdog has already been started.");
+		}
+		timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "process watchdog");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		scan = timer.scheduleAtFixedRate(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					scan();
+				} catch (RuntimeException ex) {
+					logger.error("Watchdog scan failed.", ex);
+				}
+			}
+		}, period, period, unit);
+		ProcessComponent.attachMonitor(this);
+	}
+
+	/**
+	 * Detaches this watchdog and stops scanning. Pending rollbacks are still performed.
+	 */
+	public synchronized void stop() {
+		ProcessComponent.detachMonitor(this);
+		if (timer != null) {
+			scan.cancel(false);
+			timer.shutdown();
+			timer = null;
+			scan = null;
+		}
+		watched.clear();
+	}
+
+	/**
+	 * Scans all running components once and handles the ones exceeding their threshold. Invoked
+	 * periodically after {@link ProcessWatchdog#start()}.
+	 */
+	public void scan() {
+		long now = System.nanoTime();
+		for (Watched entry : watched.values()) {
+			if (!entry.isStalled && now - entry.startNanos > entry.threshold.nanos) {
+				entry.isStalled = true;
+				// count first, the action might let the stalled component complete right away
+				stalledCount.incrementAndGet();
+				handleStall(entry, now - entry.startNanos);
+			}
+		}
+	}
+
+	@Override
+	public void onStarted(IProcessComponent<?> component, ProcessState state) {
+		Threshold threshold = resolve(component);
+		if (threshold != null) {
+			watched.put(new IdentityKey(component), new Watched(component, state, threshold));
+		}
+	}
+
+	@Override
+	public void onFinished(IProcessComponent<?> component, ProcessState state, long durationNanos) {
+		Watched entry = watched.remove(new IdentityKey(component));
+		if (entry != null && entry.thread == Thread.currentThread()) {
+			synchronized (entry) {
+				if (entry.isInterrupted) {
+					// the rollback completed nevertheless, the interruption must not leak to the caller
+					Thread.interrupted();
+				}
+			}
+		}
+	}
+
+	@Override
+	public void onPaused(IProcessComponent<?> component) {
+		// a paused component is not stalled, a resumed one starts again
+		watched.remove(new IdentityKey(component));
+	}
+
+	@Override
+	public void onResumed(IProcessComponent<?> component) {
+		// the resumed execution or rollback is tracked upon start
+	}
+
+	/**
+	 * Gets the number of components currently watched.
+	 * 
+	 * @return The number of running components that are watched.
+	 */
+	public int getWatchedCount() {
+		return watched.size();
+	}
+
+	/**
+	 * Gets the components that are currently stalled.
+	 * 
+	 * @return The stalled {@link IProcessComponent}s that are still running.
+	 */
+	public List<IProcessComponent<?>> getStalledComponents() {
+		List<IProcessComponent<?>> stalled = new ArrayList<IProcessComponent<?>>();
+		for (Watched entry : watched.values()) {
+			if (entry.isStalled) {
+				stalled.add(entry.component);
+			}
+		}
+		return stalled;
+	}
+
+	/**
+	 * Gets the number of stalls detected so far. A stall is counted upon its detection, before its action has
+	 * been triggered.
+	 * 
+	 * @return The number of detected stalls.
+	 */
+	public long getStalledCount() {
+		return stalledCount.get();
+	}
+
+	private Threshold resolve(IProcessComponent<?> component) {
+		for (Class<?> clazz = component.getClass(); clazz != null; clazz = clazz.getSuperclass()) {
+			Threshold threshold = thresholds.get(clazz);
+			if (threshold != null) {
+				return threshold;
+			}
+		}
+		boolean isLeaf = !(component instanceof ProcessComposite<?>) && !(component instanceof ProcessDecorator<?>);
+		return isLeaf ? defaultThreshold : null;
+	}
+
+	private void handleStall(Watched entry, long elapsedNanos) {
+		StringBuilder stack = new StringBuilder();
+		for (StackTraceElement element : entry.thread.getStackTrace()) {
+			stack.append(String.format("%n\tat %s", element));
+		}
+		logger.warn("Component '{}' has been {} for {}ms on thread '{}', action {}:{}", entry.component,
+				entry.state == ProcessState.ROLLBACKING ? "rolling back" : "executing",
+				TimeUnit.NANOSECONDS.toMillis(elapsedNanos), entry.thread.getName(), entry.threshold.action,
+				stack);
+
+		switch (entry.threshold.action) {
+			case CANCEL:
+			case ROLLBACK:
+				if (entry.state == ProcessState.EXECUTING) {
+					entry.component.cancel(entry.threshold.action == StallAction.ROLLBACK);
+				} else {
+					// rollbacks cannot be cancelled
+					interruptRollback(entry);
+				}
+				break;
+			case PAUSE:
+				try {
+					entry.component.pause();
+				} catch (InvalidProcessStateException ex) {
+					// finished in the meantime
+					logger.debug("Stalled component '{}' could not be paused.", entry.component, ex);
+				}
+				break;
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * Interrupts the thread of a stalled rollback, unless the rollback has finished in the meantime and its
+	 * thread might run unrelated work.
+	 */
+	private void interruptRollback(Watched entry) {
+		synchronized (entry) {
+			if (watched.get(new IdentityKey(entry.component)) == entry) {
+				entry.isInterrupted = true;
+				entry.thread.interrupt();
+			}
+		}
+	}
+
+	private static final class Threshold {
+
+		private final long nanos;
+		private final StallAction action;
+
+		private Threshold(long nanos, StallAction action) {
+			this.nanos = nanos;
+			this.action = action;
+		}
+	}
+
+	private static final class Watched {
+
+		private final IProcessComponent<?> component;
+		private final ProcessState state;
+		private final Threshold threshold;
+		private final Thread thread;
+		private final long startNanos;
+		private volatile boolean isStalled;
+		// guarded by this
+		private boolean isInterrupted;
+
+		private Watched(IProcessComponent<?> component, ProcessState state, Threshold threshold) {
+			this.component = component;
+			this.state = state;
+			this.threshold = threshold;
+			this.thread = Thread.currentThread();
+			this.startNanos = System.nanoTime();
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package org.hive2hive.processframework.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time accumulated by a {@link ProcessProfiler} for one component class or one path in the process trees.
+ * The total time of a component splits into its self time and the time spent in its children running on the
+ * same thread.
+ * 
+ * @see ProcessProfiler
+ */
+public class ProfileEntry {
+
+	private final String key;
+
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong totalNanos = new AtomicLong();
+	private final AtomicLong selfNanos = new AtomicLong();
+
+	public ProfileEntry(String key) {
+		this.key = key;
+	}
+
+	void record(long total, long self) {
+		count.incrementAndGet();
+		totalNanos.addAndGet(total);
+		selfNanos.addAndGet(self);
+	}
+
+	/**
+	 * Merges all values accumulated by the provided entry into this {@code ProfileEntry}.
+	 * 
+	 * @param other The {@code ProfileEntry} to be merged.
+	 */
+	public void add(ProfileEntry other) {
+		count.addAndGet(other.count.get());
+		totalNanos.addAndGet(other.totalNanos.get());
+		selfNanos.addAndGet(other.selfNanos.get());
+	}
+
+	/**
+	 * Gets the key (component class or path) this {@code ProfileEntry} has been accumulated for.
+	 * 
+	 * @return The key of this {@code ProfileEntry}.
+	 */
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * Gets the number of executions and rollbacks accumulated.
+	 * 
+	 * @return The number of invocations.
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * Gets the accumulated wall-clock time of the components.
+	 * 
+	 * @return The total time in nanoseconds.
+	 */
+	public long getTotalNanos() {
+		return totalNanos.get();
+	}
+
+	/**
+	 * Gets the accumulated time the components spent outside of their children running on the same thread.
+	 * 
+	 * @return The self time in nanoseconds.
+	 */
+	public long getSelfNanos() {
+		return selfNanos.get();
+	}
+
+	/**
+	 * Gets the accumulated time the components spent in their children running on the same thread.
+	 * 
+	 * @return The child time in nanoseconds.
+	 */
+	public long getChildNanos() {
+		return getTotalNanos() - getSelfNanos();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: count=%s, total=%.3fms, self=%.3fms, children=%.3fms", key, getCount(),
+				getTotalNanos() / 1e6, getSelfNanos() / 1e6, getChildNanos() / 1e6);
+	}
+}
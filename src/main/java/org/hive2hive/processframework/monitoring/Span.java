@@ -0,0 +1,188 @@
+package org.hive2hive.processframework.monitoring;
+
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+
+/**
+ * The recorded execution or rollback of a single {@link IProcessComponent}, as recorded by a
+ * {@link ProcessTracer}. Spans of the same run share a trace ID and reference their parent span.
+ */
+public class Span {
+
+	private final long traceId;
+	private final long spanId;
+	private final long parentSpanId;
+	private final String name;
+	private final String componentClass;
+	private final String componentId;
+	private final boolean isRollback;
+	private final boolean isAsync;
+	private final long threadId;
+	private final String threadName;
+	private final long startNanos;
+
+	private volatile long endNanos;
+	private volatile ProcessState outcome;
+
+	Span(long traceId, long spanId, long parentSpanId, IProcessComponent<?> component, boolean isRollback,
+			boolean isAsync, long startNanos) {
+		this.traceId = traceId;
+		this.spanId = spanId;
+		this.parentSpanId = parentSpanId;
+		this.name = component.toString();
+		this.componentClass = component.getClass().getName();
+		this.componentId = component.getID();
+		this.isRollback = isRollback;
+		this.isAsync = isAsync;
+		this.threadId = Thread.currentThread().getId();
+		this.threadName = Thread.currentThread().getName();
+		this.startNanos = startNanos;
+	}
+
+	void finish(ProcessState outcome, long endNanos) {
+		this.outcome = outcome;
+		this.endNanos = endNanos;
+	}
+
+	/**
+	 * Gets the ID shared by all spans of the same run.
+	 * 
+	 * @return The trace ID.
+	 */
+	public long getTraceId() {
+		return traceId;
+	}
+
+	/**
+	 * Gets the ID of this {@code Span}, unique per {@link ProcessTracer}.
+	 * 
+	 * @return The span ID.
+	 */
+	public long getSpanId() {
+		return spanId;
+	}
+
+	/**
+	 * Gets the ID of the parent span.
+	 * 
+	 * @return The parent span ID or 0 if this is the root span of a run.
+	 */
+	public long getParentSpanId() {
+		return parentSpanId;
+	}
+
+	/**
+	 * Indicates whether this is the root span of a run.
+	 * 
+	 * @return True, if this span has no parent, false otherwise.
+	 */
+	public boolean isRoot() {
+		return parentSpanId == 0;
+	}
+
+	/**
+	 * Gets the name of the component, i.e., its {@code toString()} representation.
+	 * 
+	 * @return The name of the component.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the fully qualified class name of the component.
+	 * 
+	 * @return The class name of the component.
+	 */
+	public String getComponentClass() {
+		return componentClass;
+	}
+
+	/**
+	 * Gets the ID of the component.
+	 * 
+	 * @return The ID of the component.
+	 */
+	public String getComponentId() {
+		return componentId;
+	}
+
+	/**
+	 * Indicates whether this span represents a rollback rather than an execution.
+	 * 
+	 * @return True, if this span represents a rollback, false otherwise.
+	 */
+	public boolean isRollback() {
+		return isRollback;
+	}
+
+	/**
+	 * Indicates whether this span has been started on another thread than its parent span, i.e., behind an
+	 * asynchronous boundary.
+	 * 
+	 * @return True, if this span runs asynchronously to its parent, false otherwise.
+	 */
+	public boolean isAsync() {
+		return isAsync;
+	}
+
+	/**
+	 * Gets the ID of the thread that ran the component.
+	 * 
+	 * @return The thread ID.
+	 */
+	public long getThreadId() {
+		return threadId;
+	}
+
+	/**
+	 * Gets the name of the thread that ran the component (at the time the span has been started).
+	 * 
+	 * @return The thread name.
+	 */
+	public String getThreadName() {
+		return threadName;
+	}
+
+	/**
+	 * Gets the start of this span as provided by {@link System#nanoTime()}.
+	 * 
+	 * @return The start time in nanoseconds.
+	 */
+	public long getStartNanos() {
+		return startNanos;
+	}
+
+	/**
+	 * Gets the end of this span as provided by {@link System#nanoTime()}.
+	 * 
+	 * @return The end time in nanoseconds.
+	 */
+	public long getEndNanos() {
+		return endNanos;
+	}
+
+	/**
+	 * Gets the duration of this span.
+	 * 
+	 * @return The duration in nanoseconds.
+	 */
+	public long getDurationNanos() {
+		return endNanos - startNanos;
+	}
+
+	/**
+	 * Gets the {@link ProcessState} the component ended in.
+	 * 
+	 * @return The resulting {@link ProcessState} or {@code null} if the span has not finished yet.
+	 */
+	public ProcessState getOutcome() {
+		return outcome;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s %s (%.3fms, %s)", isRollback ? "Rollback" : "Execution", name,
+				getDurationNanos() / 1e6, outcome);
+	}
+}
@@ -0,0 +1,186 @@
+package org.hive2hive.processframework.monitoring.jfr;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import org.hive2hive.processframework.ProcessComponent;
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+import org.hive2hive.processframework.interfaces.IProcessMonitor;
+
+/**
+ * {@link IProcessMonitor} that emits Java Flight Recorder events for the execution, rollback, pause and
+ * resume of all {@link IProcessComponent}s. The events carry the component's name, class, ID and parent
+ * ID; thread, start time and duration are recorded by JFR itself. Thus, slow components can be correlated
+ * with GC, lock contention and I/O in the same recording.<br>
+ * After {@link JfrProcessMonitor#register()}, the monitor attaches itself only while a recording is
+ * running. Without any recording, the process components are not monitored at all.<br>
+ * <b>Note:</b> Requires Java 11 or newer. These classes are only built by the {@code jfr} Maven profile,
+ * which is activated automatically on such JDKs.
+ */
+public final class JfrProcessMonitor implements IProcessMonitor {
+
+	private static final JfrProcessMonitor INSTANCE = new JfrProcessMonitor();
+	private static final FlightRecorderListener LISTENER = new FlightRecorderListener() {
+
+		@Override
+		public void recordingStateChanged(Recording recording) {
+			update();
+		}
+	};
+
+	private static boolean isRegistered;
+	private static boolean isAttached;
+
+	private final ThreadLocal<Deque<Frame>> stacks = new ThreadLocal<Deque<Frame>>() {
+		@Override
+		protected Deque<Frame> initialValue() {
+			return new ArrayDeque<Frame>();
+		}
+	};
+
+	private JfrProcessMonitor() {
+		// singleton, see register()
+	}
+
+	/**
+	 * Registers the JFR monitor such that it gets attached to all {@link ProcessComponent}s while a flight
+	 * recording is running.
+	 * 
+	 * @return True, if JFR is available on this JVM, false otherwise.
+	 */
+	public static synchronized boolean register() {
+		if (!FlightRecorder.isAvailable()) {
+			return false;
+		}
+		if (!isRegistered) {
+			FlightRecorder.addListener(LISTENER);
+			isRegistered = true;
+		}
+		update();
+		return true;
+	}
+
+	/**
+	 * Unregisters and detaches the JFR monitor.
+	 */
+	public static synchronized void unregister() {
+		if (isRegistered) {
+			FlightRecorder.removeListener(LISTENER);
+			isRegistered = false;
+		}
+		if (isAttached) {
+			ProcessComponent.detachMonitor(INSTANCE);
+			isAttached = false;
+		}
+	}
+
+	private static synchronized void update() {
+		if (!isRegistered) {
+			return;
+		}
+		boolean isRecording = false;
+		for (Recording recording : FlightRecorder.getFlightRecorder().getRecordings()) {
+			if (recording.getState() == RecordingState.RUNNING) {
+				isRecording = true;
+				break;
+			}
+		}
+		if (isRecording && !isAttached) {
+			ProcessComponent.attachMonitor(INSTANCE);
+			isAttached = true;
+		} else if (!isRecording && isAttached) {
+			ProcessComponent.detachMonitor(INSTANCE);
+			isAttached = false;
+		}
+	}
+
+	@Override
+	public void onStarted(IProcessComponent<?> component, ProcessState state) {
+		ProcessComponentEvent event;
+		if (state == ProcessState.ROLLBACKING) {
+			event = new ProcessRollbackEvent();
+		} else {
+			event = new ProcessExecutionEvent();
+		}
+		if (event.isEnabled()) {
+			event.begin();
+		} else {
+			event = null;
+		}
+		// push also if disabled, such that the stack stays balanced
+		stacks.get().push(new Frame(component, event));
+	}
+
+	@Override
+	public void onFinished(IProcessComponent<?> component, ProcessState state, long durationNanos) {
+		Frame frame = pop(stacks.get(), component);
+		if (frame == null || frame.event == null) {
+			return;
+		}
+		ProcessComponentEvent event = frame.event;
+		event.end();
+		if (event.shouldCommit()) {
+			event.set(component);
+			if (event instanceof ProcessExecutionEvent) {
+				((ProcessExecutionEvent) event).outcome = state.name();
+			} else {
+				((ProcessRollbackEvent) event).outcome = state.name();
+			}
+			event.commit();
+		}
+	}
+
+	@Override
+	public void onPaused(IProcessComponent<?> component) {
+		ProcessPauseEvent event = new ProcessPauseEvent();
+		if (event.shouldCommit()) {
+			event.set(component);
+			event.commit();
+		}
+	}
+
+	@Override
+	public void onResumed(IProcessComponent<?> component) {
+		ProcessResumeEvent event = new ProcessResumeEvent();
+		if (event.shouldCommit()) {
+			event.set(component);
+			event.commit();
+		}
+	}
+
+	private static Frame pop(Deque<Frame> stack, IProcessComponent<?> component) {
+		Frame top = stack.peek();
+		if (top != null && top.component == component) {
+			return stack.pop();
+		}
+		// the component might have been started before the monitor got attached
+		Iterator<Frame> iterator = stack.iterator();
+		while (iterator.hasNext()) {
+			Frame frame = iterator.next();
+			if (frame.component == component) {
+				iterator.remove();
+				return frame;
+			}
+		}
+		return null;
+	}
+
+	private static final class Frame {
+
+		private final IProcessComponent<?> component;
+		// null, if the event is disabled
+		private final ProcessComponentEvent event;
+
+		private Frame(IProcessComponent<?> component, ProcessComponentEvent event) {
+			this.component = component;
+			this.event = event;
+		}
+	}
+}
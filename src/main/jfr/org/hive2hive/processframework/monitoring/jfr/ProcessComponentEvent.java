@@ -0,0 +1,40 @@
+package org.hive2hive.processframework.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+import org.hive2hive.processframework.ProcessComposite;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+
+/**
+ * Abstract base class for all JFR events emitted for {@link IProcessComponent}s.
+ */
+@Category({ "Hive2Hive", "Process Framework" })
+abstract class ProcessComponentEvent extends Event {
+
+	@Label("Name")
+	@Description("Name of the process component")
+	String componentName;
+
+	@Label("Class")
+	@Description("Class of the process component")
+	Class<?> componentClass;
+
+	@Label("ID")
+	@Description("ID of the process component")
+	String componentId;
+
+	@Label("Parent ID")
+	@Description("ID of the parent process composite, if any")
+	String parentId;
+
+	void set(IProcessComponent<?> component) {
+		componentName = component.getName();
+		componentClass = component.getClass();
+		componentId = component.getID();
+		ProcessComposite<?> parent = component.getParent();
+		parentId = parent != null ? parent.getID() : null;
+	}
+}
@@ -0,0 +1,14 @@
+package org.hive2hive.processframework.monitoring.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Instant JFR event emitted upon the pause of a process component.
+ */
+@Name("org.hive2hive.processframework.Pause")
+@Label("Process Pause")
+@Description("Pause of a process component")
+class ProcessPauseEvent extends ProcessComponentEvent {
+}
@@ -0,0 +1,14 @@
+package org.hive2hive.processframework.monitoring.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Instant JFR event emitted upon the resume of a process component.
+ */
+@Name("org.hive2hive.processframework.Resume")
+@Label("Process Resume")
+@Description("Resume of a process component")
+class ProcessResumeEvent extends ProcessComponentEvent {
+}
@@ -0,0 +1,18 @@
+package org.hive2hive.processframework.monitoring.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event spanning the rollback of a process component.
+ */
+@Name("org.hive2hive.processframework.Rollback")
+@Label("Process Rollback")
+@Description("Rollback of a process component")
+class ProcessRollbackEvent extends ProcessComponentEvent {
+
+	@Label("Outcome")
+	@Description("Resulting state of the process component")
+	String outcome;
+}
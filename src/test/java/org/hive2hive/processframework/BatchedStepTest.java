@@ -0,0 +1,117 @@
+package org.hive2hive.processframework;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.hive2hive.processframework.composites.SyncProcess;
+import org.hive2hive.processframework.concurrent.BatchItem;
+import org.hive2hive.processframework.concurrent.Batcher;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.interfaces.IBatchHandler;
+import org.hive2hive.processframework.utils.TestUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BatchedStepTest extends BaseTest {
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = BatchedStepTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Test
+	public void testConcurrentProcesses() throws InvalidProcessStateException, ProcessExecutionException,
+			InterruptedException, TimeoutException {
+
+		PutHandler handler = new PutHandler();
+		Batcher<String, Integer> batcher = new Batcher<String, Integer>(handler, 4, 1, TimeUnit.HOURS);
+
+		List<BatchedStep<String, Integer>> steps = new ArrayList<BatchedStep<String, Integer>>();
+		List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+		for (String key : new String[] { "a", "bb", "", "dddd" }) {
+			BatchedStep<String, Integer> step = new BatchedStep<String, Integer>(batcher, key);
+			steps.add(step);
+			results.add(step.executeAsync());
+		}
+
+		int failures = 0;
+		for (int i = 0; i < 4; i++) {
+			try {
+				Integer result = results.get(i).get(5, TimeUnit.SECONDS);
+				assertEquals(steps.get(i).getItem().length(), result.intValue());
+			} catch (ExecutionException ex) {
+				// the empty key fails on its own
+				assertTrue(steps.get(i).getItem().isEmpty());
+				assertTrue(ex.getCause() instanceof ProcessExecutionException);
+				failures++;
+			}
+		}
+		assertEquals(1, failures);
+		assertEquals(1, batcher.getBatchCount());
+	}
+
+	@Test
+	public void testRollbackCompensatesItem() throws InvalidProcessStateException, ProcessExecutionException,
+			ProcessRollbackException {
+
+		PutHandler handler = new PutHandler();
+		Batcher<String, Integer> batcher = new Batcher<String, Integer>(handler, 1, 1, TimeUnit.HOURS);
+
+		SyncProcess process = new SyncProcess();
+		process.add(new BatchedStep<String, Integer>(batcher, "a"));
+		process.add(new BatchedStep<String, Integer>(batcher, "bb"));
+		process.add(TestUtil.executionFailComponent(true));
+		try {
+			process.execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			process.rollback();
+		}
+
+		assertTrue(process.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		List<String> compensated = new ArrayList<String>(handler.compensated);
+		Collections.sort(compensated);
+		assertEquals(2, compensated.size());
+		assertEquals("a", compensated.get(0));
+		assertEquals("bb", compensated.get(1));
+	}
+
+	private static class PutHandler implements IBatchHandler<String, Integer> {
+
+		private final List<String> compensated = Collections.synchronizedList(new ArrayList<String>());
+
+		@Override
+		public void executeBatch(List<BatchItem<String, Integer>> items) throws Exception {
+			for (BatchItem<String, Integer> item : items) {
+				if (item.getItem().isEmpty()) {
+					item.fail(new IllegalArgumentException("Empty key."));
+				} else {
+					item.complete(item.getItem().length());
+				}
+			}
+		}
+
+		@Override
+		public void compensate(String item, Integer result) throws Exception {
+			compensated.add(item);
+		}
+	}
+}
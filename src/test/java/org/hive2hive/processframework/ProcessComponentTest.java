@@ -4,9 +4,11 @@ import static org.junit.Assert.*;
 
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
 import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
 import org.hive2hive.processframework.interfaces.IProcessComponent;
 import org.hive2hive.processframework.utils.BusyComponent;
 import org.hive2hive.processframework.utils.TestUtil;
@@ -44,7 +46,8 @@ public class ProcessComponentTest extends BaseTest {
 		
 		Future<Void> future = busyComp.executeAsync();
 		
-		assertTrue(component.getState() != ProcessState.EXECUTION_SUCCEEDED);
+		// the busy component only completes after its simulated work
+		assertFalse(future.isDone());
 		
 		try {
 			future.get();
@@ -54,4 +57,85 @@ public class ProcessComponentTest extends BaseTest {
 		
 		assertTrue(component.getState() == ProcessState.EXECUTION_SUCCEEDED);
 	}
+
+	@Test
+	public void testCancel() throws InvalidProcessStateException {
+
+		ProcessComponent<Void> component = TestUtil.executionSuccessComponent(false);
+		assertTrue(component.cancel(false));
+		assertTrue(component.isCancelled());
+
+		// cancelled before its start, thus fails upon execution
+		try {
+			component.execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			// expected
+		}
+		assertTrue(component.getState() == ProcessState.EXECUTION_FAILED);
+		assertFalse(Thread.currentThread().isInterrupted());
+
+		// completed components cannot be cancelled anymore
+		assertFalse(component.cancel(false));
+	}
+
+	@Test
+	public void testCancelBeforeStart() throws InvalidProcessStateException {
+
+		final AtomicInteger rollbacks = new AtomicInteger();
+		ProcessStep<Void> step = new ProcessStep<Void>() {
+
+			@Override
+			protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+				return null;
+			}
+
+			@Override
+			protected Void doRollback() throws InvalidProcessStateException, ProcessRollbackException {
+				rollbacks.incrementAndGet();
+				return null;
+			}
+		};
+		assertTrue(step.cancel(true));
+
+		try {
+			step.execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			// expected
+		}
+
+		// the execution has never been started, thus there is nothing to roll back
+		assertTrue(step.getState() == ProcessState.EXECUTION_FAILED);
+		assertEquals(0, rollbacks.get());
+	}
+
+	@Test
+	public void testReset() throws InvalidProcessStateException, ProcessExecutionException {
+
+		ProcessComponent<Void> component = TestUtil.executionSuccessComponent(false);
+		component.cancel(false);
+		try {
+			component.execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			// expected
+		}
+
+		// the reset clears the cancellation, thus the component can be executed again
+		component.reset();
+		assertTrue(component.getState() == ProcessState.READY);
+		assertFalse(component.isCancelled());
+		component.execute();
+		assertTrue(component.getState() == ProcessState.EXECUTION_SUCCEEDED);
+
+		// not allowed during the execution
+		TestUtil.setState(component, ProcessState.EXECUTING);
+		try {
+			component.reset();
+			fail("InvalidProcessStateException should have been thrown.");
+		} catch (InvalidProcessStateException ex) {
+			// expected
+		}
+	}
 }
@@ -0,0 +1,138 @@
+package org.hive2hive.processframework;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.hive2hive.processframework.composites.SyncProcess;
+import org.hive2hive.processframework.decorators.AsyncComponent;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ProcessContextTest extends BaseTest {
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = ProcessContextTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Test
+	public void testLayout() {
+
+		ProcessContextLayout layout = new ProcessContextLayout();
+		ProcessContextKey<String> key1 = layout.register("key1", String.class);
+		ProcessContextKey<Integer> key2 = layout.register("key2", Integer.class);
+
+		assertEquals(0, key1.getIndex());
+		assertEquals(1, key2.getIndex());
+		assertEquals(2, layout.size());
+		assertSame(key2, layout.getKey("key2"));
+
+		try {
+			layout.register("key1", Long.class);
+			fail("IllegalArgumentException should have been thrown.");
+		} catch (IllegalArgumentException ex) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testPutGet() {
+
+		ProcessContextLayout layout = new ProcessContextLayout();
+		ProcessContextKey<String> key = layout.register("key", String.class);
+		ProcessContext context = new ProcessContext(layout);
+
+		assertFalse(context.contains(key));
+		assertNull(context.get(key));
+
+		context.put(key, "value");
+		assertTrue(context.contains(key));
+		assertEquals("value", context.get(key));
+
+		assertTrue(context.compareAndSet(key, "value", "other"));
+		assertFalse(context.compareAndSet(key, "value", "another"));
+		assertEquals("other", context.remove(key));
+
+		context.put(key, "value");
+		context.clear();
+		assertNull(context.get(key));
+	}
+
+	@Test
+	public void testForeignKey() {
+
+		ProcessContextLayout layout = new ProcessContextLayout();
+		ProcessContextLayout otherLayout = new ProcessContextLayout();
+		ProcessContextKey<String> otherKey = otherLayout.register("key", String.class);
+		ProcessContext context = new ProcessContext(layout);
+
+		try {
+			context.get(otherKey);
+			fail("IllegalArgumentException should have been thrown.");
+		} catch (IllegalArgumentException ex) {
+			// expected
+		}
+
+		// registered after creation of the context
+		ProcessContextKey<String> lateKey = layout.register("late", String.class);
+		try {
+			context.put(lateKey, "value");
+			fail("IllegalArgumentException should have been thrown.");
+		} catch (IllegalArgumentException ex) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testSharingBetweenSteps() throws InvalidProcessStateException, ProcessExecutionException {
+
+		ProcessContextLayout layout = new ProcessContextLayout();
+		final ProcessContextKey<Integer> produced = layout.register("produced", Integer.class);
+		final ProcessContextKey<Integer> consumed = layout.register("consumed", Integer.class);
+
+		SyncProcess root = new SyncProcess();
+		root.setContext(new ProcessContext(layout));
+
+		SyncProcess sub = new SyncProcess();
+		sub.add(new ProcessStep<Void>() {
+
+			@Override
+			protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+				getContext().put(produced, 42);
+				return null;
+			}
+		});
+		root.add(new AsyncComponent<Void>(sub));
+		root.execute();
+
+		// async child published to the context of the root
+		assertEquals(Integer.valueOf(42), root.getContext().get(produced));
+
+		SyncProcess next = new SyncProcess();
+		next.setContext(root.getContext());
+		next.add(new ProcessStep<Void>() {
+
+			@Override
+			protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+				getContext().put(consumed, getContext().get(produced) + 1);
+				return null;
+			}
+		});
+		next.execute();
+
+		assertEquals(Integer.valueOf(43), root.getContext().get(consumed));
+	}
+}
@@ -1,22 +1,34 @@
 package org.hive2hive.processframework.composites;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.hive2hive.processframework.BaseTest;
+import org.hive2hive.processframework.Deadline;
 import org.hive2hive.processframework.ProcessComponent;
 import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.ProcessStep;
 import org.hive2hive.processframework.decorators.AsyncComponent;
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
 import org.hive2hive.processframework.exceptions.ProcessExecutionException;
 import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.interfaces.ICompensationHandler;
 import org.hive2hive.processframework.interfaces.IProcessComponent;
 import org.hive2hive.processframework.interfaces.IProcessComponentListener;
 import org.hive2hive.processframework.interfaces.IProcessEventArgs;
+import org.hive2hive.processframework.utils.BlockingStep;
 import org.hive2hive.processframework.utils.BusyComponent;
 import org.hive2hive.processframework.utils.TestUtil;
 import org.junit.AfterClass;
@@ -450,5 +462,474 @@ public class SyncProcessTest extends BaseTest {
 		p.execute();
 		p.rollback();
 	}
-	
+
+	@Test
+	public void testDeadlinePropagation() {
+
+		SyncProcess root = new SyncProcess();
+		SyncProcess sub = new SyncProcess();
+		ProcessComponent<Void> leaf = TestUtil.executionSuccessComponent(true);
+		root.add(sub);
+		sub.add(leaf);
+		assertNull(leaf.getDeadline());
+
+		Deadline deadline = Deadline.after(1, TimeUnit.SECONDS);
+		root.setDeadline(deadline);
+		assertTrue(leaf.getDeadline() == deadline);
+
+		// a later deadline of a child does not extend the one of its parent
+		sub.setDeadline(Deadline.after(1, TimeUnit.HOURS));
+		assertTrue(leaf.getDeadline() == deadline);
+
+		Deadline earlier = Deadline.after(1, TimeUnit.MILLISECONDS);
+		sub.setDeadline(earlier);
+		assertTrue(leaf.getDeadline() == earlier);
+		assertTrue(root.getDeadline() == deadline);
+	}
+
+	@Test
+	public void testDeadlineSaturation() {
+
+		// an unbounded deadline remains later than any earlier created one
+		Deadline expired = Deadline.after(0, TimeUnit.MILLISECONDS);
+		Deadline unbounded = Deadline.after(Long.MAX_VALUE, TimeUnit.DAYS);
+		assertTrue(Deadline.earliest(expired, unbounded) == expired);
+		assertTrue(!unbounded.isExpired());
+	}
+
+	@Test
+	public void testDeadlineExpired() throws InvalidProcessStateException {
+
+		SyncProcess proc = new SyncProcess();
+		ProcessComponent<Void> first = TestUtil.executionSuccessComponent(true);
+		ProcessComponent<Void> second = TestUtil.executionSuccessComponent(true);
+		proc.add(first);
+		proc.add(second);
+		proc.setDeadline(Deadline.after(0, TimeUnit.MILLISECONDS));
+
+		try {
+			proc.execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			// expected
+		}
+
+		// no child has been started
+		assertTrue(first.getState() == ProcessState.READY);
+		assertTrue(second.getState() == ProcessState.READY);
+	}
+
+	@Test
+	public void testDeadlineAwaitAsync() throws InvalidProcessStateException {
+
+		SyncProcess proc = new SyncProcess();
+		proc.add(new AsyncComponent<Void>(new BusyComponent(TestUtil.executionSuccessComponent(true))));
+		proc.setDeadline(Deadline.after(100, TimeUnit.MILLISECONDS));
+
+		long start = System.nanoTime();
+		try {
+			proc.execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			// expected
+		}
+
+		// failed fast, without awaiting the busy component
+		long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		assertTrue(elapsedMs < BusyComponent.SIMULATED_WORK_DURATION_MS);
+		assertTrue(proc.getState() == ProcessState.EXECUTION_FAILED);
+	}
+
+	@Test
+	public void testCancelIgnoredByChild() throws Exception {
+
+		SyncProcess proc = new SyncProcess();
+		UninterruptibleStep stubborn = new UninterruptibleStep();
+		ProcessComponent<Void> last = TestUtil.executionSuccessComponent(true);
+		proc.add(stubborn);
+		proc.add(last);
+
+		Future<Void> future = proc.executeAsync();
+		stubborn.started.await();
+		assertTrue(proc.cancel(true));
+		stubborn.release.countDown();
+
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			fail("ExecutionException should have been thrown.");
+		} catch (ExecutionException ex) {
+			assertTrue(ex.getCause() instanceof ProcessExecutionException);
+		}
+
+		// the completed child is rolled back, the one that has not been started is left untouched
+		assertTrue(proc.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertTrue(stubborn.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertTrue(last.getState() == ProcessState.READY);
+		assertTrue(!last.isCancelled());
+	}
+
+	@Test
+	public void testRollbackAfterChildCancelled() throws Exception {
+
+		SyncProcess proc = new SyncProcess();
+		ProcessComponent<Void> first = TestUtil.executionSuccessComponent(true);
+		BlockingStep blocking = new BlockingStep();
+		proc.add(first);
+		proc.add(blocking);
+
+		Future<Void> future = proc.executeAsync();
+		assertTrue(blocking.started.await(5, TimeUnit.SECONDS));
+		assertTrue(blocking.cancel(true));
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			fail("ExecutionException should have been thrown.");
+		} catch (ExecutionException ex) {
+			assertTrue(ex.getCause() instanceof ProcessExecutionException);
+		}
+		assertTrue(blocking.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+
+		// the child that has rolled itself back is skipped, its siblings are rolled back
+		proc.rollback();
+		assertTrue(proc.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertTrue(first.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+	}
+
+	@Test
+	public void testRollbackAfterDeadline() throws InvalidProcessStateException, ProcessRollbackException {
+
+		SyncProcess proc = new SyncProcess();
+		DelayedStep delayed = new DelayedStep(100);
+		ProcessComponent<Void> second = TestUtil.executionSuccessComponent(true);
+		ProcessComponent<Void> third = TestUtil.executionSuccessComponent(true);
+		proc.add(delayed);
+		proc.add(second);
+		proc.add(third);
+		proc.setDeadline(Deadline.after(20, TimeUnit.MILLISECONDS));
+
+		try {
+			proc.execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			// expected
+		}
+		assertTrue(second.getState() == ProcessState.READY);
+
+		// only the started component is rolled back
+		proc.rollback();
+		assertTrue(proc.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertTrue(delayed.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertTrue(second.getState() == ProcessState.READY);
+		assertTrue(third.getState() == ProcessState.READY);
+	}
+
+	@Test
+	public void testCancel() throws Exception {
+
+		SyncProcess proc = new SyncProcess();
+		ProcessComponent<Void> first = TestUtil.executionSuccessComponent(true);
+		BlockingStep blocking = new BlockingStep();
+		ProcessComponent<Void> last = TestUtil.executionSuccessComponent(true);
+		proc.add(first);
+		proc.add(blocking);
+		proc.add(last);
+
+		Future<Void> future = proc.executeAsync();
+		blocking.started.await();
+		assertTrue(proc.cancel(false));
+
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			fail("ExecutionException should have been thrown.");
+		} catch (ExecutionException ex) {
+			assertTrue(ex.getCause() instanceof ProcessExecutionException);
+		}
+
+		assertTrue(proc.getState() == ProcessState.EXECUTION_FAILED);
+		assertTrue(first.getState() == ProcessState.EXECUTION_SUCCEEDED);
+		assertTrue(blocking.getState() == ProcessState.EXECUTION_FAILED);
+		assertTrue(blocking.isCancelled());
+		// not started anymore
+		assertTrue(last.getState() == ProcessState.READY);
+	}
+
+	@Test
+	public void testCancelRollback() throws Exception {
+
+		SyncProcess proc = new SyncProcess();
+		ProcessComponent<Void> first = TestUtil.executionSuccessComponent(true);
+		BlockingStep blocking = new BlockingStep();
+		BlockingStep asyncBlocking = new BlockingStep();
+		ProcessComponent<Void> last = TestUtil.executionSuccessComponent(true);
+		proc.add(first);
+		proc.add(new AsyncComponent<Void>(asyncBlocking));
+		proc.add(blocking);
+		proc.add(last);
+
+		Future<Void> future = proc.executeAsync();
+		blocking.started.await();
+		asyncBlocking.started.await();
+		assertTrue(proc.cancel(true));
+
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			fail("ExecutionException should have been thrown.");
+		} catch (ExecutionException ex) {
+			assertTrue(ex.getCause() instanceof ProcessExecutionException);
+		}
+
+		// the started components have been rolled back, including the async one
+		assertTrue(proc.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertTrue(first.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertTrue(blocking.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertTrue(asyncBlocking.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertTrue(last.getState() == ProcessState.READY);
+	}
+
+	@Test
+	public void testAsyncFailureCancelsSiblings() throws Exception {
+
+		SyncProcess proc = new SyncProcess();
+		BlockingStep asyncBlocking = new BlockingStep();
+		BlockingStep blocking = new BlockingStep();
+		proc.add(new AsyncComponent<Void>(asyncBlocking));
+		proc.add(new AsyncComponent<Void>(new DelayedFailureStep(50)));
+		proc.add(blocking);
+
+		// would never complete without cancelling the blocking siblings
+		Future<Void> future = proc.executeAsync();
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			fail("ExecutionException should have been thrown.");
+		} catch (ExecutionException ex) {
+			// the failure of the async component is reported, not the cancellation of its siblings
+			assertTrue(ex.getCause() instanceof ProcessExecutionException);
+			assertTrue(ex.getCause().getMessage().equals(DelayedFailureStep.MESSAGE));
+		}
+
+		assertTrue(asyncBlocking.isCancelled());
+		assertTrue(blocking.isCancelled());
+		assertTrue(blocking.getState() == ProcessState.EXECUTION_FAILED);
+	}
+
+	@Test
+	public void testAsyncFailureInCompletionOrder() throws Exception {
+
+		SyncProcess proc = new SyncProcess();
+		BlockingStep asyncBlocking = new BlockingStep();
+		proc.add(new AsyncComponent<Void>(asyncBlocking));
+		proc.add(new AsyncComponent<Void>(new DelayedFailureStep(50)));
+
+		// the failure is detected although the first async component has not completed
+		Future<Void> future = proc.executeAsync();
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			fail("ExecutionException should have been thrown.");
+		} catch (ExecutionException ex) {
+			assertTrue(ex.getCause().getMessage().equals(DelayedFailureStep.MESSAGE));
+		}
+		assertTrue(asyncBlocking.isCancelled());
+
+		proc.rollback();
+		assertTrue(proc.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertTrue(asyncBlocking.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+	}
+
+	@Test
+	public void testBatchedCompensation() throws InvalidProcessStateException, ProcessRollbackException {
+
+		RecordingHandler handler = new RecordingHandler();
+		SyncProcess proc = new SyncProcess();
+		SyncProcess subProc = new SyncProcess();
+		proc.add(new CompensatingStep(handler, "a"));
+		proc.add(subProc);
+		subProc.add(new CompensatingStep(handler, "b"));
+		subProc.add(new AsyncComponent<Void>(new CompensatingStep(handler, "c")));
+		proc.add(new CompensatingStep(handler, "d"));
+		proc.add(TestUtil.executionFailComponent(true));
+		try {
+			proc.execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			proc.rollback();
+		}
+
+		// all compensations of the subtree are flushed by the outermost process at once
+		assertTrue(proc.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertTrue(subProc.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertEquals(1, handler.batches.size());
+		List<String> compensated = new ArrayList<String>(handler.batches.get(0));
+		Collections.sort(compensated);
+		assertEquals(Arrays.asList("a", "b", "c", "d"), compensated);
+		assertNull(proc.getCompensationCollector());
+	}
+
+	@Test
+	public void testBatchedCompensationFailure() throws InvalidProcessStateException {
+
+		RecordingHandler handler = new RecordingHandler();
+		handler.fail = true;
+		SyncProcess proc = new SyncProcess();
+		proc.add(new CompensatingStep(handler, "a"));
+		proc.add(new CompensatingStep(handler, "b"));
+		proc.add(TestUtil.executionFailComponent(true));
+		try {
+			proc.execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			try {
+				proc.rollback();
+				fail("ProcessRollbackException should have been thrown.");
+			} catch (ProcessRollbackException ex2) {
+				// expected
+			}
+		}
+
+		assertTrue(proc.getState() == ProcessState.ROLLBACK_FAILED);
+		assertEquals(1, handler.batches.size());
+		assertEquals(2, handler.batches.get(0).size());
+	}
+
+	@Test
+	public void testImmediateCompensation() throws InvalidProcessStateException, ProcessExecutionException,
+			ProcessRollbackException {
+
+		// without a collecting process, the step compensates on its own
+		RecordingHandler handler = new RecordingHandler();
+		CompensatingStep step = new CompensatingStep(handler, "a");
+		step.execute();
+		step.rollback();
+
+		assertTrue(step.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertEquals(Collections.singletonList(Collections.singletonList("a")), handler.batches);
+	}
+
+	@Test
+	public void testRollbackAfterAsyncFailure() throws Exception {
+
+		SyncProcess proc = new SyncProcess();
+		AsyncComponent<Void> failing = new AsyncComponent<Void>(new DelayedFailureStep(0));
+		UninterruptibleStep stubborn = new UninterruptibleStep();
+		ProcessComponent<Void> last = TestUtil.executionSuccessComponent(true);
+		proc.add(failing);
+		proc.add(stubborn);
+		proc.add(last);
+
+		Future<Void> future = proc.executeAsync();
+		stubborn.started.await();
+		for (int i = 0; i < 500 && failing.getState() != ProcessState.EXECUTION_FAILED; i++) {
+			TestUtil.waitFor(10);
+		}
+		// the sibling ignores its cancellation and completes
+		assertTrue(stubborn.isCancelled());
+		stubborn.release.countDown();
+
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			fail("ExecutionException should have been thrown.");
+		} catch (ExecutionException ex) {
+			assertTrue(ex.getCause().getMessage().equals(DelayedFailureStep.MESSAGE));
+		}
+		assertTrue(stubborn.getState() == ProcessState.EXECUTION_SUCCEEDED);
+		assertTrue(last.getState() == ProcessState.READY);
+		assertTrue(!last.isCancelled());
+
+		proc.rollback();
+		assertTrue(proc.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertTrue(stubborn.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertTrue(last.getState() == ProcessState.READY);
+	}
+
+	private static class CompensatingStep extends ProcessStep<Void> {
+
+		private final ICompensationHandler<String> handler;
+		private final String key;
+
+		private CompensatingStep(ICompensationHandler<String> handler, String key) {
+			this.handler = handler;
+			this.key = key;
+			setRequiresRollback(true);
+		}
+
+		@Override
+		protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+			return null;
+		}
+
+		@Override
+		protected Void doRollback() throws InvalidProcessStateException, ProcessRollbackException {
+			compensate(handler, key);
+			return null;
+		}
+	}
+
+	private static class RecordingHandler implements ICompensationHandler<String> {
+
+		private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<List<String>>());
+		private volatile boolean fail;
+
+		@Override
+		public void compensate(List<String> items) throws Exception {
+			batches.add(new ArrayList<String>(items));
+			if (fail) {
+				throw new IllegalStateException("Failing compensation for testing purposes.");
+			}
+		}
+	}
+
+	private static class UninterruptibleStep extends ProcessStep<Void> {
+
+		private final CountDownLatch started = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+
+		private UninterruptibleStep() {
+			setRequiresRollback(true);
+		}
+
+		@Override
+		protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+			started.countDown();
+			while (true) {
+				try {
+					release.await();
+					return null;
+				} catch (InterruptedException ex) {
+					// ignored
+				}
+			}
+		}
+	}
+
+	private static class DelayedStep extends ProcessStep<Void> {
+
+		private final int delayMs;
+
+		private DelayedStep(int delayMs) {
+			this.delayMs = delayMs;
+			setRequiresRollback(true);
+		}
+
+		@Override
+		protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+			TestUtil.waitFor(delayMs);
+			return null;
+		}
+	}
+
+	private static class DelayedFailureStep extends ProcessStep<Void> {
+
+		private static final String MESSAGE = "Failing delayed execution for testing purposes.";
+
+		private final int delayMs;
+
+		private DelayedFailureStep(int delayMs) {
+			this.delayMs = delayMs;
+			setRequiresRollback(true);
+		}
+
+		@Override
+		protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+			TestUtil.waitFor(delayMs);
+			throw new ProcessExecutionException(this, MESSAGE);
+		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+package org.hive2hive.processframework.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.hive2hive.processframework.BaseTest;
+import org.hive2hive.processframework.interfaces.IBatchHandler;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BatcherTest extends BaseTest {
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = BatcherTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Test
+	public void testFlushOnSize() throws InterruptedException, ExecutionException, TimeoutException {
+
+		DoublingHandler handler = new DoublingHandler();
+		Batcher<Integer, Integer> batcher = new Batcher<Integer, Integer>(handler, 3, 1, TimeUnit.HOURS);
+		List<BatchItem<Integer, Integer>> items = new ArrayList<BatchItem<Integer, Integer>>();
+		for (int i = 1; i <= 6; i++) {
+			items.add(batcher.submit(i));
+		}
+		for (int i = 1; i <= 6; i++) {
+			assertEquals(Integer.valueOf(2 * i), items.get(i - 1).get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(2, batcher.getBatchCount());
+		assertEquals(2, batcher.getFullBatchCount());
+		assertEquals(3.0, batcher.getMeanBatchSize(), 0.0);
+	}
+
+	@Test
+	public void testFlushOnDelay() throws InterruptedException, ExecutionException, TimeoutException {
+
+		DoublingHandler handler = new DoublingHandler();
+		Batcher<Integer, Integer> batcher = new Batcher<Integer, Integer>(handler, 100, 20, TimeUnit.MILLISECONDS);
+		BatchItem<Integer, Integer> first = batcher.submit(1);
+		BatchItem<Integer, Integer> second = batcher.submit(2);
+		assertEquals(Integer.valueOf(2), first.get(5, TimeUnit.SECONDS));
+		assertEquals(Integer.valueOf(4), second.get(5, TimeUnit.SECONDS));
+		assertEquals(1, batcher.getBatchCount());
+		assertEquals(0, batcher.getFullBatchCount());
+		assertEquals(Collections.singletonList(2), handler.batchSizes);
+	}
+
+	@Test
+	public void testItemFailure() throws InterruptedException, ExecutionException, TimeoutException {
+
+		Batcher<Integer, Integer> batcher = new Batcher<Integer, Integer>(new DoublingHandler(), 2, 1,
+				TimeUnit.HOURS);
+		BatchItem<Integer, Integer> failing = batcher.submit(-1);
+		BatchItem<Integer, Integer> succeeding = batcher.submit(1);
+		assertEquals(Integer.valueOf(2), succeeding.get(5, TimeUnit.SECONDS));
+		try {
+			failing.get(5, TimeUnit.SECONDS);
+			fail("ExecutionException should have been thrown.");
+		} catch (ExecutionException ex) {
+			assertTrue(ex.getCause() instanceof IllegalArgumentException);
+		}
+	}
+
+	@Test
+	public void testWithdraw() throws InterruptedException, ExecutionException, TimeoutException {
+
+		DoublingHandler handler = new DoublingHandler();
+		Batcher<Integer, Integer> batcher = new Batcher<Integer, Integer>(handler, 100, 1, TimeUnit.HOURS);
+		BatchItem<Integer, Integer> withdrawn = batcher.submit(1);
+		BatchItem<Integer, Integer> kept = batcher.submit(2);
+		assertTrue(withdrawn.withdraw());
+
+		batcher.flush();
+		assertEquals(Integer.valueOf(4), kept.get(5, TimeUnit.SECONDS));
+		assertFalse(kept.withdraw());
+		assertEquals(Collections.singletonList(1), handler.batchSizes);
+	}
+
+	private static class DoublingHandler implements IBatchHandler<Integer, Integer> {
+
+		private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<Integer>());
+
+		@Override
+		public void executeBatch(List<BatchItem<Integer, Integer>> items) throws Exception {
+			batchSizes.add(items.size());
+			for (BatchItem<Integer, Integer> item : items) {
+				if (item.getItem() < 0) {
+					item.fail(new IllegalArgumentException("Negative item."));
+				} else {
+					item.complete(2 * item.getItem());
+				}
+			}
+		}
+
+		@Override
+		public void compensate(Integer item, Integer result) throws Exception {
+			// nothing to compensate
+		}
+	}
+}
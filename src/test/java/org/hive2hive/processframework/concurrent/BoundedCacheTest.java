@@ -0,0 +1,88 @@
+package org.hive2hive.processframework.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.processframework.BaseTest;
+import org.hive2hive.processframework.utils.TestUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BoundedCacheTest extends BaseTest {
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = BoundedCacheTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Test
+	public void testHitsAndMisses() {
+
+		BoundedCache<String, Integer> cache = new BoundedCache<String, Integer>(10);
+		assertNull(cache.get("a"));
+		cache.put("a", 1);
+		assertEquals(Integer.valueOf(1), cache.get("a"));
+		assertEquals(Integer.valueOf(1), cache.get("a"));
+
+		assertEquals(2, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(2.0 / 3.0, cache.getHitRate(), 0.0001);
+	}
+
+	@Test
+	public void testSizeEviction() {
+
+		// a single segment, such that the eviction order is deterministic
+		BoundedCache<Integer, Integer> cache = new BoundedCache<Integer, Integer>(1);
+		cache.put(1, 1);
+		cache.put(2, 2);
+		assertEquals(1, cache.size());
+		assertNull(cache.get(1));
+		assertEquals(1, cache.getEvictionCount());
+
+		BoundedCache<Integer, Integer> large = new BoundedCache<Integer, Integer>(100);
+		for (int i = 0; i < 1000; i++) {
+			large.put(i, i);
+		}
+		assertTrue(large.size() <= 100);
+		assertEquals(1000 - large.size(), large.getEvictionCount());
+	}
+
+	@Test
+	public void testTimeEviction() {
+
+		BoundedCache<String, Integer> cache = new BoundedCache<String, Integer>(10, 50, TimeUnit.MILLISECONDS);
+		cache.put("a", 1);
+		cache.put("b", 2);
+		assertEquals(Integer.valueOf(1), cache.get("a"));
+
+		TestUtil.waitFor(100);
+		assertNull(cache.get("a"));
+		cache.cleanUp();
+		assertEquals(0, cache.size());
+		assertEquals(2, cache.getEvictionCount());
+	}
+
+	@Test
+	public void testConditionalRemove() {
+
+		BoundedCache<String, Integer> cache = new BoundedCache<String, Integer>(10);
+		cache.put("a", 1);
+		cache.put("a", 2);
+		assertFalse(cache.remove("a", 1));
+		assertEquals(Integer.valueOf(2), cache.get("a"));
+		assertTrue(cache.remove("a", 2));
+		assertNull(cache.get("a"));
+	}
+}
@@ -0,0 +1,136 @@
+package org.hive2hive.processframework.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.processframework.BaseTest;
+import org.hive2hive.processframework.utils.TestUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class HashedWheelTimerTest extends BaseTest {
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = HashedWheelTimerTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Test
+	public void testExpiry() throws InterruptedException {
+
+		// small wheel, such that timeouts span several rounds
+		HashedWheelTimer timer = new HashedWheelTimer(5, TimeUnit.MILLISECONDS, 4);
+		try {
+			final List<Integer> order = new CopyOnWriteArrayList<Integer>();
+			final CountDownLatch expired = new CountDownLatch(3);
+
+			long start = System.nanoTime();
+			timer.newTimeout(new RecordingTask(order, 3, expired), 120, TimeUnit.MILLISECONDS);
+			timer.newTimeout(new RecordingTask(order, 1, expired), 10, TimeUnit.MILLISECONDS);
+			HashedWheelTimer.Timeout timeout = timer.newTimeout(new RecordingTask(order, 2, expired), 60,
+					TimeUnit.MILLISECONDS);
+
+			assertTrue(expired.await(5, TimeUnit.SECONDS));
+			assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 120);
+			assertEquals(3, order.size());
+			assertEquals(1, (int) order.get(0));
+			assertEquals(2, (int) order.get(1));
+			assertEquals(3, (int) order.get(2));
+			assertTrue(timeout.isExpired());
+			assertFalse(timeout.cancel());
+			assertEquals(0, timer.getPendingCount());
+		} finally {
+			timer.stop();
+		}
+	}
+
+	@Test
+	public void testCancel() {
+
+		HashedWheelTimer timer = new HashedWheelTimer(5, TimeUnit.MILLISECONDS, 8);
+		try {
+			List<Integer> order = new CopyOnWriteArrayList<Integer>();
+			CountDownLatch expired = new CountDownLatch(1);
+
+			HashedWheelTimer.Timeout timeout = timer.newTimeout(new RecordingTask(order, 1, expired), 30,
+					TimeUnit.MILLISECONDS);
+			assertEquals(1, timer.getPendingCount());
+			assertTrue(timeout.cancel());
+			assertTrue(timeout.isCancelled());
+			assertFalse(timeout.cancel());
+			assertEquals(0, timer.getPendingCount());
+
+			TestUtil.waitFor(100);
+			assertTrue(order.isEmpty());
+			assertFalse(timeout.isExpired());
+		} finally {
+			timer.stop();
+		}
+	}
+
+	@Test
+	public void testLongDelay() throws InterruptedException {
+
+		HashedWheelTimer timer = new HashedWheelTimer(5, TimeUnit.MILLISECONDS, 8);
+		try {
+			List<Integer> order = new CopyOnWriteArrayList<Integer>();
+			CountDownLatch expired = new CountDownLatch(1);
+
+			// saturated rather than overflowing into the past
+			HashedWheelTimer.Timeout timeout = timer.newTimeout(new RecordingTask(order, 1, expired),
+					Long.MAX_VALUE, TimeUnit.DAYS);
+			timer.newTimeout(new RecordingTask(order, 2, expired), 20, TimeUnit.MILLISECONDS);
+
+			assertTrue(expired.await(5, TimeUnit.SECONDS));
+			TestUtil.waitFor(50);
+			assertEquals(1, order.size());
+			assertEquals(2, (int) order.get(0));
+			assertFalse(timeout.isExpired());
+			assertEquals(1, timer.getPendingCount());
+		} finally {
+			timer.stop();
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testStopped() {
+
+		HashedWheelTimer timer = new HashedWheelTimer();
+		timer.newTimeout(new RecordingTask(null, 0, null), 1, TimeUnit.SECONDS);
+		timer.stop();
+
+		timer.newTimeout(new RecordingTask(null, 0, null), 1, TimeUnit.SECONDS);
+	}
+
+	private static class RecordingTask implements Runnable {
+
+		private final List<Integer> order;
+		private final int id;
+		private final CountDownLatch expired;
+
+		private RecordingTask(List<Integer> order, int id, CountDownLatch expired) {
+			this.order = order;
+			this.id = id;
+			this.expired = expired;
+		}
+
+		@Override
+		public void run() {
+			order.add(id);
+			expired.countDown();
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package org.hive2hive.processframework.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hive2hive.processframework.BaseTest;
+import org.hive2hive.processframework.utils.TestUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TokenBucketTest extends BaseTest {
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = TokenBucketTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Test
+	public void testBurst() {
+
+		TokenBucket bucket = new TokenBucket(1, 1, TimeUnit.HOURS, 3);
+		assertEquals(3, bucket.getAvailableTokens());
+
+		assertTrue(bucket.tryAcquire());
+		assertTrue(bucket.tryAcquire());
+		assertTrue(bucket.tryAcquire());
+		assertFalse(bucket.tryAcquire());
+		assertEquals(0, bucket.getAvailableTokens());
+	}
+
+	@Test
+	public void testRefill() {
+
+		TokenBucket bucket = new TokenBucket(1, 20, TimeUnit.MILLISECONDS, 1);
+		assertTrue(bucket.tryAcquire());
+		assertFalse(bucket.tryAcquire());
+
+		TestUtil.waitFor(50);
+		assertTrue(bucket.tryAcquire());
+
+		// an idle bucket does not save up more than its capacity
+		TestUtil.waitFor(100);
+		assertTrue(bucket.tryAcquire());
+		assertFalse(bucket.tryAcquire());
+	}
+
+	@Test
+	public void testReserve() {
+
+		TokenBucket bucket = new TokenBucket(1, 100, TimeUnit.MILLISECONDS, 1);
+		assertEquals(0, bucket.tryReserve(1000, TimeUnit.MILLISECONDS));
+
+		// reservations queue up behind each other
+		long first = bucket.tryReserve(1000, TimeUnit.MILLISECONDS);
+		long second = bucket.tryReserve(1000, TimeUnit.MILLISECONDS);
+		assertTrue(first > 0 && first <= 100);
+		assertTrue(second > first && second <= 200);
+
+		// beyond the maximum wait, nothing is reserved
+		assertEquals(-1, bucket.tryReserve(250, TimeUnit.MILLISECONDS));
+		assertTrue(bucket.tryReserve(1000, TimeUnit.MILLISECONDS) > second);
+	}
+
+	@Test
+	public void testConcurrentAcquire() throws InterruptedException {
+
+		final TokenBucket bucket = new TokenBucket(1, 1, TimeUnit.HOURS, 100);
+		final AtomicInteger acquired = new AtomicInteger();
+		final CountDownLatch done = new CountDownLatch(4);
+		for (int i = 0; i < 4; i++) {
+			new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					for (int j = 0; j < 100; j++) {
+						if (bucket.tryAcquire()) {
+							acquired.incrementAndGet();
+						}
+					}
+					done.countDown();
+				}
+			}).start();
+		}
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		assertEquals(100, acquired.get());
+	}
+}
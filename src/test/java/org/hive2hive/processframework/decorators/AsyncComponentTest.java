@@ -1,10 +1,16 @@
 package org.hive2hive.processframework.decorators;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import org.hive2hive.processframework.BaseTest;
 import org.hive2hive.processframework.ProcessState;
@@ -12,6 +18,7 @@ import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
 import org.hive2hive.processframework.exceptions.ProcessExecutionException;
 import org.hive2hive.processframework.exceptions.ProcessRollbackException;
 import org.hive2hive.processframework.interfaces.IProcessComponent;
+import org.hive2hive.processframework.utils.BlockingStep;
 import org.hive2hive.processframework.utils.BusyComponent;
 import org.hive2hive.processframework.utils.TestUtil;
 import org.junit.AfterClass;
@@ -238,4 +245,52 @@ public class AsyncComponentTest extends BaseTest {
 			}
 		}
 	}
+
+	@Test
+	public void testCancel() throws Exception {
+
+		BlockingStep step = new BlockingStep();
+		AsyncComponent<Void> ac = new AsyncComponent<Void>(step);
+
+		Future<Void> future = ac.execute();
+		step.started.await();
+		assertTrue(ac.cancel(true));
+
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			fail("ExecutionException should have been thrown.");
+		} catch (ExecutionException ex) {
+			assertTrue(ex.getCause() instanceof ProcessExecutionException);
+		}
+
+		// rolled back on the worker thread before its execution returned
+		assertTrue(step.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+	}
+
+	@Test
+	public void testThreadNameRestored() throws Exception {
+
+		ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				return new Thread(runnable, "worker");
+			}
+		});
+		try {
+			new AsyncComponent<Void>(TestUtil.executionSuccessComponent(false), executor).execute().get();
+
+			// the pooled thread keeps the name given by its factory
+			String name = executor.submit(new Callable<String>() {
+
+				@Override
+				public String call() {
+					return Thread.currentThread().getName();
+				}
+			}).get();
+			assertEquals("worker", name);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,132 @@
+package org.hive2hive.processframework.decorators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.hive2hive.processframework.BaseTest;
+import org.hive2hive.processframework.ProcessComponent;
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.composites.SyncProcess;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.utils.BlockingStep;
+import org.hive2hive.processframework.utils.TestUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BulkheadComponentTest extends BaseTest {
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = BulkheadComponentTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Test
+	public void testSaturation() throws InvalidProcessStateException, ProcessExecutionException,
+			InterruptedException, ExecutionException, TimeoutException {
+
+		Bulkhead slow = Bulkhead.register(new Bulkhead("testSaturation", 1, 1));
+		assertSame(slow, Bulkhead.forName("testSaturation"));
+
+		BlockingStep blocking = new BlockingStep();
+		Future<Void> running = new BulkheadComponent<Void>(blocking, "testSaturation").execute();
+		assertTrue(blocking.started.await(5, TimeUnit.SECONDS));
+		Future<Void> queued = new BulkheadComponent<Void>(TestUtil.executionSuccessComponent(false),
+				"testSaturation").execute();
+
+		// queue is full
+		ProcessComponent<Void> step = TestUtil.executionSuccessComponent(false);
+		try {
+			new BulkheadComponent<Void>(step, "testSaturation").execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			assertTrue(step.getState() == ProcessState.READY);
+		}
+		assertEquals(1, slow.getActiveCount());
+		assertEquals(1, slow.getQueuedCount());
+		assertEquals(1, slow.getRejectedCount());
+		assertEquals(1.0, slow.getUtilization(), 0.0);
+
+		// other compartments are not affected
+		Bulkhead fast = new Bulkhead("testSaturationFast", 1, 0);
+		new BulkheadComponent<Void>(TestUtil.executionSuccessComponent(false), fast).execute().get(5,
+				TimeUnit.SECONDS);
+		assertEquals(0, fast.getRejectedCount());
+
+		blocking.release.countDown();
+		running.get(5, TimeUnit.SECONDS);
+		queued.get(5, TimeUnit.SECONDS);
+		assertEquals(1, slow.getPeakActiveCount());
+		assertEquals(1, slow.getPeakQueuedCount());
+		fast.shutdown();
+		slow.shutdown();
+	}
+
+	@Test
+	public void testRollbackNotRejected() throws InvalidProcessStateException, ProcessExecutionException,
+			ProcessRollbackException, InterruptedException, ExecutionException, TimeoutException {
+
+		Bulkhead bulkhead = new Bulkhead("testRollbackNotRejected", 1, 1);
+		BulkheadComponent<Void> component = new BulkheadComponent<Void>(
+				TestUtil.executionSuccessComponent(true), bulkhead);
+		component.execute().get(5, TimeUnit.SECONDS);
+
+		// saturate the compartment
+		BlockingStep blocking = new BlockingStep();
+		new BulkheadComponent<Void>(blocking, bulkhead).execute();
+		assertTrue(blocking.started.await(5, TimeUnit.SECONDS));
+		new BulkheadComponent<Void>(TestUtil.executionSuccessComponent(false), bulkhead).execute();
+
+		component.rollback().get(5, TimeUnit.SECONDS);
+		assertTrue(component.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+
+		blocking.release.countDown();
+		bulkhead.shutdown();
+	}
+
+	@Test
+	public void testRollbackAfterRejection() throws InvalidProcessStateException, ProcessExecutionException,
+			ProcessRollbackException, InterruptedException {
+
+		Bulkhead bulkhead = new Bulkhead("testRollbackAfterRejection", 1, 0);
+		BlockingStep blocking = new BlockingStep();
+		new BulkheadComponent<Void>(blocking, bulkhead).execute();
+		assertTrue(blocking.started.await(5, TimeUnit.SECONDS));
+
+		ProcessComponent<Void> first = TestUtil.executionSuccessComponent(true);
+		ProcessComponent<Void> step = TestUtil.executionSuccessComponent(true);
+		SyncProcess process = new SyncProcess();
+		process.add(first);
+		process.add(new BulkheadComponent<Void>(step, bulkhead));
+		try {
+			process.execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			assertTrue(step.getState() == ProcessState.READY);
+		}
+
+		// the rejected execution is not awaited
+		process.rollback();
+		assertTrue(process.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertTrue(first.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertTrue(step.getState() == ProcessState.READY);
+
+		blocking.release.countDown();
+		bulkhead.shutdown();
+	}
+}
@@ -0,0 +1,150 @@
+package org.hive2hive.processframework.decorators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hive2hive.processframework.BaseTest;
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.ProcessStep;
+import org.hive2hive.processframework.composites.SyncProcess;
+import org.hive2hive.processframework.concurrent.BoundedCache;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.utils.TestUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CachingComponentTest extends BaseTest {
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = CachingComponentTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Test
+	public void testCacheHit() throws InvalidProcessStateException, ProcessExecutionException {
+
+		BoundedCache<String, Integer> cache = new BoundedCache<String, Integer>(10);
+		LookupStep first = new LookupStep();
+		CachingComponent<String, Integer> miss = new CachingComponent<String, Integer>(first, "key", cache);
+		assertEquals(Integer.valueOf(1), miss.execute());
+		assertFalse(miss.isCacheHit());
+
+		// another process instance with the same key
+		LookupStep second = new LookupStep();
+		CachingComponent<String, Integer> hit = new CachingComponent<String, Integer>(second, "key", cache);
+		assertEquals(Integer.valueOf(1), hit.execute());
+		assertTrue(hit.isCacheHit());
+		assertEquals(0, second.executions.get());
+		assertTrue(second.getState() == ProcessState.READY);
+		assertTrue(hit.getState() == ProcessState.EXECUTION_SUCCEEDED);
+
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void testFailureNotCached() throws InvalidProcessStateException, ProcessExecutionException {
+
+		BoundedCache<String, Void> cache = new BoundedCache<String, Void>(10);
+		try {
+			new CachingComponent<String, Void>(TestUtil.executionFailComponent(true), "key", cache).execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			// expected
+		}
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testRollback() throws InvalidProcessStateException, ProcessExecutionException,
+			ProcessRollbackException {
+
+		BoundedCache<String, Integer> cache = new BoundedCache<String, Integer>(10);
+		cache.put("other", 42);
+
+		// rollback of a hit keeps the entry
+		cache.put("key", 7);
+		LookupStep served = new LookupStep();
+		CachingComponent<String, Integer> hit = new CachingComponent<String, Integer>(served, "key", cache);
+		hit.execute();
+		hit.rollback();
+		assertEquals(Integer.valueOf(7), cache.get("key"));
+		assertEquals(0, served.rollbacks.get());
+		cache.invalidate("key");
+
+		// rollback of a miss removes its own entry only
+		SyncProcess process = new SyncProcess();
+		LookupStep step = new LookupStep();
+		process.add(new CachingComponent<String, Integer>(step, "key", cache));
+		process.add(TestUtil.executionFailComponent(true));
+		try {
+			process.execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			process.rollback();
+		}
+		assertTrue(process.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertEquals(1, step.rollbacks.get());
+		assertNull(cache.get("key"));
+		assertEquals(Integer.valueOf(42), cache.get("other"));
+	}
+
+	@Test
+	public void testResetAfterCacheHit() throws InvalidProcessStateException, ProcessExecutionException {
+
+		BoundedCache<String, Integer> cache = new BoundedCache<String, Integer>(10);
+		cache.put("key", 7);
+		LookupStep step = new LookupStep();
+		SyncProcess process = new SyncProcess();
+		process.add(new CachingComponent<String, Integer>(step, "key", cache));
+
+		process.execute();
+		assertTrue(process.getState() == ProcessState.EXECUTION_SUCCEEDED);
+
+		// the decorator is reset although its decorated component has not been executed
+		process.reset();
+		process.execute();
+		assertTrue(process.getState() == ProcessState.EXECUTION_SUCCEEDED);
+		assertEquals(0, step.executions.get());
+
+		cache.invalidate("key");
+		process.reset();
+		process.execute();
+		assertEquals(1, step.executions.get());
+	}
+
+	private static class LookupStep extends ProcessStep<Integer> {
+
+		private final AtomicInteger executions = new AtomicInteger();
+		private final AtomicInteger rollbacks = new AtomicInteger();
+
+		private LookupStep() {
+			setRequiresRollback(true);
+		}
+
+		@Override
+		protected Integer doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+			return executions.incrementAndGet();
+		}
+
+		@Override
+		protected Integer doRollback() throws InvalidProcessStateException, ProcessRollbackException {
+			rollbacks.incrementAndGet();
+			return null;
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package org.hive2hive.processframework.decorators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.processframework.BaseTest;
+import org.hive2hive.processframework.ProcessComponent;
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.composites.SyncProcess;
+import org.hive2hive.processframework.decorators.CircuitBreaker.State;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.monitoring.CircuitBreakerMetrics;
+import org.hive2hive.processframework.utils.TestUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CircuitBreakerComponentTest extends BaseTest {
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = CircuitBreakerComponentTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Test
+	public void testOpen() throws InvalidProcessStateException {
+
+		CircuitBreaker breaker = new CircuitBreaker("testOpen", 4, 0.5, 4, 1, TimeUnit.HOURS, 1);
+
+		// 2 of 4 failed, opens upon the 4th execution
+		assertTrue(execute(breaker, true));
+		assertTrue(execute(breaker, false));
+		assertTrue(execute(breaker, true));
+		assertTrue(breaker.getState() == State.CLOSED);
+		assertTrue(execute(breaker, false));
+		assertTrue(breaker.getState() == State.OPEN);
+
+		// rejected without executing the component
+		ProcessComponent<Void> step = TestUtil.executionSuccessComponent(false);
+		CircuitBreakerComponent<Void> guarded = new CircuitBreakerComponent<Void>(step, breaker);
+		try {
+			guarded.execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			assertTrue(step.getState() == ProcessState.READY);
+		}
+		assertEquals(1, breaker.getRejectedCount());
+	}
+
+	@Test
+	public void testRollbackAfterRejection() throws InvalidProcessStateException, ProcessRollbackException {
+
+		CircuitBreaker breaker = new CircuitBreaker("testRollbackAfterRejection", 1, 1.0, 1, 1, TimeUnit.HOURS, 1);
+		assertTrue(execute(breaker, false));
+		assertTrue(breaker.getState() == State.OPEN);
+
+		ProcessComponent<Void> first = TestUtil.executionSuccessComponent(true);
+		ProcessComponent<Void> step = TestUtil.executionSuccessComponent(true);
+		SyncProcess process = new SyncProcess();
+		process.add(first);
+		process.add(new CircuitBreakerComponent<Void>(step, breaker));
+		try {
+			process.execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			assertTrue(step.getState() == ProcessState.READY);
+		}
+
+		// the rejected component is skipped, the preceding one is rolled back
+		process.rollback();
+		assertTrue(process.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertTrue(first.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertTrue(step.getState() == ProcessState.READY);
+	}
+
+	@Test
+	public void testHalfOpen() throws InvalidProcessStateException {
+
+		CircuitBreakerMetrics metrics = new CircuitBreakerMetrics();
+		CircuitBreaker.attachMonitor(metrics);
+		try {
+			CircuitBreaker breaker = new CircuitBreaker("testHalfOpen", 2, 1.0, 2, 50, TimeUnit.MILLISECONDS, 2);
+			assertTrue(execute(breaker, false));
+			assertTrue(execute(breaker, false));
+			assertTrue(breaker.getState() == State.OPEN);
+			assertTrue(!execute(breaker, true));
+
+			// a failed trial opens the breaker again
+			TestUtil.waitFor(100);
+			assertTrue(execute(breaker, false));
+			assertTrue(breaker.getState() == State.OPEN);
+
+			// all trials succeed, thus the breaker closes
+			TestUtil.waitFor(100);
+			assertTrue(execute(breaker, true));
+			assertTrue(breaker.getState() == State.HALF_OPEN);
+			assertTrue(execute(breaker, true));
+			assertTrue(breaker.getState() == State.CLOSED);
+
+			assertEquals(2, metrics.getOpenedCount("testHalfOpen"));
+			assertEquals(2, metrics.getHalfOpenedCount("testHalfOpen"));
+			assertEquals(1, metrics.getClosedCount("testHalfOpen"));
+			assertEquals(1, metrics.getRejectedCount("testHalfOpen"));
+			assertTrue(metrics.getState("testHalfOpen") == State.CLOSED);
+			assertTrue(metrics.getUnavailableTime("testHalfOpen", TimeUnit.MILLISECONDS) >= 100);
+		} finally {
+			CircuitBreaker.detachMonitor(metrics);
+		}
+	}
+
+	@Test
+	public void testSharedKey() {
+
+		CircuitBreakerComponent<Void> first = new CircuitBreakerComponent<Void>(
+				TestUtil.executionSuccessComponent(false), "testSharedKey");
+		CircuitBreakerComponent<Void> second = new CircuitBreakerComponent<Void>(
+				TestUtil.executionSuccessComponent(false), "testSharedKey");
+		assertSame(first.getBreaker(), second.getBreaker());
+		assertSame(first.getBreaker(), CircuitBreaker.getBreakers().get("testSharedKey"));
+	}
+
+	/**
+	 * Executes a guarded component with the provided outcome.
+	 *
+	 * @return True, if the component has been executed, false if it has been rejected.
+	 */
+	private static boolean execute(CircuitBreaker breaker, boolean success) throws InvalidProcessStateException {
+		ProcessComponent<Void> step = success ? TestUtil.executionSuccessComponent(false) : TestUtil
+				.executionFailComponent(false);
+		try {
+			new CircuitBreakerComponent<Void>(step, breaker).execute();
+		} catch (ProcessExecutionException ex) {
+			// expected for failures and rejections
+		}
+		return step.getState() != ProcessState.READY;
+	}
+}
@@ -0,0 +1,185 @@
+package org.hive2hive.processframework.decorators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.hive2hive.processframework.BaseTest;
+import org.hive2hive.processframework.ProcessComponent;
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+import org.hive2hive.processframework.interfaces.IProcessComponentFactory;
+import org.hive2hive.processframework.monitoring.LatencyHistogram;
+import org.hive2hive.processframework.utils.BlockingStep;
+import org.hive2hive.processframework.utils.TestUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class HedgedComponentTest extends BaseTest {
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = HedgedComponentTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Test
+	public void testHedgeWins() throws InvalidProcessStateException, ProcessExecutionException,
+			ProcessRollbackException, InterruptedException, ExecutionException, TimeoutException {
+
+		BlockingStep primary = new BlockingStep();
+		HedgedComponent<Void> hedged = new HedgedComponent<Void>(primary, new SuccessFactory(), 95.0);
+		hedged.setInitialDelay(20, TimeUnit.MILLISECONDS);
+
+		hedged.execute().get(5, TimeUnit.SECONDS);
+		assertTrue(hedged.isHedged());
+		IProcessComponent<Void> winner = hedged.getWinner();
+		assertNotSame(primary, winner);
+
+		// the dismissed primary is recorded with at least the hedge delay
+		assertEquals(2, hedged.getLatencies().getCount());
+		assertTrue(hedged.getLatencies().getMax() >= TimeUnit.MILLISECONDS.toNanos(20));
+
+		// the loser is cancelled and rolls itself back, the state of the winner is reported
+		awaitState(primary, ProcessState.ROLLBACK_SUCCEEDED);
+		assertTrue(hedged.getState() == ProcessState.EXECUTION_SUCCEEDED);
+
+		hedged.rollback().get(5, TimeUnit.SECONDS);
+		assertTrue(winner.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertTrue(hedged.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+	}
+
+	@Test
+	public void testPrimaryWins() throws InvalidProcessStateException, ProcessExecutionException,
+			InterruptedException, ExecutionException, TimeoutException {
+
+		ProcessComponent<Void> primary = TestUtil.executionSuccessComponent(true);
+		HedgedComponent<Void> hedged = new HedgedComponent<Void>(primary, new SuccessFactory(), 95.0);
+		hedged.setInitialDelay(1, TimeUnit.SECONDS);
+
+		hedged.execute().get(5, TimeUnit.SECONDS);
+		assertFalse(hedged.isHedged());
+		assertSame(primary, hedged.getWinner());
+
+		// no hedge without latencies and initial delay
+		primary = TestUtil.executionSuccessComponent(true);
+		hedged = new HedgedComponent<Void>(primary, new SuccessFactory(), 95.0);
+		assertEquals(-1, hedged.getHedgeDelay(TimeUnit.MILLISECONDS));
+		hedged.execute().get(5, TimeUnit.SECONDS);
+		assertFalse(hedged.isHedged());
+	}
+
+	@Test
+	public void testHedgeNotExecutedAfterPrimaryWon() throws InvalidProcessStateException,
+			ProcessExecutionException, InterruptedException, ExecutionException, TimeoutException {
+
+		BlockingStep primary = new BlockingStep();
+		LateFactory factory = new LateFactory(primary);
+		HedgedComponent<Void> hedged = new HedgedComponent<Void>(primary, factory, 95.0);
+		factory.hedged = hedged;
+		hedged.setInitialDelay(20, TimeUnit.MILLISECONDS);
+
+		hedged.execute().get(5, TimeUnit.SECONDS);
+		assertSame(primary, hedged.getWinner());
+		assertTrue(factory.created.await(5, TimeUnit.SECONDS));
+
+		// the hedge created after the primary has won is never executed
+		TestUtil.waitFor(100);
+		assertTrue(factory.copy.getState() == ProcessState.READY);
+		assertEquals(1, hedged.getLatencies().getCount());
+	}
+
+	@Test
+	public void testFailure() throws InvalidProcessStateException, ProcessExecutionException,
+			InterruptedException, TimeoutException {
+
+		HedgedComponent<Void> hedged = new HedgedComponent<Void>(TestUtil.executionFailComponent(true),
+				new SuccessFactory(), 95.0);
+		hedged.setInitialDelay(1, TimeUnit.SECONDS);
+		try {
+			hedged.execute().get(5, TimeUnit.SECONDS);
+			fail("ExecutionException should have been thrown.");
+		} catch (ExecutionException ex) {
+			assertTrue(ex.getCause() instanceof ProcessExecutionException);
+		}
+		assertFalse(hedged.isHedged());
+		assertEquals(0, hedged.getLatencies().getCount());
+	}
+
+	@Test
+	public void testHedgeDelay() {
+
+		LatencyHistogram latencies = new LatencyHistogram();
+		HedgedComponent<Void> hedged = new HedgedComponent<Void>(TestUtil.executionSuccessComponent(false),
+				new SuccessFactory(), latencies, 90.0);
+		hedged.setMinSamples(10);
+		hedged.setInitialDelay(500, TimeUnit.MILLISECONDS);
+
+		for (int i = 0; i < 9; i++) {
+			latencies.record(TimeUnit.MILLISECONDS.toNanos(10));
+		}
+		assertEquals(500, hedged.getHedgeDelay(TimeUnit.MILLISECONDS));
+
+		latencies.record(TimeUnit.MILLISECONDS.toNanos(100));
+		long delay = hedged.getHedgeDelay(TimeUnit.MILLISECONDS);
+		assertTrue(delay >= 9 && delay <= 11);
+	}
+
+	private static void awaitState(IProcessComponent<?> component, ProcessState state) {
+		for (int i = 0; i < 100 && component.getState() != state; i++) {
+			TestUtil.waitFor(50);
+		}
+		assertTrue(component.getState() == state);
+	}
+
+	private static class SuccessFactory implements IProcessComponentFactory<Void> {
+
+		@Override
+		public IProcessComponent<Void> create() {
+			return TestUtil.executionSuccessComponent(true);
+		}
+	}
+
+	/**
+	 * Lets the primary win while the hedge is being created.
+	 */
+	private static class LateFactory implements IProcessComponentFactory<Void> {
+
+		private final BlockingStep primary;
+		private final CountDownLatch created = new CountDownLatch(1);
+		private volatile HedgedComponent<Void> hedged;
+		private volatile ProcessComponent<Void> copy;
+
+		private LateFactory(BlockingStep primary) {
+			this.primary = primary;
+		}
+
+		@Override
+		public IProcessComponent<Void> create() {
+			primary.release.countDown();
+			for (int i = 0; i < 100 && hedged.getWinner() == null; i++) {
+				TestUtil.waitFor(50);
+			}
+			copy = TestUtil.executionSuccessComponent(true);
+			created.countDown();
+			return copy;
+		}
+	}
+}
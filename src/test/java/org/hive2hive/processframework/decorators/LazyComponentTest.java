@@ -0,0 +1,198 @@
+package org.hive2hive.processframework.decorators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hive2hive.processframework.BaseTest;
+import org.hive2hive.processframework.ProcessComponent;
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.ProcessStep;
+import org.hive2hive.processframework.composites.SyncProcess;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+import org.hive2hive.processframework.interfaces.IProcessComponentFactory;
+import org.hive2hive.processframework.utils.TestUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class LazyComponentTest extends BaseTest {
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = LazyComponentTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Test
+	public void testMaterializedOnExecution() throws InvalidProcessStateException, ProcessExecutionException {
+
+		CountingFactory factory = new CountingFactory();
+		LazyComponent<Void> lazy = new LazyComponent<Void>(factory);
+
+		assertEquals(0, factory.created.get());
+		assertFalse(lazy.isMaterialized());
+
+		lazy.execute();
+
+		assertEquals(1, factory.created.get());
+		assertTrue(lazy.isMaterialized());
+		assertTrue(lazy.getState() == ProcessState.EXECUTION_SUCCEEDED);
+		assertTrue(lazy.getComponent().getState() == ProcessState.EXECUTION_SUCCEEDED);
+	}
+
+	@Test
+	public void testUnreachedNotMaterialized() throws InvalidProcessStateException {
+
+		CountingFactory factory = new CountingFactory();
+		SyncProcess proc = new SyncProcess();
+		proc.add(TestUtil.executionFailComponent(true));
+		proc.add(new LazyComponent<Void>(factory));
+
+		try {
+			proc.execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			// expected
+		}
+
+		assertEquals(0, factory.created.get());
+	}
+
+	@Test
+	public void testRollback() throws InvalidProcessStateException, ProcessExecutionException,
+			ProcessRollbackException {
+
+		CountingFactory factory = new CountingFactory();
+		LazyComponent<Void> lazy = new LazyComponent<Void>(factory);
+
+		lazy.execute();
+		lazy.rollback();
+
+		assertTrue(lazy.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertTrue(lazy.getComponent().getState() == ProcessState.ROLLBACK_SUCCEEDED);
+	}
+
+	@Test
+	public void testRelease() throws InvalidProcessStateException, ProcessExecutionException,
+			ProcessRollbackException {
+
+		CountingFactory factory = new CountingFactory();
+		LazyComponent<Void> lazy = new LazyComponent<Void>(factory);
+
+		try {
+			lazy.release();
+			fail("InvalidProcessStateException should have been thrown.");
+		} catch (InvalidProcessStateException ex) {
+			// expected
+		}
+
+		lazy.execute();
+		lazy.release();
+
+		assertFalse(lazy.isMaterialized());
+		assertNull(lazy.getComponent());
+		assertFalse(lazy.getRollbackRequired());
+		assertEquals(1.0, lazy.getProgress(), 0.0);
+
+		// committed, thus no rollback anymore
+		lazy.rollback();
+		assertTrue(lazy.getState() == ProcessState.EXECUTION_SUCCEEDED);
+	}
+
+	@Test
+	public void testReleaseOnSuccess() throws InvalidProcessStateException, ProcessExecutionException {
+
+		CountingFactory factory = new CountingFactory();
+		LazyComponent<Void> lazy = new LazyComponent<Void>(factory);
+		lazy.setReleaseOnSuccess(true);
+
+		lazy.execute();
+
+		assertEquals(1, factory.created.get());
+		assertFalse(lazy.isMaterialized());
+	}
+
+	@Test
+	public void testCancel() throws InvalidProcessStateException, ProcessExecutionException,
+			InterruptedException, TimeoutException {
+
+		final SyncProcess subtree = new SyncProcess();
+		StubbornStep stubborn = new StubbornStep();
+		ProcessComponent<Void> second = TestUtil.executionSuccessComponent(true);
+		subtree.add(stubborn);
+		subtree.add(second);
+		LazyComponent<Void> lazy = new LazyComponent<Void>(new IProcessComponentFactory<Void>() {
+
+			@Override
+			public IProcessComponent<Void> create() {
+				return subtree;
+			}
+		});
+
+		Future<Void> future = lazy.executeAsync();
+		assertTrue(stubborn.started.await(5, TimeUnit.SECONDS));
+		assertTrue(lazy.cancel(false));
+		stubborn.release.countDown();
+
+		// the cancellation reaches the materialized subtree
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			fail("ExecutionException should have been thrown.");
+		} catch (ExecutionException ex) {
+			assertTrue(ex.getCause() instanceof ProcessExecutionException);
+		}
+		assertTrue(lazy.getState() == ProcessState.EXECUTION_FAILED);
+		assertTrue(second.getState() == ProcessState.READY);
+	}
+
+	private static class CountingFactory implements IProcessComponentFactory<Void> {
+
+		private final AtomicInteger created = new AtomicInteger();
+
+		@Override
+		public IProcessComponent<Void> create() {
+			created.incrementAndGet();
+			return TestUtil.rollbackSuccessComponent();
+		}
+	}
+
+	/**
+	 * Ignores interrupts until it is released.
+	 */
+	private static class StubbornStep extends ProcessStep<Void> {
+
+		private final CountDownLatch started = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+			started.countDown();
+			while (true) {
+				try {
+					release.await();
+					return null;
+				} catch (InterruptedException ex) {
+					// ignored
+				}
+			}
+		}
+	}
+}
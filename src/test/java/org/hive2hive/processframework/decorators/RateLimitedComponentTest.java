@@ -0,0 +1,154 @@
+package org.hive2hive.processframework.decorators;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.hive2hive.processframework.BaseTest;
+import org.hive2hive.processframework.ProcessComponent;
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.composites.SyncProcess;
+import org.hive2hive.processframework.concurrent.TokenBucket;
+import org.hive2hive.processframework.decorators.RateLimitedComponent.Mode;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.utils.TestUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class RateLimitedComponentTest extends BaseTest {
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = RateLimitedComponentTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Test
+	public void testReject() throws InvalidProcessStateException, ProcessExecutionException,
+			InterruptedException, ExecutionException {
+
+		TokenBucket bucket = RateLimitedComponent.registerBucket("testReject", new TokenBucket(1, 1,
+				TimeUnit.HOURS, 2));
+		assertSame(bucket, RateLimitedComponent.getRegisteredBucket("testReject"));
+
+		new RateLimitedComponent<Void>(TestUtil.executionSuccessComponent(false), "testReject", Mode.REJECT)
+				.execute().get();
+		new RateLimitedComponent<Void>(TestUtil.executionSuccessComponent(false), "testReject", Mode.REJECT)
+				.execute().get();
+
+		// bucket is empty
+		ProcessComponent<Void> step = TestUtil.executionSuccessComponent(false);
+		try {
+			new RateLimitedComponent<Void>(step, "testReject", Mode.REJECT).execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			assertTrue(step.getState() == ProcessState.READY);
+		}
+	}
+
+	@Test
+	public void testRollbackAfterReject() throws InvalidProcessStateException, ProcessRollbackException {
+
+		TokenBucket bucket = new TokenBucket(1, 1, TimeUnit.HOURS, 1);
+		assertTrue(bucket.tryAcquire());
+
+		ProcessComponent<Void> first = TestUtil.executionSuccessComponent(true);
+		ProcessComponent<Void> step = TestUtil.executionSuccessComponent(true);
+		SyncProcess process = new SyncProcess();
+		process.add(first);
+		process.add(new RateLimitedComponent<Void>(step, bucket, Mode.REJECT));
+		try {
+			process.execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			assertTrue(step.getState() == ProcessState.READY);
+		}
+
+		// nothing has been submitted, thus only the preceding component is rolled back
+		process.rollback();
+		assertTrue(process.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertTrue(first.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		assertTrue(step.getState() == ProcessState.READY);
+	}
+
+	@Test
+	public void testDefer() throws InvalidProcessStateException, ProcessExecutionException {
+
+		TokenBucket bucket = new TokenBucket(1, 50, TimeUnit.MILLISECONDS, 1);
+		SyncProcess process = new SyncProcess();
+		RateLimitedComponent<Void> first = new RateLimitedComponent<Void>(
+				TestUtil.executionSuccessComponent(true), bucket, Mode.DEFER);
+		RateLimitedComponent<Void> second = new RateLimitedComponent<Void>(
+				TestUtil.executionSuccessComponent(true), bucket, Mode.DEFER);
+		RateLimitedComponent<Void> third = new RateLimitedComponent<Void>(
+				TestUtil.executionSuccessComponent(true), bucket, Mode.DEFER);
+		process.add(first);
+		process.add(second);
+		process.add(third);
+
+		long start = System.nanoTime();
+		process.execute();
+		long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertTrue(process.getState() == ProcessState.EXECUTION_SUCCEEDED);
+		assertFalse(first.isDeferred());
+		assertTrue(second.isDeferred());
+		assertTrue(third.isDeferred());
+		assertTrue(elapsedMs >= 80 && elapsedMs < 5000);
+	}
+
+	@Test
+	public void testMaxDeferral() throws InvalidProcessStateException, ProcessExecutionException {
+
+		TokenBucket bucket = new TokenBucket(1, 1, TimeUnit.HOURS, 1);
+		assertTrue(bucket.tryAcquire());
+
+		RateLimitedComponent<Void> limited = new RateLimitedComponent<Void>(
+				TestUtil.executionSuccessComponent(false), bucket, Mode.DEFER);
+		limited.setMaxDeferral(1, TimeUnit.SECONDS);
+		try {
+			limited.execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testCancelDeferred() throws InvalidProcessStateException, ProcessExecutionException,
+			InterruptedException {
+
+		TokenBucket bucket = new TokenBucket(1, 1, TimeUnit.HOURS, 1);
+		assertTrue(bucket.tryAcquire());
+
+		ProcessComponent<Void> step = TestUtil.executionSuccessComponent(false);
+		RateLimitedComponent<Void> limited = new RateLimitedComponent<Void>(step, bucket, Mode.DEFER);
+		Future<Void> result = limited.execute();
+		assertTrue(limited.isDeferred());
+		assertTrue(limited.cancel(false));
+
+		try {
+			result.get(5, TimeUnit.SECONDS);
+			fail("ExecutionException should have been thrown.");
+		} catch (ExecutionException ex) {
+			assertTrue(ex.getCause() instanceof ProcessExecutionException);
+		} catch (TimeoutException ex) {
+			fail("The deferred execution should have failed immediately.");
+		}
+		assertTrue(step.getState() == ProcessState.READY);
+	}
+}
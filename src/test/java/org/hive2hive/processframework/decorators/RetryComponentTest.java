@@ -0,0 +1,169 @@
+package org.hive2hive.processframework.decorators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hive2hive.processframework.BaseTest;
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.ProcessStep;
+import org.hive2hive.processframework.composites.SyncProcess;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.utils.TestUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class RetryComponentTest extends BaseTest {
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = RetryComponentTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Test
+	public void testRetryUntilSuccess() throws InvalidProcessStateException, ProcessExecutionException,
+			InterruptedException, ExecutionException {
+
+		FlakyStep step = new FlakyStep(2, new IOException("Peer unreachable."));
+		RetryComponent<Integer> retry = new RetryComponent<Integer>(step, new RetryPolicy(5, 10, 50,
+				TimeUnit.MILLISECONDS));
+
+		Future<Integer> result = retry.execute();
+		assertEquals(3, (int) result.get());
+		assertEquals(3, retry.getAttempts());
+		assertEquals(3, step.executions.get());
+
+		// failed attempts have been rolled back before the retry
+		assertEquals(2, step.rollbacks.get());
+		assertTrue(step.getState() == ProcessState.EXECUTION_SUCCEEDED);
+	}
+
+	@Test
+	public void testRetriesExhausted() throws InvalidProcessStateException, ProcessExecutionException,
+			InterruptedException {
+
+		FlakyStep step = new FlakyStep(Integer.MAX_VALUE, new IOException("Peer unreachable."));
+		RetryComponent<Integer> retry = new RetryComponent<Integer>(step, new RetryPolicy(3, 10, 10,
+				TimeUnit.MILLISECONDS));
+
+		try {
+			retry.execute().get();
+			fail("ExecutionException should have been thrown.");
+		} catch (ExecutionException ex) {
+			assertTrue(ex.getCause() instanceof ProcessExecutionException);
+		}
+		assertEquals(3, retry.getAttempts());
+		assertEquals(3, step.executions.get());
+		assertTrue(step.getState() == ProcessState.EXECUTION_FAILED);
+	}
+
+	@Test
+	public void testNotRetryable() throws InvalidProcessStateException, ProcessExecutionException,
+			InterruptedException {
+
+		RetryPolicy policy = new RetryPolicy(3, 10, 10, TimeUnit.MILLISECONDS);
+		policy.addRetryableException(IOException.class);
+		FlakyStep step = new FlakyStep(1, new IllegalStateException("Corrupt data."));
+		RetryComponent<Integer> retry = new RetryComponent<Integer>(step, policy);
+
+		try {
+			retry.execute().get();
+			fail("ExecutionException should have been thrown.");
+		} catch (ExecutionException ex) {
+			assertTrue(ex.getCause() instanceof ProcessExecutionException);
+		}
+		assertEquals(1, retry.getAttempts());
+	}
+
+	@Test
+	public void testRetryComposite() throws InvalidProcessStateException, ProcessExecutionException {
+
+		SyncProcess inner = new SyncProcess();
+		FlakyStep first = new FlakyStep(0, null);
+		FlakyStep second = new FlakyStep(1, new IOException("Peer unreachable."));
+		inner.add(first);
+		inner.add(second);
+
+		SyncProcess process = new SyncProcess();
+		process.add(new RetryComponent<Void>(inner, new RetryPolicy(2, 10, 10, TimeUnit.MILLISECONDS)));
+		process.execute();
+
+		// the composite has been rolled back and started over
+		assertTrue(process.getState() == ProcessState.EXECUTION_SUCCEEDED);
+		assertEquals(2, first.executions.get());
+		assertEquals(1, first.rollbacks.get());
+		assertEquals(2, second.executions.get());
+	}
+
+	@Test
+	public void testCancelDuringBackoff() throws InvalidProcessStateException, ProcessExecutionException,
+			InterruptedException {
+
+		FlakyStep step = new FlakyStep(1, new IOException("Peer unreachable."));
+		RetryComponent<Integer> retry = new RetryComponent<Integer>(step, new RetryPolicy(2, 1, 1,
+				TimeUnit.HOURS));
+
+		Future<Integer> result = retry.execute();
+		while (retry.getAttempts() < 1 || step.getState() != ProcessState.READY) {
+			TestUtil.waitFor(10);
+		}
+		assertTrue(retry.cancel(false));
+
+		long start = System.nanoTime();
+		try {
+			result.get();
+			fail("ExecutionException should have been thrown.");
+		} catch (ExecutionException ex) {
+			assertTrue(ex.getCause() instanceof ProcessExecutionException);
+		}
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+		assertEquals(1, retry.getAttempts());
+	}
+
+	/**
+	 * Fails the provided number of times, then returns the number of its executions.
+	 */
+	private static class FlakyStep extends ProcessStep<Integer> {
+
+		private final int failures;
+		private final Exception failure;
+		private final AtomicInteger executions = new AtomicInteger();
+		private final AtomicInteger rollbacks = new AtomicInteger();
+
+		private FlakyStep(int failures, Exception failure) {
+			this.failures = failures;
+			this.failure = failure;
+			setRequiresRollback(true);
+		}
+
+		@Override
+		protected Integer doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+			int execution = executions.incrementAndGet();
+			if (execution <= failures) {
+				throw new ProcessExecutionException(this, failure);
+			}
+			return execution;
+		}
+
+		@Override
+		protected Integer doRollback() throws InvalidProcessStateException, ProcessRollbackException {
+			rollbacks.incrementAndGet();
+			return null;
+		}
+	}
+}
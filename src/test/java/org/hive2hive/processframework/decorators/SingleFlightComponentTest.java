@@ -0,0 +1,217 @@
+package org.hive2hive.processframework.decorators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.hive2hive.processframework.BaseTest;
+import org.hive2hive.processframework.ProcessComponent;
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.composites.SyncProcess;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.utils.BlockingStep;
+import org.hive2hive.processframework.utils.TestUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class SingleFlightComponentTest extends BaseTest {
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = SingleFlightComponentTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Test
+	public void testCoalesce() throws InvalidProcessStateException, ProcessExecutionException,
+			InterruptedException, ExecutionException, TimeoutException {
+
+		SingleFlightGroup<String, Void> group = new SingleFlightGroup<String, Void>();
+		BlockingStep leading = new BlockingStep();
+		Future<Void> leader = new AsyncComponent<Void>(new SingleFlightComponent<String, Void>(leading, "key",
+				group)).execute();
+		assertTrue(leading.started.await(5, TimeUnit.SECONDS));
+
+		List<ProcessComponent<Void>> steps = new ArrayList<ProcessComponent<Void>>();
+		List<SingleFlightComponent<String, Void>> followers = new ArrayList<SingleFlightComponent<String, Void>>();
+		List<Future<Void>> results = new ArrayList<Future<Void>>();
+		for (int i = 0; i < 3; i++) {
+			ProcessComponent<Void> step = TestUtil.executionSuccessComponent(true);
+			SingleFlightComponent<String, Void> follower = new SingleFlightComponent<String, Void>(step, "key",
+					group);
+			steps.add(step);
+			followers.add(follower);
+			results.add(new AsyncComponent<Void>(follower).execute());
+		}
+		awaitCoalesced(group, 3);
+
+		leading.release.countDown();
+		leader.get(5, TimeUnit.SECONDS);
+		for (int i = 0; i < 3; i++) {
+			results.get(i).get(5, TimeUnit.SECONDS);
+			assertTrue(followers.get(i).isCoalesced());
+			assertTrue(steps.get(i).getState() == ProcessState.READY);
+		}
+		assertEquals(1, group.getExecutionCount());
+		assertEquals(0, group.getInFlightCount());
+
+		// completed executions are not shared
+		SingleFlightComponent<String, Void> later = new SingleFlightComponent<String, Void>(
+				TestUtil.executionSuccessComponent(false), "key", group);
+		later.execute();
+		assertFalse(later.isCoalesced());
+		assertEquals(2, group.getExecutionCount());
+	}
+
+	@Test
+	public void testSharedFailure() throws InvalidProcessStateException, ProcessExecutionException,
+			InterruptedException, TimeoutException {
+
+		SingleFlightGroup<String, Void> group = new SingleFlightGroup<String, Void>();
+		FailingStep leading = new FailingStep();
+		Future<Void> leader = new AsyncComponent<Void>(new SingleFlightComponent<String, Void>(leading, "key",
+				group)).execute();
+		assertTrue(leading.started.await(5, TimeUnit.SECONDS));
+
+		Future<Void> follower = new AsyncComponent<Void>(new SingleFlightComponent<String, Void>(
+				TestUtil.executionSuccessComponent(false), "key", group)).execute();
+		awaitCoalesced(group, 1);
+		leading.release.countDown();
+
+		List<Future<Void>> results = new ArrayList<Future<Void>>();
+		results.add(leader);
+		results.add(follower);
+		for (Future<Void> result : results) {
+			try {
+				result.get(5, TimeUnit.SECONDS);
+				fail("ExecutionException should have been thrown.");
+			} catch (ExecutionException ex) {
+				assertTrue(ex.getCause() instanceof ProcessExecutionException);
+			}
+		}
+	}
+
+	@Test
+	public void testLeaderCancelled() throws InvalidProcessStateException, ProcessExecutionException,
+			InterruptedException, ExecutionException, TimeoutException {
+
+		SingleFlightGroup<String, Void> group = new SingleFlightGroup<String, Void>();
+		BlockingStep leading = new BlockingStep();
+		AsyncComponent<Void> leader = new AsyncComponent<Void>(new SingleFlightComponent<String, Void>(leading,
+				"key", group));
+		leader.execute();
+		assertTrue(leading.started.await(5, TimeUnit.SECONDS));
+
+		ProcessComponent<Void> step = TestUtil.executionSuccessComponent(false);
+		SingleFlightComponent<String, Void> follower = new SingleFlightComponent<String, Void>(step, "key", group);
+		Future<Void> result = new AsyncComponent<Void>(follower).execute();
+		awaitCoalesced(group, 1);
+
+		// the follower takes over
+		assertTrue(leader.cancel(false));
+		result.get(5, TimeUnit.SECONDS);
+		assertFalse(follower.isCoalesced());
+		assertTrue(step.getState() == ProcessState.EXECUTION_SUCCEEDED);
+		assertEquals(2, group.getExecutionCount());
+	}
+
+	@Test
+	public void testCancelCoalesced() throws InvalidProcessStateException, ProcessExecutionException,
+			ProcessRollbackException, InterruptedException, ExecutionException, TimeoutException {
+
+		SingleFlightGroup<String, Void> group = new SingleFlightGroup<String, Void>();
+		BlockingStep leading = new BlockingStep();
+		Future<Void> leader = new AsyncComponent<Void>(new SingleFlightComponent<String, Void>(leading, "key",
+				group)).execute();
+		assertTrue(leading.started.await(5, TimeUnit.SECONDS));
+
+		ProcessComponent<Void> step = TestUtil.executionSuccessComponent(true);
+		SingleFlightComponent<String, Void> follower = new SingleFlightComponent<String, Void>(step, "key", group);
+		Future<Void> result = new AsyncComponent<Void>(follower).execute();
+		awaitCoalesced(group, 1);
+		assertTrue(follower.getState() == ProcessState.EXECUTING);
+
+		// the awaiting follower fails, its decorated component is not affected
+		assertTrue(follower.cancel(false));
+		try {
+			result.get(5, TimeUnit.SECONDS);
+			fail("ExecutionException should have been thrown.");
+		} catch (ExecutionException ex) {
+			assertTrue(ex.getCause() instanceof ProcessExecutionException);
+		}
+		assertTrue(follower.getState() == ProcessState.EXECUTION_FAILED);
+		assertFalse(step.isCancelled());
+		follower.rollback();
+		assertTrue(step.getState() == ProcessState.READY);
+
+		// the leader is not affected
+		leading.release.countDown();
+		leader.get(5, TimeUnit.SECONDS);
+		follower.execute();
+		assertTrue(step.getState() == ProcessState.EXECUTION_SUCCEEDED);
+	}
+
+	@Test
+	public void testResetAfterCoalesced() throws InvalidProcessStateException, ProcessExecutionException,
+			InterruptedException, ExecutionException, TimeoutException {
+
+		SingleFlightGroup<String, Void> group = new SingleFlightGroup<String, Void>();
+		BlockingStep leading = new BlockingStep();
+		Future<Void> leader = new AsyncComponent<Void>(new SingleFlightComponent<String, Void>(leading, "key",
+				group)).execute();
+		assertTrue(leading.started.await(5, TimeUnit.SECONDS));
+
+		ProcessComponent<Void> step = TestUtil.executionSuccessComponent(true);
+		SingleFlightComponent<String, Void> follower = new SingleFlightComponent<String, Void>(step, "key", group);
+		SyncProcess process = new SyncProcess();
+		process.add(follower);
+		Future<Void> result = new AsyncComponent<Void>(process).execute();
+		awaitCoalesced(group, 1);
+		leading.release.countDown();
+		leader.get(5, TimeUnit.SECONDS);
+		result.get(5, TimeUnit.SECONDS);
+		assertTrue(follower.isCoalesced());
+		assertTrue(follower.getState() == ProcessState.EXECUTION_SUCCEEDED);
+
+		// the coalesced follower is reset and leads the next execution
+		process.reset();
+		process.execute();
+		assertFalse(follower.isCoalesced());
+		assertTrue(step.getState() == ProcessState.EXECUTION_SUCCEEDED);
+	}
+
+	private static void awaitCoalesced(SingleFlightGroup<?, ?> group, int count) {
+		for (int i = 0; i < 100 && group.getCoalescedCount() < count; i++) {
+			TestUtil.waitFor(50);
+		}
+		assertEquals(count, group.getCoalescedCount());
+	}
+
+	/**
+	 * Fails once it is released.
+	 */
+	private static class FailingStep extends BlockingStep {
+
+		@Override
+		protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+			super.doExecute();
+			throw new ProcessExecutionException(this, "Released to fail.");
+		}
+	}
+}
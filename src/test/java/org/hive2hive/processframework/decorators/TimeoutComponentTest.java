@@ -0,0 +1,144 @@
+package org.hive2hive.processframework.decorators;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.processframework.BaseTest;
+import org.hive2hive.processframework.Deadline;
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.ProcessStep;
+import org.hive2hive.processframework.composites.SyncProcess;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.utils.TestUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TimeoutComponentTest extends BaseTest {
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = TimeoutComponentTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Test
+	public void testWithinTimeout() throws InvalidProcessStateException, ProcessExecutionException,
+			ProcessRollbackException {
+
+		TimeoutComponent<Void> timeout = new TimeoutComponent<Void>(TestUtil.rollbackSuccessComponent(), 1,
+				TimeUnit.SECONDS);
+		timeout.execute();
+
+		assertTrue(timeout.getState() == ProcessState.EXECUTION_SUCCEEDED);
+		assertFalse(timeout.isTimedOut());
+
+		// no interruption after completion
+		TestUtil.waitFor(50);
+		assertFalse(Thread.currentThread().isInterrupted());
+
+		timeout.rollback();
+		assertTrue(timeout.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+	}
+
+	@Test
+	public void testFailureWithinTimeout() throws InvalidProcessStateException {
+
+		TimeoutComponent<Void> timeout = new TimeoutComponent<Void>(TestUtil.executionFailComponent(true), 1,
+				TimeUnit.SECONDS);
+		try {
+			timeout.execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			assertFalse(timeout.isTimedOut());
+		}
+	}
+
+	@Test
+	public void testTimeout() throws InvalidProcessStateException, ProcessRollbackException {
+
+		HangingStep step = new HangingStep();
+		TimeoutComponent<Void> timeout = new TimeoutComponent<Void>(step, 50, TimeUnit.MILLISECONDS);
+
+		long start = System.nanoTime();
+		try {
+			timeout.execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			assertTrue(timeout.isTimedOut());
+		}
+		long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		assertTrue(elapsedMs >= 50 && elapsedMs < 5000);
+
+		// the interruption does not leak
+		assertFalse(Thread.currentThread().isInterrupted());
+		assertTrue(step.getState() == ProcessState.EXECUTION_FAILED);
+
+		timeout.rollback();
+		assertTrue(step.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+	}
+
+	@Test
+	public void testTimeoutInProcess() throws InvalidProcessStateException {
+
+		SyncProcess process = new SyncProcess();
+		process.add(TestUtil.executionSuccessComponent(true));
+		process.add(new TimeoutComponent<Void>(new HangingStep(), 50, TimeUnit.MILLISECONDS));
+		process.add(TestUtil.executionSuccessComponent(true));
+
+		try {
+			process.execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			assertTrue(process.getState() == ProcessState.EXECUTION_FAILED);
+		}
+	}
+
+	@Test
+	public void testDeadlineBudget() throws InvalidProcessStateException {
+
+		SyncProcess process = new SyncProcess();
+		TimeoutComponent<Void> timeout = new TimeoutComponent<Void>(new HangingStep(), 1, TimeUnit.HOURS);
+		process.add(timeout);
+		process.setDeadline(Deadline.after(50, TimeUnit.MILLISECONDS));
+
+		long start = System.nanoTime();
+		try {
+			process.execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			assertTrue(timeout.isTimedOut());
+		}
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+	}
+
+	private static class HangingStep extends ProcessStep<Void> {
+
+		private final CountDownLatch release = new CountDownLatch(1);
+
+		private HangingStep() {
+			setRequiresRollback(true);
+		}
+
+		@Override
+		protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+			try {
+				release.await();
+			} catch (InterruptedException ex) {
+				throw new ProcessExecutionException(this, ex);
+			}
+			return null;
+		}
+	}
+}
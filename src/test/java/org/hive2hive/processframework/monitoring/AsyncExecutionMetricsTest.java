@@ -0,0 +1,175 @@
+package org.hive2hive.processframework.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.processframework.BaseTest;
+import org.hive2hive.processframework.ProcessComponent;
+import org.hive2hive.processframework.decorators.AsyncComponent;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.utils.TestUtil;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AsyncExecutionMetricsTest extends BaseTest {
+
+	private AsyncExecutionMetrics metrics;
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = AsyncExecutionMetricsTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Before
+	public void attachMetrics() {
+		metrics = new AsyncExecutionMetrics();
+		AsyncComponent.attachAsyncMonitor(metrics);
+	}
+
+	@After
+	public void detachMetrics() {
+		AsyncComponent.detachAsyncMonitor(metrics);
+	}
+
+	@Test
+	public void testQueueWaitAndServiceTime() throws Exception {
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		final CountDownLatch gate = new CountDownLatch(1);
+		try {
+			// hold the single worker, such that both components are queued before any of them starts
+			executor.submit(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						gate.await();
+					} catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			});
+
+			CountDownLatch release = new CountDownLatch(1);
+			BlockingComponent blocking = new BlockingComponent(release);
+			Future<Void> first = new AsyncComponent<Void>(blocking, executor).execute();
+			Future<Void> second = new AsyncComponent<Void>(TestUtil.executionSuccessComponent(false), executor)
+					.execute();
+			assertEquals(2, metrics.getQueuedCount());
+
+			gate.countDown();
+			blocking.started.await();
+			assertEquals(1, metrics.getRunningCount());
+			assertEquals(1, metrics.getQueuedCount());
+
+			TestUtil.waitFor(50);
+			release.countDown();
+			first.get();
+			second.get();
+
+			assertEquals(0, metrics.getRunningCount());
+			assertEquals(0, metrics.getQueuedCount());
+			assertEquals(2, metrics.getPeakQueuedCount());
+			assertEquals(1, metrics.getPeakRunningCount());
+
+			// the blocking component ran for at least 50ms, the second one waited for as long
+			AsyncComponentMetrics blockingMetrics = metrics.getMetrics(BlockingComponent.class);
+			assertNotNull(blockingMetrics);
+			assertEquals(1, blockingMetrics.getSucceededCount());
+			assertTrue(blockingMetrics.getServiceTime().getMax() >= TimeUnit.MILLISECONDS.toNanos(50));
+
+			AsyncComponentMetrics secondMetrics = metrics.getMetrics(TestUtil.executionSuccessComponent(false)
+					.getClass());
+			assertNotNull(secondMetrics);
+			assertEquals(1, secondMetrics.getSubmittedCount());
+			assertTrue(secondMetrics.getQueueWait().getMax() >= TimeUnit.MILLISECONDS.toNanos(50));
+			assertTrue(metrics.getQueueWaitRatio() > 0.0);
+		} finally {
+			gate.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testRejection() throws Exception {
+
+		ExecutorService executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+				new SynchronousQueue<Runnable>());
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			BlockingComponent blocking = new BlockingComponent(release);
+			Future<Void> first = new AsyncComponent<Void>(blocking, executor).execute();
+			blocking.started.await();
+
+			try {
+				new AsyncComponent<Void>(new BlockingComponent(release), executor).execute();
+				fail("ProcessExecutionException should have been thrown.");
+			} catch (ProcessExecutionException ex) {
+				// expected
+			}
+
+			release.countDown();
+			first.get();
+
+			assertEquals(1, metrics.getRejectedCount());
+			assertEquals(0, metrics.getQueuedCount());
+			AsyncComponentMetrics blockingMetrics = metrics.getMetrics(BlockingComponent.class);
+			assertEquals(2, blockingMetrics.getSubmittedCount());
+			assertEquals(1, blockingMetrics.getRejectedCount());
+		} finally {
+			release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	private static class BlockingComponent extends ProcessComponent<Void> {
+
+		private final CountDownLatch started = new CountDownLatch(1);
+		private final CountDownLatch release;
+
+		private BlockingComponent(CountDownLatch release) {
+			this.release = release;
+		}
+
+		@Override
+		protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException ex) {
+				throw new ProcessExecutionException(this, ex);
+			}
+			return null;
+		}
+
+		@Override
+		protected Void doRollback() throws InvalidProcessStateException, ProcessRollbackException {
+			return null;
+		}
+
+		@Override
+		public double getProgress() {
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,170 @@
+package org.hive2hive.processframework.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hive2hive.processframework.BaseTest;
+import org.hive2hive.processframework.ProcessComponent;
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.composites.SyncProcess;
+import org.hive2hive.processframework.decorators.AsyncComponent;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.utils.TestUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CriticalPathAnalyzerTest extends BaseTest {
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = CriticalPathAnalyzerTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Test
+	public void testSlackAndContribution() {
+
+		// root [0, 100] runs A [0, 10], W [10, 11] (launching X [11, 90] async), B [11, 40] and C [40, 60]
+		List<Span> spans = new ArrayList<Span>();
+		Span root = span(spans, 1, 0, "root", false, 0, 100);
+		Span a = span(spans, 2, 1, "A", false, 0, 10);
+		Span w = span(spans, 3, 1, "W", false, 10, 11);
+		Span x = span(spans, 4, 3, "X", true, 11, 90);
+		Span b = span(spans, 5, 1, "B", false, 11, 40);
+		Span c = span(spans, 6, 1, "C", false, 40, 60);
+
+		List<CriticalPath> paths = CriticalPathAnalyzer.analyze(spans);
+		assertEquals(1, paths.size());
+		CriticalPath path = paths.get(0);
+		assertEquals(100, path.getDurationNanos());
+
+		assertTrue(path.getEntry(root).isCritical());
+		assertTrue(path.getEntry(a).isCritical());
+		assertTrue(path.getEntry(w).isCritical());
+		assertTrue(path.getEntry(x).isCritical());
+		assertFalse(path.getEntry(b).isCritical());
+		assertFalse(path.getEntry(c).isCritical());
+
+		// B and C could take 30 longer until they delay the root, which awaits X until 90
+		assertEquals(30, path.getEntry(b).getSlackNanos());
+		assertEquals(30, path.getEntry(c).getSlackNanos());
+		assertEquals(90, path.getEntry(w).getEffectiveEndNanos());
+
+		assertEquals(10, path.getEntry(root).getContributionNanos());
+		assertEquals(10, path.getEntry(a).getContributionNanos());
+		assertEquals(1, path.getEntry(w).getContributionNanos());
+		assertEquals(79, path.getEntry(x).getContributionNanos());
+		assertEquals(0, path.getEntry(b).getContributionNanos());
+
+		long total = 0;
+		for (CriticalPath.Entry entry : path.getCriticalEntries()) {
+			total += entry.getContributionNanos();
+		}
+		assertEquals(path.getDurationNanos(), total);
+	}
+
+	@Test
+	public void testSequencedSlackPropagates() {
+
+		// root [0, 50] runs A [0, 10] and W [10, 12] (launching X [12, 50] async) and B [12, 20]
+		// A delays X, thus is critical, while B only has to end before X
+		List<Span> spans = new ArrayList<Span>();
+		span(spans, 1, 0, "root", false, 0, 50);
+		Span a = span(spans, 2, 1, "A", false, 0, 10);
+		span(spans, 3, 1, "W", false, 10, 12);
+		span(spans, 4, 3, "X", true, 12, 50);
+		Span b = span(spans, 5, 1, "B", false, 12, 20);
+
+		CriticalPath path = CriticalPathAnalyzer.analyze(spans).get(0);
+		assertEquals(0, path.getEntry(a).getSlackNanos());
+		assertEquals(30, path.getEntry(b).getSlackNanos());
+	}
+
+	@Test
+	public void testTracedRun() throws InvalidProcessStateException, ProcessExecutionException {
+
+		SyncProcess root = new SyncProcess();
+		root.add(new AsyncComponent<Void>(new SleepingStep("slow", 200)));
+		root.add(new SleepingStep("fast", 10));
+
+		ProcessTracer tracer = new ProcessTracer();
+		ProcessComponent.attachMonitor(tracer);
+		try {
+			root.execute();
+		} finally {
+			ProcessComponent.detachMonitor(tracer);
+		}
+
+		List<CriticalPath> paths = CriticalPathAnalyzer.analyze(tracer.drainSpans());
+		assertEquals(1, paths.size());
+		CriticalPath path = paths.get(0);
+
+		Map<String, CriticalPath.Entry> byName = new HashMap<String, CriticalPath.Entry>();
+		for (CriticalPath.Entry entry : path.getEntries()) {
+			byName.put(entry.getSpan().getName(), entry);
+		}
+		assertTrue(byName.get("slow").isCritical());
+		assertTrue(byName.get("Async[slow]").isCritical());
+		assertFalse(byName.get("fast").isCritical());
+		assertTrue(byName.get("fast").getSlackNanos() > 0);
+		assertTrue(path.toString().contains("Slack:"));
+	}
+
+	@Test
+	public void testMissingRoot() {
+
+		List<Span> spans = new ArrayList<Span>();
+		span(spans, 2, 1, "orphan", false, 0, 10);
+		assertTrue(CriticalPathAnalyzer.analyze(spans).isEmpty());
+	}
+
+	private static Span span(List<Span> spans, long spanId, long parentSpanId, String name, boolean isAsync,
+			long start, long end) {
+		ProcessComponent<Void> component = TestUtil.executionSuccessComponent(false);
+		component.setName(name);
+		Span span = new Span(1, spanId, parentSpanId, component, false, isAsync, start);
+		span.finish(ProcessState.EXECUTION_SUCCEEDED, end);
+		spans.add(span);
+		return span;
+	}
+
+	private static class SleepingStep extends ProcessComponent<Void> {
+
+		private final int millis;
+
+		private SleepingStep(String name, int millis) {
+			super(name);
+			this.millis = millis;
+		}
+
+		@Override
+		protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+			TestUtil.waitFor(millis);
+			return null;
+		}
+
+		@Override
+		protected Void doRollback() throws InvalidProcessStateException, ProcessRollbackException {
+			return null;
+		}
+
+		@Override
+		public double getProgress() {
+			return 0;
+		}
+	}
+}
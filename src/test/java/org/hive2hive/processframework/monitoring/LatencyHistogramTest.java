@@ -0,0 +1,81 @@
+package org.hive2hive.processframework.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.hive2hive.processframework.BaseTest;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class LatencyHistogramTest extends BaseTest {
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = LatencyHistogramTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Test
+	public void testBuckets() {
+
+		long[] values = { 0, 1, 31, 32, 33, 63, 64, 1000, 123456789, Long.MAX_VALUE };
+		for (long value : values) {
+			int index = LatencyHistogram.bucketIndex(value);
+			long highest = LatencyHistogram.highestEquivalentValue(index);
+			assertTrue(highest >= value);
+			assertTrue(highest - value <= value / 32);
+		}
+	}
+
+	@Test
+	public void testPercentiles() {
+
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getValueAtPercentile(50.0));
+
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i * 1000000L);
+		}
+
+		assertEquals(1000, histogram.getCount());
+		assertEquals(1000000000L, histogram.getMax());
+		assertEquals(500500000.0, histogram.getMean(), 1.0);
+		assertWithinError(500000000L, histogram.getValueAtPercentile(50.0));
+		assertWithinError(990000000L, histogram.getValueAtPercentile(99.0));
+		assertWithinError(999000000L, histogram.getValueAtPercentile(99.9));
+		assertEquals(1000000000L, histogram.getValueAtPercentile(100.0));
+	}
+
+	@Test
+	public void testMerge() {
+
+		LatencyHistogram fast = new LatencyHistogram();
+		LatencyHistogram slow = new LatencyHistogram();
+		for (int i = 0; i < 99; i++) {
+			fast.record(1000L);
+		}
+		slow.record(1000000L);
+
+		LatencyHistogram merged = fast.copy();
+		merged.add(slow);
+
+		assertEquals(100, merged.getCount());
+		assertEquals(1000000L, merged.getMax());
+		assertWithinError(1000L, merged.getValueAtPercentile(99.0));
+		assertWithinError(1000000L, merged.getValueAtPercentile(99.9));
+
+		merged.reset();
+		assertEquals(0, merged.getCount());
+	}
+
+	private static void assertWithinError(long expected, long actual) {
+		assertTrue(String.format("Expected %s but was %s.", expected, actual),
+				Math.abs(actual - expected) <= expected / 32);
+	}
+}
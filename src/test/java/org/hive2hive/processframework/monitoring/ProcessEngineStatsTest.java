@@ -0,0 +1,185 @@
+package org.hive2hive.processframework.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.hive2hive.processframework.BaseTest;
+import org.hive2hive.processframework.ProcessComponent;
+import org.hive2hive.processframework.composites.SyncProcess;
+import org.hive2hive.processframework.decorators.AsyncComponent;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.utils.TestUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ProcessEngineStatsTest extends BaseTest {
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = ProcessEngineStatsTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Test
+	public void testCounters() throws InvalidProcessStateException, ProcessRollbackException {
+
+		ProcessEngineStats stats = new ProcessEngineStats();
+		ProcessComponent.attachMonitor(stats);
+		try {
+			SyncProcess proc = TestUtil.executionFailSyncProcess();
+			try {
+				proc.execute();
+				fail("ProcessExecutionException should have been thrown.");
+			} catch (ProcessExecutionException ex) {
+				// expected
+			}
+			proc.rollback();
+		} finally {
+			ProcessComponent.detachMonitor(stats);
+		}
+
+		// process and its 3 children
+		assertEquals(4, stats.getStartedExecutions());
+		assertEquals(2, stats.getSucceededExecutions());
+		assertEquals(2, stats.getFailedExecutions());
+		assertEquals(stats.getStartedRollbacks(), stats.getSucceededRollbacks());
+		assertEquals(0, stats.getExecutingCount());
+		assertEquals(0, stats.getRollbackingCount());
+
+		stats.resetCounters();
+		assertEquals(0, stats.getStartedExecutions());
+	}
+
+	@Test
+	public void testGaugesAndDump() throws Exception {
+
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		ProcessComponent<Void> blocking = new ProcessComponent<Void>("Blocking") {
+
+			@Override
+			protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException ex) {
+					throw new ProcessExecutionException(this, ex);
+				}
+				return null;
+			}
+
+			@Override
+			protected Void doRollback() throws InvalidProcessStateException, ProcessRollbackException {
+				return null;
+			}
+
+			@Override
+			public double getProgress() {
+				return 0;
+			}
+		};
+
+		ProcessEngineStats stats = new ProcessEngineStats();
+		ProcessComponent.attachMonitor(stats);
+		try {
+			Future<Void> future = new AsyncComponent<Void>(blocking).execute();
+			started.await();
+
+			// the AsyncComponent itself returns immediately
+			assertEquals(1, stats.getExecutingCount());
+			assertTrue(stats.getAsyncActiveThreads() >= 1);
+			assertTrue(stats.getAsyncThreadUtilization() > 0.0);
+
+			String[] dump = stats.dumpSlowestRunning(1);
+			assertEquals(1, dump.length);
+			assertTrue(dump[0].startsWith("Blocking"));
+
+			release.countDown();
+			future.get();
+			assertEquals(0, stats.getExecutingCount());
+		} finally {
+			release.countDown();
+			ProcessComponent.detachMonitor(stats);
+		}
+	}
+
+	@Test
+	public void testRegister() throws Exception {
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(ProcessEngineStats.DEFAULT_OBJECT_NAME);
+
+		ProcessEngineStats stats = new ProcessEngineStats();
+		stats.register();
+		try {
+			assertTrue(server.isRegistered(name));
+			assertTrue(ProcessComponent.getMonitors().contains(stats));
+
+			TestUtil.executionSuccessComponent(false).execute();
+			assertEquals(1L, server.getAttribute(name, "StartedExecutions"));
+		} finally {
+			stats.unregister();
+		}
+
+		assertTrue(!server.isRegistered(name));
+		assertTrue(!ProcessComponent.getMonitors().contains(stats));
+	}
+
+	@Test
+	public void testAsyncQueueDepth() throws Exception {
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(ProcessEngineStats.DEFAULT_OBJECT_NAME + ",name=queueDepth");
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		final CountDownLatch gate = new CountDownLatch(1);
+
+		ProcessEngineStats stats = new ProcessEngineStats(executor);
+		stats.register(server, name);
+		try {
+			// hold the single worker, such that the components have to wait for it
+			executor.submit(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						gate.await();
+					} catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			});
+			Future<Void> first = new AsyncComponent<Void>(TestUtil.executionSuccessComponent(false), executor)
+					.execute();
+			Future<Void> second = new AsyncComponent<Void>(TestUtil.executionSuccessComponent(false), executor)
+					.execute();
+			assertEquals(2, stats.getAsyncQueueDepth());
+
+			gate.countDown();
+			first.get();
+			second.get();
+			assertEquals(0, stats.getAsyncQueueDepth());
+		} finally {
+			gate.countDown();
+			stats.unregister(server);
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package org.hive2hive.processframework.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.hive2hive.processframework.BaseTest;
+import org.hive2hive.processframework.ProcessComponent;
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.composites.SyncProcess;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.monitoring.ProcessMetrics.GroupBy;
+import org.hive2hive.processframework.utils.TestUtil;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ProcessMetricsTest extends BaseTest {
+
+	private ProcessMetrics metrics;
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = ProcessMetricsTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Before
+	public void attachMetrics() {
+		metrics = new ProcessMetrics(GroupBy.NAME);
+		ProcessComponent.attachMonitor(metrics);
+	}
+
+	@After
+	public void detachMetrics() {
+		ProcessComponent.detachMonitor(metrics);
+	}
+
+	@Test
+	public void testExecutionAndRollback() throws InvalidProcessStateException, ProcessRollbackException {
+
+		SyncProcess proc = TestUtil.executionFailSyncProcess();
+		proc.setName("P");
+		proc.getComponent(0).setName("C");
+		proc.getComponent(1).setName("C");
+		proc.getComponent(2).setName("F");
+
+		try {
+			proc.execute();
+			fail("ProcessExecutionException should have been thrown.");
+		} catch (ProcessExecutionException ex) {
+			// expected
+		}
+		proc.rollback();
+
+		ComponentMetrics parent = metrics.getMetrics("P");
+		assertEquals(0, parent.getExecutionSucceededCount());
+		assertEquals(1, parent.getExecutionFailedCount());
+		assertEquals(1, parent.getRollbackSucceededCount());
+
+		ComponentMetrics children = metrics.getMetrics("C");
+		assertEquals(2, children.getExecutionSucceededCount());
+		assertEquals(2, children.getExecutionLatency().getCount());
+		assertEquals(2, children.getRollbackSucceededCount());
+
+		ComponentMetrics failing = metrics.getMetrics("F");
+		assertEquals(1, failing.getExecutionFailedCount());
+
+		assertTrue(parent.getExecutionLatency().getMax() >= children.getExecutionLatency().getMax());
+	}
+
+	@Test
+	public void testPause() throws InvalidProcessStateException {
+
+		ProcessComponent<Void> comp = TestUtil.executionSuccessComponent(true);
+		comp.setName("C");
+		TestUtil.setState(comp, ProcessState.EXECUTING);
+		comp.pause();
+
+		assertEquals(1, metrics.getMetrics("C").getPausedCount());
+	}
+
+	@Test
+	public void testGroupByClass() throws InvalidProcessStateException, ProcessExecutionException {
+
+		ProcessMetrics byClass = new ProcessMetrics();
+		ProcessComponent.attachMonitor(byClass);
+		try {
+			TestUtil.executionSuccessSyncProcess().execute();
+		} finally {
+			ProcessComponent.detachMonitor(byClass);
+		}
+
+		ComponentMetrics syncProcess = byClass.getMetrics(SyncProcess.class);
+		assertNotNull(syncProcess);
+		assertEquals(1, syncProcess.getExecutionSucceededCount());
+
+		ProcessMetrics merged = new ProcessMetrics();
+		merged.add(byClass);
+		merged.add(byClass);
+		assertEquals(2, merged.getMetrics(SyncProcess.class).getExecutionSucceededCount());
+	}
+}
@@ -0,0 +1,135 @@
+package org.hive2hive.processframework.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.processframework.BaseTest;
+import org.hive2hive.processframework.ProcessComponent;
+import org.hive2hive.processframework.ProcessStep;
+import org.hive2hive.processframework.composites.SyncProcess;
+import org.hive2hive.processframework.decorators.AsyncComponent;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.utils.TestUtil;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ProcessProfilerTest extends BaseTest {
+
+	private ProcessProfiler profiler;
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = ProcessProfilerTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Before
+	public void attachProfiler() {
+		profiler = new ProcessProfiler();
+		ProcessComponent.attachMonitor(profiler);
+	}
+
+	@After
+	public void detachProfiler() {
+		ProcessComponent.detachMonitor(profiler);
+	}
+
+	@Test
+	public void testAggregationAcrossRuns() throws InvalidProcessStateException, ProcessExecutionException,
+			ProcessRollbackException {
+
+		for (int i = 0; i < 2; i++) {
+			createProcess().execute();
+		}
+
+		ProfileEntry root = profiler.getPathEntry("SyncProcess");
+		ProfileEntry sync = profiler.getPathEntry("SyncProcess>SyncProcess");
+		ProfileEntry nested = profiler.getPathEntry("SyncProcess>SyncProcess>PutChunk");
+		ProfileEntry async = profiler.getPathEntry("SyncProcess>Async[PutChunk]");
+		assertNotNull(root);
+		assertNotNull(sync);
+		assertNotNull(nested);
+		assertNotNull(async);
+		assertEquals(2, root.getCount());
+		assertEquals(2, async.getCount());
+
+		// the root spent its child time in the nested synchronous process only
+		assertEquals(sync.getTotalNanos(), root.getChildNanos());
+		assertEquals(nested.getTotalNanos(), sync.getChildNanos());
+		assertTrue(nested.getSelfNanos() >= TimeUnit.MILLISECONDS.toNanos(2 * 5));
+
+		// per class, both chunk uploads are accumulated
+		ProfileEntry putChunk = profiler.getClassEntry(PutChunk.class);
+		assertEquals(4, putChunk.getCount());
+		assertEquals(nested.getTotalNanos() + async.getTotalNanos(), putChunk.getTotalNanos());
+		assertEquals(putChunk.getTotalNanos(), putChunk.getSelfNanos());
+
+		profiler.reset();
+		assertTrue(profiler.getPathEntries().isEmpty());
+	}
+
+	@Test
+	public void testRollbackPath() throws InvalidProcessStateException, ProcessExecutionException,
+			ProcessRollbackException {
+
+		SyncProcess process = TestUtil.executionSuccessSyncProcess();
+		process.execute();
+		process.rollback();
+
+		ProfileEntry rollback = profiler.getPathEntry("SyncProcess(rollback)");
+		assertNotNull(rollback);
+		assertEquals(1, rollback.getCount());
+		assertEquals(1, profiler.getPathEntry("SyncProcess").getCount());
+	}
+
+	@Test
+	public void testCollapsedStacks() throws InvalidProcessStateException, ProcessExecutionException,
+			IOException {
+
+		createProcess().execute();
+
+		StringWriter writer = new StringWriter();
+		profiler.exportCollapsedStacks(writer, TimeUnit.MICROSECONDS);
+		String collapsed = writer.toString();
+
+		assertTrue(collapsed.contains("SyncProcess;SyncProcess;PutChunk "));
+		assertTrue(collapsed.contains("SyncProcess;Async[PutChunk] "));
+		for (String line : collapsed.split("\n")) {
+			assertTrue(line.matches("[^ ]+ \\d+"));
+		}
+	}
+
+	private static SyncProcess createProcess() {
+		SyncProcess upload = new SyncProcess();
+		upload.add(new PutChunk());
+
+		SyncProcess process = new SyncProcess();
+		process.add(upload);
+		process.add(new AsyncComponent<Void>(new PutChunk()));
+		return process;
+	}
+
+	private static class PutChunk extends ProcessStep<Void> {
+
+		@Override
+		protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+			TestUtil.waitFor(5);
+			return null;
+		}
+	}
+}
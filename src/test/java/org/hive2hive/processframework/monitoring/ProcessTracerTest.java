@@ -0,0 +1,124 @@
+package org.hive2hive.processframework.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hive2hive.processframework.BaseTest;
+import org.hive2hive.processframework.ProcessComponent;
+import org.hive2hive.processframework.composites.SyncProcess;
+import org.hive2hive.processframework.decorators.AsyncComponent;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+import org.hive2hive.processframework.utils.TestUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ProcessTracerTest extends BaseTest {
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = ProcessTracerTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Test
+	public void testHierarchy() throws InvalidProcessStateException, ProcessExecutionException {
+
+		SyncProcess root = new SyncProcess();
+		root.setName("root");
+		IProcessComponent<Void> syncChild = TestUtil.executionSuccessComponent(true);
+		syncChild.setName("sync");
+		IProcessComponent<Void> asyncChild = TestUtil.executionSuccessComponent(true);
+		asyncChild.setName("async");
+		root.add(syncChild);
+		root.add(new AsyncComponent<Void>(asyncChild));
+
+		List<Span> spans = trace(new ProcessTracer(), root);
+		assertEquals(4, spans.size());
+
+		Map<String, Span> byName = new HashMap<String, Span>();
+		for (Span span : spans) {
+			byName.put(span.getName(), span);
+		}
+		Span rootSpan = byName.get("root");
+		Span syncSpan = byName.get("sync");
+		Span asyncSpan = byName.get("Async[async]");
+		Span asyncChildSpan = byName.get("async");
+		assertNotNull(rootSpan);
+		assertNotNull(syncSpan);
+		assertNotNull(asyncSpan);
+		assertNotNull(asyncChildSpan);
+
+		assertTrue(rootSpan.isRoot());
+		assertEquals(rootSpan.getSpanId(), syncSpan.getParentSpanId());
+		assertEquals(rootSpan.getSpanId(), asyncSpan.getParentSpanId());
+		assertEquals(asyncSpan.getSpanId(), asyncChildSpan.getParentSpanId());
+		assertFalse(syncSpan.isAsync());
+		assertTrue(asyncChildSpan.isAsync());
+		for (Span span : spans) {
+			assertEquals(rootSpan.getTraceId(), span.getTraceId());
+		}
+		assertTrue(rootSpan.getEndNanos() >= asyncChildSpan.getEndNanos());
+	}
+
+	@Test
+	public void testSampling() throws InvalidProcessStateException, ProcessExecutionException {
+
+		ProcessTracer tracer = new ProcessTracer(0.0);
+		assertTrue(trace(tracer, TestUtil.executionSuccessSyncProcess()).isEmpty());
+	}
+
+	@Test
+	public void testMaxSpans() throws InvalidProcessStateException, ProcessExecutionException {
+
+		ProcessTracer tracer = new ProcessTracer(1.0, 2);
+		List<Span> spans = trace(tracer, TestUtil.executionSuccessSyncProcess());
+
+		assertEquals(2, spans.size());
+		assertEquals(2, tracer.getDroppedCount());
+	}
+
+	@Test
+	public void testChromeExport() throws InvalidProcessStateException, ProcessExecutionException, IOException {
+
+		SyncProcess root = TestUtil.executionSuccessSyncProcess();
+		root.setName("root \"quoted\"");
+		List<Span> spans = trace(new ProcessTracer(), root);
+
+		StringWriter writer = new StringWriter();
+		ChromeTraceExporter.export(spans, writer);
+		String json = writer.toString();
+
+		assertTrue(json.startsWith("{"));
+		assertTrue(json.contains("\"traceEvents\":["));
+		assertTrue(json.contains("\"name\":\"root \\\"quoted\\\"\""));
+		assertTrue(json.contains("\"ph\":\"X\""));
+		assertTrue(json.trim().endsWith("]}"));
+	}
+
+	private static List<Span> trace(ProcessTracer tracer, IProcessComponent<?> component)
+			throws InvalidProcessStateException, ProcessExecutionException {
+		ProcessComponent.attachMonitor(tracer);
+		try {
+			component.execute();
+		} finally {
+			ProcessComponent.detachMonitor(tracer);
+		}
+		return tracer.drainSpans();
+	}
+}
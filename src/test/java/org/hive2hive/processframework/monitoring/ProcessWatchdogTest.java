@@ -0,0 +1,229 @@
+package org.hive2hive.processframework.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.hive2hive.processframework.BaseTest;
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.ProcessStep;
+import org.hive2hive.processframework.composites.SyncProcess;
+import org.hive2hive.processframework.decorators.AsyncComponent;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.monitoring.ProcessWatchdog.StallAction;
+import org.hive2hive.processframework.utils.TestUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ProcessWatchdogTest extends BaseTest {
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = ProcessWatchdogTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Test
+	public void testDetection() throws Exception {
+
+		ProcessWatchdog watchdog = new ProcessWatchdog(50, TimeUnit.MILLISECONDS);
+		watchdog.start(10, TimeUnit.MILLISECONDS);
+		HangingStep step = new HangingStep();
+		try {
+			SyncProcess process = new SyncProcess();
+			process.add(step);
+			Future<Void> future = new AsyncComponent<Void>(process).execute();
+			step.started.await();
+
+			// only the leaf is watched
+			assertEquals(1, watchdog.getWatchedCount());
+			waitForStall(watchdog, 1);
+			assertEquals(1, watchdog.getStalledComponents().size());
+			assertTrue(watchdog.getStalledComponents().get(0) == step);
+
+			// logged and counted once only
+			TestUtil.waitFor(50);
+			assertEquals(1, watchdog.getStalledCount());
+
+			step.release.countDown();
+			future.get();
+			assertEquals(0, watchdog.getWatchedCount());
+		} finally {
+			step.release.countDown();
+			watchdog.stop();
+		}
+	}
+
+	@Test
+	public void testPerClassThreshold() throws Exception {
+
+		ProcessWatchdog watchdog = new ProcessWatchdog(1, TimeUnit.HOURS);
+		watchdog.setThreshold(HangingStep.class, 50, TimeUnit.MILLISECONDS, StallAction.NONE);
+		watchdog.start(10, TimeUnit.MILLISECONDS);
+		HangingStep step = new HangingStep();
+		try {
+			Future<Void> future = new AsyncComponent<Void>(step).execute();
+			step.started.await();
+			waitForStall(watchdog, 1);
+
+			step.release.countDown();
+			future.get();
+		} finally {
+			step.release.countDown();
+			watchdog.stop();
+		}
+	}
+
+	@Test
+	public void testCancel() throws Exception {
+
+		ProcessWatchdog watchdog = new ProcessWatchdog(50, TimeUnit.MILLISECONDS, StallAction.CANCEL);
+		watchdog.start(10, TimeUnit.MILLISECONDS);
+		HangingStep step = new HangingStep();
+		try {
+			Future<Void> future = new AsyncComponent<Void>(step).execute();
+			try {
+				future.get(5, TimeUnit.SECONDS);
+				fail("ExecutionException should have been thrown.");
+			} catch (ExecutionException ex) {
+				assertTrue(ex.getCause() instanceof ProcessExecutionException);
+			}
+			assertTrue(step.getState() == ProcessState.EXECUTION_FAILED);
+		} finally {
+			watchdog.stop();
+		}
+	}
+
+	@Test
+	public void testPause() throws Exception {
+
+		ProcessWatchdog watchdog = new ProcessWatchdog(50, TimeUnit.MILLISECONDS, StallAction.PAUSE);
+		watchdog.start(10, TimeUnit.MILLISECONDS);
+		HangingStep step = new HangingStep();
+		try {
+			Future<Void> future = new AsyncComponent<Void>(step).execute();
+			step.started.await();
+			waitForStall(watchdog, 1);
+
+			// the stall is counted before the component is paused
+			for (int i = 0; i < 100 && step.getState() != ProcessState.PAUSED; i++) {
+				TestUtil.waitFor(10);
+			}
+			assertTrue(step.getState() == ProcessState.PAUSED);
+			assertEquals(0, watchdog.getWatchedCount());
+
+			step.release.countDown();
+			future.get();
+		} finally {
+			step.release.countDown();
+			watchdog.stop();
+		}
+	}
+
+	@Test
+	public void testRollback() throws Exception {
+
+		ProcessWatchdog watchdog = new ProcessWatchdog(50, TimeUnit.MILLISECONDS, StallAction.ROLLBACK);
+		watchdog.start(10, TimeUnit.MILLISECONDS);
+		HangingStep step = new HangingStep();
+		try {
+			Future<Void> future = new AsyncComponent<Void>(step).execute();
+			try {
+				future.get(5, TimeUnit.SECONDS);
+				fail("ExecutionException should have been thrown.");
+			} catch (ExecutionException ex) {
+				// expected
+			}
+
+			for (int i = 0; i < 100 && step.getState() != ProcessState.ROLLBACK_SUCCEEDED; i++) {
+				TestUtil.waitFor(10);
+			}
+			assertTrue(step.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+		} finally {
+			watchdog.stop();
+		}
+	}
+
+	@Test
+	public void testStalledRollbackInterrupt() throws Exception {
+
+		ProcessWatchdog watchdog = new ProcessWatchdog(50, TimeUnit.MILLISECONDS, StallAction.ROLLBACK);
+		watchdog.start(10, TimeUnit.MILLISECONDS);
+		StallingRollbackStep step = new StallingRollbackStep();
+		try {
+			step.execute();
+			step.rollback();
+
+			assertTrue(step.getState() == ProcessState.ROLLBACK_SUCCEEDED);
+			assertEquals(1, watchdog.getStalledCount());
+			// the interruption does not leak to the caller of the completed rollback
+			assertFalse(Thread.interrupted());
+		} finally {
+			watchdog.stop();
+		}
+	}
+
+	private static void waitForStall(ProcessWatchdog watchdog, long count) {
+		for (int i = 0; i < 100 && watchdog.getStalledCount() < count; i++) {
+			TestUtil.waitFor(10);
+		}
+		assertEquals(count, watchdog.getStalledCount());
+	}
+
+	private static class HangingStep extends ProcessStep<Void> {
+
+		private final CountDownLatch started = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+
+		private HangingStep() {
+			setRequiresRollback(true);
+		}
+
+		@Override
+		protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException ex) {
+				throw new ProcessExecutionException(this, ex);
+			}
+			return null;
+		}
+	}
+
+	private static class StallingRollbackStep extends ProcessStep<Void> {
+
+		private StallingRollbackStep() {
+			setRequiresRollback(true);
+		}
+
+		@Override
+		protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+			return null;
+		}
+
+		@Override
+		protected Void doRollback() throws InvalidProcessStateException, ProcessRollbackException {
+			// completes once interrupted, but leaves the interruption pending
+			for (int i = 0; i < 500 && !Thread.currentThread().isInterrupted(); i++) {
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+			}
+			return null;
+		}
+	}
+}
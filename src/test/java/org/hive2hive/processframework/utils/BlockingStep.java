@@ -0,0 +1,31 @@
+package org.hive2hive.processframework.utils;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.hive2hive.processframework.ProcessStep;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+
+/**
+ * Blocks its execution until it is released or interrupted for testing purposes.
+ */
+public class BlockingStep extends ProcessStep<Void> {
+
+	public final CountDownLatch started = new CountDownLatch(1);
+	public final CountDownLatch release = new CountDownLatch(1);
+
+	public BlockingStep() {
+		setRequiresRollback(true);
+	}
+
+	@Override
+	protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+		started.countDown();
+		try {
+			release.await();
+		} catch (InterruptedException ex) {
+			throw new ProcessExecutionException(this, ex);
+		}
+		return null;
+	}
+}
@@ -0,0 +1,112 @@
+package org.hive2hive.processframework.monitoring.jfr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.hive2hive.processframework.BaseTest;
+import org.hive2hive.processframework.ProcessComponent;
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.composites.SyncProcess;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.interfaces.IProcessMonitor;
+import org.hive2hive.processframework.utils.TestUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class JfrProcessMonitorTest extends BaseTest {
+
+	@BeforeClass
+	public static void initTest() throws Exception {
+		testClass = JfrProcessMonitorTest.class;
+		beforeClass();
+	}
+
+	@AfterClass
+	public static void endTest() {
+		afterClass();
+	}
+
+	@Test
+	public void testEvents() throws IOException, InvalidProcessStateException, ProcessExecutionException,
+			ProcessRollbackException {
+
+		assertTrue(JfrProcessMonitor.register());
+		try {
+			// not attached without a running recording
+			assertFalse(isAttached());
+
+			Recording recording = new Recording();
+			recording.enable("org.hive2hive.processframework.Execution");
+			recording.enable("org.hive2hive.processframework.Rollback");
+			recording.enable("org.hive2hive.processframework.Pause");
+			recording.start();
+			assertTrue(isAttached());
+
+			SyncProcess proc = TestUtil.rollbackSuccessSyncProcess();
+			proc.setName("root");
+			proc.execute();
+			proc.rollback();
+
+			ProcessComponent<Void> paused = TestUtil.executionSuccessComponent(true);
+			TestUtil.setState(paused, ProcessState.EXECUTING);
+			paused.pause();
+
+			recording.stop();
+			assertFalse(isAttached());
+
+			File file = File.createTempFile("process", ".jfr");
+			file.deleteOnExit();
+			recording.dump(file.toPath());
+			recording.close();
+
+			int executions = 0;
+			int rollbacks = 0;
+			int pauses = 0;
+			boolean foundRoot = false;
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file.toPath());
+			for (RecordedEvent event : events) {
+				String name = event.getEventType().getName();
+				if (name.equals("org.hive2hive.processframework.Execution")) {
+					executions++;
+					if ("root".equals(event.getString("componentName"))) {
+						foundRoot = true;
+						assertEquals("EXECUTION_SUCCEEDED", event.getString("outcome"));
+					} else {
+						assertEquals(proc.getID(), event.getString("parentId"));
+					}
+				} else if (name.equals("org.hive2hive.processframework.Rollback")) {
+					rollbacks++;
+				} else if (name.equals("org.hive2hive.processframework.Pause")) {
+					pauses++;
+				}
+			}
+			assertEquals(4, executions);
+			assertEquals(4, rollbacks);
+			assertEquals(1, pauses);
+			assertTrue(foundRoot);
+		} finally {
+			JfrProcessMonitor.unregister();
+		}
+	}
+
+	private static boolean isAttached() {
+		for (IProcessMonitor monitor : ProcessComponent.getMonitors()) {
+			if (monitor instanceof JfrProcessMonitor) {
+				return true;
+			}
+		}
+		return false;
+	}
+}